@@ -41,9 +41,7 @@
  */
 package org.gephi.datalab.impl;
 
-import com.csvreader.CsvReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.reflect.Array;
@@ -77,6 +75,7 @@ import org.gephi.graph.api.TimeFormat;
 import org.gephi.graph.api.TimeRepresentation;
 import org.gephi.graph.api.types.IntervalMap;
 import org.gephi.graph.api.types.TimestampMap;
+import org.gephi.utils.CSVRecordReader;
 import org.gephi.utils.StatisticsUtils;
 import org.joda.time.DateTimeZone;
 import org.openide.util.Exceptions;
@@ -627,7 +626,7 @@ public class AttributeColumnsControllerImpl implements AttributeColumnsControlle
             throw new IllegalArgumentException("Column names length must be the same as column types length");
         }
 
-        CsvReader reader = null;
+        CSVRecordReader reader = null;
         graph.writeLock();
         try {
             //Prepare attribute columns for the column names, creating the not already existing columns:
@@ -657,8 +656,7 @@ public class AttributeColumnsControllerImpl implements AttributeColumnsControlle
             GraphElementsController gec = Lookup.getDefault().lookup(GraphElementsController.class);
             String id;
             Node node;
-            reader = new CsvReader(new FileInputStream(file), separator, charset);
-            reader.setTrimWhitespace(false);
+            reader = new CSVRecordReader(file, separator, charset);
             reader.readHeaders();
             while (reader.readRecord()) {
                 //Prepare the correct node to assign the attributes:
@@ -708,7 +706,7 @@ public class AttributeColumnsControllerImpl implements AttributeColumnsControlle
             throw new IllegalArgumentException("Column names length must be the same as column types length");
         }
 
-        CsvReader reader = null;
+        CSVRecordReader reader = null;
         graph.writeLock();
         try {
             //Prepare attribute columns for the column names, creating the not already existing columns:
@@ -754,8 +752,7 @@ public class AttributeColumnsControllerImpl implements AttributeColumnsControlle
 
             //Create edges:
             GraphElementsController gec = Lookup.getDefault().lookup(GraphElementsController.class);
-            reader = new CsvReader(new FileInputStream(file), separator, charset);
-            reader.setTrimWhitespace(false);
+            reader = new CSVRecordReader(file, separator, charset);
             reader.readHeaders();
 
             int recordNumber = 0;
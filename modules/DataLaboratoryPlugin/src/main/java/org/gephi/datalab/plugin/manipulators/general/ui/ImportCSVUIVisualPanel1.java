@@ -41,9 +41,7 @@ Portions Copyrighted 2011 Gephi Consortium.
  */
 package org.gephi.datalab.plugin.manipulators.general.ui;
 
-import com.csvreader.CsvReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -57,6 +55,7 @@ import javax.swing.SwingUtilities;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.TableModel;
 import org.gephi.ui.utils.DialogFileFilter;
+import org.gephi.utils.CSVRecordReader;
 import org.netbeans.validation.api.Problems;
 import org.netbeans.validation.api.Severity;
 import org.netbeans.validation.api.Validator;
@@ -176,8 +175,7 @@ public class ImportCSVUIVisualPanel1 extends javax.swing.JPanel {
     public void refreshPreviewTable() {
         if (selectedFile != null && selectedFile.exists()) {
             try {
-                CsvReader reader = new CsvReader(new FileInputStream(selectedFile), getSelectedSeparator(), getSelectedCharset());
-                reader.setTrimWhitespace(false);
+                CSVRecordReader reader = new CSVRecordReader(selectedFile, getSelectedSeparator(), getSelectedCharset());
                 String[] headers;
                 try {
                     reader.readHeaders();
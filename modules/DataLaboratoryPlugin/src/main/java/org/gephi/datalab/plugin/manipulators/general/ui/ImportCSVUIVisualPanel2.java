@@ -41,9 +41,7 @@
  */
 package org.gephi.datalab.plugin.manipulators.general.ui;
 
-import com.csvreader.CsvReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -59,6 +57,7 @@ import org.gephi.graph.api.Column;
 import org.gephi.graph.api.GraphController;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Table;
+import org.gephi.utils.CSVRecordReader;
 import org.openide.util.Exceptions;
 import org.openide.util.Lookup;
 import org.openide.util.NbBundle;
@@ -143,8 +142,7 @@ public final class ImportCSVUIVisualPanel2 extends JPanel {
             JLabel columnsLabel = new JLabel(getMessage("ImportCSVUIVisualPanel2.columnsLabel.text"));
             settingsPanel.add(columnsLabel, "wrap");
 
-            CsvReader reader = new CsvReader(new FileInputStream(file), separator, charset);
-            reader.setTrimWhitespace(false);
+            CSVRecordReader reader = new CSVRecordReader(file, separator, charset);
             reader.readHeaders();
             final String[] columns = reader.getHeaders();
             reader.close();
@@ -41,33 +41,28 @@
  */
 package org.gephi.desktop.importer;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.gephi.desktop.importer.api.ImportControllerUI;
 import org.gephi.desktop.mrufiles.api.MostRecentFiles;
 import org.gephi.desktop.project.api.ProjectControllerUI;
 import org.gephi.io.importer.api.Container;
 import org.gephi.io.importer.api.Database;
 import org.gephi.io.importer.api.ImportController;
+import org.gephi.io.importer.api.ImportUtils;
 import org.gephi.io.importer.api.Report;
 import org.gephi.io.importer.spi.DatabaseImporter;
 import org.gephi.io.importer.spi.FileImporter;
@@ -171,15 +166,17 @@ public class DesktopImportControllerUI implements ImportControllerUI {
                 task = (LongTask) importer;
             }
 
-            //Execute task
-            fileObject = getArchivedFile(fileObject);
-            final String containerSource = fileObject.getNameExt();
-            final InputStream stream = fileObject.getInputStream();
+            //Execute task, the file is opened by the task
+            final FileObject archivedFile = getArchivedFile(fileObject);
+            final String containerSource = getSourceName(archivedFile);
+            ImportUtils.setFile(importer, archivedFile);
             String taskName = NbBundle.getMessage(DesktopImportControllerUI.class, "DesktopImportControllerUI.taskName", containerSource);
             executor.execute(task, new Runnable() {
                 @Override
                 public void run() {
+                    InputStream stream = null;
                     try {
+                        stream = getInputStream(archivedFile);
                         Container container = controller.importFile(stream, importer);
                         if (container != null) {
                             container.setSource(containerSource);
@@ -187,6 +184,8 @@ public class DesktopImportControllerUI implements ImportControllerUI {
                         }
                     } catch (Exception ex) {
                         throw new RuntimeException(ex);
+                    } finally {
+                        closeStream(stream);
                     }
                 }
             }, taskName, errorHandler);
@@ -257,15 +256,17 @@ public class DesktopImportControllerUI implements ImportControllerUI {
                     task = (LongTask) importer;
                 }
 
-                //Execute task
-                fileObject = getArchivedFile(fileObject);
-                final String containerSource = fileObject.getNameExt();
-                final InputStream stream = fileObject.getInputStream();
+                //Execute task, files are opened one at a time by their task
+                final FileObject archivedFile = getArchivedFile(fileObject);
+                final String containerSource = getSourceName(archivedFile);
+                ImportUtils.setFile(importer, archivedFile);
                 String taskName = NbBundle.getMessage(DesktopImportControllerUI.class, "DesktopImportControllerUI.taskName", containerSource);
                 executor.execute(task, new Runnable() {
                     @Override
                     public void run() {
+                        InputStream stream = null;
                         try {
+                            stream = getInputStream(archivedFile);
                             Container container = controller.importFile(stream, importer);
                             if (container != null) {
                                 container.setSource(containerSource);
@@ -273,6 +274,8 @@ public class DesktopImportControllerUI implements ImportControllerUI {
                             }
                         } catch (Exception ex) {
                             throw new RuntimeException(ex);
+                        } finally {
+                            closeStream(stream);
                         }
                     }
                 }, taskName, errorHandler);
@@ -662,216 +665,46 @@ public class DesktopImportControllerUI implements ImportControllerUI {
             } catch (Exception e) {
                 throw new RuntimeException("The archive can't be opened, be sure it has no password and contains a single file, without folders");
             }
-        } else { // GZ or BZIP2 archives
-            boolean isGz = fileObject.getExt().equalsIgnoreCase("gz");
-            boolean isBzip = fileObject.getExt().equalsIgnoreCase("bz2");
-            if (isGz || isBzip) {
-                try {
-                    String[] splittedFileName = fileObject.getName().split("\\.");
-                    if (splittedFileName.length < 2) {
-                        return fileObject;
-                    }
-
-                    String fileExt1 = splittedFileName[splittedFileName.length - 1];
-                    String fileExt2 = splittedFileName[splittedFileName.length - 2];
-
-                    File tempFile = null;
-                    if (fileExt1.equalsIgnoreCase("tar")) {
-                        String fname = fileObject.getName().replaceAll("\\.tar$", "");
-                        fname = fname.replace(fileExt2, "");
-                        tempFile = File.createTempFile(fname, "." + fileExt2);
-                        // Untar & unzip
-                        if (isGz) {
-                            tempFile = getGzFile(fileObject, tempFile, true);
-                        } else {
-                            tempFile = getBzipFile(fileObject, tempFile, true);
-                        }
-                    } else {
-                        String fname = fileObject.getName();
-                        fname = fname.replace(fileExt1, "");
-                        tempFile = File.createTempFile(fname, "." + fileExt1);
-                        // Unzip
-                        if (isGz) {
-                            tempFile = getGzFile(fileObject, tempFile, false);
-                        } else {
-                            tempFile = getBzipFile(fileObject, tempFile, false);
-                        }
-                    }
-                    tempFile.deleteOnExit();
-                    tempFile = FileUtil.normalizeFile(tempFile);
-                    fileObject = FileUtil.toFileObject(tempFile);
-                } catch (IOException ex) {
-                    Exceptions.printStackTrace(ex);
-                }
-            }
         }
+        // GZ and BZIP2 archives are decompressed while importing
         return fileObject;
     }
 
-    @Override
-    public ImportController getImportController() {
-        return controller;
-    }
-
-    private ProcessorUI getProcessorUI(Processor processor) {
-        for (ProcessorUI pui : Lookup.getDefault().lookupAll(ProcessorUI.class)) {
-            if (pui.isUIFoProcessor(processor)) {
-                return pui;
-            }
+    private String getSourceName(FileObject fileObject) {
+        if (ImportUtils.isCompressedFile(fileObject)) {
+            return ImportUtils.getCompressedFileNameExt(fileObject);
         }
-        return null;
+        return fileObject.getNameExt();
     }
 
-    /**
-     * Uncompress a Bzip2 file.
-     */
-    private static File getBzipFile(FileObject in, File out, boolean isTar) throws IOException {
-
-        // Stream buffer
-        final int BUFF_SIZE = 8192;
-        final byte[] buffer = new byte[BUFF_SIZE];
-
-        BZip2CompressorInputStream inputStream = null;
-        FileOutputStream outStream = null;
-
-        try {
-            FileInputStream is = new FileInputStream(in.getPath());
-            inputStream = new BZip2CompressorInputStream(is);
-            outStream = new FileOutputStream(out.getAbsolutePath());
-
-            if (isTar) {
-                // Read Tar header
-                int remainingBytes = readTarHeader(inputStream);
-
-                // Read content
-                ByteBuffer bb = ByteBuffer.allocateDirect(4 * BUFF_SIZE);
-                byte[] tmpCache = new byte[BUFF_SIZE];
-                int nRead, nGet;
-                while ((nRead = inputStream.read(tmpCache)) != -1) {
-                    if (nRead == 0) {
-                        continue;
-                    }
-                    bb.put(tmpCache);
-                    bb.position(0);
-                    bb.limit(nRead);
-                    while (bb.hasRemaining() && remainingBytes > 0) {
-                        nGet = Math.min(bb.remaining(), BUFF_SIZE);
-                        nGet = Math.min(nGet, remainingBytes);
-                        bb.get(buffer, 0, nGet);
-                        outStream.write(buffer, 0, nGet);
-                        remainingBytes -= nGet;
-                    }
-                    bb.clear();
-                }
-            } else {
-                int len;
-                while ((len = inputStream.read(buffer)) > 0) {
-                    outStream.write(buffer, 0, len);
-                }
-            }
-        } catch (IOException ex) {
-            Exceptions.printStackTrace(ex);
-        } finally {
-            if (inputStream != null) {
-                inputStream.close();
-            }
-            if (outStream != null) {
-                outStream.close();
-            }
+    private InputStream getInputStream(FileObject fileObject) throws IOException {
+        if (ImportUtils.isCompressedFile(fileObject)) {
+            return ImportUtils.getDecompressedStream(fileObject);
         }
-
-        return out;
+        return fileObject.getInputStream();
     }
 
-    /**
-     * Uncompress a GZIP file.
-     */
-    private static File getGzFile(FileObject in, File out, boolean isTar) throws IOException {
-
-        // Stream buffer
-        final int BUFF_SIZE = 8192;
-        final byte[] buffer = new byte[BUFF_SIZE];
-
-        GZIPInputStream inputStream = null;
-        FileOutputStream outStream = null;
-
-        try {
-            inputStream = new GZIPInputStream(new FileInputStream(in.getPath()));
-            outStream = new FileOutputStream(out);
-
-            if (isTar) {
-                // Read Tar header
-                int remainingBytes = readTarHeader(inputStream);
-
-                // Read content
-                ByteBuffer bb = ByteBuffer.allocateDirect(4 * BUFF_SIZE);
-                byte[] tmpCache = new byte[BUFF_SIZE];
-                int nRead, nGet;
-                while ((nRead = inputStream.read(tmpCache)) != -1) {
-                    if (nRead == 0) {
-                        continue;
-                    }
-                    bb.put(tmpCache);
-                    bb.position(0);
-                    bb.limit(nRead);
-                    while (bb.hasRemaining() && remainingBytes > 0) {
-                        nGet = Math.min(bb.remaining(), BUFF_SIZE);
-                        nGet = Math.min(nGet, remainingBytes);
-                        bb.get(buffer, 0, nGet);
-                        outStream.write(buffer, 0, nGet);
-                        remainingBytes -= nGet;
-                    }
-                    bb.clear();
-                }
-            } else {
-                int len;
-                while ((len = inputStream.read(buffer)) > 0) {
-                    outStream.write(buffer, 0, len);
-                }
-            }
-        } catch (IOException ex) {
-            Exceptions.printStackTrace(ex);
-        } finally {
-            if (inputStream != null) {
-                inputStream.close();
-            }
-            if (outStream != null) {
-                outStream.close();
+    private static void closeStream(InputStream stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ex) {
+                //The import is already over
             }
         }
-
-        return out;
     }
 
-    private static int readTarHeader(InputStream inputStream) throws IOException {
-        // Tar bytes
-        final int FILE_SIZE_OFFSET = 124;
-        final int FILE_SIZE_LENGTH = 12;
-        final int HEADER_LENGTH = 512;
-
-        ignoreBytes(inputStream, FILE_SIZE_OFFSET);
-        String fileSizeLengthOctalString = readString(inputStream, FILE_SIZE_LENGTH).trim();
-        final int fileSize = Integer.parseInt(fileSizeLengthOctalString, 8);
-
-        ignoreBytes(inputStream, HEADER_LENGTH - (FILE_SIZE_OFFSET + FILE_SIZE_LENGTH));
-
-        return fileSize;
+    @Override
+    public ImportController getImportController() {
+        return controller;
     }
 
-    private static void ignoreBytes(InputStream inputStream, int numberOfBytes) throws IOException {
-        for (int counter = 0; counter < numberOfBytes; counter++) {
-            inputStream.read();
+    private ProcessorUI getProcessorUI(Processor processor) {
+        for (ProcessorUI pui : Lookup.getDefault().lookupAll(ProcessorUI.class)) {
+            if (pui.isUIFoProcessor(processor)) {
+                return pui;
+            }
         }
-    }
-
-    private static String readString(InputStream inputStream, int numberOfBytes) throws IOException {
-        return new String(readBytes(inputStream, numberOfBytes));
-    }
-
-    private static byte[] readBytes(InputStream inputStream, int numberOfBytes) throws IOException {
-        byte[] readBytes = new byte[numberOfBytes];
-        inputStream.read(readBytes);
-
-        return readBytes;
+        return null;
     }
 }
@@ -58,6 +58,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import javax.swing.AbstractButton;
 import javax.swing.ButtonGroup;
 import javax.swing.DefaultComboBoxModel;
@@ -344,6 +345,8 @@ public class ReportPanel extends javax.swing.JPanel {
         while (itr.hasNext()) {
             issues.add(itr.next());
         }
+        final Map<Issue, Integer> issueCounts = report.getIssueCounts();
+        fillIssuesSummary(report, issues.size());
         if (issues.isEmpty()) {
             JLabel label = new JLabel(NbBundle.getMessage(getClass(), "ReportPanel.noIssues"));
             label.setHorizontalAlignment(SwingConstants.CENTER);
@@ -358,7 +361,7 @@ public class ReportPanel extends javax.swing.JPanel {
                 public void run() {
                     busyLabel.setBusy(true);
                     final TreeModel treeMdl = new IssueTreeModel(issues);
-                    final OutlineModel mdl = DefaultOutlineModel.createOutlineModel(treeMdl, new IssueRowModel(), true);
+                    final OutlineModel mdl = DefaultOutlineModel.createOutlineModel(treeMdl, new IssueRowModel(issueCounts), true);
 
                     SwingUtilities.invokeLater(new Runnable() {
                         @Override
@@ -377,6 +380,27 @@ public class ReportPanel extends javax.swing.JPanel {
         }
     }
 
+    private void fillIssuesSummary(Report report, int shown) {
+        final int total = report.getIssueCount();
+        if (total == 0) {
+            return;
+        }
+        final String title = NbBundle.getMessage(ReportPanel.class, "ReportPanel.tab1ScrollPane.TabConstraints.tabTitleCount", total);
+        final String summary = NbBundle.getMessage(ReportPanel.class, "ReportPanel.issuesSummary",
+                new Object[]{total, shown,
+                    report.getIssueCount(Issue.Level.SEVERE) + report.getIssueCount(Issue.Level.CRITICAL),
+                    report.getIssueCount(Issue.Level.WARNING),
+                    report.getIssueCount(Issue.Level.INFO)});
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                int index = tabbedPane.indexOfComponent(tab1ScrollPane);
+                tabbedPane.setTitleAt(index, title);
+                tabbedPane.setToolTipTextAt(index, summary);
+            }
+        });
+    }
+
     private void fillReport(final Report report) {
         Thread thread = new Thread(fillingThreads, new Runnable() {
             @Override
@@ -896,16 +920,27 @@ public class ReportPanel extends javax.swing.JPanel {
 
     private class IssueRowModel implements RowModel {
 
+        private final Map<Issue, Integer> issueCounts;
+
+        public IssueRowModel(Map<Issue, Integer> issueCounts) {
+            this.issueCounts = issueCounts;
+        }
+
         @Override
         public int getColumnCount() {
-            return 1;
+            return 2;
         }
 
         @Override
         public Object getValueFor(Object node, int column) {
             if (node instanceof Issue) {
                 Issue issue = (Issue) node;
-                return issue.getLevel().toString();
+                if (column == 0) {
+                    return issue.getLevel().toString();
+                }
+                //Occurrences are shown on the first issue of each type
+                Integer count = issueCounts.get(issue);
+                return count != null ? count.toString() : "";
             }
             return "";
         }
@@ -926,7 +961,10 @@ public class ReportPanel extends javax.swing.JPanel {
 
         @Override
         public String getColumnName(int column) {
-            return NbBundle.getMessage(ReportPanel.class, "ReportPanel.issueTable.issues");
+            if (column == 0) {
+                return NbBundle.getMessage(ReportPanel.class, "ReportPanel.issueTable.issues");
+            }
+            return NbBundle.getMessage(ReportPanel.class, "ReportPanel.issueTable.occurrences");
         }
     }
 
@@ -49,6 +49,7 @@ import org.gephi.io.exporter.spi.ByteExporter;
 import org.gephi.io.exporter.spi.CharacterExporter;
 import org.gephi.io.exporter.spi.Exporter;
 import org.gephi.io.exporter.spi.ExporterUI;
+import org.gephi.io.exporter.spi.ShardedGraphExporter;
 import org.gephi.project.api.Workspace;
 
 /**
@@ -68,6 +69,22 @@ public interface ExportController {
 
     public void exportFile(File file, Exporter fileExporter) throws IOException;
 
+    /**
+     * Exports the graph as <code>shardCount</code> part files written
+     * concurrently in <code>directory</code>, along with a
+     * <code>_manifest.json</code> file listing the parts.
+     *
+     * @param directory the directory where to write the part files, created if
+     * needed
+     * @param exporter the exporter whose settings are used for every shard
+     * @param shardCount the number of part files
+     * @param partitioning how nodes are split between part files
+     * @return <code>true</code> if all parts were written, <code>false</code>
+     * if the export was cancelled, in which case no manifest is written
+     * @throws IOException if a part file can't be written
+     */
+    public boolean exportShards(File directory, ShardedGraphExporter exporter, int shardCount, ShardedGraphExporter.Partitioning partitioning) throws IOException;
+
     public void exportWriter(Writer writer, CharacterExporter characterExporter);
 
     public void exportStream(OutputStream stream, ByteExporter byteExporter);
@@ -42,12 +42,22 @@ Portions Copyrighted 2011 Gephi Consortium.
 package org.gephi.io.exporter.impl;
 
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import org.gephi.io.exporter.api.ExportController;
 import org.gephi.io.exporter.api.FileType;
 import org.gephi.io.exporter.spi.ByteExporter;
@@ -56,6 +66,7 @@ import org.gephi.io.exporter.spi.Exporter;
 import org.gephi.io.exporter.spi.ExporterUI;
 import org.gephi.io.exporter.spi.FileExporterBuilder;
 import org.gephi.io.exporter.spi.GraphFileExporterBuilder;
+import org.gephi.io.exporter.spi.ShardedGraphExporter;
 import org.gephi.io.exporter.spi.VectorFileExporterBuilder;
 import org.gephi.project.api.ProjectController;
 import org.gephi.project.api.Workspace;
@@ -70,6 +81,11 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = ExportController.class)
 public class ExportControllerImpl implements ExportController {
 
+    //Compressed file extensions
+    private static final String GZIP_EXT = ".gz";
+    private static final String BZIP2_EXT = ".bz2";
+    //Sharded export
+    private static final String MANIFEST_FILE = "_manifest.json";
     private final FileExporterBuilder[] fileExporterBuilders;
     private final ExporterUI[] uis;
 
@@ -107,7 +123,7 @@ public class ExportControllerImpl implements ExportController {
             fileExporter.setWorkspace(workspace);
         }
         if (fileExporter instanceof ByteExporter) {
-            OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+            OutputStream stream = new BufferedOutputStream(openStream(file));
             ((ByteExporter) fileExporter).setOutputStream(stream);
             try {
                 fileExporter.execute();
@@ -122,13 +138,9 @@ public class ExportControllerImpl implements ExportController {
                 }
                 throw new RuntimeException(ex);
             }
-            try {
-                stream.flush();
-                stream.close();
-            } catch (IOException ex) {
-            }
+            closeFile(stream, file);
         } else if (fileExporter instanceof CharacterExporter) {
-            Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            Writer writer = new OutputStreamWriter(openStream(file), "UTF-8");
             ((CharacterExporter) fileExporter).setWriter(writer);
             try {
                 fileExporter.execute();
@@ -143,14 +155,148 @@ public class ExportControllerImpl implements ExportController {
                 }
                 throw new RuntimeException(ex);
             }
+            closeFile(writer, file);
+        }
+    }
+
+    /**
+     * Flushes and closes an exported file, which is deleted if its end can't
+     * be written.
+     */
+    private static <T extends Closeable & Flushable> void closeFile(T out, File file) throws IOException {
+        try {
             try {
-                writer.flush();
-                writer.close();
-            } catch (IOException ex) {
+                out.flush();
+            } finally {
+                out.close();
             }
+        } catch (IOException ex) {
+            file.delete();
+            throw ex;
         }
     }
 
+    @Override
+    public boolean exportShards(File directory, ShardedGraphExporter exporter, int shardCount, ShardedGraphExporter.Partitioning partitioning) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("The shard count should be at least 1");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create the directory '" + directory + "'");
+        }
+        if (exporter.getWorkspace() == null) {
+            ProjectController projectController = Lookup.getDefault().lookup(ProjectController.class);
+            Workspace workspace = projectController.getCurrentWorkspace();
+            exporter.setWorkspace(workspace);
+        }
+
+        //A manifest left by a previous export would list the parts being replaced
+        File manifest = new File(directory, MANIFEST_FILE);
+        if (manifest.exists() && !manifest.delete()) {
+            throw new IOException("Can't delete the manifest '" + manifest + "'");
+        }
+
+        String extension = getFileExtension(exporter);
+        List<String> parts = new ArrayList<>();
+        int threads = Math.min(shardCount, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Shard exporter");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        boolean completed = true;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                final ShardedGraphExporter shard = exporter.createShard(i, shardCount, partitioning);
+                shard.setWorkspace(exporter.getWorkspace());
+                final String part = String.format("part-%05d%s", i, extension);
+                final File partFile = new File(directory, part);
+                parts.add(part);
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        try (Writer writer = new OutputStreamWriter(openStream(partFile), "UTF-8")) {
+                            shard.setWriter(writer);
+                            return shard.execute();
+                        }
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                if (!future.get()) {
+                    completed = false;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //Parts of a cancelled export are incomplete, no manifest lists them
+        if (!completed) {
+            return false;
+        }
+        writeManifest(manifest, partitioning, parts);
+        return true;
+    }
+
+    private void writeManifest(File file, ShardedGraphExporter.Partitioning partitioning, List<String> parts) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            writer.append("{\n");
+            writer.append("  \"partitioning\": \"").append(partitioning.name()).append("\",\n");
+            writer.append("  \"shardCount\": ").append(String.valueOf(parts.size())).append(",\n");
+            writer.append("  \"parts\": [");
+            for (int i = 0; i < parts.size(); i++) {
+                writer.append(i == 0 ? "\n" : ",\n");
+                writer.append("    \"").append(parts.get(i)).append("\"");
+            }
+            writer.append("\n  ]\n}\n");
+        }
+    }
+
+    /**
+     * Returns the first file extension of the builder of
+     * <code>exporter</code>, or an empty string if not found.
+     */
+    private String getFileExtension(Exporter exporter) {
+        for (FileExporterBuilder im : fileExporterBuilders) {
+            FileType[] fileTypes = im.getFileTypes();
+            if (fileTypes.length > 0 && im.buildExporter().getClass().equals(exporter.getClass())) {
+                return fileTypes[0].getExtension();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Opens <code>file</code> for writing, compressed in parallel when its
+     * name ends with <code>.gz</code> or <code>.bz2</code>.
+     */
+    private OutputStream openStream(File file) throws IOException {
+        OutputStream stream = new FileOutputStream(file);
+        if (hasExt(file.getName(), GZIP_EXT)) {
+            return new ParallelGZIPOutputStream(stream);
+        } else if (hasExt(file.getName(), BZIP2_EXT)) {
+            return new ParallelBZip2OutputStream(stream);
+        }
+        return stream;
+    }
+
     @Override
     public void exportStream(OutputStream stream, ByteExporter byteExporter) {
         if (byteExporter.getWorkspace() == null) {
@@ -176,6 +322,7 @@ public class ExportControllerImpl implements ExportController {
             stream.flush();
             stream.close();
         } catch (IOException ex) {
+            throw new RuntimeException(ex);
         }
     }
 
@@ -204,15 +351,23 @@ public class ExportControllerImpl implements ExportController {
             writer.flush();
             writer.close();
         } catch (IOException ex) {
+            throw new RuntimeException(ex);
         }
     }
 
     @Override
     public Exporter getFileExporter(File file) {
+        //The exporter is chosen from the extension before the compression extension
+        String name = file.getName();
+        if (hasExt(name, GZIP_EXT)) {
+            name = name.substring(0, name.length() - GZIP_EXT.length());
+        } else if (hasExt(name, BZIP2_EXT)) {
+            name = name.substring(0, name.length() - BZIP2_EXT.length());
+        }
         for (FileExporterBuilder im : fileExporterBuilders) {
             for (FileType ft : im.getFileTypes()) {
                 for (String ex : ft.getExtensions()) {
-                    if (hasExt(file, ex)) {
+                    if (hasExt(name, ex)) {
                         return im.buildExporter();
                     }
                 }
@@ -250,17 +405,17 @@ public class ExportControllerImpl implements ExportController {
         return null;
     }
 
-    private boolean hasExt(File file, String ext) {
+    private boolean hasExt(String fileName, String ext) {
         if (ext == null || ext.isEmpty()) {
             return false;
         }
 
         /** period at first position is not considered as extension-separator */
-        if ((file.getName().length() - ext.length()) <= 1) {
+        if ((fileName.length() - ext.length()) <= 1) {
             return false;
         }
 
-        boolean ret = file.getName().endsWith(ext);
+        boolean ret = fileName.endsWith(ext);
 
         if (!ret) {
             return false;
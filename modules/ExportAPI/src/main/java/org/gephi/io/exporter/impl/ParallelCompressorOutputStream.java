@@ -0,0 +1,184 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Output stream compressing fixed-size blocks on a thread pool.
+ * <p>
+ * Written bytes are collected in blocks which are submitted for compression
+ * as soon as they are full. At most <code>2 * threads</code> blocks are in
+ * flight, so the writing thread only waits when the compressors fall behind,
+ * and the compressed blocks are written in order as they complete.
+ */
+abstract class ParallelCompressorOutputStream extends OutputStream {
+
+    private final OutputStream output;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Deque<Future<byte[]>> blocks = new ArrayDeque<>();
+    private byte[] block;
+    private int blockLength;
+    private boolean started;
+    private boolean closed;
+
+    ParallelCompressorOutputStream(OutputStream output, int blockSize, final String threadName) {
+        this.output = output;
+        this.block = new byte[blockSize];
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = 2 * threads;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Called on the writing thread before a block is submitted, in block
+     * order.
+     */
+    protected void beforeCompress(byte[] block, int length) {
+    }
+
+    /**
+     * Returns the task compressing <code>block</code>. The array is owned by
+     * the task.
+     */
+    protected abstract Callable<byte[]> compress(byte[] block, int length, boolean last);
+
+    protected void writeHeader(OutputStream out) throws IOException {
+    }
+
+    protected void writeTrailer(OutputStream out) throws IOException {
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (len > 0) {
+            int n = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+            if (blockLength == block.length) {
+                submit(false);
+            }
+        }
+    }
+
+    private void submit(boolean last) throws IOException {
+        if (!started) {
+            started = true;
+            writeHeader(output);
+        }
+        beforeCompress(block, blockLength);
+        blocks.add(executor.submit(compress(block, blockLength, last)));
+        block = new byte[block.length];
+        blockLength = 0;
+        while (blocks.size() >= maxInFlight) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        Future<byte[]> future = blocks.poll();
+        try {
+            output.write(future.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            submit(true);
+            while (!blocks.isEmpty()) {
+                writeBlock();
+            }
+            writeTrailer(output);
+        } finally {
+            executor.shutdownNow();
+            blocks.clear();
+            block = null;
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream deflating blocks in parallel, as <code>pigz</code> does.
+ * <p>
+ * Each block is deflated independently with the last 32K of the previous
+ * block as preset dictionary, so the compression ratio stays close to a
+ * sequential deflate. Blocks end with a sync flush, which aligns them on a
+ * byte boundary, and the concatenation is a single deflate stream readable by
+ * any gzip decoder.
+ */
+final class ParallelGZIPOutputStream extends ParallelCompressorOutputStream {
+
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private final CRC32 crc = new CRC32();
+    private long size;
+    private byte[] previousBlock;
+    private int previousLength;
+
+    ParallelGZIPOutputStream(OutputStream output) {
+        super(output, BLOCK_SIZE, "Gzip encoder");
+    }
+
+    @Override
+    protected void beforeCompress(byte[] block, int length) {
+        crc.update(block, 0, length);
+        size += length;
+    }
+
+    @Override
+    protected Callable<byte[]> compress(final byte[] block, final int length, final boolean last) {
+        final byte[] dictionary = previousBlock;
+        final int dictionaryLength = Math.min(previousLength, DICTIONARY_SIZE);
+        final int dictionaryOffset = previousLength - dictionaryLength;
+        previousBlock = block;
+        previousLength = length;
+        return new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                try {
+                    if (dictionary != null) {
+                        deflater.setDictionary(dictionary, dictionaryOffset, dictionaryLength);
+                    }
+                    deflater.setInput(block, 0, length);
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+                    byte[] buffer = new byte[16 * 1024];
+                    if (last) {
+                        deflater.finish();
+                        while (!deflater.finished()) {
+                            int n = deflater.deflate(buffer);
+                            out.write(buffer, 0, n);
+                        }
+                    } else {
+                        int n;
+                        do {
+                            n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                            out.write(buffer, 0, n);
+                        } while (n == buffer.length);
+                    }
+                    return out.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void writeHeader(OutputStream out) throws IOException {
+        out.write(HEADER);
+    }
+
+    @Override
+    protected void writeTrailer(OutputStream out) throws IOException {
+        writeInt(out, (int) crc.getValue());
+        writeInt(out, (int) size);
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        out.write((value >>> 16) & 0xFF);
+        out.write((value >>> 24) & 0xFF);
+    }
+}
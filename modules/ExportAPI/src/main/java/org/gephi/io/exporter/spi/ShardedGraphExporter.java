@@ -0,0 +1,86 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.spi;
+
+/**
+ * Graph exporter able to write the graph as several part files, written
+ * concurrently.
+ * <p>
+ * Nodes are split between shards according to a {@link Partitioning} and
+ * each edge belongs to the shard of its source node, so every element is
+ * written in exactly one part file.
+ * <p>
+ * The <code>execute()</code> method of a shard exporter should throw when a
+ * part can't be written, and return <code>false</code> when cancelled. The
+ * manifest is only written when every shard completed.
+ *
+ * @see org.gephi.io.exporter.api.ExportController#exportShards
+ */
+public interface ShardedGraphExporter extends GraphExporter, CharacterExporter {
+
+    /**
+     * Ways of splitting nodes between shards.
+     */
+    public enum Partitioning {
+
+        /**
+         * Contiguous ranges of node indices.
+         */
+        RANGE,
+        /**
+         * Hash of the node index.
+         */
+        HASH
+    }
+
+    /**
+     * Returns a new exporter with the same settings as this exporter, which
+     * only writes the elements of shard <code>shard</code> out of
+     * <code>shardCount</code>.
+     *
+     * @param shard the shard index, between <code>0</code> and
+     * <code>shardCount - 1</code>
+     * @param shardCount the number of shards
+     * @param partitioning how nodes are split between shards
+     * @return a new exporter for this shard
+     */
+    public ShardedGraphExporter createShard(int shard, int shardCount, Partitioning partitioning);
+}
@@ -44,23 +44,25 @@ package org.gephi.io.exporter.plugin;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
-import org.gephi.io.exporter.spi.CharacterExporter;
-import org.gephi.io.exporter.spi.GraphExporter;
+import org.gephi.io.exporter.spi.ShardedGraphExporter;
 import org.gephi.project.api.Workspace;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
 import org.gephi.utils.progress.ProgressTicket;
 
-public class ExporterCSV implements GraphExporter, CharacterExporter, LongTask {
+public class ExporterCSV implements ShardedGraphExporter, LongTask {
 
     private static final String SEPARATOR = ";";
     private static final String EOL = "\n";
+    //Number of empty cells written at once in matrix rows
+    private static final int EMPTY_CELLS_BUFFER = 1024;
     //Settings
     private boolean edgeWeight = true;
     private boolean writeZero = true;
@@ -72,6 +74,12 @@ public class ExporterCSV implements GraphExporter, CharacterExporter, LongTask {
     private boolean exportVisible;
     private boolean cancel = false;
     private ProgressTicket progressTicket;
+    //Rows of this shard only, or all rows if null
+    private ShardFilter shardFilter;
+    //Scratch buffers
+    private final List<Node> neighbours = new ArrayList<>();
+    private int[] columns = new int[16];
+    private char[] emptyCells;
 
     @Override
     public boolean execute() {
@@ -80,6 +88,9 @@ public class ExporterCSV implements GraphExporter, CharacterExporter, LongTask {
 
         graph.readLock();
         try {
+            if (shardFilter != null) {
+                shardFilter.init(graph);
+            }
             exportData(graph);
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -115,7 +126,10 @@ public class ExporterCSV implements GraphExporter, CharacterExporter, LongTask {
         if (list) {
             NodeIterable itr = graph.getNodes();
             for (Node n : itr) {
-                List<Node> neighbours = new ArrayList<>();
+                if (shardFilter != null && !shardFilter.contains(n)) {
+                    continue;
+                }
+                neighbours.clear();
                 for (Edge e : graph.getEdges(n)) {
                     if (!e.isDirected() || (e.isDirected() && n == e.getSource())) {
                         Node m = graph.getOpposite(n, e);
@@ -135,26 +149,86 @@ public class ExporterCSV implements GraphExporter, CharacterExporter, LongTask {
                     return;
                 }
             }
+            neighbours.clear();
         } else {
             Node[] nodes = graph.getNodes().toArray();
+
+            //Column of each node, indexed by store id
+            int maxStoreId = -1;
+            for (Node n : nodes) {
+                maxStoreId = Math.max(maxStoreId, n.getStoreId());
+            }
+            int[] nodeColumns = new int[maxStoreId + 1];
+            for (int i = 0; i < nodes.length; i++) {
+                nodeColumns[nodes[i].getStoreId()] = i;
+            }
+            initEmptyCells();
+
             for (Node n : nodes) {
                 if (cancel) {
                     return;
                 }
+                if (shardFilter != null && !shardFilter.contains(n)) {
+                    continue;
+                }
                 writeMatrixNode(n, true);
-                for (int j = 0; j < nodes.length; j++) {
-                    Node m = nodes[j];
-                    Edge e = graph.getEdge(n, m);
+
+                //Only the columns of adjacent nodes can hold an edge, other cells are written in bulk
+                int count = 0;
+                for (Edge e : graph.getEdges(n)) {
+                    if (count == columns.length) {
+                        columns = Arrays.copyOf(columns, count * 2);
+                    }
+                    columns[count++] = nodeColumns[graph.getOpposite(n, e).getStoreId()];
+                }
+                Arrays.sort(columns, 0, count);
+
+                int next = 0;
+                for (int i = 0; i < count; i++) {
+                    int j = columns[i];
+                    if (j < next) {
+                        continue;
+                    }
+                    writeEmptyCells(next, j, nodes.length);
+                    Edge e = graph.getEdge(n, nodes[j]);
                     writeEdge(e, j < nodes.length - 1);
+                    next = j + 1;
                 }
+                writeEmptyCells(next, nodes.length, nodes.length);
+
                 Progress.progress(progressTicket);
                 writer.append(EOL);
             }
+            emptyCells = null;
         }
 
         Progress.finish(progressTicket);
     }
 
+    private void initEmptyCells() {
+        String cell = (writeZero ? "0" : "") + SEPARATOR;
+        StringBuilder builder = new StringBuilder(cell.length() * EMPTY_CELLS_BUFFER);
+        for (int i = 0; i < EMPTY_CELLS_BUFFER; i++) {
+            builder.append(cell);
+        }
+        emptyCells = builder.toString().toCharArray();
+    }
+
+    private void writeEmptyCells(int from, int to, int columnCount) throws IOException {
+        //The last column has no separator
+        boolean last = to == columnCount && from < to;
+        int cells = last ? to - from - 1 : to - from;
+        int cellLength = emptyCells.length / EMPTY_CELLS_BUFFER;
+        while (cells > 0) {
+            int run = Math.min(cells, EMPTY_CELLS_BUFFER);
+            writer.write(emptyCells, 0, run * cellLength);
+            cells -= run;
+        }
+        if (last) {
+            writeEdge(null, false);
+        }
+    }
+
     private void writeEdge(Edge edge, boolean writeSeparator) throws IOException {
         if (edge != null) {
             if (edgeWeight) {
@@ -194,6 +268,19 @@ public class ExporterCSV implements GraphExporter, CharacterExporter, LongTask {
         }
     }
 
+    @Override
+    public ShardedGraphExporter createShard(int shard, int shardCount, Partitioning partitioning) {
+        ExporterCSV exporter = new ExporterCSV();
+        exporter.edgeWeight = edgeWeight;
+        exporter.writeZero = writeZero;
+        exporter.header = header;
+        exporter.list = list;
+        exporter.exportVisible = exportVisible;
+        exporter.workspace = workspace;
+        exporter.shardFilter = new ShardFilter(shard, shardCount, partitioning);
+        return exporter;
+    }
+
     @Override
     public boolean cancel() {
         cancel = true;
@@ -0,0 +1,502 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javanet.staxutils.IndentingXMLStreamWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.gephi.graph.api.AttributeUtils;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.NodeIterable;
+import org.gephi.graph.api.Table;
+import org.gephi.graph.api.TimeFormat;
+import org.gephi.io.exporter.spi.CharacterExporter;
+import org.gephi.io.exporter.spi.GraphExporter;
+import org.gephi.project.api.Workspace;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.joda.time.DateTimeZone;
+import org.openide.util.Lookup;
+
+/**
+ * Exporter writing the changes of the graph since a previous export, in the
+ * GEXF-diff format read by the delta importer.
+ * <p>
+ * Each export saves a state file holding the id and a 64-bit fingerprint of
+ * every node and edge. The next export with the same state file compares the
+ * graph with it, only writes the elements added, updated and removed since,
+ * and replaces the state file. Without a previous state, every element is
+ * written as added. Fingerprints cover labels, time sets, edge endpoints,
+ * direction, type and weight, and attribute values, but not visual
+ * properties. Ids are saved as length-prefixed UTF-8 bytes, whatever their
+ * length.
+ * <p>
+ * Format:
+ * <pre>
+ * &lt;gexfdiff version="1.0" idtype="string" defaultedgetype="directed"
+ *     timeformat="double" timerepresentation="interval" timezone="UTC"&gt;
+ *   &lt;attributes class="node"&gt;
+ *     &lt;attribute id="age" title="Age" type="java.lang.Integer"/&gt;
+ *   &lt;/attributes&gt;
+ *   &lt;attributes class="edge"/&gt;
+ *   &lt;nodes&gt;
+ *     &lt;node op="add" id="n1" label="Alice" timeset="&lt;[2000.0, 2010.0]&gt;"&gt;
+ *       &lt;attvalue for="age" value="31"/&gt;
+ *     &lt;/node&gt;
+ *   &lt;/nodes&gt;
+ *   &lt;edges&gt;
+ *     &lt;edge op="update" id="e1" source="n1" target="n2" type="directed" weight="2.0" kind="cites"/&gt;
+ *   &lt;/edges&gt;
+ *   &lt;remove&gt;
+ *     &lt;edge id="e7"/&gt;
+ *     &lt;node id="n9"/&gt;
+ *   &lt;/remove&gt;
+ * &lt;/gexfdiff&gt;
+ * </pre>
+ * Updated elements are written whole, with <code>op="update"</code>, and
+ * replace the previous label, time set and attribute values when applied.
+ * Time sets and attribute values are printed with the graph's time format
+ * and time zone, and attribute values are parsed back with the type of their
+ * column. Values of dynamic columns, including a dynamic edge weight, are
+ * written and fingerprinted as their whole time map, for example <code>&lt;[2000.0, 2005.0, 3.5]; [2005.0, 2010.0, 4.0]&gt;</code>.
+ */
+public class ExporterDelta implements GraphExporter, CharacterExporter, LongTask {
+
+    private static final int STATE_MAGIC = 0x47445354;
+    private static final int STATE_VERSION = 2;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private boolean cancel = false;
+    private ProgressTicket progressTicket;
+    private Workspace workspace;
+    private Writer writer;
+    private boolean exportVisible;
+    //Settings
+    private File stateFile;
+    //Architecture
+    private TimeFormat timeFormat;
+    private DateTimeZone timeZone;
+    private final StringBuilder fingerprintBuilder = new StringBuilder();
+    //Counts
+    private int added;
+    private int updated;
+    private int removed;
+
+    @Override
+    public boolean execute() {
+        GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
+        GraphModel graphModel = graphController.getGraphModel(workspace);
+        Graph graph = exportVisible ? graphModel.getGraphVisible() : graphModel.getGraph();
+        timeFormat = graphModel.getTimeFormat();
+        timeZone = graphModel.getTimeZone();
+        added = 0;
+        updated = 0;
+        removed = 0;
+
+        graph.readLock();
+
+        File newStateFile = stateFile != null ? new File(stateFile.getPath() + ".tmp") : null;
+        boolean success = false;
+        try {
+            Map<String, Long> nodeState = new HashMap<>();
+            Map<String, Long> edgeState = new HashMap<>();
+            if (stateFile != null && stateFile.exists()) {
+                readState(nodeState, edgeState);
+            }
+
+            XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+            outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", Boolean.FALSE);
+
+            XMLStreamWriter xmlWriter = outputFactory.createXMLStreamWriter(writer);
+            xmlWriter = new IndentingXMLStreamWriter(xmlWriter);
+
+            try (DataOutputStream stateOutput = newStateFile != null ? new DataOutputStream(new BufferedOutputStream(new FileOutputStream(newStateFile))) : null) {
+                exportData(xmlWriter, graph, nodeState, edgeState, stateOutput);
+            }
+            xmlWriter.close();
+
+            if (newStateFile != null && !cancel) {
+                Files.move(newStateFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Logger.getLogger(ExporterDelta.class.getName()).log(Level.INFO, "# Delta: {0} added, {1} updated, {2} removed", new Object[]{added, updated, removed});
+            success = true;
+        } catch (Exception e) {
+            //The delta or the state may be incomplete, the export failed
+            Logger.getLogger(ExporterDelta.class.getName()).log(Level.SEVERE, null, e);
+        } finally {
+            graph.readUnlock();
+            Progress.finish(progressTicket);
+            if (newStateFile != null && newStateFile.exists()) {
+                newStateFile.delete();
+            }
+        }
+
+        return success && !cancel;
+    }
+
+    private void exportData(XMLStreamWriter xmlWriter, Graph graph, Map<String, Long> nodeState, Map<String, Long> edgeState, DataOutputStream stateOutput) throws Exception {
+        GraphModel graphModel = graph.getModel();
+        Column[] nodeColumns = attributeColumns(graphModel.getNodeTable());
+        Column[] edgeColumns = attributeColumns(graphModel.getEdgeTable());
+
+        Progress.start(progressTicket, graph.getNodeCount() + graph.getEdgeCount());
+
+        xmlWriter.writeStartDocument("UTF-8", "1.0");
+        xmlWriter.writeStartElement("gexfdiff");
+        xmlWriter.writeAttribute("version", "1.0");
+        xmlWriter.writeAttribute("idtype", getIdType(graphModel.getConfiguration().getNodeIdType()));
+        xmlWriter.writeAttribute("defaultedgetype", graphModel.isDirected() ? "directed" : graphModel.isUndirected() ? "undirected" : "mixed");
+        xmlWriter.writeAttribute("timeformat", timeFormat.name().toLowerCase());
+        xmlWriter.writeAttribute("timerepresentation", graphModel.getConfiguration().getTimeRepresentation().name().toLowerCase());
+        xmlWriter.writeAttribute("timezone", timeZone.getID());
+
+        writeColumns(xmlWriter, "node", nodeColumns);
+        writeColumns(xmlWriter, "edge", edgeColumns);
+
+        if (stateOutput != null) {
+            stateOutput.writeInt(STATE_MAGIC);
+            stateOutput.writeInt(STATE_VERSION);
+            stateOutput.writeInt(graph.getNodeCount());
+        }
+        xmlWriter.writeStartElement("nodes");
+        NodeIterable nodeIterable = graph.getNodes();
+        for (Node node : nodeIterable) {
+            if (cancel) {
+                nodeIterable.doBreak();
+                return;
+            }
+            String id = node.getId().toString();
+            long fingerprint = fingerprint(graph, node, nodeColumns);
+            Long previous = nodeState.remove(id);
+            if (previous == null || previous != fingerprint) {
+                writeNode(xmlWriter, node, previous == null ? "add" : "update", nodeColumns);
+            }
+            if (stateOutput != null) {
+                writeId(stateOutput, id);
+                stateOutput.writeLong(fingerprint);
+            }
+            Progress.progress(progressTicket);
+        }
+        xmlWriter.writeEndElement();
+
+        if (stateOutput != null) {
+            stateOutput.writeInt(graph.getEdgeCount());
+        }
+        xmlWriter.writeStartElement("edges");
+        EdgeIterable edgeIterable = graph.getEdges();
+        for (Edge edge : edgeIterable) {
+            if (cancel) {
+                edgeIterable.doBreak();
+                return;
+            }
+            String id = edge.getId().toString();
+            long fingerprint = fingerprint(graph, edge, edgeColumns);
+            Long previous = edgeState.remove(id);
+            if (previous == null || previous != fingerprint) {
+                writeEdge(xmlWriter, graph, edge, previous == null ? "add" : "update", edgeColumns);
+            }
+            if (stateOutput != null) {
+                writeId(stateOutput, id);
+                stateOutput.writeLong(fingerprint);
+            }
+            Progress.progress(progressTicket);
+        }
+        xmlWriter.writeEndElement();
+
+        //Elements left in the previous state have been removed, edges first
+        xmlWriter.writeStartElement("remove");
+        for (String id : edgeState.keySet()) {
+            xmlWriter.writeEmptyElement("edge");
+            xmlWriter.writeAttribute("id", id);
+        }
+        for (String id : nodeState.keySet()) {
+            xmlWriter.writeEmptyElement("node");
+            xmlWriter.writeAttribute("id", id);
+        }
+        removed = edgeState.size() + nodeState.size();
+        xmlWriter.writeEndElement();
+
+        xmlWriter.writeEndElement();
+        xmlWriter.writeEndDocument();
+    }
+
+    private void readState(Map<String, Long> nodeState, Map<String, Long> edgeState) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(stateFile)))) {
+            if (input.readInt() != STATE_MAGIC) {
+                throw new IOException("The file '" + stateFile + "' is not a delta export state");
+            }
+            if (input.readInt() != STATE_VERSION) {
+                throw new IOException("The delta export state '" + stateFile + "' has been written by another version");
+            }
+            int nodeCount = input.readInt();
+            for (int i = 0; i < nodeCount; i++) {
+                nodeState.put(readId(input), input.readLong());
+            }
+            int edgeCount = input.readInt();
+            for (int i = 0; i < edgeCount; i++) {
+                edgeState.put(readId(input), input.readLong());
+            }
+        }
+    }
+
+    /**
+     * Writes <code>id</code> as UTF-8 bytes prefixed by their count, unlike
+     * {@link DataOutputStream#writeUTF(String)} which is limited to 64KB.
+     */
+    private static void writeId(DataOutputStream output, String id) throws IOException {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readId(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Column[] attributeColumns(Table table) {
+        List<Column> cols = new ArrayList<>();
+        for (Column column : table) {
+            if (!column.isProperty() || (column.isDynamic() && column.getId().equals("weight"))) {
+                cols.add(column);
+            }
+        }
+        return cols.toArray(new Column[0]);
+    }
+
+    private void writeColumns(XMLStreamWriter xmlWriter, String elementClass, Column[] columns) throws XMLStreamException {
+        xmlWriter.writeStartElement("attributes");
+        xmlWriter.writeAttribute("class", elementClass);
+        for (Column column : columns) {
+            xmlWriter.writeEmptyElement("attribute");
+            xmlWriter.writeAttribute("id", column.getId());
+            xmlWriter.writeAttribute("title", column.getTitle());
+            xmlWriter.writeAttribute("type", column.getTypeClass().getName());
+        }
+        xmlWriter.writeEndElement();
+    }
+
+    private void writeNode(XMLStreamWriter xmlWriter, Node node, String op, Column[] columns) throws XMLStreamException {
+        xmlWriter.writeStartElement("node");
+        xmlWriter.writeAttribute("op", op);
+        xmlWriter.writeAttribute("id", node.getId().toString());
+        if (node.getLabel() != null) {
+            xmlWriter.writeAttribute("label", node.getLabel());
+        }
+        writeTimeSet(xmlWriter, node);
+        writeAttValues(xmlWriter, node, columns);
+        xmlWriter.writeEndElement();
+        count(op);
+    }
+
+    private void writeEdge(XMLStreamWriter xmlWriter, Graph graph, Edge edge, String op, Column[] columns) throws XMLStreamException {
+        xmlWriter.writeStartElement("edge");
+        xmlWriter.writeAttribute("op", op);
+        xmlWriter.writeAttribute("id", edge.getId().toString());
+        xmlWriter.writeAttribute("source", edge.getSource().getId().toString());
+        xmlWriter.writeAttribute("target", edge.getTarget().getId().toString());
+        xmlWriter.writeAttribute("type", edge.isDirected() ? "directed" : "undirected");
+        xmlWriter.writeAttribute("weight", Double.toString(getWeight(graph, edge)));
+        if (edge.getTypeLabel() != null) {
+            xmlWriter.writeAttribute("kind", edge.getTypeLabel().toString());
+        }
+        if (edge.getLabel() != null) {
+            xmlWriter.writeAttribute("label", edge.getLabel());
+        }
+        writeTimeSet(xmlWriter, edge);
+        writeAttValues(xmlWriter, edge, columns);
+        xmlWriter.writeEndElement();
+        count(op);
+    }
+
+    private void writeTimeSet(XMLStreamWriter xmlWriter, Element element) throws XMLStreamException {
+        Object timeSet = element.getAttribute("timeset");
+        if (timeSet != null) {
+            xmlWriter.writeAttribute("timeset", AttributeUtils.print(timeSet, timeFormat, timeZone));
+        }
+    }
+
+    private void writeAttValues(XMLStreamWriter xmlWriter, Element element, Column[] columns) throws XMLStreamException {
+        for (Column column : columns) {
+            Object value = element.getAttribute(column);
+            if (value != null) {
+                xmlWriter.writeEmptyElement("attvalue");
+                xmlWriter.writeAttribute("for", column.getId());
+                xmlWriter.writeAttribute("value", AttributeUtils.print(value, timeFormat, timeZone));
+            }
+        }
+    }
+
+    private void count(String op) {
+        if (op.equals("add")) {
+            added++;
+        } else {
+            updated++;
+        }
+    }
+
+    private double getWeight(Graph graph, Edge edge) {
+        return edge.hasDynamicWeight() ? edge.getWeight(graph.getView()) : edge.getWeight();
+    }
+
+    /**
+     * FNV-1a hash of the values written for <code>element</code>.
+     */
+    private long fingerprint(Graph graph, Element element, Column[] columns) {
+        StringBuilder sb = fingerprintBuilder;
+        sb.setLength(0);
+        sb.append(element.getLabel()).append('\0');
+        Object timeSet = element.getAttribute("timeset");
+        if (timeSet != null) {
+            sb.append(AttributeUtils.print(timeSet, timeFormat, timeZone));
+        }
+        sb.append('\0');
+        if (element instanceof Edge) {
+            Edge edge = (Edge) element;
+            sb.append(edge.getSource().getId()).append('\0');
+            sb.append(edge.getTarget().getId()).append('\0');
+            sb.append(edge.isDirected()).append('\0');
+            sb.append(edge.getTypeLabel()).append('\0');
+            sb.append(getWeight(graph, edge)).append('\0');
+        }
+        for (Column column : columns) {
+            Object value = element.getAttribute(column);
+            if (value != null) {
+                sb.append(column.getId()).append('=').append(AttributeUtils.print(value, timeFormat, timeZone));
+            }
+            sb.append('\0');
+        }
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < sb.length(); i++) {
+            hash ^= sb.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private String getIdType(Class idType) {
+        if (idType.equals(Integer.class)) {
+            return "integer";
+        } else if (idType.equals(Long.class)) {
+            return "long";
+        }
+        return "string";
+    }
+
+    @Override
+    public boolean cancel() {
+        cancel = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progressTicket = progressTicket;
+    }
+
+    /**
+     * Returns the file where element fingerprints are saved, and read back by
+     * the next export.
+     *
+     * @return the state file, or <code>null</code> to export the whole graph
+     * without saving a state
+     */
+    public File getStateFile() {
+        return stateFile;
+    }
+
+    public void setStateFile(File stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    @Override
+    public boolean isExportVisible() {
+        return exportVisible;
+    }
+
+    @Override
+    public void setExportVisible(boolean exportVisible) {
+        this.exportVisible = exportVisible;
+    }
+
+    @Override
+    public void setWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    public void setWorkspace(Workspace workspace) {
+        this.workspace = workspace;
+    }
+}
@@ -0,0 +1,707 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.plugin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import org.gephi.graph.api.AttributeUtils;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Table;
+import org.gephi.graph.api.TimeRepresentation;
+import org.gephi.graph.api.types.IntervalMap;
+import org.gephi.graph.api.types.IntervalSet;
+import org.gephi.graph.api.types.TimeMap;
+import org.gephi.graph.api.types.TimestampMap;
+import org.gephi.graph.api.types.TimestampSet;
+import org.gephi.io.exporter.spi.ByteExporter;
+import org.gephi.io.exporter.spi.GraphExporter;
+import org.gephi.project.api.Workspace;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.openide.util.Lookup;
+
+/**
+ * Exporter for the GBIN binary columnar format.
+ * <p>
+ * A GBIN file starts with the <code>GBIN</code> magic, the format version and
+ * flags. The payload, optionally split in deflated blocks, stores the graph
+ * settings, the node and edge column definitions, then the nodes and the edges
+ * column by column: a node id dictionary, <code>int</code> source and target
+ * indices into it, primitive arrays for positions, sizes, colors and weights,
+ * typed attribute columns, and the intervals or timestamps of each element.
+ * All numbers are big-endian.
+ */
+public class ExporterGBIN implements GraphExporter, ByteExporter, LongTask {
+
+    //Format
+    static final int MAGIC = 0x4742494E;
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATE = 1;
+    static final int BUFFER_SIZE = 1 << 20;
+    //Edge default
+    static final byte DIRECTED = 0;
+    static final byte UNDIRECTED = 1;
+    static final byte MIXED = 2;
+    //Time representation
+    static final byte STATIC = 0;
+    static final byte INTERVAL = 1;
+    static final byte TIMESTAMP = 2;
+    //Value types
+    static final byte TYPE_OTHER = 0;
+    static final byte TYPE_STRING = 1;
+    static final byte TYPE_INTEGER = 2;
+    static final byte TYPE_LONG = 3;
+    static final byte TYPE_FLOAT = 4;
+    static final byte TYPE_DOUBLE = 5;
+    static final byte TYPE_BOOLEAN = 6;
+    static final byte TYPE_BYTE = 7;
+    static final byte TYPE_SHORT = 8;
+    //Architecture
+    private boolean cancel = false;
+    private ProgressTicket progress;
+    private Workspace workspace;
+    private boolean exportVisible;
+    private OutputStream stream;
+    //Settings
+    private boolean compress = false;
+    private boolean exportAttributes = true;
+    private boolean exportDynamic = true;
+
+    @Override
+    public boolean execute() {
+        GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
+        GraphModel graphModel = graphController.getGraphModel(workspace);
+        Graph graph = exportVisible ? graphModel.getGraphVisible() : graphModel.getGraph();
+
+        Progress.start(progress);
+        graph.readLock();
+
+        //Is it a dynamic graph?
+        boolean dynamic = exportDynamic && graphModel.isDynamic();
+
+        try {
+            Node[] nodes = graph.getNodes().toArray();
+            Edge[] edges = graph.getEdges().toArray();
+            Progress.switchToDeterminate(progress, nodes.length + edges.length);
+
+            Output out = new Output(stream, compress);
+            out.writeHeader();
+
+            //Graph
+            out.writeByte(graph.isMixed() ? MIXED : graph.isDirected() ? DIRECTED : UNDIRECTED);
+            TimeRepresentation timeRepresentation = graphModel.getConfiguration().getTimeRepresentation();
+            out.writeByte(!dynamic ? STATIC : timeRepresentation.equals(TimeRepresentation.INTERVAL) ? INTERVAL : TIMESTAMP);
+            out.writeString(graphModel.getTimeFormat().name());
+
+            //Columns
+            Column[] nodeColumns = getColumns(graphModel.getNodeTable(), dynamic);
+            Column[] edgeColumns = getColumns(graphModel.getEdgeTable(), dynamic);
+            writeColumns(out, nodeColumns);
+            writeColumns(out, edgeColumns);
+
+            writeNodes(out, graph, nodes, nodeColumns, dynamic);
+            if (!cancel) {
+                writeEdges(out, graph, nodes, edges, edgeColumns, dynamic);
+            }
+            out.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            graph.readUnlock();
+            Progress.finish(progress);
+        }
+
+        return !cancel;
+    }
+
+    private Column[] getColumns(Table table, boolean dynamic) {
+        List<Column> columns = new ArrayList<>();
+        if (exportAttributes) {
+            for (Column col : table) {
+                if (!col.isProperty() && (dynamic || !col.isDynamic())) {
+                    columns.add(col);
+                }
+            }
+        }
+        return columns.toArray(new Column[0]);
+    }
+
+    private void writeColumns(Output out, Column[] columns) throws IOException {
+        out.writeInt(columns.length);
+        for (Column col : columns) {
+            Class type = col.isDynamic() ? AttributeUtils.getStaticType((Class<? extends TimeMap>) col.getTypeClass()) : col.getTypeClass();
+            out.writeString(col.getId());
+            out.writeString(col.getTitle());
+            out.writeString(type.getName());
+            out.writeByte(getValueType(type));
+            out.writeBoolean(col.isDynamic());
+        }
+    }
+
+    private void writeNodes(Output out, Graph graph, Node[] nodes, Column[] columns, boolean dynamic) throws IOException {
+        int count = nodes.length;
+        out.writeInt(count);
+
+        //Id dictionary, edges refer to nodes by their index in it
+        for (Node node : nodes) {
+            out.writeString(node.getId().toString());
+        }
+        for (Node node : nodes) {
+            out.writeString(node.getLabel());
+        }
+
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = nodes[i].x();
+        }
+        out.writeFloats(values);
+        for (int i = 0; i < count; i++) {
+            values[i] = nodes[i].y();
+        }
+        out.writeFloats(values);
+        for (int i = 0; i < count; i++) {
+            values[i] = nodes[i].z();
+        }
+        out.writeFloats(values);
+        for (int i = 0; i < count; i++) {
+            values[i] = nodes[i].size();
+        }
+        out.writeFloats(values);
+
+        int[] colors = new int[count];
+        for (int i = 0; i < count; i++) {
+            Node node = nodes[i];
+            colors[i] = getColor(node.r(), node.g(), node.b(), node.alpha());
+        }
+        out.writeInts(colors);
+
+        if (dynamic) {
+            writeTimeSets(out, graph, nodes);
+        }
+        writeColumnValues(out, graph, nodes, columns);
+        Progress.progress(progress, count);
+    }
+
+    private void writeEdges(Output out, Graph graph, Node[] nodes, Edge[] edges, Column[] columns, boolean dynamic) throws IOException {
+        int count = edges.length;
+        out.writeInt(count);
+
+        //Node store ids to dictionary indices
+        int maxStoreId = -1;
+        for (Node node : nodes) {
+            maxStoreId = Math.max(maxStoreId, node.getStoreId());
+        }
+        int[] nodeIndex = new int[maxStoreId + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            nodeIndex[nodes[i].getStoreId()] = i;
+        }
+
+        for (Edge edge : edges) {
+            out.writeString(edge.getId().toString());
+        }
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            ends[i] = nodeIndex[edges[i].getSource().getStoreId()];
+        }
+        out.writeInts(ends);
+        for (int i = 0; i < count; i++) {
+            ends[i] = nodeIndex[edges[i].getTarget().getStoreId()];
+        }
+        out.writeInts(ends);
+
+        if (graph.isMixed()) {
+            for (Edge edge : edges) {
+                out.writeBoolean(edge.isDirected());
+            }
+        }
+
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            Edge edge = edges[i];
+            weights[i] = edge.hasDynamicWeight() ? edge.getWeight(graph.getView()) : edge.getWeight();
+        }
+        out.writeDoubles(weights);
+
+        for (Edge edge : edges) {
+            out.writeString(edge.getLabel());
+        }
+        for (Edge edge : edges) {
+            out.writeString(edge.getType() != 0 ? String.valueOf(edge.getTypeLabel()) : null);
+        }
+
+        int[] colors = new int[count];
+        for (int i = 0; i < count; i++) {
+            Edge edge = edges[i];
+            //Edges without alpha have no custom color
+            colors[i] = edge.alpha() != 0 ? getColor(edge.r(), edge.g(), edge.b(), edge.alpha()) : 0;
+        }
+        out.writeInts(colors);
+
+        if (dynamic) {
+            writeTimeSets(out, graph, edges);
+        }
+        writeColumnValues(out, graph, edges, columns);
+        Progress.progress(progress, nodes.length + count);
+    }
+
+    private void writeTimeSets(Output out, Graph graph, Element[] elements) throws IOException {
+        boolean intervals = graph.getModel().getConfiguration().getTimeRepresentation().equals(TimeRepresentation.INTERVAL);
+        for (Element element : elements) {
+            Object timeSet = element.getAttribute("timeset");
+            if (timeSet == null) {
+                out.writeInt(0);
+            } else if (intervals) {
+                IntervalSet intervalSet = (IntervalSet) timeSet;
+                out.writeInt(intervalSet.size());
+                for (Interval interval : intervalSet.toArray()) {
+                    out.writeDouble(interval.getLow());
+                    out.writeDouble(interval.getHigh());
+                }
+            } else {
+                TimestampSet timestampSet = (TimestampSet) timeSet;
+                out.writeInt(timestampSet.size());
+                for (Double timestamp : timestampSet.toArray()) {
+                    out.writeDouble(timestamp);
+                }
+            }
+        }
+    }
+
+    private void writeColumnValues(Output out, Graph graph, Element[] elements, Column[] columns) throws IOException {
+        boolean intervals = graph.getModel().getConfiguration().getTimeRepresentation().equals(TimeRepresentation.INTERVAL);
+        for (Column column : columns) {
+            if (cancel) {
+                return;
+            }
+            if (column.isDynamic()) {
+                byte type = getValueType(AttributeUtils.getStaticType((Class<? extends TimeMap>) column.getTypeClass()));
+                for (Element element : elements) {
+                    Object map = element.getAttribute(column);
+                    if (map == null) {
+                        out.writeInt(-1);
+                    } else if (intervals) {
+                        IntervalMap timeMap = (IntervalMap) map;
+                        out.writeInt(timeMap.size());
+                        for (Interval interval : timeMap.toKeysArray()) {
+                            out.writeDouble(interval.getLow());
+                            out.writeDouble(interval.getHigh());
+                            out.writeValue(type, timeMap.get(interval, null), false);
+                        }
+                    } else {
+                        TimestampMap timeMap = (TimestampMap) map;
+                        out.writeInt(timeMap.size());
+                        for (Double timestamp : timeMap.toKeysArray()) {
+                            out.writeDouble(timestamp);
+                            out.writeValue(type, timeMap.get(timestamp, null), false);
+                        }
+                    }
+                }
+            } else {
+                writeStaticColumn(out, elements, column);
+            }
+        }
+    }
+
+    private void writeStaticColumn(Output out, Element[] elements, Column column) throws IOException {
+        byte type = getValueType(column.getTypeClass());
+        int count = elements.length;
+        switch (type) {
+            case TYPE_INTEGER:
+            case TYPE_LONG:
+            case TYPE_FLOAT:
+            case TYPE_DOUBLE: {
+                //Null bitmap followed by a dense primitive array
+                long[] nulls = new long[(count + 63) >>> 6];
+                Object[] values = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    values[i] = elements[i].getAttribute(column);
+                    if (values[i] == null) {
+                        nulls[i >>> 6] |= 1L << i;
+                    }
+                }
+                out.writeLongs(nulls);
+                if (type == TYPE_INTEGER) {
+                    int[] array = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        array[i] = values[i] != null ? (Integer) values[i] : 0;
+                    }
+                    out.writeInts(array);
+                } else if (type == TYPE_LONG) {
+                    long[] array = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        array[i] = values[i] != null ? (Long) values[i] : 0L;
+                    }
+                    out.writeLongs(array);
+                } else if (type == TYPE_FLOAT) {
+                    float[] array = new float[count];
+                    for (int i = 0; i < count; i++) {
+                        array[i] = values[i] != null ? (Float) values[i] : 0f;
+                    }
+                    out.writeFloats(array);
+                } else {
+                    double[] array = new double[count];
+                    for (int i = 0; i < count; i++) {
+                        array[i] = values[i] != null ? (Double) values[i] : 0.0;
+                    }
+                    out.writeDoubles(array);
+                }
+                break;
+            }
+            default:
+                for (Element element : elements) {
+                    out.writeValue(type, element.getAttribute(column), column.isArray());
+                }
+                break;
+        }
+    }
+
+    private static int getColor(float r, float g, float b, float a) {
+        return Math.round(a * 255f) << 24 | Math.round(r * 255f) << 16 | Math.round(g * 255f) << 8 | Math.round(b * 255f);
+    }
+
+    static byte getValueType(Class type) {
+        if (type.equals(String.class)) {
+            return TYPE_STRING;
+        } else if (type.equals(Integer.class)) {
+            return TYPE_INTEGER;
+        } else if (type.equals(Long.class)) {
+            return TYPE_LONG;
+        } else if (type.equals(Float.class)) {
+            return TYPE_FLOAT;
+        } else if (type.equals(Double.class)) {
+            return TYPE_DOUBLE;
+        } else if (type.equals(Boolean.class)) {
+            return TYPE_BOOLEAN;
+        } else if (type.equals(Byte.class)) {
+            return TYPE_BYTE;
+        } else if (type.equals(Short.class)) {
+            return TYPE_SHORT;
+        }
+        return TYPE_OTHER;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * Sets whether the payload is written in deflated blocks.
+     *
+     * @param compress <code>true</code> to compress
+     */
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public boolean isExportAttributes() {
+        return exportAttributes;
+    }
+
+    public void setExportAttributes(boolean exportAttributes) {
+        this.exportAttributes = exportAttributes;
+    }
+
+    public boolean isExportDynamic() {
+        return exportDynamic;
+    }
+
+    public void setExportDynamic(boolean exportDynamic) {
+        this.exportDynamic = exportDynamic;
+    }
+
+    @Override
+    public boolean isExportVisible() {
+        return exportVisible;
+    }
+
+    @Override
+    public void setExportVisible(boolean exportVisible) {
+        this.exportVisible = exportVisible;
+    }
+
+    @Override
+    public void setOutputStream(OutputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    public void setWorkspace(Workspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public boolean cancel() {
+        cancel = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progress = progressTicket;
+    }
+
+    /**
+     * Buffered big-endian writer, deflating the payload by blocks of the
+     * buffer size when compression is enabled.
+     */
+    private static class Output {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final boolean compress;
+        private Deflater deflater;
+        private byte[] deflated;
+
+        public Output(OutputStream stream, boolean compress) {
+            this.channel = Channels.newChannel(stream);
+            this.compress = compress;
+        }
+
+        public void writeHeader() throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            header.putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_DEFLATE : 0);
+            header.flip();
+            writeFully(header);
+            if (compress) {
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                deflated = new byte[BUFFER_SIZE + (BUFFER_SIZE >> 4) + 64];
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                return;
+            }
+            if (compress) {
+                int rawLength = buffer.remaining();
+                deflater.reset();
+                deflater.setInput(buffer.array(), 0, rawLength);
+                deflater.finish();
+                int length = 0;
+                while (!deflater.finished()) {
+                    if (length == deflated.length) {
+                        byte[] grown = new byte[deflated.length * 2];
+                        System.arraycopy(deflated, 0, grown, 0, length);
+                        deflated = grown;
+                    }
+                    length += deflater.deflate(deflated, length, deflated.length - length);
+                }
+                ByteBuffer block = ByteBuffer.allocate(8);
+                block.putInt(rawLength).putInt(length);
+                block.flip();
+                writeFully(block);
+                writeFully(ByteBuffer.wrap(deflated, 0, length));
+            } else {
+                writeFully(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        public void close() throws IOException {
+            flush();
+            if (compress) {
+                //Empty block marks the end
+                ByteBuffer end = ByteBuffer.allocate(8);
+                end.putInt(0).putInt(0);
+                end.flip();
+                writeFully(end);
+                deflater.end();
+            }
+        }
+
+        public void writeByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        public void writeBoolean(boolean value) throws IOException {
+            writeByte(value ? (byte) 1 : (byte) 0);
+        }
+
+        public void writeInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        public void writeDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        public void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        public void writeInts(int[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(4);
+                int length = Math.min(buffer.remaining() >> 2, values.length - offset);
+                buffer.asIntBuffer().put(values, offset, length);
+                buffer.position(buffer.position() + (length << 2));
+                offset += length;
+            }
+        }
+
+        public void writeLongs(long[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(8);
+                int length = Math.min(buffer.remaining() >> 3, values.length - offset);
+                buffer.asLongBuffer().put(values, offset, length);
+                buffer.position(buffer.position() + (length << 3));
+                offset += length;
+            }
+        }
+
+        public void writeFloats(float[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(4);
+                int length = Math.min(buffer.remaining() >> 2, values.length - offset);
+                buffer.asFloatBuffer().put(values, offset, length);
+                buffer.position(buffer.position() + (length << 2));
+                offset += length;
+            }
+        }
+
+        public void writeDoubles(double[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(8);
+                int length = Math.min(buffer.remaining() >> 3, values.length - offset);
+                buffer.asDoubleBuffer().put(values, offset, length);
+                buffer.position(buffer.position() + (length << 3));
+                offset += length;
+            }
+        }
+
+        /**
+         * Writes a single nullable value, prefixed by a presence byte.
+         */
+        public void writeValue(byte type, Object value, boolean array) throws IOException {
+            writeBoolean(value != null);
+            if (value == null) {
+                return;
+            }
+            switch (type) {
+                case TYPE_STRING:
+                    writeString((String) value);
+                    break;
+                case TYPE_INTEGER:
+                    writeInt((Integer) value);
+                    break;
+                case TYPE_LONG:
+                    ensure(8);
+                    buffer.putLong((Long) value);
+                    break;
+                case TYPE_FLOAT:
+                    ensure(4);
+                    buffer.putFloat((Float) value);
+                    break;
+                case TYPE_DOUBLE:
+                    writeDouble((Double) value);
+                    break;
+                case TYPE_BOOLEAN:
+                    writeBoolean((Boolean) value);
+                    break;
+                case TYPE_BYTE:
+                    writeByte((Byte) value);
+                    break;
+                case TYPE_SHORT:
+                    ensure(2);
+                    buffer.putShort((Short) value);
+                    break;
+                default:
+                    writeString(array ? AttributeUtils.printArray(value) : value.toString());
+                    break;
+            }
+        }
+    }
+}
@@ -57,8 +57,7 @@ import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
 import org.gephi.graph.api.types.TimestampMap;
 import org.gephi.io.exporter.api.FileType;
-import org.gephi.io.exporter.spi.CharacterExporter;
-import org.gephi.io.exporter.spi.GraphExporter;
+import org.gephi.io.exporter.spi.ShardedGraphExporter;
 import org.gephi.project.api.Workspace;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -70,12 +69,14 @@ import org.openide.util.NbBundle;
  *
  * @author Mathieu Bastian
  */
-public class ExporterGDF implements GraphExporter, CharacterExporter, LongTask {
+public class ExporterGDF implements ShardedGraphExporter, LongTask {
 
     private Workspace workspace;
     private boolean exportVisible;
     private boolean cancel = false;
     private ProgressTicket progressTicket;
+    //Elements of this shard only, or all elements if null
+    private ShardFilter shardFilter;
     //Settings
     private boolean normalize = false;
     private boolean simpleQuotes = false;
@@ -109,8 +110,15 @@ public class ExporterGDF implements GraphExporter, CharacterExporter, LongTask {
         graph.readLock();
 
         try {
+            if (shardFilter != null) {
+                shardFilter.init(graph);
+            }
             exportData(graph, graphModel);
         } catch (Exception e) {
+            if (shardFilter != null) {
+                //A broken part must not be listed in the shards manifest
+                throw new RuntimeException(e);
+            }
             Logger.getLogger(ExporterGDF.class.getName()).log(Level.SEVERE, null, e);
         } finally {
             graph.readUnlock();
@@ -120,14 +128,14 @@ public class ExporterGDF implements GraphExporter, CharacterExporter, LongTask {
         return !cancel;
     }
 
-    private void exportData(Graph graph, GraphModel graphModel) throws Exception {
+    private void exportData(final Graph graph, GraphModel graphModel) throws Exception {
 
         Progress.start(progressTicket);
 
         defaultNodeColumns(graph);
         defaultEdgeColumns(graph);
-        Column[] nodeColumns = attributesNodeColumns(graphModel);
-        Column[] edgeColumns = attributesEdgeColumns(graphModel);
+        final Column[] nodeColumns = attributesNodeColumns(graphModel);
+        final Column[] edgeColumns = attributesEdgeColumns(graphModel);
 
         StringBuilder stringBuilder = new StringBuilder();
 
@@ -176,49 +184,34 @@ public class ExporterGDF implements GraphExporter, CharacterExporter, LongTask {
         int max = graph.getNodeCount() + graph.getEdgeCount();
         Progress.switchToDeterminate(progressTicket, max);
 
-        //Node lines
-        NodeIterable itr = graph.getNodes();
-        for (Node node : itr) {
-            if (cancel) {
-                itr.doBreak();
-                return;
-            }
-
-            //Id
-            stringBuilder.append(node.getId());
-            stringBuilder.append(",");
-
-            //Default columns
-            for (NodeColumnsGDF c : defaultNodeColumnsGDFs) {
-                if (c.isEnable()) {
-                    c.writeData(stringBuilder, node);
-                    stringBuilder.append(",");
+        //Node lines, formatted in parallel chunks
+        writer.append(stringBuilder);
+        stringBuilder.setLength(0);
+        ParallelChunkWriter<Node> nodeWriter = new ParallelChunkWriter<>(writer, new ParallelChunkWriter.Formatter<Node>() {
+            @Override
+            public CharSequence format(List<Node> nodes) {
+                StringBuilder builder = new StringBuilder();
+                for (Node node : nodes) {
+                    writeNodeLine(builder, graph, node, nodeColumns);
                 }
+                return builder;
             }
-
-            //Attributes columns
-            for (Column c : nodeColumns) {
-                if (!c.isProperty()) {
-                    Object val = node.getAttribute(c, graph.getView());
-                    if (val != null) {
-                        if (c.getTypeClass().equals(String.class) || c.getTypeClass().equals(String[].class)) {
-                            String quote = !useQuotes ? "" : simpleQuotes ? "'" : "\"";
-                            stringBuilder.append(quote);
-                            stringBuilder.append(val.toString());
-                            stringBuilder.append(quote);
-                        } else {
-                            stringBuilder.append(val.toString());
-                        }
-                    }
-                    stringBuilder.append(",");
+        });
+        try {
+            NodeIterable itr = graph.getNodes();
+            for (Node node : itr) {
+                if (cancel) {
+                    itr.doBreak();
+                    return;
                 }
+                if (shardFilter == null || shardFilter.contains(node)) {
+                    nodeWriter.add(node);
+                }
+                Progress.progress(progressTicket);
             }
-
-            //Remove last coma
-            stringBuilder.setLength(stringBuilder.length() - 1);
-            stringBuilder.append("\n");
-
-            Progress.progress(progressTicket);
+            nodeWriter.finish();
+        } finally {
+            nodeWriter.close();
         }
 
         //Edge intro
@@ -263,57 +256,109 @@ public class ExporterGDF implements GraphExporter, CharacterExporter, LongTask {
         stringBuilder.setLength(stringBuilder.length() - 1);
         stringBuilder.append("\n");
 
-        //Edge lines
-        EdgeIterable itrEdges = graph.getEdges();
-        for (Edge edge : itrEdges) {
-            if (cancel) {
-                itrEdges.doBreak();
-                return;
-            }
-            //Source & Target
-            stringBuilder.append(edge.getSource().getId());
-            stringBuilder.append(",");
-            stringBuilder.append(edge.getTarget().getId());
-            stringBuilder.append(",");
-
-            //Default columns
-            for (EdgeColumnsGDF c : defaultEdgeColumnsGDFs) {
-                if (c.isEnable()) {
-                    c.writeData(stringBuilder, edge);
-                    stringBuilder.append(",");
+        //Edge lines, formatted in parallel chunks
+        writer.append(stringBuilder);
+        ParallelChunkWriter<Edge> edgeWriter = new ParallelChunkWriter<>(writer, new ParallelChunkWriter.Formatter<Edge>() {
+            @Override
+            public CharSequence format(List<Edge> edges) {
+                StringBuilder builder = new StringBuilder();
+                for (Edge edge : edges) {
+                    writeEdgeLine(builder, graph, edge, edgeColumns);
                 }
+                return builder;
+            }
+        });
+        try {
+            EdgeIterable itrEdges = graph.getEdges();
+            for (Edge edge : itrEdges) {
+                if (cancel) {
+                    itrEdges.doBreak();
+                    return;
+                }
+                if (shardFilter == null || shardFilter.contains(edge)) {
+                    edgeWriter.add(edge);
+                }
+                Progress.progress(progressTicket);
+            }
+            edgeWriter.finish();
+        } finally {
+            edgeWriter.close();
+        }
+        Progress.finish(progressTicket);
+    }
+
+    private void writeNodeLine(StringBuilder stringBuilder, Graph graph, Node node, Column[] nodeColumns) {
+        //Id
+        stringBuilder.append(node.getId());
+        stringBuilder.append(",");
+
+        //Default columns
+        for (NodeColumnsGDF c : defaultNodeColumnsGDFs) {
+            if (c.isEnable()) {
+                c.writeData(stringBuilder, node);
+                stringBuilder.append(",");
             }
+        }
 
-            //Attributes columns
-            for (Column c : edgeColumns) {
-                if (!c.isProperty()) {
-                    Object val = edge.getAttribute(c, graph.getView());
-                    if (val != null) {
-                        if (c.getTypeClass().equals(String.class) || c.getTypeClass().equals(String[].class)) {
-                            String quote = !useQuotes ? "" : simpleQuotes ? "'" : "\"";
-                            stringBuilder.append(quote);
-                            stringBuilder.append(val.toString());
-                            stringBuilder.append(quote);
-                        } else {
-                            stringBuilder.append(val.toString());
-                        }
+        //Attributes columns
+        for (Column c : nodeColumns) {
+            if (!c.isProperty()) {
+                Object val = node.getAttribute(c, graph.getView());
+                if (val != null) {
+                    if (c.getTypeClass().equals(String.class) || c.getTypeClass().equals(String[].class)) {
+                        String quote = !useQuotes ? "" : simpleQuotes ? "'" : "\"";
+                        stringBuilder.append(quote);
+                        stringBuilder.append(val.toString());
+                        stringBuilder.append(quote);
+                    } else {
+                        stringBuilder.append(val.toString());
                     }
-                    stringBuilder.append(",");
                 }
+                stringBuilder.append(",");
             }
+        }
+
+        //Remove last coma
+        stringBuilder.setLength(stringBuilder.length() - 1);
+        stringBuilder.append("\n");
+    }
 
-            //Remove last coma
-            stringBuilder.setLength(stringBuilder.length() - 1);
-            stringBuilder.append("\n");
+    private void writeEdgeLine(StringBuilder stringBuilder, Graph graph, Edge edge, Column[] edgeColumns) {
+        //Source & Target
+        stringBuilder.append(edge.getSource().getId());
+        stringBuilder.append(",");
+        stringBuilder.append(edge.getTarget().getId());
+        stringBuilder.append(",");
 
-            Progress.progress(progressTicket);
+        //Default columns
+        for (EdgeColumnsGDF c : defaultEdgeColumnsGDFs) {
+            if (c.isEnable()) {
+                c.writeData(stringBuilder, edge);
+                stringBuilder.append(",");
+            }
         }
 
-        //Write StringBuilder
-        if (!cancel) {
-            writer.append(stringBuilder);
+        //Attributes columns
+        for (Column c : edgeColumns) {
+            if (!c.isProperty()) {
+                Object val = edge.getAttribute(c, graph.getView());
+                if (val != null) {
+                    if (c.getTypeClass().equals(String.class) || c.getTypeClass().equals(String[].class)) {
+                        String quote = !useQuotes ? "" : simpleQuotes ? "'" : "\"";
+                        stringBuilder.append(quote);
+                        stringBuilder.append(val.toString());
+                        stringBuilder.append(quote);
+                    } else {
+                        stringBuilder.append(val.toString());
+                    }
+                }
+                stringBuilder.append(",");
+            }
         }
-        Progress.finish(progressTicket);
+
+        //Remove last coma
+        stringBuilder.setLength(stringBuilder.length() - 1);
+        stringBuilder.append("\n");
     }
 
     private Column[] attributesNodeColumns(GraphModel graphModel) {
@@ -653,6 +698,23 @@ public class ExporterGDF implements GraphExporter, CharacterExporter, LongTask {
         }
     }
 
+    @Override
+    public ShardedGraphExporter createShard(int shard, int shardCount, Partitioning partitioning) {
+        ExporterGDF exporter = new ExporterGDF();
+        exporter.normalize = normalize;
+        exporter.simpleQuotes = simpleQuotes;
+        exporter.useQuotes = useQuotes;
+        exporter.exportColors = exportColors;
+        exporter.exportPosition = exportPosition;
+        exporter.exportAttributes = exportAttributes;
+        exporter.exportDynamicWeight = exportDynamicWeight;
+        exporter.exportVisibility = exportVisibility;
+        exporter.exportVisible = exportVisible;
+        exporter.workspace = workspace;
+        exporter.shardFilter = new ShardFilter(shard, shardCount, partitioning);
+        return exporter;
+    }
+
     @Override
     public boolean cancel() {
         cancel = true;
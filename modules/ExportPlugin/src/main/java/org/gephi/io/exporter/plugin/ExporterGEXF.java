@@ -41,6 +41,7 @@
  */
 package org.gephi.io.exporter.plugin;
 
+import java.io.StringWriter;
 import java.io.Writer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -131,6 +132,15 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
     private static final String ATTVALUE = "attvalue";
     private static final String ATTVALUE_FOR = "for";
     private static final String ATTVALUE_VALUE = "value";
+    //Factories aren't thread-safe, each chunk worker uses its own
+    private static final ThreadLocal<XMLOutputFactory> OUTPUT_FACTORY = new ThreadLocal<XMLOutputFactory>() {
+        @Override
+        protected XMLOutputFactory initialValue() {
+            XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+            outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", Boolean.FALSE);
+            return outputFactory;
+        }
+    };
     //Architecture
     private boolean cancel = false;
     private ProgressTicket progress;
@@ -144,6 +154,9 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
     private boolean exportSize = true;
     private boolean exportAttributes = true;
     private boolean exportDynamic = true;
+    private boolean indent = true;
+    //Elements after the first are formatted in parallel chunks, disabled in tests
+    boolean parallel = true;
     //Settings Helper
     private float minSize;
     private float maxSize;
@@ -153,6 +166,10 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
     private float maxY;
     private float minZ;
     private float maxZ;
+    private Interval visibleInterval;
+    private TimeRepresentation timeRepresentation;
+    private TimeFormat timeFormat;
+    private DateTimeZone timeZone;
 
     @Override
     public boolean execute() {
@@ -169,14 +186,19 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
         //Calculate min & max
         calculateMinMax(graph);
 
+        //Time settings, read once for all elements
+        visibleInterval = graph.getView().getTimeInterval();
+        timeRepresentation = graphModel.getConfiguration().getTimeRepresentation();
+        timeFormat = graphModel.getTimeFormat();
+        timeZone = graphModel.getTimeZone();
+
         Progress.switchToDeterminate(progress, graph.getNodeCount() + graph.getEdgeCount());
 
         try {
-            XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
-            outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", Boolean.FALSE);
-
-            XMLStreamWriter xmlWriter = outputFactory.createXMLStreamWriter(writer);
-            xmlWriter = new IndentingXMLStreamWriter(xmlWriter);
+            XMLStreamWriter xmlWriter = OUTPUT_FACTORY.get().createXMLStreamWriter(writer);
+            if (indent) {
+                xmlWriter = new IndentingXMLStreamWriter(xmlWriter);
+            }
 
             xmlWriter.writeStartDocument("UTF-8", "1.0");
             xmlWriter.setPrefix("", GEXF_NAMESPACE);
@@ -312,51 +334,108 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
         xmlWriter.writeEndElement();
     }
 
-    private void writeNodes(XMLStreamWriter xmlWriter, Graph graph) throws Exception {
+    private void writeNodes(XMLStreamWriter xmlWriter, final Graph graph) throws Exception {
         if (cancel) {
             return;
         }
         xmlWriter.writeStartElement(NODES);
 
-        NodeIterable nodeIterable = graph.getNodes();
-        for (Node node : nodeIterable) {
-            xmlWriter.writeStartElement(NODE);
-
-            String id = node.getId().toString();
-            xmlWriter.writeAttribute(NODE_ID, id);
-            if (node.getLabel() != null && !node.getLabel().isEmpty()) {
-                xmlWriter.writeAttribute(NODE_LABEL, node.getLabel());
+        ParallelChunkWriter<Node> chunkWriter = null;
+        try {
+            NodeIterable nodeIterable = graph.getNodes();
+            for (Node node : nodeIterable) {
+                if (chunkWriter != null) {
+                    chunkWriter.add(node);
+                } else {
+                    writeNode(xmlWriter, graph, node);
+                    if (parallel) {
+                        //The first node is written in place, the others are formatted in parallel chunks
+                        xmlWriter.flush();
+                        chunkWriter = new ParallelChunkWriter<>(writer, new ParallelChunkWriter.Formatter<Node>() {
+                            @Override
+                            public CharSequence format(List<Node> nodes) throws Exception {
+                                return formatChunk(graph, NODES, nodes);
+                            }
+                        });
+                    }
+                }
+                Progress.progress(progress);
+                if (cancel) {
+                    nodeIterable.doBreak();
+                    break;
+                }
             }
-
-            if (exportDynamic) {
-                writeTimeSet(xmlWriter, graph, node);
+            if (chunkWriter != null && !cancel) {
+                chunkWriter.finish();
+            }
+        } finally {
+            if (chunkWriter != null) {
+                chunkWriter.close();
             }
+        }
 
-            writeAttValues(xmlWriter, graph, node);
+        xmlWriter.writeEndElement();
+    }
 
-            if (exportSize) {
-                writeNodeSize(xmlWriter, node);
-            }
+    private void writeNode(XMLStreamWriter xmlWriter, Graph graph, Node node) throws Exception {
+        xmlWriter.writeStartElement(NODE);
 
-            if (exportPosition) {
-                writeNodePosition(xmlWriter, node);
-            }
+        String id = node.getId().toString();
+        xmlWriter.writeAttribute(NODE_ID, id);
+        if (node.getLabel() != null && !node.getLabel().isEmpty()) {
+            xmlWriter.writeAttribute(NODE_LABEL, node.getLabel());
+        }
 
-            if (exportColors) {
-                writeNodeColor(xmlWriter, node);
-            }
+        if (exportDynamic) {
+            writeTimeSet(xmlWriter, graph, node);
+        }
 
-            xmlWriter.writeEndElement();
-            Progress.progress(progress);
-            if (cancel) {
-                nodeIterable.doBreak();
-                break;
-            }
+        writeAttValues(xmlWriter, graph, node);
+
+        if (exportSize) {
+            writeNodeSize(xmlWriter, node);
+        }
+
+        if (exportPosition) {
+            writeNodePosition(xmlWriter, node);
+        }
+
+        if (exportColors) {
+            writeNodeColor(xmlWriter, node);
         }
 
         xmlWriter.writeEndElement();
     }
 
+    /**
+     * Formats a chunk of nodes or edges with a private stream writer. The
+     * chunk is written inside the same elements as in the document so that
+     * indentation is identical, and only the text of the elements is kept.
+     */
+    private CharSequence formatChunk(Graph graph, String parent, List<? extends Element> elements) throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        XMLStreamWriter plainWriter = OUTPUT_FACTORY.get().createXMLStreamWriter(stringWriter);
+        XMLStreamWriter xmlWriter = indent ? new IndentingXMLStreamWriter(plainWriter) : plainWriter;
+
+        xmlWriter.writeStartElement(GEXF);
+        xmlWriter.writeStartElement(GRAPH);
+        xmlWriter.writeStartElement(parent);
+        //Closes the parent's start tag without changing the indentation state
+        plainWriter.writeCharacters("");
+        plainWriter.flush();
+        int start = stringWriter.getBuffer().length();
+
+        for (Element element : elements) {
+            if (element instanceof Node) {
+                writeNode(xmlWriter, graph, (Node) element);
+            } else {
+                writeEdge(xmlWriter, graph, (Edge) element);
+            }
+        }
+        xmlWriter.flush();
+        return stringWriter.getBuffer().substring(start);
+    }
+
     private void writeAttValue(XMLStreamWriter xmlWriter, Graph graph, Column column, Element element) throws Exception {
         if (!column.isDynamic()) {
             Object val = element.getAttribute(column);
@@ -373,10 +452,6 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
                 xmlWriter.writeEndElement();
             }
         } else if (exportDynamic) {
-            Interval visibleInterval = graph.getView().getTimeInterval();
-            TimeRepresentation timeRepresentation = graph.getModel().getConfiguration().getTimeRepresentation();
-            TimeFormat timeFormat = graph.getModel().getTimeFormat();
-            DateTimeZone timeZone = graph.getModel().getTimeZone();
             if (timeRepresentation.equals(TimeRepresentation.INTERVAL)) {
                 IntervalMap timeMap = (IntervalMap) element.getAttribute(column);
                 if (timeMap != null) {
@@ -496,11 +571,7 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
     }
 
     private void writeTimeSet(XMLStreamWriter xmlWriter, Graph graph, Element element) throws Exception {
-        Interval visibleInterval = graph.getView().getTimeInterval();
-        TimeRepresentation timeRepresentation = graph.getModel().getConfiguration().getTimeRepresentation();
         TimeSet timeSet = (TimeSet) element.getAttribute("timeset");
-        TimeFormat timeFormat = graph.getModel().getTimeFormat();
-        DateTimeZone timeZone = graph.getModel().getTimeZone();
         if (timeSet != null && !timeSet.isEmpty()) {
             if (timeSet.size() > 1) {
                 xmlWriter.writeStartElement(SPELLS);
@@ -546,63 +617,92 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
         }
     }
 
-    private void writeEdges(XMLStreamWriter xmlWriter, Graph graph) throws Exception {
+    private void writeEdges(XMLStreamWriter xmlWriter, final Graph graph) throws Exception {
         if (cancel) {
             return;
         }
 
         xmlWriter.writeStartElement(EDGES);
 
-        EdgeIterable edgeIterable = graph.getEdges();
-        for (Edge edge : edgeIterable) {
-            xmlWriter.writeStartElement(EDGE);
-
-            xmlWriter.writeAttribute(EDGE_ID, edge.getId().toString());
-
-            xmlWriter.writeAttribute(EDGE_SOURCE, edge.getSource().getId().toString());
-            xmlWriter.writeAttribute(EDGE_TARGET, edge.getTarget().getId().toString());
-
-            if (graph.isMixed()) {
-                if (edge.isDirected()) {
-                    xmlWriter.writeAttribute(EDGE_TYPE, "directed");
+        ParallelChunkWriter<Edge> chunkWriter = null;
+        try {
+            EdgeIterable edgeIterable = graph.getEdges();
+            for (Edge edge : edgeIterable) {
+                if (chunkWriter != null) {
+                    chunkWriter.add(edge);
                 } else {
-                    xmlWriter.writeAttribute(EDGE_TYPE, "undirected");
+                    writeEdge(xmlWriter, graph, edge);
+                    if (parallel) {
+                        //The first edge is written in place, the others are formatted in parallel chunks
+                        xmlWriter.flush();
+                        chunkWriter = new ParallelChunkWriter<>(writer, new ParallelChunkWriter.Formatter<Edge>() {
+                            @Override
+                            public CharSequence format(List<Edge> edges) throws Exception {
+                                return formatChunk(graph, EDGES, edges);
+                            }
+                        });
+                    }
+                }
+                Progress.progress(progress);
+                if (cancel) {
+                    edgeIterable.doBreak();
+                    break;
                 }
             }
-
-            String label = edge.getLabel();
-            if (label != null && !label.isEmpty()) {
-                xmlWriter.writeAttribute(EDGE_LABEL, label);
+            if (chunkWriter != null && !cancel) {
+                chunkWriter.finish();
             }
-
-            if (edge.getType() != 0) {
-                xmlWriter.writeAttribute(EDGE_KIND, edge.getTypeLabel().toString());
+        } finally {
+            if (chunkWriter != null) {
+                chunkWriter.close();
             }
+        }
 
-            if (!edge.hasDynamicWeight()) {
-                double weight = edge.getWeight();
-                if (weight != 1f) {
-                    xmlWriter.writeAttribute(EDGE_WEIGHT, String.valueOf(weight));
-                }
-            }
+        xmlWriter.writeEndElement();
+    }
 
-            if (exportDynamic) {
-                writeTimeSet(xmlWriter, graph, edge);
-            }
+    private void writeEdge(XMLStreamWriter xmlWriter, Graph graph, Edge edge) throws Exception {
+        xmlWriter.writeStartElement(EDGE);
+
+        xmlWriter.writeAttribute(EDGE_ID, edge.getId().toString());
+
+        xmlWriter.writeAttribute(EDGE_SOURCE, edge.getSource().getId().toString());
+        xmlWriter.writeAttribute(EDGE_TARGET, edge.getTarget().getId().toString());
 
-            if (exportColors) {
-                writeEdgeColor(xmlWriter, edge);
+        if (graph.isMixed()) {
+            if (edge.isDirected()) {
+                xmlWriter.writeAttribute(EDGE_TYPE, "directed");
+            } else {
+                xmlWriter.writeAttribute(EDGE_TYPE, "undirected");
             }
+        }
 
-            writeAttValues(xmlWriter, graph, edge);
+        String label = edge.getLabel();
+        if (label != null && !label.isEmpty()) {
+            xmlWriter.writeAttribute(EDGE_LABEL, label);
+        }
 
-            xmlWriter.writeEndElement();
-            Progress.progress(progress);
-            if (cancel) {
-                break;
+        if (edge.getType() != 0) {
+            xmlWriter.writeAttribute(EDGE_KIND, edge.getTypeLabel().toString());
+        }
+
+        if (!edge.hasDynamicWeight()) {
+            double weight = edge.getWeight();
+            if (weight != 1f) {
+                xmlWriter.writeAttribute(EDGE_WEIGHT, String.valueOf(weight));
             }
         }
 
+        if (exportDynamic) {
+            writeTimeSet(xmlWriter, graph, edge);
+        }
+
+        if (exportColors) {
+            writeEdgeColor(xmlWriter, edge);
+        }
+
+        writeAttValues(xmlWriter, graph, edge);
+
         xmlWriter.writeEndElement();
     }
 
@@ -725,6 +825,14 @@ public class ExporterGEXF implements GraphExporter, CharacterExporter, LongTask
         return exportDynamic;
     }
 
+    public boolean isIndent() {
+        return indent;
+    }
+
+    public void setIndent(boolean indent) {
+        this.indent = indent;
+    }
+
     @Override
     public void setExportVisible(boolean exportVisible) {
         this.exportVisible = exportVisible;
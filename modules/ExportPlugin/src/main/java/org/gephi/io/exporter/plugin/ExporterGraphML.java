@@ -45,22 +45,15 @@ package org.gephi.io.exporter.plugin;
 import java.io.Writer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javanet.staxutils.IndentingXMLStreamWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.Element;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphController;
 import org.gephi.graph.api.GraphModel;
@@ -75,17 +68,17 @@ import org.gephi.utils.progress.Progress;
 import org.gephi.utils.progress.ProgressTicket;
 import org.openide.util.Lookup;
 import org.openide.util.NbBundle;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Text;
 
 /**
+ * GraphML exporter writing the graph in a single pass with a
+ * <code>XMLStreamWriter</code>, so memory doesn't grow with the graph.
  *
  * @author Sebastien Heymann
  * @author Mathieu Bastian
  */
 public class ExporterGraphML implements GraphExporter, CharacterExporter, LongTask {
 
+    private static final String GRAPHML_NAMESPACE = "http://graphml.graphdrawing.org/xmlns";
     private boolean cancel = false;
     private ProgressTicket progressTicket;
     private Workspace workspace;
@@ -117,7 +110,15 @@ public class ExporterGraphML implements GraphExporter, CharacterExporter, LongTa
         graph.readLock();
 
         try {
-            exportData(createDocument(), graph);
+            XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+            outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", Boolean.FALSE);
+
+            XMLStreamWriter xmlWriter = outputFactory.createXMLStreamWriter(writer);
+            xmlWriter = new IndentingXMLStreamWriter(xmlWriter);
+
+            exportData(xmlWriter, graph);
+
+            xmlWriter.close();
         } catch (Exception e) {
             Logger.getLogger(ExporterGraphML.class.getName()).log(Level.SEVERE, null, e);
         } finally {
@@ -128,38 +129,7 @@ public class ExporterGraphML implements GraphExporter, CharacterExporter, LongTa
         return !cancel;
     }
 
-    private Document createDocument() throws ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder documentBuilder = factory.newDocumentBuilder();
-        final Document document = documentBuilder.newDocument();
-        document.setXmlVersion("1.0");
-        document.setXmlStandalone(true);
-        return document;
-    }
-
-    private void transform(Document document) throws TransformerConfigurationException, TransformerException {
-        Source source = new DOMSource(document);
-        Result result = new StreamResult(writer);
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-        transformer.transform(source, result);
-    }
-
-    /*
-     public Schema getSchema() {
-     try {
-     SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-     return sf.newSchema(new URL("http://www.gexf.net/1.1draft/gexf.xsd"));
-     } catch (MalformedURLException ex) {
-     Exceptions.printStackTrace(ex);
-     } catch (SAXException ex) {
-     Exceptions.printStackTrace(ex);
-     }
-     return null;
-     }
-     */
-    private void exportData(Document document, Graph graph) throws Exception {
+    private void exportData(XMLStreamWriter xmlWriter, Graph graph) throws Exception {
         Progress.start(progressTicket);
 
         //Options
@@ -170,98 +140,42 @@ public class ExporterGraphML implements GraphExporter, CharacterExporter, LongTa
 
         Progress.switchToDeterminate(progressTicket, max);
 
-        Element root = document.createElementNS("http://graphml.graphdrawing.org/xmlns", "graphml");
-        document.appendChild(root);
+        xmlWriter.writeStartDocument("UTF-8", "1.0");
+        xmlWriter.setDefaultNamespace(GRAPHML_NAMESPACE);
+        xmlWriter.writeStartElement(GRAPHML_NAMESPACE, "graphml");
+        xmlWriter.writeDefaultNamespace(GRAPHML_NAMESPACE);
 
-        createKeys(document, root, graph.getModel());
+        writeKeys(xmlWriter, graph.getModel());
 
-        Element graphE = createGraph(document, graph);
-        root.appendChild(graphE);
+        writeGraph(xmlWriter, graph);
 
-        if (!cancel) {
-            transform(document);
-        }
+        xmlWriter.writeEndElement();
+        xmlWriter.writeEndDocument();
 
         Progress.finish(progressTicket);
     }
 
-    private void createKeys(Document document, Element root, GraphModel graphModel) {
-        Element nodeLabelKeyE = document.createElement("key");
-        nodeLabelKeyE.setAttribute("id", "label");
-        nodeLabelKeyE.setAttribute("attr.name", "label");
-        nodeLabelKeyE.setAttribute("attr.type", "string");
-        nodeLabelKeyE.setAttribute("for", "node");
-        root.appendChild(nodeLabelKeyE);
-
-        Element edgeLabelKeyE = document.createElement("key");
-        edgeLabelKeyE.setAttribute("id", "edgelabel");
-        edgeLabelKeyE.setAttribute("attr.name", "Edge Label");
-        edgeLabelKeyE.setAttribute("attr.type", "string");
-        edgeLabelKeyE.setAttribute("for", "edge");
-        root.appendChild(edgeLabelKeyE);
-
-        Element weightKeyE = document.createElement("key");
-        weightKeyE.setAttribute("id", "weight");
-        weightKeyE.setAttribute("attr.name", "weight");
-        weightKeyE.setAttribute("attr.type", "double");
-        weightKeyE.setAttribute("for", "edge");
-        root.appendChild(weightKeyE);
+    private void writeKeys(XMLStreamWriter xmlWriter, GraphModel graphModel) throws XMLStreamException {
+        writeKey(xmlWriter, "label", "label", "string", "node");
+        writeKey(xmlWriter, "edgelabel", "Edge Label", "string", "edge");
+        writeKey(xmlWriter, "weight", "weight", "double", "edge");
 
         if (exportColors) {
-            Element colorRKeyE = document.createElement("key");
-            colorRKeyE.setAttribute("id", "r");
-            colorRKeyE.setAttribute("attr.name", "r");
-            colorRKeyE.setAttribute("attr.type", "int");
-            colorRKeyE.setAttribute("for", "node");
-            root.appendChild(colorRKeyE);
-
-            Element colorGKeyE = document.createElement("key");
-            colorGKeyE.setAttribute("id", "g");
-            colorGKeyE.setAttribute("attr.name", "g");
-            colorGKeyE.setAttribute("attr.type", "int");
-            colorGKeyE.setAttribute("for", "node");
-            root.appendChild(colorGKeyE);
-
-            Element colorBKeyE = document.createElement("key");
-            colorBKeyE.setAttribute("id", "b");
-            colorBKeyE.setAttribute("attr.name", "b");
-            colorBKeyE.setAttribute("attr.type", "int");
-            colorBKeyE.setAttribute("for", "node");
-            root.appendChild(colorBKeyE);
+            writeKey(xmlWriter, "r", "r", "int", "node");
+            writeKey(xmlWriter, "g", "g", "int", "node");
+            writeKey(xmlWriter, "b", "b", "int", "node");
         }
 
         if (exportPosition) {
-            Element positionKeyE = document.createElement("key");
-            positionKeyE.setAttribute("id", "x");
-            positionKeyE.setAttribute("attr.name", "x");
-            positionKeyE.setAttribute("attr.type", "float");
-            positionKeyE.setAttribute("for", "node");
-            root.appendChild(positionKeyE);
-
-            Element positionKey2E = document.createElement("key");
-            positionKey2E.setAttribute("id", "y");
-            positionKey2E.setAttribute("attr.name", "y");
-            positionKey2E.setAttribute("attr.type", "float");
-            positionKey2E.setAttribute("for", "node");
-            root.appendChild(positionKey2E);
-
+            writeKey(xmlWriter, "x", "x", "float", "node");
+            writeKey(xmlWriter, "y", "y", "float", "node");
             if (minZ != 0f || maxZ != 0f) {
-                Element positionKey3E = document.createElement("key");
-                positionKey3E.setAttribute("id", "z");
-                positionKey3E.setAttribute("attr.name", "z");
-                positionKey3E.setAttribute("attr.type", "float");
-                positionKey3E.setAttribute("for", "node");
-                root.appendChild(positionKey3E);
+                writeKey(xmlWriter, "z", "z", "float", "node");
             }
         }
 
         if (exportSize) {
-            Element sizeKeyE = document.createElement("key");
-            sizeKeyE.setAttribute("id", "size");
-            sizeKeyE.setAttribute("attr.name", "size");
-            sizeKeyE.setAttribute("attr.type", "float");
-            sizeKeyE.setAttribute("for", "node");
-            root.appendChild(sizeKeyE);
+            writeKey(xmlWriter, "size", "size", "float", "node");
         }
 
         //Attributes
@@ -269,304 +183,186 @@ public class ExporterGraphML implements GraphExporter, CharacterExporter, LongTa
             //Node attributes
             for (Column column : graphModel.getNodeTable()) {
                 if (!column.isProperty()) {
-                    Element attributeE = createAttribute(document, column);
-                    attributeE.setAttribute("for", "node");
-                    root.appendChild(attributeE);
+                    writeAttributeKey(xmlWriter, column, "node");
                 }
             }
 
             for (Column column : graphModel.getEdgeTable()) {
                 if (!column.isProperty()) {
-                    Element attributeE = createAttribute(document, column);
-                    attributeE.setAttribute("for", "edge");
-                    root.appendChild(attributeE);
+                    writeAttributeKey(xmlWriter, column, "edge");
                 }
             }
         }
     }
 
-    private Element createGraph(Document document, Graph graph) throws Exception {
-        Element graphE = document.createElement("graph");
-
-        if (graph.isDirected() || graph.isMixed()) {
-            graphE.setAttribute("edgedefault", "directed");
-        } else {
-            graphE.setAttribute("edgedefault", "undirected"); // defaultValue
-        }
-
-        //Nodes
-        createNodes(document, graphE, graph);
-
-        //Edges
-        createEdges(document, graphE, graph);
-
-        return graphE;
+    private void writeKey(XMLStreamWriter xmlWriter, String id, String name, String type, String target) throws XMLStreamException {
+        xmlWriter.writeEmptyElement("key");
+        xmlWriter.writeAttribute("attr.name", name);
+        xmlWriter.writeAttribute("attr.type", type);
+        xmlWriter.writeAttribute("for", target);
+        xmlWriter.writeAttribute("id", id);
     }
 
-    private Element createAttribute(Document document, Column column) {
-        Element attributeE = document.createElement("key");
-        attributeE.setAttribute("id", column.getId());
-        attributeE.setAttribute("attr.name", column.getTitle());
+    private void writeAttributeKey(XMLStreamWriter xmlWriter, Column column, String target) throws XMLStreamException {
+        String type;
         if (column.getTypeClass().equals(Integer.class)
                 || column.getTypeClass().equals(Short.class)
                 || column.getTypeClass().equals(Byte.class)) {
-            attributeE.setAttribute("attr.type", "int");
+            type = "int";
         } else {
-            attributeE.setAttribute("attr.type", AttributeUtils.getTypeName(column.getTypeClass()));
+            type = AttributeUtils.getTypeName(column.getTypeClass());
         }
-        if (column.getDefaultValue() != null) {
-            Element defaultE = document.createElement("default");
-            Text defaultTextE = document.createTextNode(column.getDefaultValue().toString());
-            defaultE.appendChild(defaultTextE);
-        }
-        return attributeE;
+        writeKey(xmlWriter, column.getId(), column.getTitle(), type, target);
     }
 
-    private Element createNodeAttvalue(Document document, Column column, Graph graph, Node n) throws Exception {
-        Object val = n.getAttribute(column, graph.getView());
-        if (val != null) {
-            String value = val.toString();
-            String id = column.getId();
+    private void writeGraph(XMLStreamWriter xmlWriter, Graph graph) throws Exception {
+        xmlWriter.writeStartElement("graph");
 
-            Element attvalueE = document.createElement("data");
-            attvalueE.setAttribute("key", id);
-            attvalueE.setTextContent(value);
-            return attvalueE;
+        if (graph.isDirected() || graph.isMixed()) {
+            xmlWriter.writeAttribute("edgedefault", "directed");
+        } else {
+            xmlWriter.writeAttribute("edgedefault", "undirected"); // defaultValue
         }
-        return null;
+
+        //Nodes
+        writeNodes(xmlWriter, graph);
+
+        //Edges
+        writeEdges(xmlWriter, graph);
+
+        xmlWriter.writeEndElement();
     }
 
-    private Element createEdgeAttvalue(Document document, Column column, Graph graph, Edge e) throws Exception {
-        Object val = e.getAttribute(column, graph.getView());
-        if (val != null) {
-            String value = val.toString();
-            String id = column.getId();
+    private void writeData(XMLStreamWriter xmlWriter, String key, String value) throws XMLStreamException {
+        xmlWriter.writeStartElement("data");
+        xmlWriter.writeAttribute("key", key);
+        xmlWriter.writeCharacters(value);
+        xmlWriter.writeEndElement();
+    }
 
-            Element attvalueE = document.createElement("data");
-            attvalueE.setAttribute("key", id);
-            attvalueE.setTextContent(value);
-            return attvalueE;
+    private void writeAttValues(XMLStreamWriter xmlWriter, Graph graph, Element element) throws XMLStreamException {
+        for (Column column : element.getAttributeColumns()) {
+            if (!column.isProperty()) {
+                //Data or computed
+                Object val = element.getAttribute(column, graph.getView());
+                if (val != null) {
+                    writeData(xmlWriter, column.getId(), val.toString());
+                }
+            }
         }
-        return null;
     }
 
-    private void createNodes(Document document, Element parentE, Graph graph) throws Exception {
+    private void writeNodes(XMLStreamWriter xmlWriter, Graph graph) throws Exception {
         NodeIterable nodeIterable = graph.getNodes();
         for (Node n : nodeIterable) {
             if (cancel) {
                 nodeIterable.doBreak();
                 break;
             }
-            Element nodeE = createNode(document, graph, n);
-            parentE.appendChild(nodeE);
+            writeNode(xmlWriter, graph, n);
         }
     }
 
-    private Element createNode(Document document, Graph graph, Node n) throws Exception {
-        Element nodeE = document.createElement("node");
-        nodeE.setAttribute("id", n.getId().toString());
+    private void writeNode(XMLStreamWriter xmlWriter, Graph graph, Node n) throws Exception {
+        xmlWriter.writeStartElement("node");
+        xmlWriter.writeAttribute("id", n.getId().toString());
 
         //Label
         if (n.getLabel() != null && !n.getLabel().isEmpty()) {
-            Element labelE = createNodeLabel(document, n);
-            nodeE.appendChild(labelE);
+            writeData(xmlWriter, "label", n.getLabel());
         }
 
         //Attribute values
         if (exportAttributes) {
-            for (Column column : n.getAttributeColumns()) {
-                if (!column.isProperty()) {
-                    //Data or computed
-                    Element attvalueE = createNodeAttvalue(document, column, graph, n);
-                    if (attvalueE != null) {
-                        nodeE.appendChild(attvalueE);
-                    }
-                }
-            }
+            writeAttValues(xmlWriter, graph, n);
         }
 
         //Viz
         if (exportSize) {
-            Element sizeE = createNodeSize(document, n);
-            nodeE.appendChild(sizeE);
+            float size = n.size();
+            if (normalize) {
+                size = (size - minSize) / (maxSize - minSize);
+            }
+            writeData(xmlWriter, "size", "" + size);
         }
         if (exportColors) {
-            Element colorE = createNodeColorR(document, n);
-            nodeE.appendChild(colorE);
-
-            colorE = createNodeColorG(document, n);
-            nodeE.appendChild(colorE);
-
-            colorE = createNodeColorB(document, n);
-            nodeE.appendChild(colorE);
+            writeData(xmlWriter, "r", "" + Math.round(n.r() * 255f));
+            writeData(xmlWriter, "g", "" + Math.round(n.g() * 255f));
+            writeData(xmlWriter, "b", "" + Math.round(n.b() * 255f));
         }
         if (exportPosition) {
-            Element positionXE = createNodePositionX(document, n);
-            nodeE.appendChild(positionXE);
-            Element positionYE = createNodePositionY(document, n);
-            nodeE.appendChild(positionYE);
+            float x = n.x();
+            if (normalize && x != 0.0) {
+                x = (x - minX) / (maxX - minX);
+            }
+            writeData(xmlWriter, "x", "" + x);
+
+            float y = n.y();
+            if (normalize && y != 0.0) {
+                y = (y - minY) / (maxY - minY);
+            }
+            writeData(xmlWriter, "y", "" + y);
+
             if (minZ != 0f || maxZ != 0f) {
-                Element positionZE = createNodePositionZ(document, n);
-                nodeE.appendChild(positionZE);
+                float z = n.z();
+                if (normalize && z != 0.0) {
+                    z = (z - minZ) / (maxZ - minZ);
+                }
+                writeData(xmlWriter, "z", "" + z);
             }
         }
 
-        Progress.progress(progressTicket);
+        xmlWriter.writeEndElement();
 
-        return nodeE;
+        Progress.progress(progressTicket);
     }
 
-    private void createEdges(Document document, Element edgesE, Graph graph) throws Exception {
+    private void writeEdges(XMLStreamWriter xmlWriter, Graph graph) throws Exception {
         EdgeIterable itr = graph.getEdges();
         for (Edge e : itr) {
             if (cancel) {
                 itr.doBreak();
                 break;
             }
-            Element edgeE = createEdge(document, e, graph);
-            edgesE.appendChild(edgeE);
+            writeEdge(xmlWriter, e, graph);
         }
     }
 
-    private Element createEdge(Document document, Edge e, Graph graph) throws Exception {
-        Element edgeE = document.createElement("edge");
-
-        edgeE.setAttribute("id", e.getId().toString());
-        edgeE.setAttribute("source", e.getSource().getId().toString());
-        edgeE.setAttribute("target", e.getTarget().getId().toString());
+    private void writeEdge(XMLStreamWriter xmlWriter, Edge e, Graph graph) throws Exception {
+        xmlWriter.writeStartElement("edge");
 
-        //Label
-        if (e.getLabel() != null && !e.getLabel().isEmpty()) {
-            Element labelE = createEdgeLabel(document, e);
-            edgeE.appendChild(labelE);
-        }
-
-        Element weightE = createEdgeWeight(document, e, graph);
-        edgeE.appendChild(weightE);
+        xmlWriter.writeAttribute("id", e.getId().toString());
+        xmlWriter.writeAttribute("source", e.getSource().getId().toString());
+        xmlWriter.writeAttribute("target", e.getTarget().getId().toString());
 
         if (e.isDirected() && !graph.isDirected()) {
-            edgeE.setAttribute("type", "directed");
+            xmlWriter.writeAttribute("type", "directed");
         } else if (!e.isDirected() && graph.isDirected()) {
-            edgeE.setAttribute("type", "undirected");
+            xmlWriter.writeAttribute("type", "undirected");
         }
 
-        //Attribute values
-        if (exportAttributes) {
-            for (Column column : e.getAttributeColumns()) {
-                if (!column.isProperty()) {
-                    //Data or computed
-                    Element attvalueE = createEdgeAttvalue(document, column, graph, e);
-                    if (attvalueE != null) {
-                        edgeE.appendChild(attvalueE);
-                    }
-                }
-            }
-        }
-
-        Progress.progress(progressTicket);
-
-        return edgeE;
-    }
-
-    private Element createNodeSize(Document document, Node n) throws Exception {
-        Element sizeE = document.createElement("data");
-        float size = n.size();
-        if (normalize) {
-            size = (size - minSize) / (maxSize - minSize);
-        }
-        sizeE.setAttribute("key", "size");
-        sizeE.setTextContent("" + size);
-
-        return sizeE;
-    }
-
-    private Element createNodeColorR(Document document, Node n) throws Exception {
-        int r = Math.round(n.r() * 255f);
-        Element colorE = document.createElement("data");
-        colorE.setAttribute("key", "r");
-        colorE.setTextContent("" + r);
-        return colorE;
-    }
-
-    private Element createNodeColorG(Document document, Node n) throws Exception {
-        int g = Math.round(n.g() * 255f);
-        Element colorE = document.createElement("data");
-        colorE.setAttribute("key", "g");
-        colorE.setTextContent("" + g);
-        return colorE;
-    }
-
-    private Element createNodeColorB(Document document, Node n) throws Exception {
-        int b = Math.round(n.b() * 255f);
-        Element colorE = document.createElement("data");
-        colorE.setAttribute("key", "b");
-        colorE.setTextContent("" + b);
-        return colorE;
-    }
-
-    private Element createNodePositionX(Document document, Node n) throws Exception {
-        Element positionXE = document.createElement("data");
-        float x = n.x();
-        if (normalize && x != 0.0) {
-            x = (x - minX) / (maxX - minX);
-        }
-        positionXE.setAttribute("key", "x");
-        positionXE.setTextContent("" + x);
-        return positionXE;
-    }
-
-    private Element createNodePositionY(Document document, Node n) throws Exception {
-        Element positionYE = document.createElement("data");
-        float y = n.y();
-        if (normalize && y != 0.0) {
-            y = (y - minY) / (maxY - minY);
-        }
-        positionYE.setAttribute("key", "y");
-        positionYE.setTextContent("" + y);
-
-        return positionYE;
-    }
-
-    private Element createNodePositionZ(Document document, Node n) throws Exception {
-        Element positionZE = document.createElement("data");
-        float z = n.z();
-        if (normalize && z != 0.0) {
-            z = (z - minZ) / (maxZ - minZ);
+        //Label
+        if (e.getLabel() != null && !e.getLabel().isEmpty()) {
+            writeData(xmlWriter, "edgelabel", e.getLabel());
         }
-        positionZE.setAttribute("key", "z");
-        positionZE.setTextContent("" + z);
 
-        return positionZE;
-    }
-
-    private Element createNodeLabel(Document document, Node n) throws Exception {
-        Element labelE = document.createElement("data");
-        labelE.setAttribute("key", "label");
-        labelE.setTextContent(n.getLabel());
-
-        return labelE;
-    }
-
-    private Element createEdgeWeight(Document document, Edge e, Graph graph) throws Exception {
-        Element weightE = document.createElement("data");
-        weightE.setAttribute("key", "weight");
+        //Weight
         Double weight;
         if (exportDynamicWeight) {
             weight = e.getWeight(graph.getView());
         } else {
             weight = e.getWeight();
         }
-        weightE.setTextContent(weight.toString());
+        writeData(xmlWriter, "weight", weight.toString());
 
-        return weightE;
-    }
+        //Attribute values
+        if (exportAttributes) {
+            writeAttValues(xmlWriter, graph, e);
+        }
 
-    private Element createEdgeLabel(Document document, Edge e) throws Exception {
-        Element labelE = document.createElement("data");
-        labelE.setAttribute("key", "edgelabel");
-        labelE.setTextContent(e.getLabel());
+        xmlWriter.writeEndElement();
 
-        return labelE;
+        Progress.progress(progressTicket);
     }
 
     private void calculateMinMax(Graph graph) {
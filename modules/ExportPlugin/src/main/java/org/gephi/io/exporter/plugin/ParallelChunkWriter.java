@@ -0,0 +1,200 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Formats elements on several threads and writes the text in element order.
+ * <p>
+ * Elements are collected into chunks on the calling thread, each chunk is
+ * formatted by a worker into its own buffer and buffers are appended to the
+ * writer in the order chunks were filled, so the output is the same as a
+ * sequential formatting. Only a few chunks per thread are in flight, which
+ * bounds memory. Workers are daemon threads shared by all exports. Without
+ * spare processors chunks are formatted inline.
+ *
+ * @param <E> element type
+ */
+final class ParallelChunkWriter<E> {
+
+    private static final int CHUNK_SIZE = 1 << 12;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static ExecutorService sharedExecutor;
+    private final Writer writer;
+    private final Formatter<E> formatter;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Deque<Future<CharSequence>> pending = new ArrayDeque<>();
+    private List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+
+    interface Formatter<E> {
+
+        CharSequence format(List<E> elements) throws Exception;
+    }
+
+    ParallelChunkWriter(Writer writer, Formatter<E> formatter) {
+        this.writer = writer;
+        this.formatter = formatter;
+        this.maxPending = THREADS * 2;
+        this.executor = THREADS > 1 ? getSharedExecutor() : null;
+    }
+
+    private static synchronized ExecutorService getSharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "Exporter chunk writer");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return sharedExecutor;
+    }
+
+    void add(E element) throws IOException {
+        chunk.add(element);
+        if (chunk.size() == CHUNK_SIZE) {
+            submit();
+        }
+    }
+
+    /**
+     * Formats and writes the remaining elements.
+     *
+     * @throws IOException if formatting or writing failed
+     */
+    void finish() throws IOException {
+        try {
+            if (!chunk.isEmpty()) {
+                submit();
+            }
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Discards the chunks not written yet. Chunks already being formatted are
+     * waited for, so that no worker reads elements after this call.
+     */
+    void close() {
+        boolean interrupted = false;
+        for (Future<CharSequence> future : pending) {
+            if (!future.cancel(false)) {
+                while (true) {
+                    try {
+                        future.get();
+                        break;
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    } catch (ExecutionException | CancellationException ex) {
+                        break;
+                    }
+                }
+            }
+        }
+        pending.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit() throws IOException {
+        final List<E> elements = chunk;
+        chunk = new ArrayList<>(CHUNK_SIZE);
+        Callable<CharSequence> task = new Callable<CharSequence>() {
+            @Override
+            public CharSequence call() throws Exception {
+                return formatter.format(elements);
+            }
+        };
+        if (executor == null) {
+            try {
+                writer.append(task.call());
+            } catch (IOException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+            return;
+        }
+        pending.add(executor.submit(task));
+        while (pending.size() > maxPending) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        Future<CharSequence> future = pending.poll();
+        try {
+            writer.append(future.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
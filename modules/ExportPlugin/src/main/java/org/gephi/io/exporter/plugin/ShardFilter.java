@@ -0,0 +1,93 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.plugin;
+
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.io.exporter.spi.ShardedGraphExporter.Partitioning;
+
+/**
+ * Selects the nodes and edges of one shard of a sharded export.
+ * <p>
+ * Nodes are split on their store id, either in contiguous ranges or by hash,
+ * and edges follow their source node.
+ */
+final class ShardFilter {
+
+    private final int shard;
+    private final int shardCount;
+    private final Partitioning partitioning;
+    private int rangeSize;
+
+    ShardFilter(int shard, int shardCount, Partitioning partitioning) {
+        this.shard = shard;
+        this.shardCount = shardCount;
+        this.partitioning = partitioning;
+    }
+
+    /**
+     * Computes the store id ranges, to be called with the graph read lock held
+     * before any <code>contains</code> call.
+     */
+    void init(Graph graph) {
+        int maxStoreId = 0;
+        for (Node node : graph.getNodes()) {
+            maxStoreId = Math.max(maxStoreId, node.getStoreId());
+        }
+        rangeSize = maxStoreId / shardCount + 1;
+    }
+
+    boolean contains(Node node) {
+        int storeId = node.getStoreId();
+        if (partitioning == Partitioning.RANGE) {
+            return storeId / rangeSize == shard;
+        }
+        //Fibonacci hashing, so consecutive ids spread over all shards
+        int h = storeId * 0x9E3779B9;
+        h ^= h >>> 16;
+        return (h & Integer.MAX_VALUE) % shardCount == shard;
+    }
+
+    boolean contains(Edge edge) {
+        return contains(edge.getSource());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.plugin;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.project.api.ProjectController;
+import org.gephi.project.impl.ProjectControllerImpl;
+import org.openide.util.Lookup;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that elements formatted in parallel chunks give the same document as
+ * a sequential export.
+ */
+public class ExporterGEXFNGTest {
+
+    //Several chunks of nodes and edges
+    private static final int NODES = 20000;
+    private ProjectController pc;
+
+    @BeforeClass
+    public void setUp() {
+        pc = Lookup.getDefault().lookup(ProjectControllerImpl.class);
+    }
+
+    @BeforeMethod
+    public void initialize() {
+        pc.newProject();
+        generateGraph();
+    }
+
+    @AfterMethod
+    public void clean() {
+        pc.closeCurrentProject();
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        String sequential = export(false, true);
+
+        assertTrue(sequential.trim().endsWith("</gexf>"));
+        assertEquals(export(true, true), sequential);
+    }
+
+    @Test
+    public void testParallelMatchesSequentialWithoutIndent() {
+        String sequential = export(false, false);
+
+        assertTrue(sequential.trim().endsWith("</gexf>"));
+        assertEquals(export(true, false), sequential);
+    }
+
+    private void generateGraph() {
+        GraphModel graphModel = Lookup.getDefault().lookup(GraphController.class).getGraphModel();
+        Column count = graphModel.getNodeTable().addColumn("count", Integer.class);
+        Column name = graphModel.getNodeTable().addColumn("name", String.class);
+        Column kind = graphModel.getEdgeTable().addColumn("kind", String.class);
+
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node node = graphModel.factory().newNode("n" + i);
+            node.setLabel("Node <" + i + "> & co");
+            node.setX(i);
+            node.setY(-i / 3f);
+            node.setSize(1 + i % 7);
+            node.setR((i % 255) / 255f);
+            node.setAttribute(count, i);
+            if (i % 3 != 0) {
+                node.setAttribute(name, "name \"" + i + "\"");
+            }
+            nodes.add(node);
+        }
+        graph.addAllNodes(nodes);
+        for (int i = 0; i < NODES; i++) {
+            for (int j = 1; j <= 2; j++) {
+                Edge edge = graphModel.factory().newEdge("e" + i + "-" + j, nodes.get(i), nodes.get((i + j * 7) % NODES), 0, 1 + i % 5, true);
+                edge.setAttribute(kind, j == 1 ? "near" : "far");
+                graph.addEdge(edge);
+            }
+        }
+    }
+
+    private String export(boolean parallel, boolean indent) {
+        ExporterGEXF exporter = new ExporterGEXF();
+        exporter.setWorkspace(pc.getCurrentWorkspace());
+        exporter.setIndent(indent);
+        exporter.parallel = parallel;
+        StringWriter writer = new StringWriter();
+        exporter.setWriter(writer);
+        assertTrue(exporter.execute());
+        return writer.toString();
+    }
+}
@@ -100,6 +100,7 @@ public class UIExporterGEXF implements ExporterUI {
         private boolean exportSize = true;
         private boolean exportAttributes = true;
         private boolean exportDynamics = true;
+        private boolean indent = true;
 
         private void save(ExporterGEXF exporterGEXF) {
             this.normalize = exporterGEXF.isNormalize();
@@ -108,6 +109,7 @@ public class UIExporterGEXF implements ExporterUI {
             this.exportSize = exporterGEXF.isExportSize();
             this.exportAttributes = exporterGEXF.isExportAttributes();
             this.exportDynamics = exporterGEXF.isExportDynamic();
+            this.indent = exporterGEXF.isIndent();
         }
 
         private void load(ExporterGEXF exporterGEXF) {
@@ -117,6 +119,7 @@ public class UIExporterGEXF implements ExporterUI {
             exporterGEXF.setExportPosition(exportPosition);
             exporterGEXF.setExportSize(exportSize);
             exporterGEXF.setExportDynamic(exportDynamics);
+            exporterGEXF.setIndent(indent);
         }
     }
 }
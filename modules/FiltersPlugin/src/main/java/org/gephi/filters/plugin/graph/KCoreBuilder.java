@@ -41,17 +41,19 @@ Portions Copyrighted 2011 Gephi Consortium.
  */
 package org.gephi.filters.plugin.graph;
 
+import java.util.Map;
 import javax.swing.Icon;
 import javax.swing.JPanel;
 import org.gephi.filters.api.FilterLibrary;
 import org.gephi.filters.spi.Category;
-import org.gephi.filters.spi.ComplexFilter;
 import org.gephi.filters.spi.Filter;
 import org.gephi.filters.spi.FilterBuilder;
 import org.gephi.filters.spi.FilterProperty;
+import org.gephi.filters.spi.NodeFilter;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.Node;
 import org.gephi.project.api.Workspace;
+import org.gephi.statistics.plugin.CoreNumber;
 import org.openide.util.Exceptions;
 import org.openide.util.Lookup;
 import org.openide.util.NbBundle;
@@ -102,24 +104,38 @@ public class KCoreBuilder implements FilterBuilder {
     public void destroy(Filter filter) {
     }
 
-    public static class KCoreFilter implements ComplexFilter {
+    public static class KCoreFilter implements NodeFilter {
 
         private FilterProperty[] filterProperties;
         private Integer k = 1;
+        private int[] cores;
 
         @Override
-        public Graph filter(Graph graph) {
-            int removed = 0;
-            do {
-                removed = 0;
-                for (Node n : graph.getNodes().toArray()) {
-                    if (graph.getDegree(n) < k) {
-                        graph.removeNode(n);
-                        removed++;
-                    }
-                }
-            } while (removed > 0);
-            return graph;
+        public boolean init(Graph graph) {
+            //Core numbers of the filtered graph, indexed by node store id
+            CoreNumber coreNumber = new CoreNumber();
+            Map<Node, Integer> indicies = coreNumber.createIndiciesMap(graph);
+            int[] nodeCores = coreNumber.calculateCoreNumbers(graph, indicies);
+            int maxStoreId = -1;
+            for (Node n : indicies.keySet()) {
+                maxStoreId = Math.max(maxStoreId, n.getStoreId());
+            }
+            cores = new int[maxStoreId + 1];
+            for (Map.Entry<Node, Integer> entry : indicies.entrySet()) {
+                cores[entry.getKey().getStoreId()] = nodeCores[entry.getValue()];
+            }
+            return true;
+        }
+
+        @Override
+        public boolean evaluate(Graph graph, Node node) {
+            int storeId = node.getStoreId();
+            return storeId >= 0 && storeId < cores.length && cores[storeId] >= k;
+        }
+
+        @Override
+        public void finish() {
+            cores = null;
         }
 
         @Override
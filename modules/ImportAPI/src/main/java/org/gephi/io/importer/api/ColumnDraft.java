@@ -85,6 +85,14 @@ public interface ColumnDraft {
      */
     public boolean isDynamic();
 
+    /**
+     * Returns true if the values of this column are dictionary encoded.
+     *
+     * @return true if dictionary encoded, false otherwise
+     * @see #setDictionaryEncoded(boolean)
+     */
+    public boolean isDictionaryEncoded();
+
     /**
      * Sets the column's title.
      *
@@ -109,4 +117,18 @@ public interface ColumnDraft {
      * @param value value to parse and to be set as default
      */
     public void setDefaultValueString(String value);
+
+    /**
+     * Sets whether the values of this column are dictionary encoded.
+     * <p>
+     * Equal values of a dictionary encoded column share a single instance,
+     * which saves memory on categorical columns where few distinct values
+     * repeat across many elements. The encoding stops by itself when most
+     * values turn out to be distinct.
+     * <p>
+     * String columns are dictionary encoded by default.
+     *
+     * @param dictionaryEncoded true to encode values, false otherwise
+     */
+    public void setDictionaryEncoded(boolean dictionaryEncoded);
 }
@@ -43,6 +43,7 @@ package org.gephi.io.importer.api;
 
 import org.gephi.io.importer.spi.Importer;
 import org.gephi.io.processor.spi.Processor;
+import org.gephi.io.processor.spi.StreamingProcessor;
 
 /**
  * A container is created each time data are imported by <b>importers</b>. Its
@@ -149,6 +150,38 @@ public interface Container {
      */
     public void closeLoader();
 
+    /**
+     * Sets this container in streaming mode. Edges are not kept in the
+     * container but pushed to <code>processor</code> in batches of
+     * <code>bufferSize</code> while the container is loaded. Only node drafts,
+     * element ids and columns are kept.
+     * <p>
+     * Verifications and merge rules which need all edges at once (removal of
+     * zero-weight edges, parallel edges merge, forcing undirected edges) are
+     * not applied by the container in this mode. Parallel edges are merged by
+     * the processor when they reach the workspace. Self-loops and edges
+     * referencing automatically created nodes are removed from each batch
+     * before it is pushed, according to the settings at that time.
+     * <p>
+     * Must be called before the container is loaded.
+     *
+     * @param processor processor receiving the edges
+     * @param bufferSize maximum number of edges kept before they are pushed to
+     * the processor
+     * @throws IllegalArgumentException if <code>bufferSize</code> is not
+     * positive
+     * @throws IllegalStateException if the container already has elements
+     */
+    public void setStreamingProcessor(StreamingProcessor processor, int bufferSize);
+
+    /**
+     * Returns true if this container is in streaming mode.
+     *
+     * @return true if streaming, false otherwise
+     * @see #setStreamingProcessor(StreamingProcessor, int)
+     */
+    public boolean isStreaming();
+
     /**
      * Returns true if this container contains a dynamic graph.
      * <p>
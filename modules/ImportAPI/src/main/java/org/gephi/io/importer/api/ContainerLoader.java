@@ -87,6 +87,34 @@ public interface ContainerLoader {
      */
     public void removeEdge(EdgeDraft edgeDraft);
 
+    /**
+     * Removes the node with the given <code>id</code> from the workspace the
+     * container is processed into. Removals are applied before the
+     * container's elements are added.
+     *
+     * @param id identifier of the workspace node to remove
+     */
+    public void removeWorkspaceNode(String id);
+
+    /**
+     * Removes the edge with the given <code>id</code> from the workspace the
+     * container is processed into. Removals are applied before the
+     * container's elements are added.
+     *
+     * @param id identifier of the workspace edge to remove
+     */
+    public void removeWorkspaceEdge(String id);
+
+    /**
+     * Clears the label, time set and attribute values of the workspace node
+     * with the given <code>id</code>, so that the container's node with the same id
+     * replaces them instead of being merged with them. Clears are applied
+     * before the container's elements are added.
+     *
+     * @param id identifier of the workspace node to clear
+     */
+    public void clearWorkspaceNode(String id);
+
     /**
      * Returns the node with the given <code>id</code>, or create a new node
      * with this id if not found.
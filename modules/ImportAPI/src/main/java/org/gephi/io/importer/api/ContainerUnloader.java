@@ -41,6 +41,7 @@
  */
 package org.gephi.io.importer.api;
 
+import java.util.List;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.TimeFormat;
 import org.gephi.graph.api.TimeRepresentation;
@@ -111,6 +112,30 @@ public interface ContainerUnloader {
 
     public ElementIdType getElementIdType();
 
+    /**
+     * Returns the ids of the workspace nodes to remove, in the order they were
+     * added to the container.
+     *
+     * @return workspace node ids to remove
+     */
+    public List<String> getRemovedWorkspaceNodes();
+
+    /**
+     * Returns the ids of the workspace edges to remove, in the order they were
+     * added to the container.
+     *
+     * @return workspace edge ids to remove
+     */
+    public List<String> getRemovedWorkspaceEdges();
+
+    /**
+     * Returns the ids of the workspace nodes whose label and attribute values
+     * are cleared, in the order they were added to the container.
+     *
+     * @return workspace node ids to clear
+     */
+    public List<String> getClearedWorkspaceNodes();
+
     //PARAMETERS GETTERS
     public boolean allowSelfLoop();
 
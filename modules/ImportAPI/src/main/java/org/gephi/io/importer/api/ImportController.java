@@ -51,7 +51,9 @@ import org.gephi.io.importer.spi.Importer;
 import org.gephi.io.importer.spi.ImporterUI;
 import org.gephi.io.importer.spi.ImporterWizardUI;
 import org.gephi.io.importer.spi.WizardImporter;
+import org.gephi.io.processor.spi.IncrementalProcessor;
 import org.gephi.io.processor.spi.Processor;
+import org.gephi.io.processor.spi.StreamingProcessor;
 import org.gephi.project.api.Workspace;
 
 /**
@@ -71,6 +73,23 @@ public interface ImportController {
 
     public Container importFile(InputStream stream, FileImporter importer);
 
+    /**
+     * Imports <code>reader</code> in streaming mode: edges are written to
+     * <code>workspace</code> by <code>processor</code> while the file is read,
+     * and the remaining content is processed once reading is complete. There
+     * is no need to call <code>process()</code> on the returned container.
+     *
+     * @param reader reader to import
+     * @param importer file importer
+     * @param processor streaming processor
+     * @param workspace destination workspace, or <code>null</code> to let the
+     * processor create one
+     * @return the processed container, or <code>null</code> if the import
+     * failed
+     * @see Container#setStreamingProcessor(StreamingProcessor, int)
+     */
+    public Container importFile(Reader reader, FileImporter importer, StreamingProcessor processor, Workspace workspace);
+
     public Container importWizard(WizardImporter importer);
 
     public FileImporter getFileImporter(File file);
@@ -85,6 +104,25 @@ public interface ImportController {
 
     public void process(Container[] containers, Processor processor, Workspace workspace);
 
+    /**
+     * Imports <code>files</code> concurrently, each into its own container, and
+     * processes them into <code>workspace</code>.
+     * <p>
+     * Files are parsed on a bounded pool of threads. If
+     * <code>processor</code> is an {@link IncrementalProcessor}, containers
+     * are pushed to it as soon as they are loaded, so the total time is bounded
+     * by the largest file rather than the sum of all files. Other processors
+     * receive all the containers once every file is loaded.
+     *
+     * @param files files to import
+     * @param processor processor, for instance merging the containers
+     * @param workspace destination workspace, or <code>null</code> to let the
+     * processor decide
+     * @return the containers in the order of <code>files</code>, with
+     * <code>null</code> for files no importer matched
+     */
+    public Container[] importFiles(File[] files, Processor processor, Workspace workspace);
+
     public FileType[] getFileTypes();
 
     public boolean isFileSupported(File file);
@@ -42,6 +42,7 @@ Portions Copyrighted 2011 Gephi Consortium.
 package org.gephi.io.importer.api;
 
 import java.awt.Color;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -63,7 +64,9 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLReporter;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.gephi.io.importer.spi.FileImporter;
 import org.gephi.utils.CharsetToolkit;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -79,6 +82,8 @@ import org.xml.sax.SAXException;
  */
 public final class ImportUtils {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Returns a <code>LineNumberReader</code> for <code>fileObject</code>. The
      * file must be a text file. The charset is detected automatically.
@@ -217,6 +222,108 @@ public final class ImportUtils {
         return fileObject;
     }
 
+    /**
+     * Returns <code>true</code> if <code>fileObject</code> is a gzip or bzip2
+     * compressed file, possibly a tar archive, whose name tells the format of
+     * the compressed file, like <code>graph.gexf.gz</code>.
+     *
+     * @param fileObject the file object to test
+     * @return <code>true</code> if the file can be read with
+     * {@link #getDecompressedStream(FileObject)}
+     */
+    public static boolean isCompressedFile(FileObject fileObject) {
+        return getCompressedFileNameExt(fileObject) != null;
+    }
+
+    /**
+     * Gives the file of <code>fileObject</code> to importers which can read it
+     * directly. Archive entries and compressed files can only be read as
+     * streams and are not given.
+     *
+     * @param importer the importer of <code>fileObject</code>
+     * @param fileObject the imported file object
+     * @see FileImporter.FileAware
+     */
+    public static void setFile(FileImporter importer, FileObject fileObject) {
+        File file = FileUtil.toFile(fileObject);
+        if (importer instanceof FileImporter.FileAware && file != null && !isCompressedFile(fileObject)) {
+            ((FileImporter.FileAware) importer).setFile(file);
+        }
+    }
+
+    /**
+     * Returns the name and extension of the file compressed in
+     * <code>fileObject</code>, for instance <code>graph.gexf</code> for
+     * <code>graph.gexf.tar.bz2</code>.
+     *
+     * @param fileObject the compressed file
+     * @return the name of the compressed file or <code>null</code> if
+     * <code>fileObject</code> is not a compressed file
+     */
+    public static String getCompressedFileNameExt(FileObject fileObject) {
+        String ext = fileObject.getExt();
+        if (!ext.equalsIgnoreCase("gz") && !ext.equalsIgnoreCase("bz2")) {
+            return null;
+        }
+        String name = fileObject.getName();
+        if (isTar(fileObject)) {
+            name = name.substring(0, name.length() - 4);
+        }
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0 || dot == name.length() - 1) {
+            return null;
+        }
+        return name;
+    }
+
+    /**
+     * Returns a stream reading the file compressed in <code>fileObject</code>.
+     * <p>
+     * The file is decompressed on a separate thread, ahead of the reader, so
+     * importers start parsing immediately and no temporary file is written.
+     * Bzip2 files made of concatenated streams, as written by parallel
+     * compressors, are decoded in parallel.
+     *
+     * @param fileObject a gzip or bzip2 compressed file, possibly a tar archive
+     * @return the decompressed stream, to be closed by the caller
+     * @throws IOException if the file can't be read
+     * @see #isCompressedFile(FileObject)
+     */
+    public static InputStream getDecompressedStream(FileObject fileObject) throws IOException {
+        String nameExt = getCompressedFileNameExt(fileObject);
+        if (nameExt == null) {
+            throw new IllegalArgumentException("The file '" + fileObject.getNameExt() + "' is not a gz or bz2 file");
+        }
+        InputStream stream = new BufferedInputStream(fileObject.getInputStream(), STREAM_BUFFER_SIZE);
+        try {
+            if (fileObject.getExt().equalsIgnoreCase("gz")) {
+                stream = new GZIPInputStream(stream, STREAM_BUFFER_SIZE);
+            } else {
+                stream = new ParallelBZip2InputStream(stream);
+            }
+            if (isTar(fileObject)) {
+                TarArchiveInputStream tarStream = new TarArchiveInputStream(stream);
+                stream = tarStream;
+                if (tarStream.getNextTarEntry() == null) {
+                    throw new IOException(NbBundle.getMessage(ImportUtils.class, "ImportUtils.error_io"));
+                }
+            }
+        } catch (IOException ex) {
+            stream.close();
+            throw ex;
+        }
+        return new PipelinedInputStream(stream, nameExt);
+    }
+
+    private static boolean isTar(FileObject fileObject) {
+        return fileObject.getName().toLowerCase().endsWith(".tar");
+    }
+
+    /**
+     * @deprecated Decompresses the whole file before importing, use
+     * {@link #getDecompressedStream(FileObject)} instead
+     */
+    @Deprecated
     public static File getBzipFile(FileObject in, File out, boolean isTar) throws IOException {
 
         // Stream buffer
@@ -275,6 +382,11 @@ public final class ImportUtils {
         return out;
     }
 
+    /**
+     * @deprecated Decompresses the whole file before importing, use
+     * {@link #getDecompressedStream(FileObject)} instead
+     */
+    @Deprecated
     public static File getGzFile(FileObject in, File out, boolean isTar) throws IOException {
 
         // Stream buffer
@@ -41,6 +41,8 @@ Portions Copyrighted 2011 Gephi Consortium.
  */
 package org.gephi.io.importer.api;
 
+import org.openide.util.NbBundle;
+
 /**
  * Issue are logged and classified by <code>Report</code> to describe a problem
  * encountered during import process.
@@ -49,6 +51,10 @@ package org.gephi.io.importer.api;
  * <code>CRITICAL</code> level is by default configured in {@link Report} to
  * throw an exception and stop the import process. Other levels are logged and
  * presented to the user.
+ * <p>
+ * Issues created from a bundle key are only formatted when their message is
+ * requested, and are counted by {@link Report} per key, so importers reporting
+ * the same problem on millions of elements don't pay for building each message.
  *
  * @author Mathieu Bastian
  * @see Report
@@ -72,8 +78,11 @@ public final class Issue {
         }
     }
     private final Throwable throwable;
-    private final String message;
     private final Level level;
+    private final Class<?> bundleClass;
+    private final String key;
+    private final Object[] arguments;
+    private String message;
 
     /**
      * Constructs a new issue with a throwable and a level.
@@ -87,6 +96,9 @@ public final class Issue {
         this.throwable = throwable;
         this.level = level;
         this.message = throwable.getMessage();
+        this.bundleClass = null;
+        this.key = null;
+        this.arguments = null;
     }
 
     /**
@@ -100,6 +112,9 @@ public final class Issue {
         this.throwable = throwable;
         this.level = level;
         this.message = message;
+        this.bundleClass = null;
+        this.key = null;
+        this.arguments = null;
     }
 
     /**
@@ -112,6 +127,29 @@ public final class Issue {
         this.message = message;
         this.level = level;
         this.throwable = null;
+        this.bundleClass = null;
+        this.key = null;
+        this.arguments = null;
+    }
+
+    /**
+     * Constructs a new issue from a bundle message and a level.
+     * <p>
+     * The message is formatted with <code>NbBundle</code> the first time
+     * {@link #getMessage()} is called. Issues sharing the same key are counted
+     * as one type by {@link Report}.
+     *
+     * @param bundleClass class whose bundle holds <code>key</code>
+     * @param key bundle key of the message
+     * @param level level
+     * @param arguments message arguments
+     */
+    public Issue(Class<?> bundleClass, String key, Level level, Object... arguments) {
+        this.bundleClass = bundleClass;
+        this.key = key;
+        this.level = level;
+        this.arguments = arguments;
+        this.throwable = null;
     }
 
     /**
@@ -120,9 +158,21 @@ public final class Issue {
      * @return message
      */
     public String getMessage() {
+        if (message == null && key != null) {
+            message = NbBundle.getMessage(bundleClass, key, arguments);
+        }
         return message;
     }
 
+    /**
+     * Returns this issue's type, which is the bundle key it was created from.
+     *
+     * @return type or null if this issue was created from a message
+     */
+    public String getType() {
+        return key;
+    }
+
     /**
      * Returns this issue's level.
      *
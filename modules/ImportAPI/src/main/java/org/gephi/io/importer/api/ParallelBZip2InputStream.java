@@ -0,0 +1,236 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Bzip2 input stream decoding concatenated streams in parallel.
+ * <p>
+ * Files written by parallel compressors such as <code>pbzip2</code> are a
+ * sequence of small bzip2 streams, each starting at a byte-aligned stream
+ * header. The compressed input is split at these headers and the segments
+ * are decoded on a thread pool, while the decoded data is returned in order.
+ * When no header is found within <code>MAX_SEGMENT_SIZE</code> bytes, as with
+ * files written by the regular <code>bzip2</code>, the rest of the input is
+ * decoded sequentially.
+ */
+final class ParallelBZip2InputStream extends InputStream {
+
+    private static final int MAX_SEGMENT_SIZE = 2 * 1024 * 1024;
+    private static final int READ_SIZE = 64 * 1024;
+    //'BZh', block size and block magic number
+    private static final int HEADER_LENGTH = 10;
+    private static final byte[] BLOCK_MAGIC = {0x31, 0x41, 0x59, 0x26, 0x53, 0x59};
+    //Input
+    private final InputStream input;
+    private byte[] pending = new byte[READ_SIZE];
+    private int pendingLength;
+    private int searchFrom = 1;
+    private boolean inputEnd;
+    private InputStream sequential;
+    //Decoding
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Deque<Future<byte[]>> segments = new ArrayDeque<>();
+    private byte[] current;
+    private int position;
+
+    ParallelBZip2InputStream(InputStream input) {
+        this.input = input;
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = 2 * threads;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "BZip2 decoder");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (current == null || position == current.length) {
+            current = nextSegment();
+            position = 0;
+            if (current == null) {
+                return sequential != null ? sequential.read(b, off, len) : -1;
+            }
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    private byte[] nextSegment() throws IOException {
+        while (segments.size() < maxInFlight && !inputEnd && sequential == null) {
+            splitSegment();
+        }
+        Future<byte[]> future = segments.poll();
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Reads input until the next stream header and submits the bytes before
+     * it for decoding, or switches to sequential decoding when the segment
+     * grows too large.
+     */
+    private void splitSegment() throws IOException {
+        while (true) {
+            int header = indexOfHeader();
+            if (header > 0) {
+                submit(Arrays.copyOf(pending, header));
+                System.arraycopy(pending, header, pending, 0, pendingLength - header);
+                pendingLength -= header;
+                searchFrom = 1;
+                return;
+            }
+            searchFrom = Math.max(1, pendingLength - HEADER_LENGTH + 1);
+            if (pendingLength >= MAX_SEGMENT_SIZE) {
+                InputStream rest = new SequenceInputStream(new ByteArrayInputStream(pending, 0, pendingLength), input);
+                sequential = new BZip2CompressorInputStream(rest, true);
+                pending = null;
+                pendingLength = 0;
+                return;
+            }
+            if (pending.length < pendingLength + READ_SIZE) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + READ_SIZE));
+            }
+            int read = input.read(pending, pendingLength, READ_SIZE);
+            if (read < 0) {
+                inputEnd = true;
+                if (pendingLength > 0) {
+                    submit(Arrays.copyOf(pending, pendingLength));
+                    pendingLength = 0;
+                }
+                return;
+            }
+            pendingLength += read;
+        }
+    }
+
+    private int indexOfHeader() {
+        for (int i = searchFrom; i <= pendingLength - HEADER_LENGTH; i++) {
+            if (pending[i] == 'B' && pending[i + 1] == 'Z' && pending[i + 2] == 'h'
+                    && pending[i + 3] >= '1' && pending[i + 3] <= '9') {
+                boolean match = true;
+                for (int j = 0; j < BLOCK_MAGIC.length && match; j++) {
+                    match = pending[i + 4 + j] == BLOCK_MAGIC[j];
+                }
+                if (match) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void submit(final byte[] segment) {
+        segments.add(executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(segment.length * 4);
+                try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(segment))) {
+                    byte[] buffer = new byte[READ_SIZE];
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, n);
+                    }
+                }
+                return out.toByteArray();
+            }
+        }));
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        segments.clear();
+        current = null;
+        if (sequential != null) {
+            sequential.close();
+        } else {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream reading its source on a producer thread. The producer fills a
+ * bounded ring of buffers ahead of the consumer so that the work done by the
+ * source, typically decompression, overlaps with the work done by the reader.
+ * <p>
+ * Errors of the source are rethrown to the consumer once the buffers read
+ * before the error have been consumed. Closing this stream stops the producer
+ * and closes the source.
+ */
+final class PipelinedInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BUFFER_COUNT = 8;
+    private static final Buffer END = new Buffer(new byte[0]);
+    //Source
+    private final InputStream source;
+    private final Thread producer;
+    //Ring
+    private final BlockingQueue<Buffer> filled;
+    private final BlockingQueue<Buffer> free;
+    private volatile Throwable error;
+    private volatile boolean closed;
+    //Consumer
+    private Buffer current;
+    private int position;
+    private boolean eof;
+
+    PipelinedInputStream(InputStream source, String name) {
+        this.source = source;
+        this.filled = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+        this.free = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            free.add(new Buffer(new byte[BUFFER_SIZE]));
+        }
+        producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                produce();
+            }
+        }, "Pipelined reader " + name);
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce() {
+        try {
+            boolean sourceEnd = false;
+            while (!sourceEnd && !closed) {
+                Buffer buffer = free.take();
+                int length = 0;
+                while (length < buffer.data.length) {
+                    int read = source.read(buffer.data, length, buffer.data.length - length);
+                    if (read < 0) {
+                        sourceEnd = true;
+                        break;
+                    }
+                    length += read;
+                }
+                if (length > 0) {
+                    buffer.length = length;
+                    filled.put(buffer);
+                }
+            }
+        } catch (InterruptedException ex) {
+            //Closed by the consumer
+        } catch (Exception | Error ex) {
+            error = ex;
+        } finally {
+            try {
+                source.close();
+            } catch (IOException ex) {
+                if (error == null) {
+                    error = ex;
+                }
+            }
+            //Only BUFFER_COUNT buffers exist so there is always room for the end marker
+            filled.offer(END);
+        }
+    }
+
+    private boolean nextBuffer() throws IOException {
+        if (current != null) {
+            free.offer(current);
+            current = null;
+        }
+        if (eof) {
+            return false;
+        }
+        Buffer buffer;
+        try {
+            buffer = filled.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (buffer == END) {
+            eof = true;
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            } else if (error != null) {
+                throw new IOException(error);
+            }
+            return false;
+        }
+        current = buffer;
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if ((current == null || position == current.length) && !nextBuffer()) {
+            return -1;
+        }
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if ((current == null || position == current.length) && !nextBuffer()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current != null ? current.length - position : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            eof = true;
+            current = null;
+            producer.interrupt();
+            filled.clear();
+        }
+    }
+
+    private static class Buffer {
+
+        private final byte[] data;
+        private int length;
+
+        public Buffer(byte[] data) {
+            this.data = data;
+        }
+    }
+}
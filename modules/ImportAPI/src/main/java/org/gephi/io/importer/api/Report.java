@@ -48,7 +48,11 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.LineNumberReader;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.gephi.io.importer.api.Issue.Level;
 import org.openide.util.Exceptions;
 
@@ -57,13 +61,30 @@ import org.openide.util.Exceptions;
  * or major issues, it is stored in an issue list and can be retrieved to
  * present issues to end-users. Behavior is the same as a simple logging
  * library.
+ * <p>
+ * Issues are counted by type, the bundle key they were created from or their
+ * level and message otherwise, and only the first
+ * {@link #getIssueSampleLimit() sample limit} issues of each type are kept.
+ * Totals remain exact whatever the number of issues logged.
  *
  * @author Mathieu Bastian
  */
 public final class Report {
 
+    /**
+     * Default number of issues kept for each issue type.
+     */
+    public static final int DEFAULT_ISSUE_SAMPLE_LIMIT = 100;
+    //Untyped issues beyond this number of distinct types are only counted
+    private static final int MAX_ISSUE_TYPES = 1000;
+
     private Issue.Level exceptionLevel = Issue.Level.CRITICAL;
 
+    //Issues
+    private final Map<String, IssueType> issueTypes = new LinkedHashMap<>();
+    private final int[] levelCounts = new int[Level.values().length];
+    private int issueSampleLimit = DEFAULT_ISSUE_SAMPLE_LIMIT;
+
     //File
     private final File file;
     private Writer writer;
@@ -114,7 +135,7 @@ public final class Report {
             if (writer == null) {
                 writer = new Writer(file);
             }
-            writer.append(new ReportEntry(message));
+            writer.append(message);
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
@@ -136,8 +157,7 @@ public final class Report {
             }
             r = new Reader(report.file);
             for (; r.hasNext();) {
-                ReportEntry re = r.next();
-                writer.append(re);
+                writer.append(r.next());
             }
         } catch (IOException ex) {
             if (r != null) {
@@ -149,61 +169,137 @@ public final class Report {
                 r.close();
             }
         }
+
+        synchronized (report) {
+            for (Map.Entry<String, IssueType> entry : report.issueTypes.entrySet()) {
+                IssueType other = entry.getValue();
+                IssueType issueType = getIssueType(entry.getKey(), other.samples.get(0));
+                if (issueType != null) {
+                    issueType.count += other.count;
+                    for (int i = 0; i < other.samples.size() && issueType.samples.size() < issueSampleLimit; i++) {
+                        issueType.samples.add(other.samples.get(i));
+                    }
+                }
+            }
+            for (int i = 0; i < levelCounts.length; i++) {
+                levelCounts[i] += report.levelCounts[i];
+            }
+        }
     }
 
     /**
      * Log an issue in the report.
+     * <p>
+     * The issue is counted with the other issues of its type and kept only if
+     * fewer than {@link #getIssueSampleLimit()} issues of that type have been
+     * logged already.
      *
      * @param issue the issue to write in the report
      * @throws NullPointerException if <code>issue</code> is <code>null</code>
      */
     public synchronized void logIssue(Issue issue) {
-        try {
-            if (writer == null) {
-                writer = new Writer(file);
+        levelCounts[issue.getLevel().ordinal()]++;
+        IssueType issueType = getIssueType(getTypeKey(issue), issue);
+        if (issueType != null) {
+            issueType.count++;
+            if (issueType.samples.size() < issueSampleLimit) {
+                issueType.samples.add(issue);
             }
-            writer.append(new ReportEntry(issue));
+        }
 
-            if (issue.getLevel().toInteger() >= exceptionLevel.toInteger()) {
-                writer.close();
-                if (issue.getThrowable() != null) {
-                    throw new RuntimeException(issue.getMessage(), issue.getThrowable());
-                } else {
-                    throw new RuntimeException(issue.getMessage());
-                }
+        if (issue.getLevel().toInteger() >= exceptionLevel.toInteger()) {
+            close();
+            if (issue.getThrowable() != null) {
+                throw new RuntimeException(issue.getMessage(), issue.getThrowable());
+            } else {
+                throw new RuntimeException(issue.getMessage());
             }
-        } catch (IOException ex) {
-            throw new RuntimeException(ex);
         }
     }
 
+    private IssueType getIssueType(String typeKey, Issue issue) {
+        IssueType issueType = issueTypes.get(typeKey);
+        if (issueType == null) {
+            if (issue.getType() == null && issueTypes.size() >= MAX_ISSUE_TYPES) {
+                return null;
+            }
+            issueType = new IssueType();
+            issueTypes.put(typeKey, issueType);
+        }
+        return issueType;
+    }
+
+    private static String getTypeKey(Issue issue) {
+        if (issue.getType() != null) {
+            return issue.getType();
+        }
+        return issue.getLevel() + ";" + issue.getMessage();
+    }
+
     /**
-     * Returns all issues written in the report.
+     * Returns the issues kept in the report, grouped by type in the order
+     * types were first logged.
      *
      * @param limit maximum number of issuers
-     * @return a collection of all issues written in the report
+     * @return a collection of the issues kept in the report
      */
     public synchronized Iterator<Issue> getIssues(int limit) {
-        if (writer != null) {
-            close();
-        }
-        Reader reader = null;
-        try {
-            reader = new Reader(file);
-            return new IssueIterator(reader, limit);
-        } catch (IOException ex) {
-            if (reader != null) {
-                reader.close();
+        List<Issue> issues = new ArrayList<>();
+        for (IssueType issueType : issueTypes.values()) {
+            for (Issue issue : issueType.samples) {
+                if (issues.size() == limit) {
+                    return issues.iterator();
+                }
+                issues.add(issue);
             }
-            throw new RuntimeException(ex);
         }
+        return issues.iterator();
+    }
+
+    /**
+     * Returns the number of occurrences of each issue type, keyed by the first
+     * issue logged for that type. Iteration order is the order types were first
+     * logged.
+     *
+     * @return issue counts keyed by their first issue
+     */
+    public synchronized Map<Issue, Integer> getIssueCounts() {
+        Map<Issue, Integer> counts = new LinkedHashMap<>();
+        for (IssueType issueType : issueTypes.values()) {
+            counts.put(issueType.samples.get(0), issueType.count);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the total number of issues logged in the report, including
+     * issues that weren't kept.
+     *
+     * @return the total number of issues
+     */
+    public synchronized int getIssueCount() {
+        int count = 0;
+        for (int levelCount : levelCounts) {
+            count += levelCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the total number of issues logged in the report at
+     * <code>level</code>, including issues that weren't kept.
+     *
+     * @param level the issue level
+     * @return the number of issues at this level
+     */
+    public synchronized int getIssueCount(Level level) {
+        return levelCounts[level.ordinal()];
     }
 
     /**
      * Returns the report logs and issues, presented as basic multi-line text.
      *
-     * @return a string of all messages and issues written in the report, one
-     * per line
+     * @return a string of all messages written in the report, one per line
      */
     public synchronized String getText() {
         if (writer != null) {
@@ -214,11 +310,8 @@ public final class Report {
         try {
             r = new Reader(file);
             for (; r.hasNext();) {
-                ReportEntry re = r.next();
-                if (re.level == null) {
-                    builder.append(re.message);
-                    builder.append("\n");
-                }
+                builder.append(r.next());
+                builder.append("\n");
             }
         } catch (IOException ex) {
             if (r != null) {
@@ -253,22 +346,35 @@ public final class Report {
     }
 
     /**
-     * Inner report entry class.
+     * Get the number of issues kept for each issue type. Default is
+     * {@link #DEFAULT_ISSUE_SAMPLE_LIMIT}.
+     *
+     * @return the number of issues kept per type
      */
-    private static class ReportEntry {
-
-        private final Level level;
-        private final String message;
+    public int getIssueSampleLimit() {
+        return issueSampleLimit;
+    }
 
-        public ReportEntry(Issue issue) {
-            this.level = issue.getLevel();
-            this.message = issue.getMessage();
+    /**
+     * Set the number of issues kept for each issue type. Issues beyond this
+     * limit are counted but not kept.
+     *
+     * @param issueSampleLimit the number of issues kept per type
+     */
+    public synchronized void setIssueSampleLimit(int issueSampleLimit) {
+        if (issueSampleLimit < 1) {
+            throw new IllegalArgumentException("The issue sample limit must be at least 1");
         }
+        this.issueSampleLimit = issueSampleLimit;
+    }
 
-        public ReportEntry(String message) {
-            this.message = message;
-            this.level = null;
-        }
+    /**
+     * Inner issue type class.
+     */
+    private static class IssueType {
+
+        private final List<Issue> samples = new ArrayList<>();
+        private int count;
     }
 
     /**
@@ -283,13 +389,8 @@ public final class Report {
             writer = new BufferedWriter(fileWriter);
         }
 
-        public void append(ReportEntry entry) throws IOException {
-            Level level = entry.level;
-            if (level != null) {
-                writer.append(level.toString());
-            }
-            writer.append(";");
-            writer.append(entry.message);
+        public void append(String message) throws IOException {
+            writer.append(message);
             writer.append("\n");
         }
 
@@ -302,7 +403,7 @@ public final class Report {
     /**
      * Reader sub-class.
      */
-    private static class Reader implements Iterator<ReportEntry> {
+    private static class Reader implements Iterator<String> {
 
         private final BufferedReader reader;
         private String pointer;
@@ -335,19 +436,8 @@ public final class Report {
         }
 
         @Override
-        public ReportEntry next() {
-            if (pointer.startsWith(";")) {
-                return new ReportEntry(pointer.substring(1, pointer.length()));
-            } else {
-                int index = pointer.indexOf(";");
-                if (index == -1) {
-                    return new ReportEntry(pointer);
-                } else {
-                    String levelStr = pointer.substring(0, index);
-                    String message = pointer.substring(index + 1);
-                    return new ReportEntry(new Issue(message, Level.valueOf(levelStr)));
-                }
-            }
+        public String next() {
+            return pointer;
         }
 
         public void close() {
@@ -365,42 +455,4 @@ public final class Report {
             throw new UnsupportedOperationException();
         }
     }
-
-    private static class IssueIterator implements Iterator<Issue> {
-
-        private final Reader itr;
-        private ReportEntry next;
-        private final int limit;
-        private int count;
-
-        public IssueIterator(Reader itr, int limit) {
-            this.itr = itr;
-            this.limit = limit;
-        }
-
-        @Override
-        public boolean hasNext() {
-            while (itr.hasNext()) {
-                next = itr.next();
-                if (next.level != null) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        @Override
-        public Issue next() {
-            Issue res = new Issue(next.message, next.level);
-            if (++count == limit) {
-                itr.close();
-            }
-            return res;
-        }
-
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException();
-        }
-    }
 }
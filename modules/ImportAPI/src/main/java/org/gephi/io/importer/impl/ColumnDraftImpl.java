@@ -41,23 +41,33 @@
  */
 package org.gephi.io.importer.impl;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.io.importer.api.ColumnDraft;
 
 public class ColumnDraftImpl implements ColumnDraft {
 
+    //Values encoded before deciding if the dictionary is worth it
+    private static final int DICTIONARY_SAMPLE_SIZE = 4096;
     protected final int index;
     protected final String id;
     protected final Class typeClass;
     protected final boolean dynamic;
     protected String title;
     protected Object defaultValue;
+    //Dictionary
+    protected Map<Object, Object> dictionary;
+    protected int encodedCount;
 
     public ColumnDraftImpl(String id, int index, boolean dynamic, Class typeClass) {
         this.id = id;
         this.index = index;
         this.typeClass = typeClass;
         this.dynamic = dynamic;
+        if (typeClass.equals(String.class)) {
+            this.dictionary = new HashMap<>();
+        }
     }
 
     @Override
@@ -103,4 +113,50 @@ public class ColumnDraftImpl implements ColumnDraft {
     public boolean isDynamic() {
         return dynamic;
     }
+
+    @Override
+    public boolean isDictionaryEncoded() {
+        return dictionary != null;
+    }
+
+    @Override
+    public void setDictionaryEncoded(boolean dictionaryEncoded) {
+        if (!dictionaryEncoded) {
+            dictionary = null;
+        } else if (dictionary == null) {
+            dictionary = new HashMap<>();
+            encodedCount = 0;
+        }
+    }
+
+    /**
+     * Returns the canonical instance equal to <code>value</code> if this
+     * column is dictionary encoded, or <code>value</code> otherwise.
+     */
+    protected Object encode(Object value) {
+        if (dictionary == null || value == null || !value.getClass().equals(typeClass)) {
+            //Time maps are mutable and never shared
+            return value;
+        }
+        Object canonical = dictionary.get(value);
+        if (canonical == null) {
+            dictionary.put(value, value);
+            canonical = value;
+        }
+        if (++encodedCount == DICTIONARY_SAMPLE_SIZE && dictionary.size() > DICTIONARY_SAMPLE_SIZE / 2) {
+            //Mostly distinct values, the dictionary would only add memory
+            dictionary = null;
+        }
+        return canonical;
+    }
+
+    /**
+     * Releases the dictionary once all values are loaded. Values already
+     * encoded keep sharing their canonical instances.
+     */
+    protected void closeDictionary() {
+        if (dictionary != null) {
+            dictionary = new HashMap<>(0);
+        }
+    }
 }
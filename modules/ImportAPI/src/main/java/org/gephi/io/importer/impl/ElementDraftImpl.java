@@ -57,7 +57,6 @@ import org.gephi.io.importer.api.ColumnDraft;
 import org.gephi.io.importer.api.ElementDraft;
 import org.gephi.io.importer.api.ImportUtils;
 import org.gephi.io.importer.api.Issue;
-import org.openide.util.NbBundle;
 
 public abstract class ElementDraftImpl implements ElementDraft {
 
@@ -169,8 +168,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
         if (cl != null) {
             setColor(cl);
         } else {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_ColorParse", color, id);
-            container.getReport().logIssue(new Issue(message, Issue.Level.WARNING));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_ColorParse", Issue.Level.WARNING, color, id));
         }
     }
 
@@ -213,8 +211,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
         if (cl != null) {
             setLabelColor(cl);
         } else {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_LabelColorParse", color, id);
-            container.getReport().logIssue(new Issue(message, Issue.Level.WARNING));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_LabelColorParse", Issue.Level.WARNING, color, id));
         }
     }
 
@@ -228,8 +225,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
         try {
             setAttributeValue(column, value);
         } catch (Exception ex) {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_SetValueError", value.toString(), id, ex.getMessage());
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_SetValueError", Issue.Level.SEVERE, value.toString(), id, ex.getMessage()));
         }
     }
 
@@ -244,8 +240,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
         try {
             setAttributeValue(column, value, timestamp);
         } catch (Exception ex) {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_SetValueTimestampError", value.toString(), id, timestamp, ex.getMessage());
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_SetValueTimestampError", Issue.Level.SEVERE, value.toString(), id, timestamp, ex.getMessage()));
         }
     }
 
@@ -272,8 +267,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
             setAttributeValue(column, value, start, end);
         } catch (Exception ex) {
             String interval = "[" + start + "," + end + "]";
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_SetValueIntervalError", value.toString(), id, interval, ex.getMessage());
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_SetValueIntervalError", Issue.Level.SEVERE, value.toString(), id, interval, ex.getMessage()));
         }
     }
 
@@ -345,8 +339,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
     @Override
     public void addTimestamp(double timestamp) {
         if (!container.getTimeRepresentation().equals(TimeRepresentation.TIMESTAMP)) {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_NotTimestampRepresentation", id);
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_NotTimestampRepresentation", Issue.Level.SEVERE, id));
             return;
         }
         if (timeSet == null) {
@@ -358,8 +351,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
     @Override
     public void addTimestamps(String timestamps) {
         if (!container.getTimeRepresentation().equals(TimeRepresentation.TIMESTAMP)) {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_NotTimestampRepresentation", id);
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_NotTimestampRepresentation", Issue.Level.SEVERE, id));
             return;
         }
         TimestampSet t = (TimestampSet) AttributeUtils.parse(timestamps, TimestampSet.class);
@@ -396,8 +388,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
     @Override
     public void addIntervals(String intervals) {
         if (!container.getTimeRepresentation().equals(TimeRepresentation.INTERVAL)) {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_NotIntervalRepresentation", id);
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_NotIntervalRepresentation", Issue.Level.SEVERE, id));
             return;
         }
         IntervalSet s = (IntervalSet) AttributeUtils.parse(intervals, IntervalSet.class);
@@ -413,8 +404,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
     @Override
     public void addInterval(double intervalStart, double intervalEnd) {
         if (!container.getTimeRepresentation().equals(TimeRepresentation.INTERVAL)) {
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_NotIntervalRepresentation", id);
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_NotIntervalRepresentation", Issue.Level.SEVERE, id));
             return;
         }
         try {
@@ -425,8 +415,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
             timeSet.add(interval);
         } catch (Exception e) {
             String interval = "[" + intervalStart + "," + intervalEnd + "]";
-            String message = NbBundle.getMessage(ElementDraftImpl.class, "ElementDraftException_IntervalSetError", interval, id, e.getMessage());
-            container.getReport().logIssue(new Issue(message, Issue.Level.SEVERE));
+            container.getReport().logIssue(new Issue(ElementDraftImpl.class, "ElementDraftException_IntervalSetError", Issue.Level.SEVERE, interval, id, e.getMessage()));
         }
     }
 
@@ -448,7 +437,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
     //UTILITY
     protected void setAttributeValue(ColumnDraft column, Object value) throws Exception {
         int index = ((ColumnDraftImpl) column).getIndex();
-        value = AttributeUtils.standardizeValue(value);
+        value = ((ColumnDraftImpl) column).encode(AttributeUtils.standardizeValue(value));
         Class typeClass = column.getTypeClass();
 
         if (column.isDynamic()) {
@@ -473,7 +462,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
     protected void setAttributeValue(ColumnDraft column, Object value, double timestamp) throws Exception {
         int index = ((ColumnDraftImpl) column).getIndex();
         Class typeClass = column.getTypeClass();
-        value = AttributeUtils.standardizeValue(value);
+        value = ((ColumnDraftImpl) column).encode(AttributeUtils.standardizeValue(value));
         if (!value.getClass().equals(typeClass)) {
             throw new RuntimeException("The expected value class was " + typeClass.getSimpleName() + " and " + value.getClass().getSimpleName() + " was found");
         }
@@ -495,7 +484,7 @@ public abstract class ElementDraftImpl implements ElementDraft {
 
     protected void setAttributeValue(ColumnDraft column, Object value, double start, double end) throws Exception {
         int index = ((ColumnDraftImpl) column).getIndex();
-        value = AttributeUtils.standardizeValue(value);
+        value = ((ColumnDraftImpl) column).encode(AttributeUtils.standardizeValue(value));
         Class typeClass = column.getTypeClass();
         if (!value.getClass().equals(typeClass)) {
             throw new RuntimeException("The expected value class was " + typeClass.getSimpleName() + " and " + value.getClass().getSimpleName() + " was found");
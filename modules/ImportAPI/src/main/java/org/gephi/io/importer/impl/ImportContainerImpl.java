@@ -41,8 +41,12 @@
  */
 package org.gephi.io.importer.impl;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
@@ -56,6 +60,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.TimeFormat;
@@ -76,6 +81,7 @@ import org.gephi.io.importer.api.Issue;
 import org.gephi.io.importer.api.Issue.Level;
 import org.gephi.io.importer.api.NodeDraft;
 import org.gephi.io.importer.api.Report;
+import org.gephi.io.processor.spi.StreamingProcessor;
 import org.joda.time.DateTimeZone;
 import org.openide.util.NbBundle;
 
@@ -99,10 +105,17 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
     private final Object2IntMap<String> edgeMap;
     private final Object2IntMap edgeTypeMap;
     private Class lastEdgeType;
-    private Long2ObjectMap<int[]>[] edgeTypeSets;
+    private Long2IntMap[] edgeTypeSets;
+    //Parallel edges, packed as group << 32 | index where the group is the index of the pair's first edge
+    private final LongArrayList parallelEdges;
+    private final Int2IntMap parallelEdgeCounts;
     private EdgeDirectionDefault edgeDefault = EdgeDirectionDefault.MIXED;
     private final Object2ObjectMap<String, ColumnDraft> nodeColumns;
     private final Object2ObjectMap<String, ColumnDraft> edgeColumns;
+    //Workspace elements to remove
+    private final List<String> removedWorkspaceNodes = new ArrayList<>();
+    private final List<String> removedWorkspaceEdges = new ArrayList<>();
+    private final List<String> clearedWorkspaceNodes = new ArrayList<>();
     //Config
     private ElementIdType elementIdType = ElementIdType.STRING;
     //Management
@@ -122,6 +135,11 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
     //Report flag
     private boolean reportedUnknownNode;
     private boolean reportedParallelEdges;
+    //Streaming
+    private StreamingProcessor streamingProcessor;
+    private EdgeDraftImpl[] edgeBuffer;
+    private int edgeBufferCount;
+    private int streamedEdgesCount;
 
     public ImportContainerImpl() {
         parameters = new ImportContainerParameters();
@@ -132,7 +150,9 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         nodeList = new ObjectArrayList<>();
         edgeList = new ObjectArrayList<>();
         edgeTypeMap = new Object2IntOpenHashMap();
-        edgeTypeSets = new Long2ObjectMap[0];
+        edgeTypeSets = new Long2IntMap[0];
+        parallelEdges = new LongArrayList();
+        parallelEdgeCounts = new Int2IntOpenHashMap();
         factory = new ElementFactoryImpl(this);
         nodeColumns = new Object2ObjectOpenHashMap<>();
         edgeColumns = new Object2ObjectOpenHashMap<>();
@@ -153,6 +173,24 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         return factory;
     }
 
+    @Override
+    public void setStreamingProcessor(StreamingProcessor processor, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("The buffer size should be positive");
+        }
+        if (!nodeMap.isEmpty() || !edgeMap.isEmpty()) {
+            throw new IllegalStateException("The container should be empty");
+        }
+        streamingProcessor = processor;
+        edgeBuffer = processor != null ? new EdgeDraftImpl[bufferSize] : null;
+        edgeBufferCount = 0;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return streamingProcessor != null;
+    }
+
     @Override
     public void setSource(String source) {
         this.source = source;
@@ -169,8 +207,7 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         NodeDraftImpl nodeDraftImpl = (NodeDraftImpl) nodeDraft;
 
         if (nodeMap.containsKey(nodeDraftImpl.getId())) {
-            String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_nodeExist", nodeDraftImpl.getId());
-            report.logIssue(new Issue(message, Level.WARNING));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_nodeExist", Level.WARNING, nodeDraftImpl.getId()));
             return;
         }
 
@@ -192,13 +229,11 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
                 addNode(node);
                 node.setCreatedAuto(true);
                 if (!reportedUnknownNode) {
-                    String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_AutoNodeCreated");
-                    report.logIssue(new Issue(message, Level.INFO));
+                    report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_AutoNodeCreated", Level.INFO));
                     reportedUnknownNode = true;
                 }
             } else {
-                String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_UnknowNodeId", id);
-                report.logIssue(new Issue(message, Level.SEVERE));
+                report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_UnknowNodeId", Level.SEVERE, id));
             }
         } else {
             node = nodeList.get(index);
@@ -221,7 +256,7 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         if (sourceNode != null && targetNode != null) {
             boolean undirected = edgeDefault.equals(EdgeDirectionDefault.UNDIRECTED) || (undirectedEdgesCount > 0 && directedEdgesCount == 0);
             long edgeId = getLongId(sourceNode, targetNode, !undirected);
-            for (Long2ObjectMap l : edgeTypeSets) {
+            for (Long2IntMap l : edgeTypeSets) {
                 if (l != null) {
                     if (l.containsKey(edgeId)) {
                         return true;
@@ -238,27 +273,23 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
 
         EdgeDraftImpl edgeDraftImpl = (EdgeDraftImpl) edgeDraft;
         if (edgeDraftImpl.getSource() == null) {
-            String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_MissingNodeSource");
-            report.logIssue(new Issue(message, Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_MissingNodeSource", Level.SEVERE));
             return;
         }
         if (edgeDraftImpl.getTarget() == null) {
-            String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_MissingNodeTarget");
-            report.logIssue(new Issue(message, Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_MissingNodeTarget", Level.SEVERE));
             return;
         }
 
         //Check if already exists
         if (edgeMap.containsKey(edgeDraftImpl.getId())) {
-            String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_edgeExist", edgeDraftImpl.getId());
-            report.logIssue(new Issue(message, Level.WARNING));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_edgeExist", Level.WARNING, edgeDraftImpl.getId()));
             return;
         }
 
         //Self loop
         if (edgeDraftImpl.isSelfLoop() && !parameters.isSelfLoops()) {
-            String message = NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_SelfLoop");
-            report.logIssue(new Issue(message, Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_SelfLoop", Level.SEVERE));
             return;
         }
 
@@ -268,19 +299,28 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
             switch (edgeDefault) {
                 case DIRECTED:
                     if (edgeDraftImpl.getDirection().equals(EdgeDirection.UNDIRECTED)) {
-                        report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Bad_Edge_Type", edgeDefault, edgeDraftImpl.getId()), Level.SEVERE));
+                        report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Bad_Edge_Type", Level.SEVERE, edgeDefault, edgeDraftImpl.getId()));
                         return;
                     }
                     break;
                 case UNDIRECTED:
                     if (edgeDraftImpl.getDirection().equals(EdgeDirection.DIRECTED)) {
-                        report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Bad_Edge_Type", edgeDefault, edgeDraftImpl.getId()), Level.SEVERE));
+                        report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Bad_Edge_Type", Level.SEVERE, edgeDefault, edgeDraftImpl.getId()));
                         return;
                     }
                     break;
             }
         }
 
+        //Streaming, parallel edges are merged by the processor
+        if (isStreaming()) {
+            getEdgeType(edgeDraftImpl.getType());
+            countEdge(edgeDraftImpl);
+            edgeMap.put(edgeDraft.getId(), streamedEdgesCount++);
+            bufferEdge(edgeDraftImpl);
+            return;
+        }
+
         //Get index
         int index = edgeList.size();
 
@@ -288,28 +328,40 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         int edgeType = getEdgeType(edgeDraftImpl.getType());
         long sourceTargetLong = getLongId(edgeDraftImpl);
         ensureLongSetArraySize(edgeType);
-        Long2ObjectMap<int[]> edgeTypeSet = edgeTypeSets[edgeType];
+        Long2IntMap edgeTypeSet = edgeTypeSets[edgeType];
 
-        if (edgeTypeSet.containsKey(sourceTargetLong)) {
+        int group = edgeTypeSet.get(sourceTargetLong);
+        if (group != NULL_INDEX) {
             if (!parameters.isParallelEdges()) {
-                report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Parallel_Edge_Forbidden", edgeDraftImpl.getId()), Level.SEVERE));
+                report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Parallel_Edge_Forbidden", Level.SEVERE, edgeDraftImpl.getId()));
                 return;
             } else {
-                int[] edges = edgeTypeSet.get(sourceTargetLong);
-                int[] newEdges = new int[edges.length + 1];
-                newEdges[edges.length] = index;
-                System.arraycopy(edges, 0, newEdges, 0, edges.length);
-                edgeTypeSet.put(sourceTargetLong, newEdges);
+                int count = parallelEdgeCounts.get(group);
+                if (count == 0) {
+                    //First parallel edge of this pair, the group's first edge is logged as well
+                    parallelEdges.add(packParallelEdge(group, group));
+                    count = 1;
+                }
+                parallelEdges.add(packParallelEdge(group, index));
+                parallelEdgeCounts.put(group, count + 1);
 
                 if (!reportedParallelEdges) {
-                    report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Parallel_Edge", edgeDraftImpl.getId()), Level.INFO));
+                    report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Parallel_Edge", Level.INFO, edgeDraftImpl.getId()));
                     reportedParallelEdges = true;
                 }
             }
         } else {
-            edgeTypeSet.put(sourceTargetLong, new int[]{index});
+            edgeTypeSet.put(sourceTargetLong, index);
         }
 
+        countEdge(edgeDraftImpl);
+
+        //Adding
+        edgeList.add(edgeDraftImpl);
+        edgeMap.put(edgeDraft.getId(), index);
+    }
+
+    private void countEdge(EdgeDraftImpl edgeDraftImpl) {
         //Self loop
         if (edgeDraftImpl.isSelfLoop()) {
             selfLoops++;
@@ -328,23 +380,9 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
                     break;
             }
         }
-
-        //Adding
-        edgeList.add(edgeDraftImpl);
-        edgeMap.put(edgeDraft.getId(), index);
     }
 
-    @Override
-    public void removeEdge(EdgeDraft edgeDraft) {
-        checkElementDraftImpl(edgeDraft);
-
-        EdgeDraftImpl edgeDraftImpl = (EdgeDraftImpl) edgeDraft;
-        String id = edgeDraftImpl.getId();
-
-        if (!edgeMap.containsKey(id)) {
-            return;
-        }
-
+    private void uncountEdge(EdgeDraftImpl edgeDraftImpl) {
         if (edgeDraftImpl.getDirection() != null) {
             //UnCounting
             switch (edgeDraftImpl.getDirection()) {
@@ -360,26 +398,91 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         if (edgeDraftImpl.isSelfLoop()) {
             selfLoops--;
         }
+    }
+
+    private void bufferEdge(EdgeDraftImpl edgeDraftImpl) {
+        //The last edge stays in the buffer as importers may still be filling it
+        if (edgeBufferCount == edgeBuffer.length) {
+            flushEdgeBuffer();
+        }
+        edgeBuffer[edgeBufferCount++] = edgeDraftImpl;
+    }
+
+    private void flushEdgeBuffer() {
+        //Pushed edges can't be removed anymore, apply the closeLoader() removals now
+        boolean removeSelfLoops = !parameters.isSelfLoops() && selfLoops > 0;
+        boolean removeAutoNodeEdges = !allowAutoNode();
+        if (removeSelfLoops || removeAutoNodeEdges) {
+            int count = 0;
+            for (int i = 0; i < edgeBufferCount; i++) {
+                EdgeDraftImpl edge = edgeBuffer[i];
+                if ((removeSelfLoops && edge.isSelfLoop())
+                        || (removeAutoNodeEdges && (edge.getSource().isCreatedAuto() || edge.getTarget().isCreatedAuto()))) {
+                    uncountEdge(edge);
+                    edgeMap.removeInt(edge.getId());
+                } else {
+                    edgeBuffer[count++] = edge;
+                }
+            }
+            Arrays.fill(edgeBuffer, count, edgeBufferCount, null);
+            edgeBufferCount = count;
+        }
+        if (edgeBufferCount > 0) {
+            streamingProcessor.processEdges(edgeBuffer, edgeBufferCount);
+            Arrays.fill(edgeBuffer, 0, edgeBufferCount, null);
+            edgeBufferCount = 0;
+        }
+    }
+
+    private int getBufferedEdgeIndex(String id) {
+        for (int i = 0; i < edgeBufferCount; i++) {
+            if (edgeBuffer[i].getId().equals(id)) {
+                return i;
+            }
+        }
+        return NULL_INDEX;
+    }
+
+    @Override
+    public void removeEdge(EdgeDraft edgeDraft) {
+        checkElementDraftImpl(edgeDraft);
+
+        EdgeDraftImpl edgeDraftImpl = (EdgeDraftImpl) edgeDraft;
+        String id = edgeDraftImpl.getId();
+
+        if (!edgeMap.containsKey(id)) {
+            return;
+        }
+
+        uncountEdge(edgeDraftImpl);
+
+        if (isStreaming()) {
+            //Only edges not yet pushed to the processor can be removed
+            edgeMap.removeInt(id);
+            int bufferIndex = getBufferedEdgeIndex(id);
+            if (bufferIndex != NULL_INDEX) {
+                System.arraycopy(edgeBuffer, bufferIndex + 1, edgeBuffer, bufferIndex, edgeBufferCount - bufferIndex - 1);
+                edgeBuffer[--edgeBufferCount] = null;
+            }
+            return;
+        }
 
         int edgeType = getEdgeType(edgeDraftImpl.getType());
         long sourceTargetLong = getLongId(edgeDraftImpl);
         ensureLongSetArraySize(edgeType);
-        Long2ObjectMap<int[]> edgeTypeSet = edgeTypeSets[edgeType];
+        Long2IntMap edgeTypeSet = edgeTypeSets[edgeType];
 
         //Get index
         int index = edgeMap.remove(id);
 
-        //Update edgeType set
-        int[] edges = edgeTypeSet.remove(sourceTargetLong);
-        if (edges.length > 1) {
-            int[] newEdges = new int[edges.length - 1];
-            int i = 0;
-            for (int e : edges) {
-                if (e != index) {
-                    newEdges[i++] = e;
-                }
-            }
-            edgeTypeSet.put(sourceTargetLong, newEdges);
+        //Update edgeType set, the pair is kept until its last parallel edge is removed
+        int group = edgeTypeSet.get(sourceTargetLong);
+        int count = parallelEdgeCounts.get(group);
+        if (count > 1) {
+            parallelEdgeCounts.put(group, count - 1);
+        } else {
+            parallelEdgeCounts.remove(group);
+            edgeTypeSet.remove(sourceTargetLong);
         }
 
         //Remove edge
@@ -401,6 +504,10 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         if (index == NULL_INDEX) {
             return null;
         }
+        if (isStreaming()) {
+            int bufferIndex = getBufferedEdgeIndex(id);
+            return bufferIndex != NULL_INDEX ? edgeBuffer[bufferIndex] : null;
+        }
         return edgeList.get(index);
     }
 
@@ -474,7 +581,7 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
                 report.log(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerLog.AddNodeColumn", key, typeClass.getSimpleName()));
             }
         } else if (!column.getTypeClass().equals(typeClass)) {
-            report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Column_Type_Mismatch", key, column.getTypeClass()), Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Column_Type_Mismatch", Level.SEVERE, key, column.getTypeClass()));
         }
         return column;
     }
@@ -499,7 +606,7 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
                 report.log(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerLog.AddEdgeColumn", key, typeClass.getSimpleName()));
             }
         } else if (!column.getTypeClass().equals(typeClass)) {
-            report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Column_Type_Mismatch", key, column.getTypeClass()), Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Column_Type_Mismatch", Level.SEVERE, key, column.getTypeClass()));
         }
         return column;
     }
@@ -540,7 +647,7 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
             double t = timeFormat.equals(TimeFormat.DOUBLE) ? Double.parseDouble(timestamp) : AttributeUtils.parseDateTime(timestamp);
             this.timestamp = t;
         } catch (Exception e) {
-            report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Timestamp_Parse_Error", timestamp), Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Timestamp_Parse_Error", Level.SEVERE, timestamp));
             return;
         }
         report.log(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerLog.GraphTimestamp", timestamp));
@@ -562,7 +669,7 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
             }
             this.interval = new Interval(start, end);
         } catch (Exception e) {
-            report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Interval_Parse_Error", "["+startDateTime+","+endDateTime+"]"), Level.SEVERE));
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Interval_Parse_Error", Level.SEVERE, "["+startDateTime+","+endDateTime+"]"));
             return;
         }
         report.log(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerLog.GraphInterval", "[" + startDateTime + "," + endDateTime + "]"));
@@ -589,18 +696,101 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         return elementIdType;
     }
 
+    @Override
+    public void removeWorkspaceNode(String id) {
+        checkId(id);
+        removedWorkspaceNodes.add(id);
+    }
+
+    @Override
+    public void removeWorkspaceEdge(String id) {
+        checkId(id);
+        removedWorkspaceEdges.add(id);
+    }
+
+    @Override
+    public void clearWorkspaceNode(String id) {
+        checkId(id);
+        clearedWorkspaceNodes.add(id);
+    }
+
+    @Override
+    public List<String> getRemovedWorkspaceNodes() {
+        return Collections.unmodifiableList(removedWorkspaceNodes);
+    }
+
+    @Override
+    public List<String> getRemovedWorkspaceEdges() {
+        return Collections.unmodifiableList(removedWorkspaceEdges);
+    }
+
+    @Override
+    public List<String> getClearedWorkspaceNodes() {
+        return Collections.unmodifiableList(clearedWorkspaceNodes);
+    }
+
     @Override
     public boolean verify() {
-        //Edge weight zero or negative
-        for (EdgeDraftImpl edge : new NullFilterIterable<EdgeDraftImpl>(edgeList)) {
-            String id = edge.getId();
-            if (edge.getWeight() < 0f) {
-                report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Negative_Weight", id), Level.WARNING));
-            } else if (edge.getWeight() == 0) {
-                removeEdge(edge);
-                report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Weight_Zero_Ignored", id), Level.SEVERE));
+        if (isStreaming()) {
+            report.log(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerLog.Streaming"));
+        }
+
+        //Edges and nodes are scanned in parallel chunks, issues are logged in element order
+        final ElementIdType idType = elementIdType;
+        List<VerifyChunk> edgeChunks = ParallelScan.scan(edgeList.size(), new ParallelScan.Chunk<VerifyChunk>() {
+            @Override
+            public VerifyChunk scan(int start, int end) {
+                VerifyChunk chunk = new VerifyChunk(idType);
+                for (int i = start; i < end; i++) {
+                    EdgeDraftImpl edge = edgeList.get(i);
+                    if (edge == null) {
+                        continue;
+                    }
+
+                    //Edge weight zero or negative
+                    String id = edge.getId();
+                    if (edge.getWeight() < 0f) {
+                        chunk.issues.add(new Issue(ImportContainerImpl.class, "ImportContainerException_Negative_Weight", Level.WARNING, id));
+                    } else if (edge.getWeight() == 0) {
+                        chunk.removedEdges.add(i);
+                        chunk.issues.add(new Issue(ImportContainerImpl.class, "ImportContainerException_Weight_Zero_Ignored", Level.SEVERE, id));
+                        continue;
+                    }
+                    chunk.verifyElement(edge);
+                }
+                return chunk;
+            }
+        });
+        List<VerifyChunk> nodeChunks = ParallelScan.scan(nodeList.size(), new ParallelScan.Chunk<VerifyChunk>() {
+            @Override
+            public VerifyChunk scan(int start, int end) {
+                VerifyChunk chunk = new VerifyChunk(idType);
+                for (int i = start; i < end; i++) {
+                    NodeDraftImpl node = nodeList.get(i);
+                    if (node != null) {
+                        chunk.verifyElement(node);
+                    }
+                }
+                return chunk;
+            }
+        });
+
+        for (VerifyChunk chunk : edgeChunks) {
+            for (int i = 0; i < chunk.removedEdges.size(); i++) {
+                removeEdge(edgeList.get(chunk.removedEdges.getInt(i)));
+            }
+            for (Issue issue : chunk.issues) {
+                report.logIssue(issue);
             }
         }
+        List<VerifyChunk> chunks = new ArrayList<>(nodeChunks);
+        chunks.addAll(edgeChunks);
+        boolean idTypeParseError = false;
+        for (VerifyChunk chunk : chunks) {
+            idTypeParseError |= chunk.idTypeParseError;
+            dynamicGraph |= chunk.dynamicGraph;
+            dynamicAttributes |= chunk.dynamicAttributes;
+        }
 
         //Graph EdgeDefault
         if (directedEdgesCount > 0 && undirectedEdgesCount == 0) {
@@ -612,48 +802,9 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         }
 
         //IdType
-        if (elementIdType.equals(ElementIdType.INTEGER) || elementIdType.equals(ElementIdType.LONG)) {
-            try {
-                for (NodeDraftImpl node : nodeList) {
-                    if (elementIdType.equals(ElementIdType.INTEGER)) {
-                        Integer.parseInt(node.getId());
-                    } else if (elementIdType.equals(ElementIdType.LONG)) {
-                        Long.parseLong(node.getId());
-                    }
-                }
-                for (EdgeDraftImpl edge : edgeList) {
-                    if (elementIdType.equals(ElementIdType.INTEGER)) {
-                        Integer.parseInt(edge.getId());
-                    } else if (elementIdType.equals(ElementIdType.LONG)) {
-                        Long.parseLong(edge.getId());
-                    }
-                }
-            } catch (NumberFormatException e) {
-                report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_ElementIdType_Parse_Error", elementIdType), Level.WARNING));
-                elementIdType = ElementIdType.STRING;
-            }
-        }
-
-        //Is dynamic graph
-        for (NodeDraftImpl node : nodeList) {
-            if (node != null) {
-                if (node.isDynamic()) {
-                    dynamicGraph = true;
-                }
-                if (node.hasDynamicAttributes()) {
-                    dynamicAttributes = true;
-                }
-            }
-        }
-        for (EdgeDraftImpl edge : edgeList) {
-            if (edge != null) {
-                if (edge.isDynamic()) {
-                    dynamicGraph = true;
-                }
-                if (edge.hasDynamicAttributes()) {
-                    dynamicAttributes = true;
-                }
-            }
+        if (idTypeParseError) {
+            report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_ElementIdType_Parse_Error", Level.WARNING, elementIdType));
+            elementIdType = ElementIdType.STRING;
         }
 
         //Print time interval values to report
@@ -694,43 +845,37 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
 
     @Override
     public void closeLoader() {
+        //Push remaining edges, the edge list is empty in streaming mode and
+        //self-loops and auto node edges were removed from each batch
+        if (isStreaming()) {
+            flushEdgeBuffer();
+        }
+
         //Remove self-loops
         if (!parameters.isSelfLoops() && selfLoops > 0) {
-            List<EdgeDraftImpl> l = new ArrayList<>();
-            for (EdgeDraftImpl e : edgeList) {
-                if (e != null && e.isSelfLoop()) {
-                    l.add(e);
+            List<IntArrayList> selfLoopChunks = ParallelScan.scan(edgeList.size(), new ParallelScan.Chunk<IntArrayList>() {
+                @Override
+                public IntArrayList scan(int start, int end) {
+                    IntArrayList l = new IntArrayList();
+                    for (int i = start; i < end; i++) {
+                        EdgeDraftImpl e = edgeList.get(i);
+                        if (e != null && e.isSelfLoop()) {
+                            l.add(i);
+                        }
+                    }
+                    return l;
+                }
+            });
+            for (IntArrayList l : selfLoopChunks) {
+                for (int i = 0; i < l.size(); i++) {
+                    removeEdge(edgeList.get(l.getInt(i)));
                 }
-            }
-            for (EdgeDraftImpl e : l) {
-                removeEdge(e);
             }
         }
 
         //Merge parallel edges
-        if (parameters.isParallelEdges()) {
-            for (Long2ObjectMap<int[]> edgesTypeMap : edgeTypeSets) {
-                if (edgeTypeMap != null) {
-                    for (Long2ObjectMap.Entry<int[]> entry : edgesTypeMap.long2ObjectEntrySet()) {
-                        if (entry.getValue().length > 1) {
-                            int[] edges = entry.getValue();
-                            //Sort and get min
-                            Arrays.sort(edges);
-                            int minIndex = edges[0];
-                            EdgeDraftImpl min = edgeList.get(minIndex);
-                            EdgeDraftImpl[] sources = new EdgeDraftImpl[edges.length - 1];
-                            for (int i = 1; i < edges.length; i++) {
-                                int sourceIndex = edges[i];
-                                sources[i - 1] = edgeList.get(sourceIndex);
-                                edgeList.set(sourceIndex, null);
-                                edgeMap.remove(sources[i - 1].getId());
-                            }
-                            mergeParallelEdges(sources, min);
-                            entry.setValue(new int[]{minIndex});
-                        }
-                    }
-                }
-            }
+        if (parameters.isParallelEdges() && !parallelEdges.isEmpty()) {
+            mergeParallelEdges();
         }
 
         if (directedEdgesCount > 0 && edgeDefault.equals(EdgeDirectionDefault.UNDIRECTED)) {
@@ -776,43 +921,116 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
             });
         }
 
-        //Set id as label for nodes that miss label
-        if (parameters.isFillLabelWithId()) {
-            for (NodeDraftImpl node : nodeList) {
-                if (node != null && node.getLabel() == null) {
-                    node.setLabel(node.getId());
+        //Set id as label for nodes that miss label and reset missing positions, in one pass
+        final boolean fillLabelWithId = parameters.isFillLabelWithId();
+        List<Boolean> customPositionChunks = ParallelScan.scan(nodeList.size(), new ParallelScan.Chunk<Boolean>() {
+            @Override
+            public Boolean scan(int start, int end) {
+                boolean customPosition = false;
+                for (int i = start; i < end; i++) {
+                    NodeDraftImpl node = nodeList.get(i);
+                    if (node == null) {
+                        continue;
+                    }
+                    if (fillLabelWithId && node.getLabel() == null) {
+                        node.setLabel(node.getId());
+                    }
+                    if (Float.isNaN(node.getX())) {
+                        node.setX(0);
+                    }
+                    if (Float.isNaN(node.getY())) {
+                        node.setY(0);
+                    }
+                    if (Float.isNaN(node.getZ())) {
+                        node.setZ(0);
+                    }
+                    if (node.getX() != 0f || node.getY() != 0f) {
+                        customPosition = true;
+                    }
                 }
+                return customPosition;
             }
-        }
+        });
 
         //Set random position
-        boolean customPosition = false;
-        for (NodeDraftImpl node : nodeList) {
-            if (node != null) {
-                if (Float.isNaN(node.getX())) {
-                    node.setX(0);
-                }
-                if (Float.isNaN(node.getY())) {
-                    node.setY(0);
+        if (!customPositionChunks.contains(Boolean.TRUE)) {
+            ParallelScan.scan(nodeList.size(), new ParallelScan.Chunk<Void>() {
+                @Override
+                public Void scan(int start, int end) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = start; i < end; i++) {
+                        NodeDraftImpl node = nodeList.get(i);
+                        if (node != null) {
+                            node.setX((float) ((0.01 + random.nextDouble()) * 1000) - 500);
+                            node.setY((float) ((0.01 + random.nextDouble()) * 1000) - 500);
+                        }
+                    }
+                    return null;
                 }
-                if (Float.isNaN(node.getZ())) {
-                    node.setZ(0);
+            });
+        }
+
+        //Release column dictionaries, loaded values keep their canonical instances
+        for (ColumnDraft column : nodeColumns.values()) {
+            ((ColumnDraftImpl) column).closeDictionary();
+        }
+        for (ColumnDraft column : edgeColumns.values()) {
+            ((ColumnDraftImpl) column).closeDictionary();
+        }
+
+        //MANAGEMENT
+    }
+
+    private void mergeParallelEdges() {
+        //Sorting groups edges by pair, each group starting with its lowest index
+        long[] packed = parallelEdges.toLongArray();
+        Arrays.sort(packed);
+        EdgeDraftImpl[] sources = new EdgeDraftImpl[0];
+        int start = 0;
+        while (start < packed.length) {
+            int group = (int) (packed[start] >>> 32);
+            int end = start + 1;
+            while (end < packed.length && (int) (packed[end] >>> 32) == group) {
+                end++;
+            }
+
+            //Keep the first edge not removed and merge the others into it
+            if (sources.length < end - start) {
+                sources = new EdgeDraftImpl[end - start];
+            }
+            EdgeDraftImpl min = null;
+            int minIndex = NULL_INDEX;
+            int sourcesCount = 0;
+            for (int i = start; i < end; i++) {
+                int index = (int) packed[i];
+                EdgeDraftImpl edge = edgeList.get(index);
+                if (edge == null) {
+                    continue;
                 }
-                if (node.getX() != 0f || node.getY() != 0f) {
-                    customPosition = true;
+                if (min == null) {
+                    min = edge;
+                    minIndex = index;
+                } else {
+                    sources[sourcesCount++] = edge;
+                    edgeList.set(index, null);
+                    edgeMap.removeInt(edge.getId());
                 }
             }
-        }
-        if (!customPosition) {
-            for (NodeDraftImpl node : nodeList) {
-                if (node != null) {
-                    node.setX((float) ((0.01 + Math.random()) * 1000) - 500);
-                    node.setY((float) ((0.01 + Math.random()) * 1000) - 500);
-                }
+            if (sourcesCount > 0) {
+                mergeParallelEdges(Arrays.copyOf(sources, sourcesCount), min);
+            }
+            if (min != null && minIndex != group) {
+                edgeTypeSets[getEdgeType(min.getType())].put(getLongId(min), minIndex);
             }
+            start = end;
         }
+        parallelEdges.clear();
+        parallelEdges.trim();
+        parallelEdgeCounts.clear();
+    }
 
-        //MANAGEMENT
+    private static long packParallelEdge(int group, int index) {
+        return ((long) group) << 32 | index;
     }
 
     protected void mergeParallelEdges(EdgeDraftImpl[] sources, EdgeDraftImpl dest) {
@@ -1017,11 +1235,11 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
                     || cl.equals(Long.class)
                     || cl.equals(Character.class)
                     || cl.equals(Boolean.class))) {
-                report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Unsupported_Edge_type"), Level.SEVERE));
+                report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Unsupported_Edge_type", Level.SEVERE));
                 type = null;
             }
             if (type != null && lastEdgeType != null && !lastEdgeType.equals(type.getClass())) {
-                report.logIssue(new Issue(NbBundle.getMessage(ImportContainerImpl.class, "ImportContainerException_Unsupported_Edge_type_Conflict", type.getClass().getSimpleName(), lastEdgeType.getSimpleName()), Level.SEVERE));
+                report.logIssue(new Issue(ImportContainerImpl.class, "ImportContainerException_Unsupported_Edge_type_Conflict", Level.SEVERE, type.getClass().getSimpleName(), lastEdgeType.getSimpleName()));
                 type = null;
             }
         }
@@ -1040,10 +1258,13 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
 
     private void ensureLongSetArraySize(int type) {
         if (edgeTypeSets.length <= type) {
-            Long2ObjectMap[] l = new Long2ObjectMap[type + 1];
+            Long2IntMap[] l = new Long2IntMap[type + 1];
             System.arraycopy(edgeTypeSets, 0, l, 0, edgeTypeSets.length);
+            for (int i = edgeTypeSets.length; i <= type; i++) {
+                l[i] = new Long2IntOpenHashMap();
+                l[i].defaultReturnValue(NULL_INDEX);
+            }
             edgeTypeSets = l;
-            edgeTypeSets[type] = new Long2ObjectOpenHashMap<>();
         }
     }
 
@@ -1067,11 +1288,11 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
     }
 
     private EdgeDraftImpl getOpposite(EdgeDraftImpl edge) {
-        Long2ObjectMap<int[]> typeSet = edgeTypeSets[getEdgeType(edge.getType())];
+        Long2IntMap typeSet = edgeTypeSets[getEdgeType(edge.getType())];
         long longId = getLongId(edge.getTarget(), edge.getSource(), true);
-        int[] opposites = typeSet.get(longId);
-        if (opposites != null && opposites.length > 0) {
-            return edgeList.get(opposites[0]);
+        int opposite = typeSet.get(longId);
+        if (opposite != NULL_INDEX) {
+            return edgeList.get(opposite);
         }
         return null;
     }
@@ -1094,6 +1315,44 @@ public class ImportContainerImpl implements Container, ContainerLoader, Containe
         }
     }
 
+    //Result of verify() over a chunk of elements
+    private static class VerifyChunk {
+
+        private final ElementIdType idType;
+        private final List<Issue> issues = new ArrayList<>();
+        private final IntArrayList removedEdges = new IntArrayList();
+        private boolean idTypeParseError;
+        private boolean dynamicGraph;
+        private boolean dynamicAttributes;
+
+        public VerifyChunk(ElementIdType idType) {
+            this.idType = idType;
+        }
+
+        private void verifyElement(ElementDraftImpl element) {
+            //IdType, checked until the first error
+            if (!idTypeParseError) {
+                try {
+                    if (idType.equals(ElementIdType.INTEGER)) {
+                        Integer.parseInt(element.getId());
+                    } else if (idType.equals(ElementIdType.LONG)) {
+                        Long.parseLong(element.getId());
+                    }
+                } catch (NumberFormatException e) {
+                    idTypeParseError = true;
+                }
+            }
+
+            //Is dynamic graph
+            if (element.isDynamic()) {
+                dynamicGraph = true;
+            }
+            if (element.hasDynamicAttributes()) {
+                dynamicAttributes = true;
+            }
+        }
+    }
+
     //UTILITY ITERATOR
     private static class NullFilterIterable<T extends ElementDraft> implements Iterable<T> {
 
@@ -41,12 +41,21 @@
  */
 package org.gephi.io.importer.impl;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import org.gephi.io.importer.api.Container;
 import org.gephi.io.importer.api.ContainerUnloader;
 import org.gephi.io.importer.api.Database;
@@ -63,12 +72,13 @@ import org.gephi.io.importer.spi.ImporterUI;
 import org.gephi.io.importer.spi.ImporterWizardUI;
 import org.gephi.io.importer.spi.WizardImporter;
 import org.gephi.io.importer.spi.WizardImporterBuilder;
+import org.gephi.io.processor.spi.IncrementalProcessor;
 import org.gephi.io.processor.spi.Processor;
 import org.gephi.io.processor.spi.Scaler;
+import org.gephi.io.processor.spi.StreamingProcessor;
 import org.gephi.project.api.Workspace;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
-import org.openide.util.Exceptions;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -80,6 +90,8 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = ImportController.class)
 public class ImportControllerImpl implements ImportController {
 
+    //Number of edges kept by streaming containers before pushing them
+    private static final int STREAMING_BUFFER_SIZE = 8192;
     private final FileImporterBuilder[] fileImporterBuilders;
     private final DatabaseImporterBuilder[] databaseImporterBuilders;
     private final WizardImporterBuilder[] wizardImporterBuilders;
@@ -129,7 +141,9 @@ public class ImportControllerImpl implements ImportController {
             fileObject = getArchivedFile(fileObject);   //Unzip and return content file
             FileImporterBuilder builder = getMatchingImporter(fileObject);
             if (fileObject != null && builder != null) {
-                Container c = importFile(fileObject.getInputStream(), builder.buildImporter());
+                FileImporter importer = builder.buildImporter();
+                ImportUtils.setFile(importer, fileObject);
+                Container c = importFile(getInputStream(fileObject), importer);
                 return c;
             }
         }
@@ -142,7 +156,8 @@ public class ImportControllerImpl implements ImportController {
         if (fileObject != null) {
             fileObject = getArchivedFile(fileObject);   //Unzip and return content file
             if (fileObject != null) {
-                Container c = importFile(fileObject.getInputStream(), importer);
+                ImportUtils.setFile(importer, fileObject);
+                Container c = importFile(getInputStream(fileObject), importer);
                 return c;
             }
         }
@@ -151,6 +166,11 @@ public class ImportControllerImpl implements ImportController {
 
     @Override
     public Container importFile(Reader reader, FileImporter importer) {
+        importer.setReader(reader);
+        return importFile(importer, reader);
+    }
+
+    private Container importFile(FileImporter importer, Closeable source) {
         //Create Container
         final Container container = Lookup.getDefault().lookup(Container.Factory.class).newContainer();
 
@@ -158,8 +178,6 @@ public class ImportControllerImpl implements ImportController {
         Report report = new Report();
         container.setReport(report);
 
-        importer.setReader(reader);
-
         try {
             if (importer.execute(container.getLoader())) {
                 if (importer.getReport() != null && importer.getReport() != report) {
@@ -174,7 +192,7 @@ public class ImportControllerImpl implements ImportController {
             throw new RuntimeException(ex);
         } finally {
             try {
-                reader.close();
+                source.close();
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
             }
@@ -184,6 +202,10 @@ public class ImportControllerImpl implements ImportController {
 
     @Override
     public Container importFile(InputStream stream, FileImporter importer) {
+        if (importer instanceof FileImporter.StreamAware) {
+            ((FileImporter.StreamAware) importer).setInputStream(stream);
+            return importFile(importer, stream);
+        }
         try {
             Reader reader = ImportUtils.getTextReader(stream);
             return importFile(reader, importer);
@@ -198,6 +220,53 @@ public class ImportControllerImpl implements ImportController {
         }
     }
 
+    @Override
+    public Container importFile(Reader reader, FileImporter importer, StreamingProcessor processor, Workspace workspace) {
+        //Create Container
+        final Container container = Lookup.getDefault().lookup(Container.Factory.class).newContainer();
+
+        //Report
+        Report report = new Report();
+        container.setReport(report);
+
+        //Streaming
+        processor.setContainers(new ContainerUnloader[]{container.getUnloader()});
+        processor.setWorkspace(workspace);
+        container.setStreamingProcessor(processor, STREAMING_BUFFER_SIZE);
+
+        importer.setReader(reader);
+
+        try {
+            if (importer.execute(container.getLoader())) {
+                if (importer.getReport() != null && importer.getReport() != report) {
+                    report.append(importer.getReport());
+                }
+                //Containers and workspace are already set, the processor may have created the workspace
+                container.closeLoader();
+                if (container.getUnloader().isAutoScale()) {
+                    Scaler scaler = Lookup.getDefault().lookup(Scaler.class);
+                    if (scaler != null) {
+                        scaler.doScale(container);
+                    }
+                }
+                processor.process();
+                report.close();
+                return container;
+            }
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        return null;
+    }
+
     @Override
     public Container importDatabase(Database database, DatabaseImporter importer) {
         //Create Container
@@ -261,13 +330,7 @@ public class ImportControllerImpl implements ImportController {
 
     @Override
     public void process(Container container, Processor processor, Workspace workspace) {
-        container.closeLoader();
-        if (container.getUnloader().isAutoScale()) {
-            Scaler scaler = Lookup.getDefault().lookup(Scaler.class);
-            if (scaler != null) {
-                scaler.doScale(container);
-            }
-        }
+        closeLoader(container);
         processor.setContainers(new ContainerUnloader[]{container.getUnloader()});
         processor.setWorkspace(workspace);
         processor.process();
@@ -278,13 +341,7 @@ public class ImportControllerImpl implements ImportController {
         ContainerUnloader[] unloaders = new ContainerUnloader[containers.length];
         int i = 0;
         for (Container container : containers) {
-            container.closeLoader();
-            if (container.getUnloader().isAutoScale()) {
-                Scaler scaler = Lookup.getDefault().lookup(Scaler.class);
-                if (scaler != null) {
-                    scaler.doScale(container);
-                }
-            }
+            closeLoader(container);
             unloaders[i++] = container.getUnloader();
         }
         processor.setContainers(unloaders);
@@ -292,6 +349,89 @@ public class ImportControllerImpl implements ImportController {
         processor.process();
     }
 
+    @Override
+    public Container[] importFiles(File[] files, Processor processor, Workspace workspace) {
+        final Container[] containers = new Container[files.length];
+        int threads = Math.max(1, Math.min(files.length, Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "Import files");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < files.length; i++) {
+            final File file = files[i];
+            final int index = i;
+            completionService.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    Container container = importFile(file);
+                    if (container != null) {
+                        closeLoader(container);
+                    }
+                    containers[index] = container;
+                    return index;
+                }
+            });
+        }
+
+        //Containers are pushed as they complete, on this thread only
+        IncrementalProcessor incrementalProcessor = processor instanceof IncrementalProcessor ? (IncrementalProcessor) processor : null;
+        if (incrementalProcessor != null) {
+            incrementalProcessor.setWorkspace(workspace);
+        }
+        boolean loaded = false;
+        try {
+            for (int i = 0; i < files.length; i++) {
+                Container container = containers[completionService.take().get()];
+                if (container != null && incrementalProcessor != null) {
+                    incrementalProcessor.processContainer(container.getUnloader());
+                }
+            }
+            loaded = true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            pool.shutdownNow();
+            if (!loaded && incrementalProcessor != null) {
+                incrementalProcessor.reset();
+            }
+        }
+
+        List<ContainerUnloader> unloaders = new ArrayList<>();
+        for (Container container : containers) {
+            if (container != null) {
+                unloaders.add(container.getUnloader());
+            }
+        }
+        processor.setContainers(unloaders.toArray(new ContainerUnloader[0]));
+        if (incrementalProcessor == null) {
+            processor.setWorkspace(workspace);
+        }
+        processor.process();
+        return containers;
+    }
+
+    private void closeLoader(Container container) {
+        container.closeLoader();
+        if (container.getUnloader().isAutoScale()) {
+            Scaler scaler = Lookup.getDefault().lookup(Scaler.class);
+            if (scaler != null) {
+                scaler.doScale(container);
+            }
+        }
+    }
+
     private FileObject getArchivedFile(FileObject fileObject) {
         if (fileObject == null) {
             return null;
@@ -299,56 +439,32 @@ public class ImportControllerImpl implements ImportController {
         // ZIP and JAR archives
         if (FileUtil.isArchiveFile(fileObject)) {
             fileObject = FileUtil.getArchiveRoot(fileObject).getChildren()[0];
-        } else { // GZ or BZIP2 archives
-            boolean isGz = fileObject.getExt().equalsIgnoreCase("gz");
-            boolean isBzip = fileObject.getExt().equalsIgnoreCase("bz2");
-            if (isGz || isBzip) {
-                try {
-                    String[] splittedFileName = fileObject.getName().split("\\.");
-                    if (splittedFileName.length < 2) {
-                        return fileObject;
-                    }
+        }
+        // GZ and BZIP2 archives are decompressed while importing, see getInputStream()
+        return fileObject;
+    }
 
-                    String fileExt1 = splittedFileName[splittedFileName.length - 1];
-                    String fileExt2 = splittedFileName[splittedFileName.length - 2];
-
-                    File tempFile = null;
-                    if (fileExt1.equalsIgnoreCase("tar")) {
-                        String fname = fileObject.getName().replaceAll("\\.tar$", "");
-                        fname = fname.replace(fileExt2, "");
-                        tempFile = File.createTempFile(fname, "." + fileExt2);
-                        // Untar & unzip
-                        if (isGz) {
-                            tempFile = ImportUtils.getGzFile(fileObject, tempFile, true);
-                        } else {
-                            tempFile = ImportUtils.getBzipFile(fileObject, tempFile, true);
-                        }
-                    } else {
-                        String fname = fileObject.getName();
-                        fname = fname.replace(fileExt1, "");
-                        tempFile = File.createTempFile(fname, "." + fileExt1);
-                        // Unzip
-                        if (isGz) {
-                            tempFile = ImportUtils.getGzFile(fileObject, tempFile, false);
-                        } else {
-                            tempFile = ImportUtils.getBzipFile(fileObject, tempFile, false);
-                        }
-                    }
-                    tempFile.deleteOnExit();
-                    tempFile = FileUtil.normalizeFile(tempFile);
-                    fileObject = FileUtil.toFileObject(tempFile);
-                } catch (IOException ex) {
-                    Exceptions.printStackTrace(ex);
-                }
+    private InputStream getInputStream(FileObject fileObject) throws FileNotFoundException {
+        if (ImportUtils.isCompressedFile(fileObject)) {
+            try {
+                return ImportUtils.getDecompressedStream(fileObject);
+            } catch (FileNotFoundException ex) {
+                throw ex;
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
             }
         }
-        return fileObject;
+        return fileObject.getInputStream();
     }
 
     private FileImporterBuilder getMatchingImporter(FileObject fileObject) {
         if (fileObject == null) {
             return null;
         }
+        if (ImportUtils.isCompressedFile(fileObject)) {
+            String nameExt = ImportUtils.getCompressedFileNameExt(fileObject);
+            return getMatchingImporter(nameExt.substring(nameExt.lastIndexOf('.') + 1));
+        }
         for (FileImporterBuilder im : fileImporterBuilders) {
             if (im.isMatchingImporter(fileObject)) {
                 return im;
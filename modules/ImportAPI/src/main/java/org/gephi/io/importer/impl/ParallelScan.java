@@ -0,0 +1,119 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs a read-only scan over index ranges of a large list on several threads.
+ * <p>
+ * The range is split into contiguous chunks and each chunk produces its own
+ * result, so scans never share mutable state. Results are returned in chunk
+ * order, which lets the caller apply them, and log their issues, in the same
+ * order as a sequential scan would. Small ranges are scanned inline.
+ */
+final class ParallelScan {
+
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    interface Chunk<R> {
+
+        R scan(int start, int end);
+    }
+
+    private ParallelScan() {
+    }
+
+    static <R> List<R> scan(int size, final Chunk<R> chunk) {
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), size / MIN_CHUNK_SIZE);
+        List<R> results = new ArrayList<>();
+        if (threads <= 1) {
+            results.add(chunk.scan(0, size));
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Import container scan");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        try {
+            //A few chunks per thread to balance uneven work
+            int chunkCount = threads * 4;
+            int chunkSize = (size + chunkCount - 1) / chunkCount;
+            List<Future<R>> futures = new ArrayList<>();
+            for (int start = 0; start < size; start += chunkSize) {
+                final int chunkStart = start;
+                final int chunkEnd = Math.min(size, start + chunkSize);
+                futures.add(executor.submit(new Callable<R>() {
+                    @Override
+                    public R call() throws Exception {
+                        return chunk.scan(chunkStart, chunkEnd);
+                    }
+                }));
+            }
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
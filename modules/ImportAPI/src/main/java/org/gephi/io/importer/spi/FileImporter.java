@@ -41,6 +41,8 @@ Portions Copyrighted 2011 Gephi Consortium.
  */
 package org.gephi.io.importer.spi;
 
+import java.io.File;
+import java.io.InputStream;
 import java.io.Reader;
 
 /**
@@ -56,4 +58,34 @@ public interface FileImporter extends Importer {
      * @param reader the reader on data
      */
     public void setReader(Reader reader);
+
+    /**
+     * Importers reading a binary format implement this interface to receive
+     * the raw byte stream. When a stream is available, it is given instead of
+     * a reader.
+     */
+    public interface StreamAware {
+
+        /**
+         * Sets the stream where bytes can be retrieved.
+         *
+         * @param stream the stream on data
+         */
+        public void setInputStream(InputStream stream);
+    }
+
+    /**
+     * Importers which can read the file directly, for instance by mapping it
+     * into memory, implement this interface. The file is set in addition to
+     * the stream or reader when the data comes from a local uncompressed file.
+     */
+    public interface FileAware {
+
+        /**
+         * Sets the file the data is read from.
+         *
+         * @param file the local file
+         */
+        public void setFile(File file);
+    }
 }
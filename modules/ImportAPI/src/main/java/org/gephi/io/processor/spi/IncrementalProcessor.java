@@ -0,0 +1,78 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.processor.spi;
+
+import org.gephi.io.importer.api.ContainerUnloader;
+import org.gephi.io.importer.api.ImportController;
+
+/**
+ * Processor which can receive containers one by one, as soon as each of them
+ * is loaded.
+ * <p>
+ * When files are imported together (see
+ * {@link ImportController#importFiles(java.io.File[], Processor, org.gephi.project.api.Workspace)})
+ * containers are pushed in the order their import completes, so that
+ * processing overlaps the loading of the remaining files. The workspace is set
+ * before the first container is pushed. Once all containers have been pushed,
+ * they are set with {@link #setContainers(ContainerUnloader[])} and
+ * {@link #process()} is called to complete the work. Containers already pushed
+ * are not processed again. If the import fails before that, {@link #reset()}
+ * is called instead so that no state is kept from the pushed containers.
+ *
+ * @see ImportController
+ */
+public interface IncrementalProcessor extends Processor {
+
+    /**
+     * Writes a loaded container to the workspace. Calls come from a single
+     * thread.
+     *
+     * @param container the loaded container
+     */
+    public void processContainer(ContainerUnloader container);
+
+    /**
+     * Clears the state kept from pushed containers, the workspace and the
+     * containers. Called when the import fails before {@link #process()}, and
+     * by {@link #process()} itself once it completes or fails.
+     */
+    public void reset();
+}
@@ -0,0 +1,75 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.processor.spi;
+
+import org.gephi.io.importer.api.Container;
+import org.gephi.io.importer.api.EdgeDraft;
+import org.gephi.io.importer.api.ImportController;
+
+/**
+ * Processor which can receive edges while the container is still being
+ * loaded.
+ * <p>
+ * In streaming mode (see {@link Container#setStreamingProcessor(StreamingProcessor, int)})
+ * the container doesn't keep edge drafts. Edges are pushed to the processor in
+ * bounded batches as the importer adds them and written to the workspace right
+ * away. Nodes are kept in the container and are unloaded by {@link #process()}
+ * once loading is complete, like for any other processor.
+ * <p>
+ * The containers and the workspace are set before the first batch is pushed.
+ *
+ * @see ImportController
+ */
+public interface StreamingProcessor extends Processor {
+
+    /**
+     * Writes a batch of edges to the workspace. Source and target nodes which
+     * are not yet in the workspace are created with their id only, and
+     * completed when {@link #process()} is called.
+     * <p>
+     * The batch array is reused by the container, drafts shouldn't be
+     * retained after this call.
+     *
+     * @param edges edge drafts, only the first <code>count</code> are valid
+     * @param count number of edges in the batch
+     */
+    public void processEdges(EdgeDraft[] edges, int count);
+}
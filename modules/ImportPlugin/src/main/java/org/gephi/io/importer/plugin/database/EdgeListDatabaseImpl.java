@@ -51,10 +51,14 @@ import org.gephi.io.importer.api.PropertiesAssociations.NodeProperties;
  */
 public class EdgeListDatabaseImpl extends AbstractDatabase {
 
+    public static final int DEFAULT_FETCH_SIZE = 1000;
     private String nodeQuery;
     private String edgeQuery;
     private String nodeAttributesQuery;
     private String edgeAttributesQuery;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private String edgePartitionColumn;
+    private int edgePartitions = 1;
 
     public EdgeListDatabaseImpl() {
 
@@ -114,4 +118,46 @@ public class EdgeListDatabaseImpl extends AbstractDatabase {
     public void setNodeQuery(String nodeQuery) {
         this.nodeQuery = nodeQuery;
     }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows fetched from the database at once.
+     *
+     * @param fetchSize rows per fetch
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public String getEdgePartitionColumn() {
+        return edgePartitionColumn;
+    }
+
+    /**
+     * Sets the integer column of the edge query used to split it in key
+     * ranges, or <code>null</code> to run the edge query at once. The edge
+     * query isn't split if the column has another type.
+     *
+     * @param edgePartitionColumn key column name
+     */
+    public void setEdgePartitionColumn(String edgePartitionColumn) {
+        this.edgePartitionColumn = edgePartitionColumn;
+    }
+
+    public int getEdgePartitions() {
+        return edgePartitions;
+    }
+
+    /**
+     * Sets the number of key ranges of the edge query fetched in parallel,
+     * each with its own connection.
+     *
+     * @param edgePartitions number of partitions
+     */
+    public void setEdgePartitions(int edgePartitions) {
+        this.edgePartitions = edgePartitions;
+    }
 }
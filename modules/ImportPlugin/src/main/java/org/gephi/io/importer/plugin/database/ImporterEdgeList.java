@@ -41,6 +41,7 @@
  */
 package org.gephi.io.importer.plugin.database;
 
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -50,6 +51,10 @@ import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import org.gephi.graph.api.TimeFormat;
 import org.gephi.io.database.drivers.SQLUtils;
 import org.gephi.io.importer.api.ColumnDraft;
@@ -71,10 +76,17 @@ import org.gephi.io.importer.spi.DatabaseImporter;
  */
 public class ImporterEdgeList implements DatabaseImporter {
 
+    //Rows pushed to the container at once
+    private static final int BATCH_SIZE = 1024;
+    //Batches fetched ahead by each edge partition
+    private static final int PARTITION_QUEUE_CAPACITY = 8;
+    private static final RowBatch END_OF_PARTITION = new RowBatch(null, 0);
     private Report report;
     private EdgeListDatabaseImpl database;
     private ContainerLoader container;
     private Connection connection;
+    private String url;
+    private List<EdgePartition> edgePartitions;
     //TempData
     private String timeIntervalStart;
     private String timeIntervalEnd;
@@ -94,6 +106,14 @@ public class ImporterEdgeList implements DatabaseImporter {
     }
 
     private void close() {
+        //Stop edge partitions still fetching
+        if (edgePartitions != null) {
+            for (EdgePartition partition : edgePartitions) {
+                partition.cancel();
+            }
+            edgePartitions = null;
+        }
+
         //Close connection
         if (connection != null) {
             try {
@@ -105,7 +125,7 @@ public class ImporterEdgeList implements DatabaseImporter {
 
     private void importData() throws Exception {
         //Connect database
-        String url = SQLUtils.getUrl(database.getSQLDriver(), database.getHost(), database.getPort(), database.getDBName());
+        url = SQLUtils.getUrl(database.getSQLDriver(), database.getHost(), database.getPort(), database.getDBName());
         try {
             report.log("Try to connect at " + url);
             connection = database.getSQLDriver().getConnection(url, database.getUsername(), database.getPasswd());
@@ -124,42 +144,92 @@ public class ImporterEdgeList implements DatabaseImporter {
         }
 
         report.log(database.getPropertiesAssociations().getInfos());
+
+        //Partitions start fetching edges while nodes are imported
+        edgePartitions = createEdgePartitions(connection);
         getNodes(connection);
-        getEdges(connection);
+        if (edgePartitions != null) {
+            getPartitionedEdges();
+        } else {
+            getEdges(connection);
+        }
         getNodesAttributes(connection);
         getEdgesAttributes(connection);
     }
 
     private void getNodes(Connection connection) throws SQLException {
-
-        //Factory
-        ElementDraft.Factory factory = container.factory();
-
-        //Properties
-        PropertiesAssociations properties = database.getPropertiesAssociations();
-
-        Statement s = connection.createStatement();
+        Statement s = createStreamingStatement(connection);
         ResultSet rs = null;
         try {
             rs = s.executeQuery(database.getNodeQuery());
         } catch (SQLException ex) {
             report.logIssue(new Issue("Failed to execute Node query", Issue.Level.SEVERE, ex));
+            s.close();
+            return;
+        }
+
+        ColumnBinding[] bindings = getNodeBindings(rs.getMetaData());
+        findNodeAttributesColumns(bindings);
+        RowBatch batch;
+        while ((batch = readBatch(rs, bindings)).size > 0) {
+            addNodes(batch);
+        }
+        rs.close();
+        s.close();
+    }
+
+    private void getEdges(Connection connection) throws SQLException {
+        Statement s = createStreamingStatement(connection);
+        ResultSet rs = null;
+        try {
+            rs = s.executeQuery(database.getEdgeQuery());
+        } catch (SQLException ex) {
+            report.logIssue(new Issue("Failed to execute Edge query", Issue.Level.SEVERE, ex));
+            s.close();
             return;
         }
 
-        findNodeAttributesColumns(rs);
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnsCount = metaData.getColumnCount();
-        while (rs.next()) {
+        ColumnBinding[] bindings = getEdgeBindings(rs.getMetaData());
+        findEdgeAttributesColumns(bindings);
+        RowBatch batch;
+        while ((batch = readBatch(rs, bindings)).size > 0) {
+            addEdges(batch);
+        }
+        rs.close();
+        s.close();
+    }
+
+    private void getPartitionedEdges() throws Exception {
+        //Partitions are consumed in order, the container is only filled from this thread
+        for (EdgePartition partition : edgePartitions) {
+            RowBatch batch;
+            while ((batch = partition.take()) != END_OF_PARTITION) {
+                addEdges(batch);
+            }
+            if (partition.error instanceof SQLException && !partition.started) {
+                report.logIssue(new Issue("Failed to execute Edge query", Issue.Level.SEVERE, partition.error));
+                return;
+            } else if (partition.error != null) {
+                throw partition.error;
+            }
+        }
+    }
+
+    private void getNodesAttributes(Connection connection) throws SQLException {
+    }
+
+    private void getEdgesAttributes(Connection connection) throws SQLException {
+    }
+
+    private void addNodes(RowBatch batch) {
+        ElementDraft.Factory factory = container.factory();
+        ColumnBinding[] bindings = batch.bindings;
+        for (int r = 0; r < batch.size; r++) {
+            Object[] row = batch.rows[r];
             String id = null;
-            for (int i = 0; i < columnsCount; i++) {
-                String columnName = metaData.getColumnLabel(i + 1);
-                NodeProperties p = properties.getNodeProperty(columnName);
-                if (p != null && p.equals(NodeProperties.ID)) {
-                    String ide = rs.getString(i + 1);
-                    if (ide != null) {
-                        id = ide;
-                    }
+            for (int i = 0; i < bindings.length; i++) {
+                if (bindings[i].nodeProperty == NodeProperties.ID && row[i] != null) {
+                    id = (String) row[i];
                 }
             }
             NodeDraft node;
@@ -169,53 +239,28 @@ public class ImporterEdgeList implements DatabaseImporter {
                 node = factory.newNodeDraft();
             }
 
-            for (int i = 0; i < columnsCount; i++) {
-                String columnName = metaData.getColumnLabel(i + 1);
-                NodeProperties p = properties.getNodeProperty(columnName);
-                if (p != null) {
-                    injectNodeProperty(p, rs, i + 1, node);
+            for (int i = 0; i < bindings.length; i++) {
+                if (bindings[i].nodeProperty != null) {
+                    injectNodeProperty(bindings[i], row[i], node);
                 } else {
                     //Inject node attributes
-                    ColumnDraft col = container.getNodeColumn(columnName);
-                    injectElementAttribute(rs, i + 1, col, node);
+                    injectElementAttribute(bindings[i], row[i], node);
                 }
             }
             injectTimeIntervalProperty(node);
             container.addNode(node);
         }
-        rs.close();
-        s.close();
     }
 
-    private void getEdges(Connection connection) throws SQLException {
-
-        //Factory
+    private void addEdges(RowBatch batch) {
         ElementDraft.Factory factory = container.factory();
-
-        //Properties
-        PropertiesAssociations properties = database.getPropertiesAssociations();
-
-        Statement s = connection.createStatement();
-        ResultSet rs = null;
-        try {
-            rs = s.executeQuery(database.getEdgeQuery());
-        } catch (SQLException ex) {
-            report.logIssue(new Issue("Failed to execute Edge query", Issue.Level.SEVERE, ex));
-            return;
-        }
-        findEdgeAttributesColumns(rs);
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnsCount = metaData.getColumnCount();
-        while (rs.next()) {
+        ColumnBinding[] bindings = batch.bindings;
+        for (int r = 0; r < batch.size; r++) {
+            Object[] row = batch.rows[r];
             String id = null;
-            for (int i = 0; i < columnsCount; i++) {
-                String columnName = metaData.getColumnLabel(i + 1);
-                EdgeProperties p = properties.getEdgeProperty(columnName);
-                if (p != null && p.equals(EdgeProperties.ID)) {
-                    String ide = rs.getString(i + 1);
-                    if (ide != null) {
-                        id = ide;
-                    }
+            for (int i = 0; i < bindings.length; i++) {
+                if (bindings[i].edgeProperty == EdgeProperties.ID && row[i] != null) {
+                    id = (String) row[i];
                 }
             }
             EdgeDraft edge;
@@ -224,58 +269,46 @@ public class ImporterEdgeList implements DatabaseImporter {
             } else {
                 edge = factory.newEdgeDraft();
             }
-            for (int i = 0; i < columnsCount; i++) {
-                String columnName = metaData.getColumnLabel(i + 1);
-                EdgeProperties p = properties.getEdgeProperty(columnName);
-                if (p != null) {
-                    injectEdgeProperty(p, rs, i + 1, edge);
+            for (int i = 0; i < bindings.length; i++) {
+                if (bindings[i].edgeProperty != null) {
+                    injectEdgeProperty(bindings[i], row[i], edge);
                 } else {
                     //Inject edge attributes
-                    ColumnDraft col = container.getEdgeColumn(columnName);
-                    injectElementAttribute(rs, i + 1, col, edge);
+                    injectElementAttribute(bindings[i], row[i], edge);
                 }
             }
             injectTimeIntervalProperty(edge);
             container.addEdge(edge);
         }
-        rs.close();
-        s.close();
     }
 
-    private void getNodesAttributes(Connection connection) throws SQLException {
-    }
-
-    private void getEdgesAttributes(Connection connection) throws SQLException {
-    }
-
-    private void injectNodeProperty(NodeProperties p, ResultSet rs, int column, NodeDraft nodeDraft) throws SQLException {
-        switch (p) {
+    private void injectNodeProperty(ColumnBinding binding, Object value, NodeDraft nodeDraft) {
+        switch (binding.nodeProperty) {
             case LABEL:
-                String label = rs.getString(column);
-                if (label != null) {
-                    nodeDraft.setLabel(label);
+                if (value != null) {
+                    nodeDraft.setLabel((String) value);
                 }
                 break;
             case X:
-                float x = rs.getFloat(column);
+                float x = (Float) value;
                 if (x != 0) {
                     nodeDraft.setX(x);
                 }
                 break;
             case Y:
-                float y = rs.getFloat(column);
+                float y = (Float) value;
                 if (y != 0) {
                     nodeDraft.setY(y);
                 }
                 break;
             case Z:
-                float z = rs.getFloat(column);
+                float z = (Float) value;
                 if (z != 0) {
                     nodeDraft.setZ(z);
                 }
                 break;
             case COLOR:
-                String color = rs.getString(column);
+                String color = (String) value;
                 if (color != null) {
                     String[] rgb = color.replace(" ", "").split(",");
                     if (rgb.length == 3) {
@@ -286,45 +319,29 @@ public class ImporterEdgeList implements DatabaseImporter {
                 }
                 break;
             case SIZE:
-                float size = rs.getFloat(column);
+                float size = (Float) value;
                 if (size != 0) {
                     nodeDraft.setSize(size);
                 }
                 break;
             case START:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String start = getDateData(rs, column);
-                if (start != null) {
-                    timeIntervalStart = start;
-                }
-                break;
             case START_OPEN:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String startOpen = rs.getString(column);
-                if (startOpen != null) {
-                    timeIntervalStart = startOpen;
+                container.setTimeFormat(binding.timeFormat);
+                if (value != null) {
+                    timeIntervalStart = (String) value;
                 }
                 break;
             case END:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String end = rs.getString(column);
-                if (end != null) {
-                    timeIntervalEnd = end;
-                }
-                break;
             case END_OPEN:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String endOpen = rs.getString(column);
-                if (endOpen != null) {
-                    timeIntervalEnd = endOpen;
+                container.setTimeFormat(binding.timeFormat);
+                if (value != null) {
+                    timeIntervalEnd = (String) value;
                 }
                 break;
         }
     }
 
-    private TimeFormat getTimeFormat(ResultSet rs, int column) throws SQLException {
-        ResultSetMetaData metaData = rs.getMetaData();
-        int type = metaData.getColumnType(column);
+    private TimeFormat getTimeFormat(int type) {
         switch (type) {
             case Types.DATE:
                 return TimeFormat.DATE;
@@ -343,19 +360,17 @@ public class ImporterEdgeList implements DatabaseImporter {
         return TimeFormat.DOUBLE;
     }
 
-    private String getDateData(ResultSet rs, int column) throws SQLException {
+    private String getDateData(ResultSet rs, int column, int type) throws SQLException {
         String res = null;
-        ResultSetMetaData metaData = rs.getMetaData();
-        int type = metaData.getColumnType(column);
         if (type == Types.DATE) {
             Date date = rs.getDate(column);
-            res = date.toString();
+            res = date != null ? date.toString() : null;
         } else if (type == Types.TIME) {
             Time time = rs.getTime(column);
-            res = time.toString();
+            res = time != null ? time.toString() : null;
         } else if (type == Types.TIMESTAMP) {
             Timestamp timeStamp = rs.getTimestamp(column);
-            res = timeStamp.toString();
+            res = timeStamp != null ? timeStamp.toString() : null;
         } else if (type == Types.VARCHAR) {
             res = rs.getString(column);
         } else if (type == Types.DOUBLE || type == Types.FLOAT) {
@@ -375,36 +390,35 @@ public class ImporterEdgeList implements DatabaseImporter {
         timeIntervalEnd = null;
     }
 
-    private void injectEdgeProperty(EdgeProperties p, ResultSet rs, int column, EdgeDraft edgeDraft) throws SQLException {
-        switch (p) {
+    private void injectEdgeProperty(ColumnBinding binding, Object value, EdgeDraft edgeDraft) {
+        switch (binding.edgeProperty) {
             case LABEL:
-                String label = rs.getString(column);
-                if (label != null) {
-                    edgeDraft.setLabel(label);
+                if (value != null) {
+                    edgeDraft.setLabel((String) value);
                 }
                 break;
             case SOURCE:
-                String source = rs.getString(column);
+                String source = (String) value;
                 if (source != null && !source.isEmpty()) {
                     NodeDraft sourceNode = container.getNode(source);
                     edgeDraft.setSource(sourceNode);
                 }
                 break;
             case TARGET:
-                String target = rs.getString(column);
+                String target = (String) value;
                 if (target != null && !target.isEmpty()) {
                     NodeDraft targetNode = container.getNode(target);
                     edgeDraft.setTarget(targetNode);
                 }
                 break;
             case WEIGHT:
-                float weight = rs.getFloat(column);
+                float weight = (Float) value;
                 if (weight != 0) {
                     edgeDraft.setWeight(weight);
                 }
                 break;
             case COLOR:
-                String color = rs.getString(column);
+                String color = (String) value;
                 if (color != null) {
                     String[] rgb = color.split(",");
                     if (rgb.length == 3) {
@@ -415,31 +429,17 @@ public class ImporterEdgeList implements DatabaseImporter {
                 }
                 break;
             case START:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String start = getDateData(rs, column);
-                if (start != null) {
-                    timeIntervalStart = start;
-                }
-                break;
             case START_OPEN:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String startOpen = rs.getString(column);
-                if (startOpen != null) {
-                    timeIntervalStart = startOpen;
+                container.setTimeFormat(binding.timeFormat);
+                if (value != null) {
+                    timeIntervalStart = (String) value;
                 }
                 break;
             case END:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String end = rs.getString(column);
-                if (end != null) {
-                    timeIntervalEnd = end;
-                }
-                break;
             case END_OPEN:
-                container.setTimeFormat(getTimeFormat(rs, column));
-                String endOpen = rs.getString(column);
-                if (endOpen != null) {
-                    timeIntervalEnd = endOpen;
+                container.setTimeFormat(binding.timeFormat);
+                if (value != null) {
+                    timeIntervalEnd = (String) value;
                 }
                 break;
         }
@@ -455,108 +455,139 @@ public class ImporterEdgeList implements DatabaseImporter {
         timeIntervalEnd = null;
     }
 
-    private void injectElementAttribute(ResultSet rs, int columnIndex, ColumnDraft column, ElementDraft draft) {
-        String elementName;
-        if (draft instanceof NodeDraft) {
-            elementName = "node";
+    private void injectElementAttribute(ColumnBinding binding, Object value, ElementDraft draft) {
+        if (value instanceof ValueError) {
+            ValueError error = (ValueError) value;
+            report.logIssue(new Issue(error.message, Issue.Level.SEVERE, error.exception));
+        } else if (value == null) {
+            report.logIssue(new Issue(binding.getErrorMessage(), Issue.Level.WARNING));
         } else {
-            elementName = "edge";
+            draft.setValue(binding.column.getId(), value);
         }
-        Class typeClass = column.getTypeClass();
-        if (typeClass.equals(Boolean.class)) {
-            try {
-                boolean val = rs.getBoolean(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a BOOLEAN value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
-            }
-        } else if (typeClass.equals(Double.class)) {
-            try {
-                double val = rs.getDouble(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a DOUBLE value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
-            }
-        } else if (typeClass.equals(Float.class)) {
-            try {
-                float val = rs.getFloat(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a FLOAT value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
-            }
-        } else if (typeClass.equals(Integer.class)) {
-            try {
-                int val = rs.getInt(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a INT value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
-            }
-        } else if (typeClass.equals(Long.class)) {
-            try {
-                long val = rs.getLong(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a LONG value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
-            }
-        } else if (typeClass.equals(Short.class)) {
-            try {
-                short val = rs.getShort(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a SHORT value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
+    }
+
+    /**
+     * Reads the next rows of <code>rs</code>, with one typed getter per column
+     * resolved from the bindings. Returns an empty batch at the end.
+     */
+    private RowBatch readBatch(ResultSet rs, ColumnBinding[] bindings) throws SQLException {
+        RowBatch batch = new RowBatch(bindings, BATCH_SIZE);
+        while (batch.size < BATCH_SIZE && rs.next()) {
+            Object[] row = new Object[bindings.length];
+            for (int i = 0; i < bindings.length; i++) {
+                row[i] = readValue(rs, bindings[i]);
             }
-        } else if (typeClass.equals(Byte.class)) {
-            try {
-                byte val = rs.getByte(columnIndex);
-                draft.setValue(column.getId(), val);
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a BYTE value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
+            batch.rows[batch.size++] = row;
+        }
+        return batch;
+    }
+
+    private Object readValue(ResultSet rs, ColumnBinding binding) throws SQLException {
+        int column = binding.index;
+        switch (binding.reader) {
+            case FLOAT_PROPERTY:
+                return rs.getFloat(column);
+            case DATE_PROPERTY:
+                return getDateData(rs, column, binding.sqlType);
+            case STRING_PROPERTY:
+                return rs.getString(column);
+        }
+
+        //Attribute, a failure is reported for this value only
+        try {
+            switch (binding.reader) {
+                case BOOLEAN:
+                    return rs.getBoolean(column);
+                case DOUBLE:
+                    return rs.getDouble(column);
+                case FLOAT:
+                    return rs.getFloat(column);
+                case INTEGER:
+                    return rs.getInt(column);
+                case LONG:
+                    return rs.getLong(column);
+                case SHORT:
+                    return rs.getShort(column);
+                case BYTE:
+                    return rs.getByte(column);
+                default:
+                    return rs.getString(column);
             }
-        } else {
-            try {
-                String val = rs.getString(columnIndex);
-                if (val != null) {
-                    draft.setValue(column.getId(), val);
-                } else {
-                    report.logIssue(new Issue("Failed to get a STRING value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.WARNING));
-                }
-            } catch (SQLException ex) {
-                report.logIssue(new Issue("Failed to get a STRING value for " + elementName + " attribute '" + column.getId() + "'", Issue.Level.SEVERE, ex));
+        } catch (SQLException ex) {
+            return new ValueError(binding.getErrorMessage(), ex);
+        }
+    }
+
+    private ColumnBinding[] getNodeBindings(ResultSetMetaData metaData) throws SQLException {
+        PropertiesAssociations properties = database.getPropertiesAssociations();
+        ColumnBinding[] bindings = new ColumnBinding[metaData.getColumnCount()];
+        for (int i = 0; i < bindings.length; i++) {
+            String columnName = metaData.getColumnLabel(i + 1);
+            NodeProperties p = properties.getNodeProperty(columnName);
+            bindings[i] = new ColumnBinding(i + 1, columnName, metaData.getColumnType(i + 1), "node");
+            if (p != null) {
+                bindings[i].nodeProperty = p;
+                bindings[i].reader = getPropertyReader(p.name());
+                bindings[i].timeFormat = getTimeFormat(bindings[i].sqlType);
             }
         }
+        return bindings;
     }
 
-    private void findNodeAttributesColumns(ResultSet rs) throws SQLException {
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnsCount = metaData.getColumnCount();
-        for (int i = 0; i < columnsCount; i++) {
+    private ColumnBinding[] getEdgeBindings(ResultSetMetaData metaData) throws SQLException {
+        PropertiesAssociations properties = database.getPropertiesAssociations();
+        ColumnBinding[] bindings = new ColumnBinding[metaData.getColumnCount()];
+        for (int i = 0; i < bindings.length; i++) {
             String columnName = metaData.getColumnLabel(i + 1);
-            NodeProperties p = database.getPropertiesAssociations().getNodeProperty(columnName);
-            if (p == null) {
+            EdgeProperties p = properties.getEdgeProperty(columnName);
+            bindings[i] = new ColumnBinding(i + 1, columnName, metaData.getColumnType(i + 1), "edge");
+            if (p != null) {
+                bindings[i].edgeProperty = p;
+                bindings[i].reader = getPropertyReader(p.name());
+                bindings[i].timeFormat = getTimeFormat(bindings[i].sqlType);
+            }
+        }
+        return bindings;
+    }
+
+    private ValueReader getPropertyReader(String property) {
+        switch (property) {
+            case "X":
+            case "Y":
+            case "Z":
+            case "SIZE":
+            case "WEIGHT":
+                return ValueReader.FLOAT_PROPERTY;
+            case "START":
+                return ValueReader.DATE_PROPERTY;
+            default:
+                return ValueReader.STRING_PROPERTY;
+        }
+    }
+
+    private void findNodeAttributesColumns(ColumnBinding[] bindings) {
+        for (ColumnBinding binding : bindings) {
+            if (binding.nodeProperty == null) {
                 //No property associated to this column is found, so we append it as an attribute
-                Class typeClass = findTypeClass(metaData, i);
-                container.addNodeColumn(columnName, typeClass);
+                Class typeClass = findTypeClass(binding.sqlType);
+                binding.setAttribute(container.addNodeColumn(binding.name, typeClass));
             }
         }
     }
 
-    private void findEdgeAttributesColumns(ResultSet rs) throws SQLException {
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnsCount = metaData.getColumnCount();
-        for (int i = 0; i < columnsCount; i++) {
-            String columnName = metaData.getColumnLabel(i + 1);
-            EdgeProperties p = database.getPropertiesAssociations().getEdgeProperty(columnName);
-            if (p == null) {
+    private void findEdgeAttributesColumns(ColumnBinding[] bindings) {
+        for (ColumnBinding binding : bindings) {
+            if (binding.edgeProperty == null) {
                 //No property associated to this column is found, so we append it as an attribute
-                Class typeClass = findTypeClass(metaData, i);
-                container.addEdgeColumn(columnName, typeClass);
+                Class typeClass = findTypeClass(binding.sqlType);
+                binding.setAttribute(container.addEdgeColumn(binding.name, typeClass));
             }
         }
     }
 
-    private Class findTypeClass(ResultSetMetaData metaData, int columnIndex) throws SQLException {
+    private Class findTypeClass(int sqlType) {
         Class type = String.class;
-        switch (metaData.getColumnType(columnIndex + 1)) {
+        switch (sqlType) {
             case Types.BIGINT:
                 type = Long.class;
                 break;
@@ -588,12 +619,132 @@ public class ImporterEdgeList implements DatabaseImporter {
                 type = Float.class;
                 break;
             default:
-                report.logIssue(new Issue("Unknown SQL Type " + metaData.getColumnType(columnIndex + 1) + ", STRING used.", Issue.Level.WARNING));
+                report.logIssue(new Issue("Unknown SQL Type " + sqlType + ", STRING used.", Issue.Level.WARNING));
                 break;
         }
         return type;
     }
 
+    /**
+     * Creates a forward-only, read-only statement fetching rows by chunks of
+     * the configured fetch size, instead of letting the driver buffer the whole
+     * result.
+     */
+    private Statement createStreamingStatement(Connection connection) throws SQLException {
+        Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        if ("mysql".equals(database.getSQLDriver().getPrefix())) {
+            //MySQL only streams rows with this fetch size
+            statement.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            //PostgreSQL ignores the fetch size in auto-commit mode
+            try {
+                if (connection.getAutoCommit()) {
+                    connection.setAutoCommit(false);
+                }
+            } catch (SQLException ex) {
+                //Driver without transactions, rows may be buffered
+            }
+            statement.setFetchSize(database.getFetchSize());
+        }
+        return statement;
+    }
+
+    /**
+     * Splits the edge query into key ranges of the partition column, each
+     * fetched by its own connection. Rows with a <code>NULL</code> key are
+     * fetched with the first range. Returns <code>null</code> when the edge
+     * query is not partitioned, which is also the case if the key column isn't
+     * an integer.
+     */
+    private List<EdgePartition> createEdgePartitions(Connection connection) throws SQLException {
+        String key = database.getEdgePartitionColumn();
+        int count = database.getEdgePartitions();
+        if (key == null || key.isEmpty() || count <= 1) {
+            return null;
+        }
+
+        String query = "SELECT * FROM (" + database.getEdgeQuery() + ") edges";
+        long min, max;
+        Statement s = connection.createStatement();
+        try {
+            ResultSet rs = s.executeQuery("SELECT MIN(" + key + "), MAX(" + key + ") FROM (" + database.getEdgeQuery() + ") edges");
+            if (!rs.next() || rs.getObject(1) == null) {
+                rs.close();
+                return null;
+            }
+            if (!isIntegerType(rs.getMetaData().getColumnType(1)) || !isIntegerType(rs.getMetaData().getColumnType(2))) {
+                rs.close();
+                report.logIssue(new Issue("'" + key + "' is not an integer column, edges are not partitioned", Issue.Level.WARNING));
+                return null;
+            }
+            min = rs.getLong(1);
+            max = rs.getLong(2);
+            rs.close();
+        } catch (SQLException ex) {
+            report.logIssue(new Issue("Failed to get the range of '" + key + "', edges are not partitioned", Issue.Level.WARNING, ex));
+            return null;
+        } finally {
+            s.close();
+        }
+
+        //Columns and readers are resolved once, before partitions start reading rows with them
+        ColumnBinding[] bindings;
+        s = connection.createStatement();
+        try {
+            ResultSet rs = s.executeQuery(query + " WHERE 1 = 0");
+            bindings = getEdgeBindings(rs.getMetaData());
+            rs.close();
+        } catch (SQLException ex) {
+            report.logIssue(new Issue("Failed to get the columns of the Edge query, edges are not partitioned", Issue.Level.WARNING, ex));
+            return null;
+        } finally {
+            s.close();
+        }
+        findEdgeAttributesColumns(bindings);
+
+        //Bounds are computed with big integers, the key range may span more than Long.MAX_VALUE
+        List<EdgePartition> partitions = new ArrayList<>();
+        BigInteger first = BigInteger.valueOf(min);
+        BigInteger span = BigInteger.valueOf(max).subtract(first).add(BigInteger.ONE);
+        long start = min;
+        for (int i = 1; i <= count; i++) {
+            String range;
+            if (i == count) {
+                range = key + " >= " + start + " AND " + key + " <= " + max;
+            } else {
+                long end = first.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))).longValue();
+                if (end == start) {
+                    //Less keys than partitions
+                    continue;
+                }
+                range = key + " >= " + start + " AND " + key + " < " + end;
+                start = end;
+            }
+            if (partitions.isEmpty()) {
+                range = "(" + range + ") OR " + key + " IS NULL";
+            }
+            EdgePartition partition = new EdgePartition(query + " WHERE " + range, partitions.size(), bindings);
+            partitions.add(partition);
+        }
+        report.log("Edges fetched in " + partitions.size() + " partitions of '" + key + "'");
+        for (EdgePartition partition : partitions) {
+            partition.start();
+        }
+        return partitions;
+    }
+
+    private static boolean isIntegerType(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     @Override
     public void setDatabase(Database database) {
         this.database = (EdgeListDatabaseImpl) database;
@@ -613,4 +764,156 @@ public class ImporterEdgeList implements DatabaseImporter {
     public Report getReport() {
         return report;
     }
+
+    /**
+     * Edge rows of a key range, fetched on a separate thread and connection
+     * into a bounded queue of batches. Bindings are resolved before the thread
+     * starts and are not modified afterwards.
+     */
+    private class EdgePartition implements Runnable {
+
+        private final String query;
+        private final ColumnBinding[] bindings;
+        private final Thread thread;
+        private final BlockingQueue<RowBatch> queue = new ArrayBlockingQueue<>(PARTITION_QUEUE_CAPACITY);
+        private volatile Exception error;
+        private volatile boolean started;
+        private volatile boolean cancelled;
+
+        public EdgePartition(String query, int index, ColumnBinding[] bindings) {
+            this.query = query;
+            this.bindings = bindings;
+            this.thread = new Thread(this, "Edge partition " + index);
+            this.thread.setDaemon(true);
+        }
+
+        public void start() {
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            Connection partitionConnection = null;
+            try {
+                partitionConnection = database.getSQLDriver().getConnection(url, database.getUsername(), database.getPasswd());
+                Statement s = createStreamingStatement(partitionConnection);
+                ResultSet rs = s.executeQuery(query);
+                started = true;
+                RowBatch batch;
+                while (!cancelled && (batch = readBatch(rs, bindings)).size > 0) {
+                    queue.put(batch);
+                }
+                rs.close();
+                s.close();
+            } catch (InterruptedException ex) {
+                //Cancelled
+            } catch (Exception ex) {
+                error = ex;
+            } finally {
+                if (partitionConnection != null) {
+                    try {
+                        partitionConnection.close();
+                    } catch (SQLException e) { /* ignore close errors */ }
+                }
+                if (!cancelled) {
+                    try {
+                        queue.put(END_OF_PARTITION);
+                    } catch (InterruptedException ex) {
+                        //Cancelled
+                    }
+                }
+            }
+        }
+
+        public RowBatch take() throws InterruptedException {
+            return queue.take();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            thread.interrupt();
+            queue.clear();
+        }
+    }
+
+    private enum ValueReader {
+
+        STRING_PROPERTY, FLOAT_PROPERTY, DATE_PROPERTY,
+        BOOLEAN, DOUBLE, FLOAT, INTEGER, LONG, SHORT, BYTE, STRING
+    }
+
+    /**
+     * Result set column resolved once to a property or an attribute column,
+     * with the getter used to read its values. Bindings are only modified
+     * before any row is read.
+     */
+    private static class ColumnBinding {
+
+        private final int index;
+        private final String name;
+        private final int sqlType;
+        private final String elementName;
+        private NodeProperties nodeProperty;
+        private EdgeProperties edgeProperty;
+        private ColumnDraft column;
+        private TimeFormat timeFormat;
+        private ValueReader reader = ValueReader.STRING;
+
+        public ColumnBinding(int index, String name, int sqlType, String elementName) {
+            this.index = index;
+            this.name = name;
+            this.sqlType = sqlType;
+            this.elementName = elementName;
+        }
+
+        private void setAttribute(ColumnDraft column) {
+            this.column = column;
+            Class typeClass = column.getTypeClass();
+            if (typeClass.equals(Boolean.class)) {
+                reader = ValueReader.BOOLEAN;
+            } else if (typeClass.equals(Double.class)) {
+                reader = ValueReader.DOUBLE;
+            } else if (typeClass.equals(Float.class)) {
+                reader = ValueReader.FLOAT;
+            } else if (typeClass.equals(Integer.class)) {
+                reader = ValueReader.INTEGER;
+            } else if (typeClass.equals(Long.class)) {
+                reader = ValueReader.LONG;
+            } else if (typeClass.equals(Short.class)) {
+                reader = ValueReader.SHORT;
+            } else if (typeClass.equals(Byte.class)) {
+                reader = ValueReader.BYTE;
+            } else {
+                reader = ValueReader.STRING;
+            }
+        }
+
+        private String getErrorMessage() {
+            String type = reader == ValueReader.INTEGER ? "INT" : reader.name();
+            return "Failed to get a " + type + " value for " + elementName + " attribute '" + column.getId() + "'";
+        }
+    }
+
+    private static class ValueError {
+
+        private final String message;
+        private final SQLException exception;
+
+        public ValueError(String message, SQLException exception) {
+            this.message = message;
+            this.exception = exception;
+        }
+    }
+
+    private static class RowBatch {
+
+        private final ColumnBinding[] bindings;
+        private final Object[][] rows;
+        private int size;
+
+        public RowBatch(ColumnBinding[] bindings, int capacity) {
+            this.bindings = bindings;
+            this.rows = new Object[capacity][];
+        }
+    }
 }
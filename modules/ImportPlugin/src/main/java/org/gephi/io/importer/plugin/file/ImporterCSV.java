@@ -47,14 +47,13 @@ import java.io.Reader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.gephi.io.importer.api.ContainerLoader;
 import org.gephi.io.importer.api.EdgeDraft;
 import org.gephi.io.importer.api.ImportUtils;
 import org.gephi.io.importer.api.NodeDraft;
 import org.gephi.io.importer.api.Report;
 import org.gephi.io.importer.spi.FileImporter;
+import org.gephi.utils.FieldTokenizer;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
 import org.gephi.utils.progress.ProgressTicket;
@@ -65,6 +64,14 @@ import org.gephi.utils.progress.ProgressTicket;
  */
 public class ImporterCSV implements FileImporter, LongTask {
 
+    //Fields are separated by commas, semicolons or whitespaces
+    private static final ThreadLocal<FieldTokenizer> TOKENIZER = new ThreadLocal<FieldTokenizer>() {
+        @Override
+        protected FieldTokenizer initialValue() {
+            return new FieldTokenizer(",; \t\n\u000B\f\r", "\"'", false);
+        }
+    };
+
     //Architecture
     private Reader reader;
     private ContainerLoader container;
@@ -103,25 +110,16 @@ public class ImporterCSV implements FileImporter, LongTask {
 
         Progress.switchToDeterminate(progressTicket, lines.size());
 
-        //Magix regex
-        Pattern pattern = Pattern.compile("(?<=(?:,|;|\\s|^)\")(.*?)(?=(?<=(?:[^\\\\]))\",|;|\"\\s|\"$)|(?<=(?:,|;|\\s|^)')(.*?)(?=(?<=(?:[^\\\\]))',|;|'\\s|'$)|(?<=(?:,|;|\\s|^))(?=[^'\"])(.*?)(?=(?:,|;|\\s|$))|(?<=,|;)($)");
-
+        //Lines are split in parallel, then pushed to the container in order
         if (lines.get(0).startsWith(";")) { //Matrix
             //Fill the Labels array
             String line0 = lines.get(0);
             line0 = line0.substring(1, line0.length());
             lines.remove(0);
-            Matcher m = pattern.matcher(line0); //Remove the first ";"
-            List<String> labels = new ArrayList<>();
-            while (m.find()) {
-                int start = m.start();
-                int end = m.end();
-                if (start != end) {
-                    String data = line0.substring(start, end);
-                    data = data.trim();
-                    if (!data.isEmpty() && !data.toLowerCase().equals("null")) {
-                        labels.add(data);
-                    }
+            final List<String> labels = new ArrayList<>();
+            for (String data : splitLine(line0)) { //Remove the first ";"
+                if (data != null) {
+                    labels.add(data);
                 }
             }
 
@@ -132,50 +130,47 @@ public class ImporterCSV implements FileImporter, LongTask {
                 );
             }
 
-            for (int i = 0; i < size; i++) {
-                if (cancel) {
-                    return;
+            ParallelLineParser.parse(lines, new ParallelLineParser.LineParser<MatrixRow>() {
+                @Override
+                public MatrixRow parse(String line) {
+                    return parseMatrixRow(line);
                 }
-                String line = lines.get(i);
-                m = pattern.matcher(line);
-                int count = -1;
-                String sourceID = "";
-                while (m.find()) {
-                    int start = m.start();
-                    int end = m.end();
-                    if (start != end) {
-                        String data = line.substring(start, end);
-                        data = data.trim();
-                        if (!data.isEmpty() && !data.toLowerCase().equals("null")) {
-                            if (count == -1) {
-                                sourceID = data;
-                                addNode(sourceID, labels.get(i));
-                            } else if (!data.equals("0")) {
-                                //Create Edge
-                                addEdge(sourceID, labels.get(count), Float.parseFloat(data));
-                            }
-                        }
+            }, new ParallelLineParser.LineConsumer<MatrixRow>() {
+                private int i = 0;
+
+                @Override
+                public boolean accept(MatrixRow row) {
+                    if (cancel) {
+                        return false;
+                    }
+                    if (row.sourceID != null) {
+                        addNode(row.sourceID, labels.get(i));
+                    }
+                    for (int j = 0; j < row.count; j++) {
+                        //Create Edge
+                        addEdge(row.sourceID != null ? row.sourceID : "", labels.get(row.columns[j]), row.weights[j]);
                     }
-                    count++;
+                    i++;
+                    Progress.progress(progressTicket);      //Progress
+                    return true;
                 }
-                Progress.progress(progressTicket);      //Progress
-            }
+            });
         } else { //Edge or Adjacency list
-            Matcher m;
-            for (String line : lines) {
-                if (cancel) {
-                    return;
+            ParallelLineParser.parse(lines, new ParallelLineParser.LineParser<String[]>() {
+                @Override
+                public String[] parse(String line) {
+                    return splitLine(line);
                 }
-                m = pattern.matcher(line);
-                int count = 0;
-                String sourceID = "";
-                while (m.find()) {
-                    int start = m.start();
-                    int end = m.end();
-                    if (start != end) {
-                        String data = line.substring(start, end);
-                        data = data.trim();
-                        if (!data.isEmpty() && !data.toLowerCase().equals("null")) {
+            }, new ParallelLineParser.LineConsumer<String[]>() {
+                @Override
+                public boolean accept(String[] fields) {
+                    if (cancel) {
+                        return false;
+                    }
+                    String sourceID = "";
+                    for (int count = 0; count < fields.length; count++) {
+                        String data = fields[count];
+                        if (data != null) {
                             if (count == 0) {
                                 sourceID = data;
                                 addNode(sourceID, data);
@@ -185,12 +180,63 @@ public class ImporterCSV implements FileImporter, LongTask {
                             }
                         }
                     }
-                    count++;
+                    Progress.progress(progressTicket);      //Progress
+                    return true;
                 }
-                Progress.progress(progressTicket);      //Progress
+            });
+        }
+
+    }
+
+    /**
+     * Splits a line in fields. Empty and <code>null</code> fields are returned
+     * as <code>null</code> so field positions are kept.
+     */
+    private static String[] splitLine(String line) {
+        FieldTokenizer tokenizer = TOKENIZER.get();
+        int fieldCount = tokenizer.tokenize(line);
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            if (!isNullField(tokenizer, i)) {
+                fields[i] = tokenizer.getString(i);
+            }
+        }
+        return fields;
+    }
+
+    //Weights are parsed from the line, only the source id becomes a string
+    private static MatrixRow parseMatrixRow(String line) {
+        FieldTokenizer tokenizer = TOKENIZER.get();
+        int fieldCount = tokenizer.tokenize(line);
+        MatrixRow row = new MatrixRow(fieldCount);
+        if (fieldCount > 0 && !isNullField(tokenizer, 0)) {
+            row.sourceID = tokenizer.getString(0);
+        }
+        for (int i = 1; i < fieldCount; i++) {
+            if (!isNullField(tokenizer, i) && !tokenizer.contentEquals(i, "0", false)) {
+                row.columns[row.count] = i - 1;
+                row.weights[row.count] = tokenizer.parseFloat(i);
+                row.count++;
             }
         }
+        return row;
+    }
+
+    private static boolean isNullField(FieldTokenizer tokenizer, int field) {
+        return tokenizer.isEmpty(field) || tokenizer.contentEquals(field, "null", true);
+    }
 
+    private static class MatrixRow {
+
+        private String sourceID;
+        private final int[] columns;
+        private final float[] weights;
+        private int count;
+
+        public MatrixRow(int fieldCount) {
+            columns = new int[fieldCount];
+            weights = new float[fieldCount];
+        }
     }
 
     private void addNode(String id, String label) {
@@ -0,0 +1,374 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.plugin.file;
+
+import java.io.Reader;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLReporter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.gephi.graph.api.AttributeUtils;
+import org.gephi.graph.api.TimeFormat;
+import org.gephi.graph.api.TimeRepresentation;
+import org.gephi.io.importer.api.ColumnDraft;
+import org.gephi.io.importer.api.ContainerLoader;
+import org.gephi.io.importer.api.EdgeDirection;
+import org.gephi.io.importer.api.EdgeDirectionDefault;
+import org.gephi.io.importer.api.EdgeDraft;
+import org.gephi.io.importer.api.ElementDraft;
+import org.gephi.io.importer.api.ElementIdType;
+import org.gephi.io.importer.api.Issue;
+import org.gephi.io.importer.api.NodeDraft;
+import org.gephi.io.importer.api.Report;
+import org.gephi.io.importer.spi.FileImporter;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.joda.time.DateTimeZone;
+import org.openide.util.NbBundle;
+
+/**
+ * Importer of the GEXF-diff files written by the delta exporter.
+ * <p>
+ * Added nodes and edges are pushed to the container like any other import.
+ * Updated nodes replace the label, time set and attribute values of the
+ * workspace node
+ * with the same id, which is cleared with
+ * {@link ContainerLoader#clearWorkspaceNode(String)} so that values removed
+ * since the previous export are removed too. Updated edges replace the
+ * workspace edge with the same id. Removed elements are registered with
+ * {@link ContainerLoader#removeWorkspaceNode(String)} and
+ * {@link ContainerLoader#removeWorkspaceEdge(String)}. Deltas are therefore
+ * meant to be imported with the 'Append graph' processor, into the workspace
+ * the previous export was applied to.
+ */
+public class ImporterDelta implements FileImporter, LongTask {
+
+    private static final String GEXFDIFF = "gexfdiff";
+    private static final String IDTYPE = "idtype";
+    private static final String DEFAULT_EDGETYPE = "defaultedgetype";
+    private static final String TIMEFORMAT = "timeformat";
+    private static final String TIMEREPRESENTATION = "timerepresentation";
+    private static final String TIMEZONE = "timezone";
+    private static final String ATTRIBUTES = "attributes";
+    private static final String ATTRIBUTES_CLASS = "class";
+    private static final String ATTRIBUTE = "attribute";
+    private static final String ATTRIBUTE_ID = "id";
+    private static final String ATTRIBUTE_TITLE = "title";
+    private static final String ATTRIBUTE_TYPE = "type";
+    private static final String REMOVE = "remove";
+    private static final String NODE = "node";
+    private static final String EDGE = "edge";
+    private static final String OP = "op";
+    private static final String OP_UPDATE = "update";
+    private static final String ID = "id";
+    private static final String LABEL = "label";
+    private static final String TIMESET = "timeset";
+    private static final String EDGE_SOURCE = "source";
+    private static final String EDGE_TARGET = "target";
+    private static final String EDGE_TYPE = "type";
+    private static final String EDGE_WEIGHT = "weight";
+    private static final String EDGE_KIND = "kind";
+    private static final String ATTVALUE = "attvalue";
+    private static final String ATTVALUE_FOR = "for";
+    private static final String ATTVALUE_VALUE = "value";
+    //Architecture
+    private Reader reader;
+    private ContainerLoader container;
+    private boolean cancel;
+    private Report report;
+    private ProgressTicket progress;
+    //State
+    private boolean inRemove;
+    private boolean edgeColumns;
+
+    @Override
+    public boolean execute(ContainerLoader container) {
+        this.container = container;
+        this.report = new Report();
+        inRemove = false;
+        Progress.start(progress);
+        XMLStreamReader xmlReader = null;
+        try {
+            XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+            if (inputFactory.isPropertySupported("javax.xml.stream.isValidating")) {
+                inputFactory.setProperty("javax.xml.stream.isValidating", Boolean.FALSE);
+            }
+            inputFactory.setXMLReporter(new XMLReporter() {
+                @Override
+                public void report(String message, String errorType, Object relatedInformation, Location location) throws XMLStreamException {
+                }
+            });
+            xmlReader = inputFactory.createXMLStreamReader(reader);
+
+            while (xmlReader.hasNext() && !cancel) {
+                int eventType = xmlReader.next();
+                if (eventType == XMLStreamReader.START_ELEMENT) {
+                    String name = xmlReader.getLocalName();
+                    if (GEXFDIFF.equalsIgnoreCase(name)) {
+                        readHeader(xmlReader);
+                    } else if (ATTRIBUTES.equalsIgnoreCase(name)) {
+                        edgeColumns = EDGE.equalsIgnoreCase(xmlReader.getAttributeValue(null, ATTRIBUTES_CLASS));
+                    } else if (ATTRIBUTE.equalsIgnoreCase(name)) {
+                        readAttribute(xmlReader);
+                    } else if (REMOVE.equalsIgnoreCase(name)) {
+                        inRemove = true;
+                    } else if (NODE.equalsIgnoreCase(name)) {
+                        if (inRemove) {
+                            container.removeWorkspaceNode(xmlReader.getAttributeValue(null, ID));
+                        } else {
+                            readNode(xmlReader);
+                        }
+                    } else if (EDGE.equalsIgnoreCase(name)) {
+                        if (inRemove) {
+                            container.removeWorkspaceEdge(xmlReader.getAttributeValue(null, ID));
+                        } else {
+                            readEdge(xmlReader);
+                        }
+                    }
+                } else if (eventType == XMLStreamReader.END_ELEMENT) {
+                    if (REMOVE.equalsIgnoreCase(xmlReader.getLocalName())) {
+                        inRemove = false;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new RuntimeException(e);
+        } finally {
+            if (xmlReader != null) {
+                try {
+                    xmlReader.close();
+                } catch (XMLStreamException e) {
+                }
+            }
+        }
+        Progress.finish(progress);
+        return !cancel;
+    }
+
+    private void readHeader(XMLStreamReader reader) {
+        String idType = reader.getAttributeValue(null, IDTYPE);
+        if ("integer".equalsIgnoreCase(idType)) {
+            container.setElementIdType(ElementIdType.INTEGER);
+        } else if ("long".equalsIgnoreCase(idType)) {
+            container.setElementIdType(ElementIdType.LONG);
+        } else {
+            container.setElementIdType(ElementIdType.STRING);
+        }
+
+        String defaultEdgeType = reader.getAttributeValue(null, DEFAULT_EDGETYPE);
+        if ("directed".equalsIgnoreCase(defaultEdgeType)) {
+            container.setEdgeDefault(EdgeDirectionDefault.DIRECTED);
+        } else if ("undirected".equalsIgnoreCase(defaultEdgeType)) {
+            container.setEdgeDefault(EdgeDirectionDefault.UNDIRECTED);
+        } else {
+            container.setEdgeDefault(EdgeDirectionDefault.MIXED);
+        }
+
+        String timeFormat = reader.getAttributeValue(null, TIMEFORMAT);
+        if (timeFormat != null) {
+            container.setTimeFormat(TimeFormat.valueOf(timeFormat.toUpperCase()));
+        }
+        String timeRepresentation = reader.getAttributeValue(null, TIMEREPRESENTATION);
+        if (timeRepresentation != null) {
+            container.setTimeRepresentation(TimeRepresentation.valueOf(timeRepresentation.toUpperCase()));
+        }
+        String timeZone = reader.getAttributeValue(null, TIMEZONE);
+        if (timeZone != null) {
+            container.setTimeZone(DateTimeZone.forID(timeZone));
+        }
+    }
+
+    private void readAttribute(XMLStreamReader reader) {
+        String id = reader.getAttributeValue(null, ATTRIBUTE_ID);
+        String title = reader.getAttributeValue(null, ATTRIBUTE_TITLE);
+        String type = reader.getAttributeValue(null, ATTRIBUTE_TYPE);
+
+        Class typeClass;
+        try {
+            typeClass = Class.forName(type);
+        } catch (ClassNotFoundException ex) {
+            report.logIssue(new Issue(NbBundle.getMessage(ImporterDelta.class, "importerDelta_error_attributetype", type, id), Issue.Level.WARNING));
+            typeClass = String.class;
+        }
+        boolean dynamic = AttributeUtils.isDynamicType(typeClass);
+        if (dynamic) {
+            typeClass = AttributeUtils.getStaticType(typeClass);
+        }
+
+        ColumnDraft column = edgeColumns ? container.getEdgeColumn(id) : container.getNodeColumn(id);
+        if (column == null) {
+            column = edgeColumns ? container.addEdgeColumn(id, typeClass, dynamic) : container.addNodeColumn(id, typeClass, dynamic);
+            column.setTitle(title != null ? title : id);
+        }
+    }
+
+    private void readNode(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, ID);
+        if (id == null || id.isEmpty() || container.nodeExists(id)) {
+            report.logIssue(new Issue(NbBundle.getMessage(ImporterDelta.class, "importerDelta_error_nodeid", id), Issue.Level.SEVERE));
+            return;
+        }
+
+        //Updated nodes keep their edges, only their values are replaced
+        if (OP_UPDATE.equalsIgnoreCase(reader.getAttributeValue(null, OP))) {
+            container.clearWorkspaceNode(id);
+        }
+
+        NodeDraft node = container.factory().newNodeDraft(id);
+        String label = reader.getAttributeValue(null, LABEL);
+        if (label != null) {
+            node.setLabel(label);
+        }
+        readTimeSet(reader, node);
+        readAttValues(reader, node, NODE);
+        container.addNode(node);
+    }
+
+    private void readEdge(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, ID);
+        String source = reader.getAttributeValue(null, EDGE_SOURCE);
+        String target = reader.getAttributeValue(null, EDGE_TARGET);
+        if (id == null || id.isEmpty() || source == null || target == null) {
+            report.logIssue(new Issue(NbBundle.getMessage(ImporterDelta.class, "importerDelta_error_edge", id), Issue.Level.SEVERE));
+            return;
+        }
+
+        //Updated edges replace the workspace edge, which may have other endpoints
+        if (OP_UPDATE.equalsIgnoreCase(reader.getAttributeValue(null, OP))) {
+            container.removeWorkspaceEdge(id);
+        }
+
+        EdgeDraft edge = container.factory().newEdgeDraft(id);
+        edge.setSource(container.getNode(source));
+        edge.setTarget(container.getNode(target));
+
+        String type = reader.getAttributeValue(null, EDGE_TYPE);
+        if ("directed".equalsIgnoreCase(type)) {
+            edge.setDirection(EdgeDirection.DIRECTED);
+        } else if ("undirected".equalsIgnoreCase(type)) {
+            edge.setDirection(EdgeDirection.UNDIRECTED);
+        }
+        String weight = reader.getAttributeValue(null, EDGE_WEIGHT);
+        if (weight != null) {
+            edge.setWeight(Double.parseDouble(weight));
+        }
+        String kind = reader.getAttributeValue(null, EDGE_KIND);
+        if (kind != null) {
+            edge.setType(kind);
+        }
+        String label = reader.getAttributeValue(null, LABEL);
+        if (label != null) {
+            edge.setLabel(label);
+        }
+        readTimeSet(reader, edge);
+        readAttValues(reader, edge, EDGE);
+        container.addEdge(edge);
+    }
+
+    private void readTimeSet(XMLStreamReader reader, ElementDraft element) {
+        String timeSet = reader.getAttributeValue(null, TIMESET);
+        if (timeSet == null) {
+            return;
+        }
+        try {
+            if (container.getTimeRepresentation().equals(TimeRepresentation.INTERVAL)) {
+                element.addIntervals(timeSet);
+            } else {
+                element.addTimestamps(timeSet);
+            }
+        } catch (Exception e) {
+            report.logIssue(new Issue(NbBundle.getMessage(ImporterDelta.class, "importerDelta_error_timeset", timeSet, element.getId()), Issue.Level.SEVERE));
+        }
+    }
+
+    private void readAttValues(XMLStreamReader reader, ElementDraft element, String elementName) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int eventType = reader.next();
+            if (eventType == XMLStreamReader.START_ELEMENT && ATTVALUE.equalsIgnoreCase(reader.getLocalName())) {
+                String key = reader.getAttributeValue(null, ATTVALUE_FOR);
+                String value = reader.getAttributeValue(null, ATTVALUE_VALUE);
+                ColumnDraft column = element instanceof EdgeDraft ? container.getEdgeColumn(key) : container.getNodeColumn(key);
+                if (column == null || value == null) {
+                    report.logIssue(new Issue(NbBundle.getMessage(ImporterDelta.class, "importerDelta_error_attvalue", key, element.getId()), Issue.Level.WARNING));
+                    continue;
+                }
+                try {
+                    element.parseAndSetValue(key, value);
+                } catch (Exception e) {
+                    report.logIssue(new Issue(NbBundle.getMessage(ImporterDelta.class, "importerDelta_error_attvalue", key, element.getId()), Issue.Level.SEVERE));
+                }
+            } else if (eventType == XMLStreamReader.END_ELEMENT && elementName.equalsIgnoreCase(reader.getLocalName())) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void setReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ContainerLoader getContainer() {
+        return container;
+    }
+
+    @Override
+    public Report getReport() {
+        return report;
+    }
+
+    @Override
+    public boolean cancel() {
+        cancel = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progress = progressTicket;
+    }
+}
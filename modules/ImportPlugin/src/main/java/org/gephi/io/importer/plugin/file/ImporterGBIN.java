@@ -0,0 +1,809 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.plugin.file;
+
+import java.awt.Color;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.gephi.graph.api.AttributeUtils;
+import org.gephi.graph.api.TimeFormat;
+import org.gephi.graph.api.TimeRepresentation;
+import org.gephi.io.importer.api.ColumnDraft;
+import org.gephi.io.importer.api.ContainerLoader;
+import org.gephi.io.importer.api.EdgeDirection;
+import org.gephi.io.importer.api.EdgeDirectionDefault;
+import org.gephi.io.importer.api.EdgeDraft;
+import org.gephi.io.importer.api.ElementDraft;
+import org.gephi.io.importer.api.Issue;
+import org.gephi.io.importer.api.NodeDraft;
+import org.gephi.io.importer.api.Report;
+import org.gephi.io.importer.spi.FileImporter;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.openide.util.NbBundle;
+
+/**
+ * Importer for the GBIN binary columnar format written by the GBIN exporter.
+ * <p>
+ * Primitive columns are decoded in bulk from NIO buffers. Uncompressed files
+ * read from a local file are memory mapped when possible, other inputs are read
+ * through a channel, inflating the blocks of compressed files.
+ */
+public class ImporterGBIN implements FileImporter, FileImporter.StreamAware, FileImporter.FileAware, LongTask {
+
+    //Format
+    private static final int MAGIC = 0x4742494E;
+    private static final int VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    //Edge default
+    private static final byte DIRECTED = 0;
+    private static final byte UNDIRECTED = 1;
+    //Time representation
+    private static final byte STATIC = 0;
+    private static final byte INTERVAL = 1;
+    //Value types
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_FLOAT = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+    private static final byte TYPE_BYTE = 7;
+    private static final byte TYPE_SHORT = 8;
+    //Architecture
+    private InputStream stream;
+    private File file;
+    private ContainerLoader container;
+    private boolean cancel;
+    private Report report;
+    private ProgressTicket progress;
+    //Settings
+    private boolean memoryMapping = true;
+    //Data
+    private byte timeRepresentation;
+    private boolean mixed;
+
+    @Override
+    public boolean execute(ContainerLoader container) {
+        this.container = container;
+        this.report = new Report();
+        if (stream == null && file == null) {
+            report.logIssue(new Issue(NbBundle.getMessage(ImporterGBIN.class, "importerGBIN_error_nostream"), Issue.Level.CRITICAL));
+        }
+        Progress.start(progress);
+        Input in = null;
+        FileInputStream fileStream = null;
+        try {
+            //Only a file opened by path can be mapped, given streams are usually buffered
+            if (file != null && (memoryMapping || stream == null)) {
+                fileStream = new FileInputStream(file);
+            }
+            in = new Input(fileStream != null ? fileStream : stream, memoryMapping);
+            if (in.magic != MAGIC) {
+                report.logIssue(new Issue(NbBundle.getMessage(ImporterGBIN.class, "importerGBIN_error_format"), Issue.Level.CRITICAL));
+            } else if (in.version > VERSION) {
+                report.logIssue(new Issue(NbBundle.getMessage(ImporterGBIN.class, "importerGBIN_error_version", in.version), Issue.Level.CRITICAL));
+            }
+            importData(in);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (in != null) {
+                in.close();
+            }
+            if (fileStream != null) {
+                try {
+                    fileStream.close();
+                } catch (IOException e) {
+                }
+            }
+            Progress.finish(progress);
+        }
+        return !cancel;
+    }
+
+    private void importData(Input in) throws IOException {
+        //Graph
+        byte edgeDefault = in.readByte();
+        mixed = edgeDefault != DIRECTED && edgeDefault != UNDIRECTED;
+        container.setEdgeDefault(edgeDefault == DIRECTED ? EdgeDirectionDefault.DIRECTED : edgeDefault == UNDIRECTED ? EdgeDirectionDefault.UNDIRECTED : EdgeDirectionDefault.MIXED);
+        timeRepresentation = in.readByte();
+        String timeFormat = in.readString();
+        if (timeRepresentation != STATIC) {
+            container.setTimeRepresentation(timeRepresentation == INTERVAL ? TimeRepresentation.INTERVAL : TimeRepresentation.TIMESTAMP);
+            container.setTimeFormat(TimeFormat.valueOf(timeFormat));
+        }
+
+        //Columns
+        ColumnSlot[] nodeColumns = readColumns(in, true);
+        ColumnSlot[] edgeColumns = readColumns(in, false);
+
+        //Nodes
+        NodeDraft[] nodes = readNodes(in, nodeColumns);
+        if (!cancel) {
+            readEdges(in, nodes, edgeColumns);
+        }
+    }
+
+    private ColumnSlot[] readColumns(Input in, boolean node) throws IOException {
+        ColumnSlot[] columns = new ColumnSlot[in.readInt()];
+        for (int i = 0; i < columns.length; i++) {
+            String id = in.readString();
+            String title = in.readString();
+            String typeName = in.readString();
+            byte type = in.readByte();
+            boolean dynamic = in.readBoolean();
+
+            Class typeClass = getTypeClass(type, typeName);
+            if (typeClass == null) {
+                report.logIssue(new Issue(NbBundle.getMessage(ImporterGBIN.class, "importerGBIN_error_type", typeName, id), Issue.Level.WARNING));
+                typeClass = String.class;
+            }
+            ColumnDraft column = node ? container.addNodeColumn(id, typeClass, dynamic) : container.addEdgeColumn(id, typeClass, dynamic);
+            column.setTitle(title);
+            columns[i] = new ColumnSlot(column, type, typeClass);
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the class of a column type, or <code>null</code> if it isn't a
+     * supported attribute type. Type names come from the file and are never
+     * loaded as classes.
+     */
+    private static Class getTypeClass(byte type, String typeName) {
+        switch (type) {
+            case TYPE_STRING:
+                return String.class;
+            case TYPE_INTEGER:
+                return Integer.class;
+            case TYPE_LONG:
+                return Long.class;
+            case TYPE_FLOAT:
+                return Float.class;
+            case TYPE_DOUBLE:
+                return Double.class;
+            case TYPE_BOOLEAN:
+                return Boolean.class;
+            case TYPE_BYTE:
+                return Byte.class;
+            case TYPE_SHORT:
+                return Short.class;
+        }
+        for (Class supported : AttributeUtils.getSupportedTypes()) {
+            if (supported.getName().equals(typeName) || AttributeUtils.getTypeName(supported).equalsIgnoreCase(typeName)) {
+                return supported;
+            }
+        }
+        return null;
+    }
+
+    private NodeDraft[] readNodes(Input in, ColumnSlot[] columns) throws IOException {
+        int count = in.readInt();
+        Progress.switchToDeterminate(progress, count);
+
+        //Id dictionary
+        ElementDraft.Factory factory = container.factory();
+        NodeDraft[] nodes = new NodeDraft[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = factory.newNodeDraft(in.readString());
+        }
+        for (NodeDraft node : nodes) {
+            String label = in.readString();
+            if (label != null) {
+                node.setLabel(label);
+            }
+        }
+
+        float[] x = new float[count];
+        float[] y = new float[count];
+        float[] z = new float[count];
+        in.readFloats(x);
+        in.readFloats(y);
+        in.readFloats(z);
+        for (int i = 0; i < count; i++) {
+            if (!(x[i] == 0 && y[i] == 0 && z[i] == 0)) {
+                nodes[i].setX(x[i]);
+                nodes[i].setY(y[i]);
+                nodes[i].setZ(z[i]);
+            }
+        }
+        float[] sizes = x;
+        in.readFloats(sizes);
+        for (int i = 0; i < count; i++) {
+            nodes[i].setSize(sizes[i]);
+        }
+
+        readColors(in, nodes);
+        if (timeRepresentation != STATIC) {
+            readTimeSets(in, nodes);
+        }
+        readColumnValues(in, nodes, columns);
+
+        for (NodeDraft node : nodes) {
+            container.addNode(node);
+        }
+        Progress.progress(progress, count);
+        return nodes;
+    }
+
+    private void readEdges(Input in, NodeDraft[] nodes, ColumnSlot[] columns) throws IOException {
+        int count = in.readInt();
+        Progress.switchToDeterminate(progress, nodes.length + count);
+        Progress.progress(progress, nodes.length);
+
+        ElementDraft.Factory factory = container.factory();
+        EdgeDraft[] edges = new EdgeDraft[count];
+        for (int i = 0; i < count; i++) {
+            edges[i] = factory.newEdgeDraft(in.readString());
+        }
+        int[] ends = new int[count];
+        in.readInts(ends);
+        for (int i = 0; i < count; i++) {
+            edges[i].setSource(nodes[ends[i]]);
+        }
+        in.readInts(ends);
+        for (int i = 0; i < count; i++) {
+            edges[i].setTarget(nodes[ends[i]]);
+        }
+
+        if (mixed) {
+            for (EdgeDraft edge : edges) {
+                edge.setDirection(in.readBoolean() ? EdgeDirection.DIRECTED : EdgeDirection.UNDIRECTED);
+            }
+        }
+
+        double[] weights = new double[count];
+        in.readDoubles(weights);
+        for (int i = 0; i < count; i++) {
+            edges[i].setWeight(weights[i]);
+        }
+
+        for (EdgeDraft edge : edges) {
+            String label = in.readString();
+            if (label != null) {
+                edge.setLabel(label);
+            }
+        }
+        for (EdgeDraft edge : edges) {
+            String kind = in.readString();
+            if (kind != null) {
+                edge.setType(kind);
+            }
+        }
+
+        readColors(in, edges);
+        if (timeRepresentation != STATIC) {
+            readTimeSets(in, edges);
+        }
+        readColumnValues(in, edges, columns);
+
+        for (EdgeDraft edge : edges) {
+            container.addEdge(edge);
+        }
+        Progress.progress(progress, nodes.length + count);
+    }
+
+    private void readColors(Input in, ElementDraft[] elements) throws IOException {
+        int[] colors = new int[elements.length];
+        in.readInts(colors);
+        for (int i = 0; i < elements.length; i++) {
+            int argb = colors[i];
+            if (argb != 0) {
+                elements[i].setColor(new Color(argb, true));
+            }
+        }
+    }
+
+    private void readTimeSets(Input in, ElementDraft[] elements) throws IOException {
+        for (ElementDraft element : elements) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                if (timeRepresentation == INTERVAL) {
+                    element.addInterval(in.readDouble(), in.readDouble());
+                } else {
+                    element.addTimestamp(in.readDouble());
+                }
+            }
+        }
+    }
+
+    private void readColumnValues(Input in, ElementDraft[] elements, ColumnSlot[] columns) throws IOException {
+        for (ColumnSlot column : columns) {
+            if (cancel) {
+                return;
+            }
+            String key = column.draft.getId();
+            if (column.draft.isDynamic()) {
+                for (ElementDraft element : elements) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        if (timeRepresentation == INTERVAL) {
+                            double start = in.readDouble();
+                            double end = in.readDouble();
+                            Object value = readValue(in, column);
+                            if (value != null) {
+                                element.setValue(key, value, start, end);
+                            }
+                        } else {
+                            double timestamp = in.readDouble();
+                            Object value = readValue(in, column);
+                            if (value != null) {
+                                element.setValue(key, value, timestamp);
+                            }
+                        }
+                    }
+                }
+            } else {
+                readStaticColumn(in, elements, column);
+            }
+        }
+    }
+
+    private void readStaticColumn(Input in, ElementDraft[] elements, ColumnSlot column) throws IOException {
+        String key = column.draft.getId();
+        int count = elements.length;
+        switch (column.type) {
+            case TYPE_INTEGER:
+            case TYPE_LONG:
+            case TYPE_FLOAT:
+            case TYPE_DOUBLE: {
+                //Null bitmap followed by a dense primitive array
+                long[] nulls = new long[(count + 63) >>> 6];
+                in.readLongs(nulls);
+                if (column.type == TYPE_INTEGER) {
+                    int[] array = new int[count];
+                    in.readInts(array);
+                    for (int i = 0; i < count; i++) {
+                        if ((nulls[i >>> 6] & 1L << i) == 0) {
+                            elements[i].setValue(key, array[i]);
+                        }
+                    }
+                } else if (column.type == TYPE_LONG) {
+                    long[] array = new long[count];
+                    in.readLongs(array);
+                    for (int i = 0; i < count; i++) {
+                        if ((nulls[i >>> 6] & 1L << i) == 0) {
+                            elements[i].setValue(key, array[i]);
+                        }
+                    }
+                } else if (column.type == TYPE_FLOAT) {
+                    float[] array = new float[count];
+                    in.readFloats(array);
+                    for (int i = 0; i < count; i++) {
+                        if ((nulls[i >>> 6] & 1L << i) == 0) {
+                            elements[i].setValue(key, array[i]);
+                        }
+                    }
+                } else {
+                    double[] array = new double[count];
+                    in.readDoubles(array);
+                    for (int i = 0; i < count; i++) {
+                        if ((nulls[i >>> 6] & 1L << i) == 0) {
+                            elements[i].setValue(key, array[i]);
+                        }
+                    }
+                }
+                break;
+            }
+            default:
+                for (ElementDraft element : elements) {
+                    Object value = readValue(in, column);
+                    if (value != null) {
+                        element.setValue(key, value);
+                    }
+                }
+                break;
+        }
+    }
+
+    private Object readValue(Input in, ColumnSlot column) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        switch (column.type) {
+            case TYPE_STRING:
+                return in.readString();
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_SHORT:
+                return in.readShort();
+            default:
+                String value = in.readString();
+                if (column.typeClass.equals(String.class)) {
+                    return value;
+                }
+                try {
+                    return AttributeUtils.parse(value, column.typeClass);
+                } catch (Exception e) {
+                    report.logIssue(new Issue(NbBundle.getMessage(ImporterGBIN.class, "importerGBIN_error_value", value, column.draft.getId()), Issue.Level.SEVERE));
+                    return null;
+                }
+        }
+    }
+
+    public boolean isMemoryMapping() {
+        return memoryMapping;
+    }
+
+    /**
+     * Sets whether uncompressed files are memory mapped instead of read
+     * through a buffer. Mapping needs the file, see
+     * {@link #setFile(File)}.
+     *
+     * @param memoryMapping <code>true</code> to map files into memory
+     */
+    public void setMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+    }
+
+    @Override
+    public void setReader(Reader reader) {
+        //Binary format, read from the stream or the file
+    }
+
+    @Override
+    public void setInputStream(InputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public ContainerLoader getContainer() {
+        return container;
+    }
+
+    @Override
+    public Report getReport() {
+        return report;
+    }
+
+    @Override
+    public boolean cancel() {
+        cancel = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progress = progressTicket;
+    }
+
+    private static class ColumnSlot {
+
+        private final ColumnDraft draft;
+        private final byte type;
+        private final Class typeClass;
+
+        public ColumnSlot(ColumnDraft draft, byte type, Class typeClass) {
+            this.draft = draft;
+            this.type = type;
+            this.typeClass = typeClass;
+        }
+    }
+
+    /**
+     * Big-endian reader over a memory mapped file or a buffered channel.
+     */
+    private static class Input {
+
+        private final int magic;
+        private final int version;
+        private final ReadableByteChannel source;
+        private final Inflater inflater;
+        private ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        public Input(InputStream stream, boolean memoryMapping) throws IOException {
+            FileChannel fileChannel = stream instanceof FileInputStream ? ((FileInputStream) stream).getChannel() : null;
+            ReadableByteChannel channel = fileChannel != null ? fileChannel : Channels.newChannel(stream);
+
+            ByteBuffer header = ByteBuffer.allocate(12);
+            readFully(channel, header);
+            header.flip();
+            magic = header.getInt();
+            version = header.getInt();
+            int flags = header.getInt();
+
+            if ((flags & FLAG_DEFLATE) != 0) {
+                inflater = new Inflater();
+                source = new InflaterChannel(channel, inflater);
+            } else if (memoryMapping && fileChannel != null && fileChannel.size() - fileChannel.position() <= Integer.MAX_VALUE) {
+                inflater = null;
+                source = null;
+                buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, fileChannel.position(), fileChannel.size() - fileChannel.position());
+            } else {
+                inflater = null;
+                source = channel;
+            }
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                buffer.flip();
+            }
+        }
+
+        private static void readFully(ReadableByteChannel channel, ByteBuffer dst) throws IOException {
+            while (dst.hasRemaining()) {
+                if (channel.read(dst) < 0) {
+                    throw new EOFException();
+                }
+            }
+        }
+
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                if (source == null) {
+                    throw new EOFException();
+                }
+                buffer.compact();
+                while (buffer.position() < bytes) {
+                    if (source.read(buffer) < 0) {
+                        throw new EOFException();
+                    }
+                }
+                buffer.flip();
+            }
+        }
+
+        public byte readByte() throws IOException {
+            require(1);
+            return buffer.get();
+        }
+
+        public boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        public short readShort() throws IOException {
+            require(2);
+            return buffer.getShort();
+        }
+
+        public int readInt() throws IOException {
+            require(4);
+            return buffer.getInt();
+        }
+
+        public long readLong() throws IOException {
+            require(8);
+            return buffer.getLong();
+        }
+
+        public float readFloat() throws IOException {
+            require(4);
+            return buffer.getFloat();
+        }
+
+        public double readDouble() throws IOException {
+            require(8);
+            return buffer.getDouble();
+        }
+
+        public String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length <= buffer.capacity()) {
+                require(length);
+                String value;
+                if (buffer.hasArray()) {
+                    value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                    buffer.position(buffer.position() + length);
+                } else {
+                    if (scratch.length < length) {
+                        scratch = new byte[Math.max(length, scratch.length * 2)];
+                    }
+                    buffer.get(scratch, 0, length);
+                    value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                }
+                return value;
+            }
+            //Longer than the buffer
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                require(1);
+                int read = Math.min(buffer.remaining(), length - offset);
+                buffer.get(bytes, offset, read);
+                offset += read;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public void readInts(int[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                require(4);
+                int length = Math.min(buffer.remaining() >> 2, values.length - offset);
+                buffer.asIntBuffer().get(values, offset, length);
+                buffer.position(buffer.position() + (length << 2));
+                offset += length;
+            }
+        }
+
+        public void readLongs(long[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                require(8);
+                int length = Math.min(buffer.remaining() >> 3, values.length - offset);
+                buffer.asLongBuffer().get(values, offset, length);
+                buffer.position(buffer.position() + (length << 3));
+                offset += length;
+            }
+        }
+
+        public void readFloats(float[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                require(4);
+                int length = Math.min(buffer.remaining() >> 2, values.length - offset);
+                buffer.asFloatBuffer().get(values, offset, length);
+                buffer.position(buffer.position() + (length << 2));
+                offset += length;
+            }
+        }
+
+        public void readDoubles(double[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                require(8);
+                int length = Math.min(buffer.remaining() >> 3, values.length - offset);
+                buffer.asDoubleBuffer().get(values, offset, length);
+                buffer.position(buffer.position() + (length << 3));
+                offset += length;
+            }
+        }
+
+        public void close() {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Channel decompressing the deflated blocks of a GBIN payload.
+     */
+    private static class InflaterChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel channel;
+        private final Inflater inflater;
+        private final ByteBuffer blockHeader = ByteBuffer.allocate(8);
+        private byte[] compressed = new byte[0];
+        private byte[] block = new byte[0];
+        private int blockLength;
+        private int blockPosition;
+        private boolean end;
+
+        public InflaterChannel(ReadableByteChannel channel, Inflater inflater) {
+            this.channel = channel;
+            this.inflater = inflater;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (blockPosition == blockLength && !nextBlock()) {
+                return -1;
+            }
+            int length = Math.min(dst.remaining(), blockLength - blockPosition);
+            dst.put(block, blockPosition, length);
+            blockPosition += length;
+            return length;
+        }
+
+        private boolean nextBlock() throws IOException {
+            if (end) {
+                return false;
+            }
+            blockHeader.clear();
+            Input.readFully(channel, blockHeader);
+            blockHeader.flip();
+            int rawLength = blockHeader.getInt();
+            int compressedLength = blockHeader.getInt();
+            if (rawLength == 0) {
+                end = true;
+                return false;
+            }
+            if (compressed.length < compressedLength) {
+                compressed = new byte[compressedLength];
+            }
+            if (block.length < rawLength) {
+                block = new byte[rawLength];
+            }
+            Input.readFully(channel, ByteBuffer.wrap(compressed, 0, compressedLength));
+            inflater.reset();
+            inflater.setInput(compressed, 0, compressedLength);
+            try {
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    int inflated = inflater.inflate(block, length, rawLength - length);
+                    if (inflated == 0 && inflater.needsInput()) {
+                        throw new EOFException();
+                    }
+                    length += inflated;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+            blockLength = rawLength;
+            blockPosition = 0;
+            return true;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -48,8 +48,6 @@ import java.io.LineNumberReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.gephi.io.importer.api.ColumnDraft;
 import org.gephi.io.importer.api.ContainerLoader;
 import org.gephi.io.importer.api.EdgeDirection;
@@ -59,6 +57,7 @@ import org.gephi.io.importer.api.Issue;
 import org.gephi.io.importer.api.NodeDraft;
 import org.gephi.io.importer.api.Report;
 import org.gephi.io.importer.spi.FileImporter;
+import org.gephi.utils.FieldTokenizer;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
 import org.gephi.utils.progress.ProgressTicket;
@@ -86,6 +85,14 @@ public class ImporterGDF implements FileImporter, LongTask {
     //Columns
     private GDFColumn[] nodeColumns;
     private GDFColumn[] edgeColumns;
+    //Tokenizers, lines are split on parser threads
+    private static final ThreadLocal<FieldTokenizer> TOKENIZER = new ThreadLocal<FieldTokenizer>() {
+        @Override
+        protected FieldTokenizer initialValue() {
+            return new FieldTokenizer(",", "\"'", false);
+        }
+    };
+    private final FieldTokenizer colorTokenizer = new FieldTokenizer(",", "", false);
 
     public ImporterGDF() {
         nodeLineStart = new String[]{"nodedef>name", "nodedef> name", "Nodedef>name", "Nodedef> name", "nodedef>\"name", "nodedef> \"name", "Nodedef>\"name", "Nodedef> \"name"};
@@ -118,28 +125,29 @@ public class ImporterGDF implements FileImporter, LongTask {
 
         Progress.switchToDeterminate(progressTicket, nodeLines.size() + edgeLines.size());         //Progress
 
-        //Magix regex
-        Pattern pattern = Pattern.compile("(?<=(?:,|^)\")(.*?)(?=(?<=(?:[^\\\\]))\",|\"$)|(?<=(?:,|^)')(.*?)(?=(?<=(?:[^\\\\]))',|'$)|(?<=(?:,|^))(?=[^'\"])(.*?)(?=(?:,|$))|(?<=,)($)");
+        //Lines are split in parallel, then pushed to the container in order
+        ParallelLineParser.LineParser<String[]> lineParser = new ParallelLineParser.LineParser<String[]>() {
+            @Override
+            public String[] parse(String line) {
+                return splitLine(line);
+            }
+        };
 
         //Nodes
-        for (String nodeLine : nodeLines) {
-            if (cancel) {
-                return;
-            }
+        ParallelLineParser.parse(nodeLines, lineParser, new ParallelLineParser.LineConsumer<String[]>() {
+            @Override
+            public boolean accept(String[] fields) {
+                if (cancel) {
+                    return false;
+                }
+
+                //Create Node
+                NodeDraft node = null;
 
-            //Create Node
-            NodeDraft node = null;
-
-            Matcher m = pattern.matcher(nodeLine);
-            int count = 0;
-            String id = "";
-            while (m.find()) {
-                int start = m.start();
-                int end = m.end();
-                if (start != end) {
-                    String data = nodeLine.substring(start, end);
-                    data = data.trim();
-                    if (!data.isEmpty() && !data.toLowerCase().equals("null")) {
+                String id = "";
+                for (int count = 0; count < fields.length; count++) {
+                    String data = fields[count];
+                    if (data != null) {
                         if (count == 0) {
                             //Id
                             id = data;
@@ -155,35 +163,31 @@ public class ImporterGDF implements FileImporter, LongTask {
                         }
                     }
                 }
-                count++;
-            }
 
-            container.addNode(node);
+                container.addNode(node);
 
-            Progress.progress(progressTicket);      //Progress
-        }
+                Progress.progress(progressTicket);      //Progress
+                return true;
+            }
+        });
 
         //Edges
-        for (String edgeLine : edgeLines) {
-            if (cancel) {
-                return;
-            }
-            //Create Edge
-            EdgeDraft edge = container.factory().newEdgeDraft();
-
-            //Default to undirected unless stated
-            edge.setDirection(EdgeDirection.UNDIRECTED);
-
-            Matcher m = pattern.matcher(edgeLine);
-            int count = 0;
-            String id = "";
-            while (m.find()) {
-                int start = m.start();
-                int end = m.end();
-                if (start != end) {
-                    String data = edgeLine.substring(start, end);
-                    data = data.trim();
-                    if (!data.isEmpty() && !data.toLowerCase().equals("null")) {
+        ParallelLineParser.parse(edgeLines, lineParser, new ParallelLineParser.LineConsumer<String[]>() {
+            @Override
+            public boolean accept(String[] fields) {
+                if (cancel) {
+                    return false;
+                }
+                //Create Edge
+                EdgeDraft edge = container.factory().newEdgeDraft();
+
+                //Default to undirected unless stated
+                edge.setDirection(EdgeDirection.UNDIRECTED);
+
+                String id = "";
+                for (int count = 0; count < fields.length; count++) {
+                    String data = fields[count];
+                    if (data != null) {
                         if (count == 0) {
                             NodeDraft nodeSource = container.getNode(data);
                             edge.setSource(nodeSource);
@@ -201,12 +205,25 @@ public class ImporterGDF implements FileImporter, LongTask {
                         }
                     }
                 }
-                count++;
+
+                container.addEdge(edge);
+                Progress.progress(progressTicket);      //Progress
+                return true;
             }
+        });
+    }
 
-            container.addEdge(edge);
-            Progress.progress(progressTicket);      //Progress
+    //Empty or "null" fields are kept as null, the column is the field index
+    private static String[] splitLine(String line) {
+        FieldTokenizer tokenizer = TOKENIZER.get();
+        int fieldCount = tokenizer.tokenize(line);
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            if (!tokenizer.isEmpty(i) && !tokenizer.contentEquals(i, "null", true)) {
+                fields[i] = tokenizer.getString(i);
+            }
         }
+        return fields;
     }
 
     private void walkFile(BufferedReader reader) throws Exception {
@@ -451,9 +468,8 @@ public class ImporterGDF implements FileImporter, LongTask {
                         node.setY(Float.parseFloat(data));
                         break;
                     case COLOR:
-                        String[] rgb = data.replace(" ", "").split(",");
-                        if (rgb.length == 3) {
-                            node.setColor(rgb[0], rgb[1], rgb[2]);
+                        if (colorTokenizer.tokenize(data) == 3) {
+                            node.setColor(colorTokenizer.parseInt(0), colorTokenizer.parseInt(1), colorTokenizer.parseInt(2));
                         } else {
                             node.setColor(data);
                         }
@@ -492,9 +508,8 @@ public class ImporterGDF implements FileImporter, LongTask {
             try {
                 switch (column.getEdgeColumn()) {
                     case COLOR:
-                        String[] rgb = data.replace(" ", "").split(",");
-                        if (rgb.length == 3) {
-                            edge.setColor(rgb[0], rgb[1], rgb[2]);
+                        if (colorTokenizer.tokenize(data) == 3) {
+                            edge.setColor(colorTokenizer.parseInt(0), colorTokenizer.parseInt(1), colorTokenizer.parseInt(2));
                         } else {
                             edge.setColor(data);
                         }
@@ -45,6 +45,8 @@ import java.awt.Color;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
 import javax.xml.stream.*;
 import javax.xml.stream.events.XMLEvent;
 import org.gephi.graph.api.AttributeUtils;
@@ -121,11 +123,16 @@ public class ImporterGEXF implements FileImporter, LongTask {
     private Report report;
     private ProgressTicket progress;
     private XMLStreamReader xmlReader;
+    //Attribute schema, compiled when an attribute id is first seen
+    private final Map<String, AttributeSlot> nodeSlots = new HashMap<>();
+    private final Map<String, AttributeSlot> edgeSlots = new HashMap<>();
 
     @Override
     public boolean execute(ContainerLoader container) {
         this.container = container;
         this.report = new Report();
+        nodeSlots.clear();
+        edgeSlots.clear();
         Progress.start(progress);
         try {
 
@@ -142,8 +149,8 @@ public class ImporterGEXF implements FileImporter, LongTask {
 
             while (xmlReader.hasNext()) {
 
-                Integer eventType = xmlReader.next();
-                if (eventType.equals(XMLEvent.START_ELEMENT)) {
+                int eventType = xmlReader.next();
+                if (eventType == XMLEvent.START_ELEMENT) {
                     String name = xmlReader.getLocalName();
                     if (GEXF.equalsIgnoreCase(name)) {
                         readGexf(xmlReader);
@@ -156,7 +163,7 @@ public class ImporterGEXF implements FileImporter, LongTask {
                     } else if (ATTRIBUTES.equalsIgnoreCase(name)) {
                         readAttributes(xmlReader);
                     }
-                } else if (eventType.equals(XMLStreamReader.END_ELEMENT)) {
+                } else if (eventType == XMLStreamReader.END_ELEMENT) {
                     String name = xmlReader.getLocalName();
                     if (NODE.equalsIgnoreCase(name)) {
                     }
@@ -382,7 +389,7 @@ public class ImporterGEXF implements FileImporter, LongTask {
             switch (type) {
                 case XMLStreamReader.START_ELEMENT:
                     String name = xmlReader.getLocalName();
-                    if (ATTVALUE.equalsIgnoreCase(xmlReader.getLocalName())) {
+                    if (ATTVALUE.equalsIgnoreCase(name)) {
                         readElementAttValue(reader, node);
                     } else if (NODE_POSITION.equalsIgnoreCase(name)) {
                         readNodePosition(reader, node);
@@ -476,21 +483,24 @@ public class ImporterGEXF implements FileImporter, LongTask {
 
         if (!value.isEmpty()) {
             //Data attribute value
-            ColumnDraft column = element instanceof NodeDraft ? container.getNodeColumn(fore) : container.getEdgeColumn(fore);
-            if (column != null) {
+            AttributeSlot slot = getAttributeSlot(fore, element instanceof NodeDraft);
+            if (slot != null) {
+                ColumnDraft column = slot.column;
                 if (column.isDynamic()) {
                     if ((!startDate.isEmpty() || !endDate.isEmpty()) && checkTimerepresentationIsInterval()) {
                         if (startOpen || endOpen) {
                             report.logIssue(new Issue(NbBundle.getMessage(ImporterGEXF.class, "importerGEXF_error_" + (element instanceof NodeDraft ? "node" : "edge") + "_open_interval", element), Issue.Level.WARNING));
                         }
                         try {
-                            element.parseAndSetValue(column.getId(), value, startDate, endDate);
+                            double start = parseTime(startDate, "-inf", "-infinity", Double.NEGATIVE_INFINITY);
+                            double end = parseTime(endDate, "inf", "infinity", Double.POSITIVE_INFINITY);
+                            element.setValue(column.getId(), slot.parse(value), start, end);
                         } catch (Exception e) {
                             report.logIssue(new Issue(NbBundle.getMessage(ImporterGEXF.class, "importerGEXF_error_" + (element instanceof NodeDraft ? "node" : "edge") + "attribute_timeinterval_parseerror", element), Issue.Level.SEVERE));
                         }
                     } else if (!timestamp.isEmpty() && checkTimerepresentationIsTimestamp()) {
                         try {
-                            element.parseAndSetValue(column.getId(), value, timestamp);
+                            element.setValue(column.getId(), slot.parse(value), parseTime(timestamp));
                         } catch (Exception e) {
                             report.logIssue(new Issue(NbBundle.getMessage(ImporterGEXF.class, "importerGEXF_error_" + (element instanceof NodeDraft ? "node" : "edge") + "attribute_timestamp_parseerror", element), Issue.Level.SEVERE));
                         }
@@ -502,7 +512,7 @@ public class ImporterGEXF implements FileImporter, LongTask {
                             if (checkTimerepresentationIsInterval()) {
                                 //In order to support old atrribute values without start or end, try to parse a single value with infinite interval instead
                                 try {
-                                    element.parseAndSetValue(column.getId(), value, "-inf", "inf");
+                                    element.setValue(column.getId(), slot.parse(value), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
                                 } catch (Exception e2) {
                                     report.logIssue(new Issue(NbBundle.getMessage(ImporterGEXF.class, "importerGEXF_error_" + (element instanceof NodeDraft ? "node" : "edge") + "attribute_timeinterval_parseerror", element), Issue.Level.SEVERE));
                                 }
@@ -514,7 +524,7 @@ public class ImporterGEXF implements FileImporter, LongTask {
                 } else {
                     Object valueObj = null;
                     try {
-                        valueObj = AttributeUtils.parse(value, column.getTypeClass());
+                        valueObj = slot.parse(value);
                         element.setValue(column.getId(), valueObj);
                     } catch (Exception e) {
                         report.logIssue(new Issue(NbBundle.getMessage(ImporterGEXF.class, "importerGEXF_error_datavalue", fore, element, column.getTitle()), Issue.Level.SEVERE));
@@ -524,6 +534,30 @@ public class ImporterGEXF implements FileImporter, LongTask {
         }
     }
 
+    private AttributeSlot getAttributeSlot(String id, boolean node) {
+        Map<String, AttributeSlot> slots = node ? nodeSlots : edgeSlots;
+        AttributeSlot slot = slots.get(id);
+        if (slot == null) {
+            ColumnDraft column = node ? container.getNodeColumn(id) : container.getEdgeColumn(id);
+            if (column != null) {
+                slot = new AttributeSlot(column);
+                slots.put(id, slot);
+            }
+        }
+        return slot;
+    }
+
+    private double parseTime(String dateTime) {
+        return container.getTimeFormat().equals(TimeFormat.DOUBLE) ? Double.parseDouble(dateTime) : AttributeUtils.parseDateTime(dateTime);
+    }
+
+    private double parseTime(String dateTime, String infinity, String infinity2, double infinityValue) {
+        if (dateTime.isEmpty() || infinity.equalsIgnoreCase(dateTime) || infinity2.equalsIgnoreCase(dateTime)) {
+            return infinityValue;
+        }
+        return parseTime(dateTime);
+    }
+
     private void readElementColor(XMLStreamReader reader, ElementDraft element) throws Exception {
         String rStr = "";
         String gStr = "";
@@ -802,12 +836,13 @@ public class ImporterGEXF implements FileImporter, LongTask {
 
             switch (type) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (ATTVALUE.equalsIgnoreCase(xmlReader.getLocalName())) {
+                    String name = xmlReader.getLocalName();
+                    if (ATTVALUE.equalsIgnoreCase(name)) {
                         readElementAttValue(reader, edge);
-                    } else if (EDGE_COLOR.equalsIgnoreCase(xmlReader.getLocalName())) {
+                    } else if (EDGE_COLOR.equalsIgnoreCase(name)) {
                         readElementColor(reader, edge);
-                    } else if (EDGE_SPELL.equalsIgnoreCase(xmlReader.getLocalName())
-                            || EDGE_SPELL2.equalsIgnoreCase(xmlReader.getLocalName())) {
+                    } else if (EDGE_SPELL.equalsIgnoreCase(name)
+                            || EDGE_SPELL2.equalsIgnoreCase(name)) {
                         readElementSpell(reader, edge);
                         spells = true;
                     }
@@ -1065,4 +1100,69 @@ public class ImporterGEXF implements FileImporter, LongTask {
     public void setProgressTicket(ProgressTicket progressTicket) {
         this.progress = progressTicket;
     }
+
+    /**
+     * Column of an attribute id with a parser specialised for its type.
+     * Values the specialised parser rejects go through
+     * <code>AttributeUtils.parse</code> so that they are handled as before.
+     */
+    private static class AttributeSlot {
+
+        private static final int GENERIC = 0;
+        private static final int STRING = 1;
+        private static final int INTEGER = 2;
+        private static final int LONG = 3;
+        private static final int FLOAT = 4;
+        private static final int DOUBLE = 5;
+        private static final int BOOLEAN = 6;
+        private final ColumnDraft column;
+        private final int parser;
+
+        public AttributeSlot(ColumnDraft column) {
+            this.column = column;
+            Class typeClass = column.getTypeClass();
+            if (typeClass.equals(String.class)) {
+                parser = STRING;
+            } else if (typeClass.equals(Integer.class)) {
+                parser = INTEGER;
+            } else if (typeClass.equals(Long.class)) {
+                parser = LONG;
+            } else if (typeClass.equals(Float.class)) {
+                parser = FLOAT;
+            } else if (typeClass.equals(Double.class)) {
+                parser = DOUBLE;
+            } else if (typeClass.equals(Boolean.class)) {
+                parser = BOOLEAN;
+            } else {
+                parser = GENERIC;
+            }
+        }
+
+        public Object parse(String value) {
+            try {
+                switch (parser) {
+                    case STRING:
+                        return value;
+                    case INTEGER:
+                        return Integer.valueOf(value);
+                    case LONG:
+                        return Long.valueOf(value);
+                    case FLOAT:
+                        return Float.valueOf(value);
+                    case DOUBLE:
+                        return Double.valueOf(value);
+                    case BOOLEAN:
+                        if ("true".equalsIgnoreCase(value)) {
+                            return Boolean.TRUE;
+                        } else if ("false".equalsIgnoreCase(value)) {
+                            return Boolean.FALSE;
+                        }
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                //Not a plain number, let the generic parser decide
+            }
+            return AttributeUtils.parse(value, column.getTypeClass());
+        }
+    }
 }
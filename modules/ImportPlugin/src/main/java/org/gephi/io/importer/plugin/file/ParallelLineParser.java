@@ -0,0 +1,148 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.plugin.file;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parses lines of text on several threads.
+ * <p>
+ * Lines are split in chunks which are parsed in parallel. Results are handed
+ * to the consumer on the calling thread, in line order, so importers can push
+ * them to the container exactly as they would with a sequential loop. Only a
+ * bounded number of chunks is parsed ahead of the consumer.
+ * <p>
+ * Small inputs are parsed on the calling thread.
+ */
+final class ParallelLineParser {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    interface LineParser<T> {
+
+        /**
+         * Parses a line. Called concurrently, should not touch the container
+         * or the report.
+         *
+         * @param line line to parse
+         * @return parsed line
+         */
+        T parse(String line);
+    }
+
+    interface LineConsumer<T> {
+
+        /**
+         * Consumes a parsed line, on the calling thread.
+         *
+         * @param result parsed line
+         * @return <code>false</code> to stop parsing
+         * @throws Exception if the line can't be consumed, parsing stops
+         */
+        boolean accept(T result) throws Exception;
+    }
+
+    private ParallelLineParser() {
+    }
+
+    static <T> void parse(final List<String> lines, final LineParser<T> parser, LineConsumer<T> consumer) throws Exception {
+        int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+        if (threadCount == 1 || lines.size() <= CHUNK_SIZE) {
+            for (String line : lines) {
+                if (!consumer.accept(parser.parse(line))) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        try {
+            Deque<Future<List<T>>> pending = new ArrayDeque<>();
+            int maxPending = 2 * threadCount;
+            int next = 0;
+            while (next < lines.size() || !pending.isEmpty()) {
+                //Keep workers busy while results are consumed
+                while (next < lines.size() && pending.size() < maxPending) {
+                    final int start = next;
+                    final int end = Math.min(lines.size(), start + CHUNK_SIZE);
+                    pending.add(pool.submit(new Callable<List<T>>() {
+                        @Override
+                        public List<T> call() throws Exception {
+                            List<T> results = new ArrayList<>(end - start);
+                            for (int i = start; i < end; i++) {
+                                results.add(parser.parse(lines.get(i)));
+                            }
+                            return results;
+                        }
+                    }));
+                    next = end;
+                }
+
+                List<T> results;
+                try {
+                    results = pending.poll().get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw new RuntimeException(cause);
+                }
+                for (T result : results) {
+                    if (!consumer.accept(result)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
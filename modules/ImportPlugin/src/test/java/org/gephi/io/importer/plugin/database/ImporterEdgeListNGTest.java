@@ -0,0 +1,296 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.plugin.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.gephi.io.database.drivers.SQLDriver;
+import org.gephi.io.importer.api.EdgeDraft;
+import org.gephi.io.importer.api.Issue;
+import org.gephi.io.importer.api.Report;
+import org.gephi.io.importer.impl.ImportContainerImpl;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Imports edges from an embedded SQLite database, with and without edge
+ * partitions.
+ */
+public class ImporterEdgeListNGTest {
+
+    private File file;
+
+    @BeforeMethod
+    public void initialize() throws IOException, SQLException {
+        file = File.createTempFile("edgelist", ".db");
+        Connection connection = getConnection();
+        try {
+            Statement s = connection.createStatement();
+            s.executeUpdate("CREATE TABLE nodes (id TEXT, label TEXT)");
+            s.executeUpdate("CREATE TABLE edges (id TEXT, source TEXT, target TEXT, k, amount INTEGER)");
+            s.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    @AfterMethod
+    public void clean() {
+        file.delete();
+    }
+
+    @Test
+    public void testPartitionsWithNullKeys() throws SQLException {
+        insertEdges(null, -5L, 0L, null, 7L, 1000L, null);
+
+        ImportContainerImpl container = importEdges(4);
+
+        assertEquals(getEdgeIds(container), getEdgeIds(7));
+    }
+
+    @Test
+    public void testPartitionsFullLongRange() throws SQLException {
+        insertEdges(Long.MIN_VALUE, Long.MIN_VALUE + 1, -1L, 0L, Long.MAX_VALUE - 1, Long.MAX_VALUE);
+
+        ImportContainerImpl container = importEdges(3);
+
+        assertEquals(getEdgeIds(container), getEdgeIds(6));
+    }
+
+    @Test
+    public void testMorePartitionsThanKeys() throws SQLException {
+        insertEdges(Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+        ImportContainerImpl container = importEdges(8);
+
+        assertEquals(getEdgeIds(container), getEdgeIds(3));
+    }
+
+    @Test
+    public void testPartitionsMatchSingleQuery() throws SQLException {
+        Random random = new Random(42);
+        Long[] keys = new Long[500];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(10) == 0 ? null : random.nextLong() % 100000;
+        }
+        insertEdges(keys);
+
+        assertEquals(getEdgeIds(importEdges(5)), getEdgeIds(importEdges(1)));
+        assertEquals(getEdgeIds(importEdges(5)), getEdgeIds(keys.length));
+    }
+
+    @Test
+    public void testPartitionsTypedAttributeMatchSingleQuery() throws SQLException {
+        Random random = new Random(7);
+        Long[] keys = new Long[3000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong() % 1000;
+        }
+        insertEdges(keys);
+
+        ImportContainerImpl partitioned = importEdges(4);
+        ImportContainerImpl single = importEdges(1);
+
+        Map<String, Object> amounts = getEdgeAmounts(partitioned);
+        assertEquals(amounts, getEdgeAmounts(single));
+        assertEquals(amounts.size(), keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(amounts.get("e" + i), i);
+        }
+        assertEquals(partitioned.getReport().getIssueCount(Issue.Level.SEVERE), 0);
+    }
+
+    @Test
+    public void testDecimalKeyNotPartitioned() throws SQLException {
+        Connection connection = getConnection();
+        try {
+            PreparedStatement s = connection.prepareStatement("INSERT INTO edges VALUES (?, ?, ?, ?, ?)");
+            double[] keys = {0.5, 0.7, 1.5, 2.9};
+            for (int i = 0; i < keys.length; i++) {
+                s.setString(1, "e" + i);
+                s.setString(2, "n" + i);
+                s.setString(3, "n" + (i + 1));
+                s.setDouble(4, keys[i]);
+                s.setInt(5, i);
+                s.executeUpdate();
+            }
+            s.close();
+        } finally {
+            connection.close();
+        }
+        insertNodes(4);
+
+        ImporterEdgeList importer = new ImporterEdgeList();
+        ImportContainerImpl container = importEdges(importer, 3);
+
+        assertEquals(getEdgeIds(container), getEdgeIds(4));
+        assertTrue(importer.getReport().getIssueCount(Issue.Level.WARNING) > 0);
+    }
+
+    private ImportContainerImpl importEdges(int partitions) {
+        return importEdges(new ImporterEdgeList(), partitions);
+    }
+
+    private ImportContainerImpl importEdges(ImporterEdgeList importer, int partitions) {
+        EdgeListDatabaseImpl database = new EdgeListDatabaseImpl();
+        database.setSQLDriver(new FileSQLiteDriver(file));
+        database.setNodeQuery("SELECT id, label FROM nodes");
+        database.setEdgeQuery("SELECT id, source, target, k, amount FROM edges");
+        database.setEdgePartitionColumn("k");
+        database.setEdgePartitions(partitions);
+
+        ImportContainerImpl container = new ImportContainerImpl();
+        container.setReport(new Report());
+        importer.setDatabase(database);
+        importer.execute(container.getLoader());
+        return container;
+    }
+
+    private void insertEdges(Long... keys) throws SQLException {
+        Connection connection = getConnection();
+        try {
+            PreparedStatement s = connection.prepareStatement("INSERT INTO edges VALUES (?, ?, ?, ?, ?)");
+            for (int i = 0; i < keys.length; i++) {
+                s.setString(1, "e" + i);
+                s.setString(2, "n" + i);
+                s.setString(3, "n" + (i + 1));
+                if (keys[i] != null) {
+                    s.setLong(4, keys[i]);
+                } else {
+                    s.setNull(4, Types.INTEGER);
+                }
+                s.setInt(5, i);
+                s.executeUpdate();
+            }
+            s.close();
+        } finally {
+            connection.close();
+        }
+        insertNodes(keys.length);
+    }
+
+    private void insertNodes(int edgeCount) throws SQLException {
+        Connection connection = getConnection();
+        try {
+            PreparedStatement s = connection.prepareStatement("INSERT INTO nodes VALUES (?, ?)");
+            for (int i = 0; i <= edgeCount; i++) {
+                s.setString(1, "n" + i);
+                s.setString(2, "Node " + i);
+                s.executeUpdate();
+            }
+            s.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+    }
+
+    private static Set<String> getEdgeIds(ImportContainerImpl container) {
+        Set<String> ids = new HashSet<>();
+        for (EdgeDraft edge : container.getEdges()) {
+            ids.add(edge.getId());
+        }
+        assertEquals(ids.size(), container.getEdgeCount());
+        return ids;
+    }
+
+    private static Map<String, Object> getEdgeAmounts(ImportContainerImpl container) {
+        Map<String, Object> amounts = new HashMap<>();
+        for (EdgeDraft edge : container.getEdges()) {
+            Object amount = edge.getValue("amount");
+            assertTrue(amount instanceof Integer, "Unexpected value " + amount + " of " + edge.getId());
+            amounts.put(edge.getId(), amount);
+        }
+        return amounts;
+    }
+
+    private static Set<String> getEdgeIds(int count) {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ids.add("e" + i);
+        }
+        return ids;
+    }
+
+    /**
+     * SQLite driver connecting to a given file, whatever the url.
+     */
+    private static class FileSQLiteDriver implements SQLDriver {
+
+        private final File file;
+
+        public FileSQLiteDriver(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public Connection getConnection(String connectionUrl, String username, String passwd) throws SQLException {
+            return DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        }
+
+        @Override
+        public String getPrefix() {
+            return "sqlite";
+        }
+
+        @Override
+        public String toString() {
+            return "SQLite";
+        }
+    }
+}
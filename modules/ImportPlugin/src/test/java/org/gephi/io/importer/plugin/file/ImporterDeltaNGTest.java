@@ -0,0 +1,283 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.plugin.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.types.IntervalDoubleMap;
+import org.gephi.io.exporter.plugin.ExporterDelta;
+import org.gephi.io.importer.api.ContainerUnloader;
+import org.gephi.io.importer.api.Report;
+import org.gephi.io.importer.impl.ImportContainerImpl;
+import org.gephi.io.processor.plugin.AppendProcessor;
+import org.gephi.project.api.ProjectController;
+import org.gephi.project.api.Workspace;
+import org.gephi.project.impl.ProjectControllerImpl;
+import org.openide.util.Lookup;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Exports a workspace with {@link ExporterDelta} and applies the deltas to
+ * another workspace with {@link ImporterDelta}.
+ */
+public class ImporterDeltaNGTest {
+
+    private static final int NODES = 100;
+    private ProjectController pc;
+    private GraphController gc;
+    private Workspace source;
+    private Workspace target;
+    private File stateFile;
+
+    @BeforeClass
+    public void setUp() {
+        pc = Lookup.getDefault().lookup(ProjectControllerImpl.class);
+        gc = Lookup.getDefault().lookup(GraphController.class);
+    }
+
+    @BeforeMethod
+    public void initialize() throws IOException {
+        pc.newProject();
+        source = pc.getCurrentWorkspace();
+        target = pc.newWorkspace(pc.getCurrentProject());
+        stateFile = File.createTempFile("graph", ".state");
+        stateFile.delete();
+        generateGraph();
+    }
+
+    @AfterMethod
+    public void clean() {
+        pc.closeCurrentProject();
+        stateFile.delete();
+    }
+
+    @Test
+    public void testFirstExport() {
+        String delta = exportDelta();
+        assertEquals(count(delta, "op=\"add\""), 2 * NODES - 1);
+        assertEquals(count(delta, "op=\"update\""), 0);
+        apply(delta);
+        checkGraphs();
+    }
+
+    @Test
+    public void testDelta() {
+        apply(exportDelta());
+        mutateGraph();
+
+        String delta = exportDelta();
+        assertEquals(count(delta, "op=\"add\""), 2);
+        assertEquals(count(delta, "op=\"update\""), 7);
+        assertTrue(delta.contains("<node id=\"n5\"/>"));
+        assertTrue(delta.contains("<edge id=\"e4\"/>"));
+        assertTrue(delta.contains("<edge id=\"e5\"/>"));
+        apply(delta);
+        checkGraphs();
+
+        //Nothing changed since the last export
+        delta = exportDelta();
+        assertFalse(delta.contains("<node "));
+        assertFalse(delta.contains("<edge "));
+    }
+
+    @Test
+    public void testLongId() {
+        //Longer than the 64KB of DataOutput.writeUTF once encoded
+        StringBuilder id = new StringBuilder();
+        while (id.length() < 40000) {
+            id.append("identifiant \u00e9 ");
+        }
+        GraphModel graphModel = gc.getGraphModel(source);
+        graphModel.getDirectedGraph().addNode(graphModel.factory().newNode(id.toString()));
+
+        apply(exportDelta());
+        checkGraphs();
+
+        String delta = exportDelta();
+        assertFalse(delta.contains("<node "));
+    }
+
+    private void generateGraph() {
+        GraphModel graphModel = gc.getGraphModel(source);
+        Column count = graphModel.getNodeTable().addColumn("count", Integer.class);
+        Column name = graphModel.getNodeTable().addColumn("name", String.class);
+        Column activity = graphModel.getNodeTable().addColumn("activity", IntervalDoubleMap.class);
+        Column kind = graphModel.getEdgeTable().addColumn("kind", String.class);
+
+        Graph graph = graphModel.getDirectedGraph();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node node = graphModel.factory().newNode("n" + i);
+            node.setLabel("Node " + i);
+            node.setAttribute(count, i);
+            if (i % 3 != 0) {
+                node.setAttribute(name, "name " + i);
+            }
+            IntervalDoubleMap map = new IntervalDoubleMap();
+            map.put(new Interval(0, 10), (double) i);
+            node.setAttribute(activity, map);
+            node.addInterval(new Interval(i, 1000));
+            nodes.add(node);
+        }
+        graph.addAllNodes(nodes);
+        for (int i = 0; i + 1 < NODES; i++) {
+            Edge edge = graphModel.factory().newEdge("e" + i, nodes.get(i), nodes.get(i + 1), 0, 1 + i % 5, true);
+            edge.setAttribute(kind, i % 2 == 0 ? "even" : "odd");
+            graph.addEdge(edge);
+        }
+    }
+
+    private void mutateGraph() {
+        GraphModel graphModel = gc.getGraphModel(source);
+        Graph graph = graphModel.getDirectedGraph();
+        Column name = graphModel.getNodeTable().getColumn("name");
+        Column activity = graphModel.getNodeTable().getColumn("activity");
+
+        //Updated nodes, including cleared values
+        graph.getNode("n1").setLabel("Renamed");
+        graph.getNode("n2").setLabel(null);
+        graph.getNode("n7").removeAttribute(name);
+        IntervalDoubleMap map = new IntervalDoubleMap();
+        map.put(new Interval(0, 10), 4.0);
+        map.put(new Interval(10, 20), -1.0);
+        graph.getNode("n4").setAttribute(activity, map);
+        Node n3 = graph.getNode("n3");
+        n3.removeInterval(new Interval(3, 1000));
+        n3.addInterval(new Interval(3, 50));
+
+        //Updated edge
+        graph.getEdge("e10").setWeight(42.0);
+        graph.getEdge("e20").addInterval(new Interval(0, 5));
+
+        //Removed node, with its edges e4 and e5
+        graph.removeNode(graph.getNode("n5"));
+
+        //Added node and edge
+        Node node = graphModel.factory().newNode("n" + NODES);
+        node.setLabel("New");
+        graph.addNode(node);
+        graph.addEdge(graphModel.factory().newEdge("e" + NODES, node, graph.getNode("n0"), 0, 3.0, true));
+    }
+
+    private String exportDelta() {
+        ExporterDelta exporter = new ExporterDelta();
+        exporter.setWorkspace(source);
+        exporter.setStateFile(stateFile);
+        StringWriter writer = new StringWriter();
+        exporter.setWriter(writer);
+        assertTrue(exporter.execute());
+        return writer.toString();
+    }
+
+    private void apply(String delta) {
+        ImporterDelta importer = new ImporterDelta();
+        ImportContainerImpl container = new ImportContainerImpl();
+        container.setReport(new Report());
+        importer.setReader(new StringReader(delta));
+        assertTrue(importer.execute(container.getLoader()));
+        container.closeLoader();
+
+        AppendProcessor processor = new AppendProcessor();
+        processor.setWorkspace(target);
+        processor.setContainers(new ContainerUnloader[]{container.getUnloader()});
+        processor.process();
+    }
+
+    private void checkGraphs() {
+        GraphModel sourceModel = gc.getGraphModel(source);
+        GraphModel targetModel = gc.getGraphModel(target);
+        Graph sourceGraph = sourceModel.getGraph();
+        Graph targetGraph = targetModel.getGraph();
+        assertEquals(targetGraph.getNodeCount(), sourceGraph.getNodeCount());
+        assertEquals(targetGraph.getEdgeCount(), sourceGraph.getEdgeCount());
+
+        for (Node node : sourceGraph.getNodes()) {
+            Node targetNode = targetGraph.getNode(node.getId());
+            assertNotNull(targetNode, node.getId().toString());
+            assertEquals(targetNode.getLabel(), node.getLabel());
+            assertEquals(String.valueOf(targetNode.getAttribute("timeset")), String.valueOf(node.getAttribute("timeset")));
+            for (Column column : sourceModel.getNodeTable()) {
+                if (!column.isProperty()) {
+                    Column targetColumn = targetModel.getNodeTable().getColumn(column.getId());
+                    assertNotNull(targetColumn, column.getId());
+                    assertEquals(String.valueOf(targetNode.getAttribute(targetColumn)), String.valueOf(node.getAttribute(column)));
+                }
+            }
+        }
+
+        Column targetKind = targetModel.getEdgeTable().getColumn("kind");
+        for (Edge edge : sourceGraph.getEdges()) {
+            Edge targetEdge = targetGraph.getEdge(edge.getId());
+            assertNotNull(targetEdge, edge.getId().toString());
+            assertEquals(targetEdge.getSource().getId(), edge.getSource().getId());
+            assertEquals(targetEdge.getTarget().getId(), edge.getTarget().getId());
+            assertEquals(targetEdge.getWeight(), edge.getWeight());
+            assertEquals(targetEdge.getAttribute(targetKind), edge.getAttribute("kind"));
+            assertEquals(String.valueOf(targetEdge.getAttribute("timeset")), String.valueOf(edge.getAttribute("timeset")));
+        }
+    }
+
+    private static int count(String text, String pattern) {
+        int count = 0;
+        for (int i = text.indexOf(pattern); i != -1; i = text.indexOf(pattern, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.importer.plugin.file;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.io.exporter.plugin.ExporterGBIN;
+import org.gephi.io.importer.api.EdgeDraft;
+import org.gephi.io.importer.api.NodeDraft;
+import org.gephi.io.importer.impl.ImportContainerImpl;
+import org.gephi.project.api.ProjectController;
+import org.gephi.project.impl.ProjectControllerImpl;
+import org.openide.util.Lookup;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Exports graphs with {@link ExporterGBIN} and imports them back.
+ */
+public class ImporterGBINNGTest {
+
+    private static final int NODES = 1000;
+    private ProjectController pc;
+    private File file;
+
+    @BeforeClass
+    public void setUp() {
+        pc = Lookup.getDefault().lookup(ProjectControllerImpl.class);
+    }
+
+    @BeforeMethod
+    public void initialize() throws IOException {
+        pc.newProject();
+        file = File.createTempFile("graph", ".gbin");
+        generateGraph();
+    }
+
+    @AfterMethod
+    public void clean() {
+        pc.closeCurrentProject();
+        file.delete();
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        export(false);
+        checkGraph(importGraph(false, false));
+    }
+
+    @Test
+    public void testMemoryMappedFile() throws IOException {
+        export(false);
+        checkGraph(importGraph(true, true));
+    }
+
+    @Test
+    public void testFileWithoutMemoryMapping() throws IOException {
+        export(false);
+        checkGraph(importGraph(true, false));
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        export(true);
+        checkGraph(importGraph(false, false));
+        checkGraph(importGraph(true, true));
+    }
+
+    private void generateGraph() {
+        GraphModel graphModel = Lookup.getDefault().lookup(GraphController.class).getGraphModel();
+        Column count = graphModel.getNodeTable().addColumn("count", Integer.class);
+        Column score = graphModel.getNodeTable().addColumn("score", Double.class);
+        Column name = graphModel.getNodeTable().addColumn("name", String.class);
+        Column kind = graphModel.getEdgeTable().addColumn("kind", String.class);
+
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = new Node[NODES];
+        for (int i = 0; i < NODES; i++) {
+            Node node = graphModel.factory().newNode("n" + i);
+            node.setLabel("Node " + i);
+            node.setX(i);
+            node.setY(-i / 2f);
+            node.setSize(1 + i % 7);
+            node.setAttribute(count, i);
+            node.setAttribute(score, i / 3.0);
+            if (i % 3 != 0) {
+                node.setAttribute(name, "name " + i);
+            }
+            nodes[i] = node;
+        }
+        graph.addAllNodes(Arrays.asList(nodes));
+        for (int i = 0; i + 1 < NODES; i++) {
+            Edge edge = graphModel.factory().newEdge("e" + i, nodes[i], nodes[i + 1], 0, 1 + i % 5, true);
+            edge.setAttribute(kind, i % 2 == 0 ? "even" : "odd");
+            graph.addEdge(edge);
+        }
+    }
+
+    private void export(boolean compress) throws IOException {
+        ExporterGBIN exporter = new ExporterGBIN();
+        exporter.setWorkspace(pc.getCurrentWorkspace());
+        exporter.setCompress(compress);
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            exporter.setOutputStream(stream);
+            assertTrue(exporter.execute());
+        } finally {
+            stream.close();
+        }
+    }
+
+    private ImportContainerImpl importGraph(boolean setFile, boolean memoryMapping) throws IOException {
+        ImporterGBIN importer = new ImporterGBIN();
+        importer.setMemoryMapping(memoryMapping);
+        ImportContainerImpl container = new ImportContainerImpl();
+        InputStream stream = new BufferedInputStream(new FileInputStream(file));
+        try {
+            importer.setInputStream(stream);
+            if (setFile) {
+                importer.setFile(file);
+            }
+            assertTrue(importer.execute(container.getLoader()));
+        } finally {
+            stream.close();
+        }
+        return container;
+    }
+
+    private void checkGraph(ImportContainerImpl container) {
+        assertEquals(container.getNodeCount(), NODES);
+        assertEquals(container.getEdgeCount(), NODES - 1);
+
+        Map<String, NodeDraft> nodes = new HashMap<>();
+        for (NodeDraft node : container.getNodes()) {
+            nodes.put(node.getId(), node);
+        }
+        for (int i = 0; i < NODES; i++) {
+            NodeDraft node = nodes.get("n" + i);
+            assertNotNull(node);
+            assertEquals(node.getLabel(), "Node " + i);
+            assertEquals(node.getX(), (float) i);
+            assertEquals(node.getY(), -i / 2f);
+            assertEquals(node.getSize(), (float) (1 + i % 7));
+            assertEquals(node.getValue("count"), i);
+            assertEquals(node.getValue("score"), i / 3.0);
+            assertEquals(node.getValue("name"), i % 3 != 0 ? "name " + i : null);
+        }
+
+        for (EdgeDraft edge : container.getEdges()) {
+            int i = Integer.parseInt(edge.getId().substring(1));
+            assertEquals(edge.getSource().getId(), "n" + i);
+            assertEquals(edge.getTarget().getId(), "n" + (i + 1));
+            assertEquals(edge.getWeight(), (double) (1 + i % 5));
+            assertEquals(edge.getValue("kind"), i % 2 == 0 ? "even" : "odd");
+        }
+    }
+}
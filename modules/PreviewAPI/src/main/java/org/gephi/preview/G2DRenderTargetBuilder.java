@@ -41,6 +41,7 @@
  */
 package org.gephi.preview;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
@@ -99,7 +100,7 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
         public void resize(int width, int height) {
             width = Math.max(1, width);
             height = Math.max(1, height);
-            graphics.getGraphics().dispose();
+            graphics.dispose();
             graphics = new G2DGraphics(width, height);
         }
 
@@ -148,6 +149,11 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
             graphics.reset();
         }
 
+        @Override
+        public void setTile(int x, int y, int width, int height) {
+            graphics.setTile(x, y, width, height);
+        }
+
         @Override
         public synchronized void refresh() {
             if (graphics != null) {
@@ -161,10 +167,15 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
         private final PreviewController previewController = Lookup.getDefault().lookup(PreviewController.class);
         private boolean inited;
         //Drawing
-        private final Image image;
+        private Image image;
         private final int width;
         private final int height;
-        private final Graphics2D g2;
+        private Graphics2D g2;
+        //Drawn region of the canvas, the whole canvas by default
+        private int tileX;
+        private int tileY;
+        private int tileWidth;
+        private int tileHeight;
         private final Vector trans = new Vector();
         private float scaling;
         private Color background = Color.WHITE;
@@ -172,8 +183,20 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
         public G2DGraphics(int width, int height) {
             this.width = width;
             this.height = height;
+            this.tileWidth = width;
+            this.tileHeight = height;
+        }
+
+        /**
+         * Creates the image when first needed, so that tiled targets never
+         * allocate the whole canvas.
+         */
+        private void ensureImage() {
+            if (image != null) {
+                return;
+            }
             GraphicsConfiguration graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-            image = graphicsConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            image = graphicsConfiguration.createCompatibleImage(tileWidth, tileHeight, Transparency.TRANSLUCENT);
             g2 = (Graphics2D) image.getGraphics();
 
             //Smooth
@@ -186,6 +209,7 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
             if (m == null) {
                 return;
             }
+            ensureImage();
 
             if (!inited) {
                 CanvasSize cs = getSheetCanvasSize(m);
@@ -194,13 +218,18 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
                 inited = true;
             }
 
-            g2.setTransform(new AffineTransform());
+            g2.setTransform(AffineTransform.getTranslateInstance(-tileX, -tileY));
 
             background = m.getProperties()
                     .getColorValue(PreviewProperty.BACKGROUND_COLOR);
             if (background != null) {
                 g2.setColor(background);
-                g2.fillRect(0, 0, width, height);
+                g2.fillRect(tileX, tileY, tileWidth, tileHeight);
+            } else if (isTiled()) {
+                //Tile images are reused, clear the previous tile
+                g2.setComposite(AlphaComposite.Clear);
+                g2.fillRect(tileX, tileY, tileWidth, tileHeight);
+                g2.setComposite(AlphaComposite.SrcOver);
             }
 
             // user zoom
@@ -230,13 +259,33 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
         }
 
         public Graphics2D getGraphics() {
+            ensureImage();
             return g2;
         }
 
         public Image getImage() {
+            ensureImage();
             return image;
         }
 
+        public void setTile(int x, int y, int width, int height) {
+            width = Math.max(1, width);
+            height = Math.max(1, height);
+            if (image != null && (width != tileWidth || height != tileHeight)) {
+                g2.dispose();
+                image = null;
+                g2 = null;
+            }
+            tileX = x;
+            tileY = y;
+            tileWidth = width;
+            tileHeight = height;
+        }
+
+        private boolean isTiled() {
+            return tileX != 0 || tileY != 0 || tileWidth != width || tileHeight != height;
+        }
+
         public int getWidth() {
             return width;
         }
@@ -249,6 +298,12 @@ public class G2DRenderTargetBuilder implements RenderTargetBuilder {
             inited = false;
         }
 
+        private void dispose() {
+            if (g2 != null) {
+                g2.dispose();
+            }
+        }
+
         private CanvasSize getSheetCanvasSize(PreviewModel m) {
             CanvasSize cs = m.getGraphicsCanvasSize();
             float marginPercentage = m.getProperties()
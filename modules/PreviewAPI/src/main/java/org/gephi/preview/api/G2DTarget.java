@@ -79,6 +79,18 @@ public interface G2DTarget extends RenderTarget {
 
     public void reset();
 
+    /**
+     * Restricts drawing to a region of the canvas. The image then only holds
+     * this region, while the canvas keeps its size, scaling and translation.
+     * This lets very large canvases be drawn region by region.
+     *
+     * @param x the left of the region, in canvas pixels
+     * @param y the top of the region, in canvas pixels
+     * @param width the width of the region
+     * @param height the height of the region
+     */
+    public void setTile(int x, int y, int width, int height);
+
     /**
      * Redraw the Processing canvas
      */
@@ -42,10 +42,8 @@
 package org.gephi.io.exporter.preview;
 
 import java.awt.Color;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.OutputStream;
-import javax.imageio.ImageIO;
 import org.gephi.io.exporter.spi.ByteExporter;
 import org.gephi.io.exporter.spi.VectorExporter;
 import org.gephi.preview.api.G2DTarget;
@@ -66,6 +64,10 @@ import org.openide.util.Lookup;
  */
 public class PNGExporter implements VectorExporter, ByteExporter, LongTask {
 
+    //Minimum number of pixels rendered at once
+    private static final long MIN_BAND_PIXELS = 1 << 22;
+    //Bytes per pixel of a band image
+    private static final int PIXEL_BYTES = 4;
     private ProgressTicket progress;
     private boolean cancel = false;
     private Workspace workspace;
@@ -95,18 +97,32 @@ public class PNGExporter implements VectorExporter, ByteExporter, LongTask {
             ((LongTask) target).setProgressTicket(progress);
         }
 
-        try {
-            target.refresh();
-
-            Progress.switchToIndeterminate(progress);
+        //Render and encode the image in bands to keep memory bounded. Each band
+        //renders the whole scene, so bands use up to a quarter of the free memory
+        long bandPixels = Math.max(MIN_BAND_PIXELS, getAvailableMemory() / 4 / PIXEL_BYTES);
+        int bandHeight = (int) Math.max(1, Math.min(height, bandPixels / width));
+        Progress.switchToDeterminate(progress, (height + bandHeight - 1) / bandHeight);
 
-            Image sourceImg = target.getImage();
-            BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-            img.getGraphics().drawImage(sourceImg, 0, 0, null);
-            ImageIO.write(img, "png", stream);
+        PNGStreamWriter writer = null;
+        try {
+            writer = new PNGStreamWriter(stream, width, height);
+            for (int y = 0; y < height && !cancel; y += bandHeight) {
+                int rows = Math.min(bandHeight, height - y);
+                target.setTile(0, y, width, rows);
+                target.refresh();
+                writer.writeBand((BufferedImage) target.getImage(), rows);
+                Progress.progress(progress);
+            }
+            if (!cancel) {
+                writer.finish();
+            }
             stream.close();
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
         }
 
         discardExportProperties(m);
@@ -116,6 +132,11 @@ public class PNGExporter implements VectorExporter, ByteExporter, LongTask {
         return !cancel;
     }
 
+    private static long getAvailableMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
     public int getHeight() {
         return height;
     }
@@ -0,0 +1,250 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.exporter.preview;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * PNG encoder writing an RGBA image band by band, so the whole image is never
+ * held in memory.
+ * <p>
+ * Each band is filtered and deflated on a thread pool while the next band is
+ * drawn. As with <code>pigz</code>, a band is deflated with the last 32K of
+ * the previous band as preset dictionary and ends with a sync flush, so the
+ * concatenated IDAT chunks form a single zlib stream. Rows use the Sub
+ * filter, which only depends on the row itself.
+ */
+final class PNGStreamWriter {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    //Deflate with the default level and no dictionary
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9c};
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int MAX_BANDS_IN_FLIGHT = 4;
+    private final DataOutputStream output;
+    private final int width;
+    private final int height;
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> bands = new ArrayDeque<>();
+    private final Adler32 adler = new Adler32();
+    private final int[] row;
+    private byte[] previousBand;
+    private int writtenRows;
+    private boolean firstChunk = true;
+
+    PNGStreamWriter(OutputStream output, int width, int height) throws IOException {
+        this.output = new DataOutputStream(output);
+        this.width = width;
+        this.height = height;
+        this.row = new int[width];
+        int threads = Math.min(MAX_BANDS_IN_FLIGHT, Runtime.getRuntime().availableProcessors());
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "PNG encoder");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        this.output.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8);//Bit depth
+        headerData.writeByte(6);//RGBA
+        headerData.writeByte(0);//Deflate
+        headerData.writeByte(0);//Adaptive filtering
+        headerData.writeByte(0);//No interlace
+        writeChunk("IHDR", header.toByteArray());
+    }
+
+    /**
+     * Writes the first <code>rows</code> rows of <code>image</code> as the
+     * next band of the PNG image.
+     */
+    void writeBand(BufferedImage image, int rows) throws IOException {
+        rows = Math.min(rows, height - writtenRows);
+        int rowLength = 1 + width * 4;
+        final byte[] filtered = new byte[rows * rowLength];
+        for (int y = 0; y < rows; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int offset = y * rowLength;
+            filtered[offset++] = 1;//Sub filter
+            int r = 0, g = 0, b = 0, a = 0;
+            for (int x = 0; x < width; x++) {
+                int argb = row[x];
+                int nr = (argb >>> 16) & 0xFF;
+                int ng = (argb >>> 8) & 0xFF;
+                int nb = argb & 0xFF;
+                int na = argb >>> 24;
+                filtered[offset++] = (byte) (nr - r);
+                filtered[offset++] = (byte) (ng - g);
+                filtered[offset++] = (byte) (nb - b);
+                filtered[offset++] = (byte) (na - a);
+                r = nr;
+                g = ng;
+                b = nb;
+                a = na;
+            }
+        }
+        writtenRows += rows;
+        adler.update(filtered);
+
+        final byte[] dictionary = previousBand;
+        final boolean last = writtenRows == height;
+        previousBand = filtered;
+        bands.add(executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                return deflate(filtered, dictionary, last);
+            }
+        }));
+        while (bands.size() >= MAX_BANDS_IN_FLIGHT) {
+            writeBand();
+        }
+    }
+
+    private static byte[] deflate(byte[] data, byte[] dictionary, boolean last) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                int length = Math.min(dictionary.length, DICTIONARY_SIZE);
+                deflater.setDictionary(dictionary, dictionary.length - length, length);
+            }
+            deflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            byte[] buffer = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buffer);
+                    out.write(buffer, 0, n);
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeBand() throws IOException {
+        Future<byte[]> future = bands.poll();
+        byte[] data;
+        try {
+            data = future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+        if (firstChunk) {
+            firstChunk = false;
+            byte[] withHeader = new byte[ZLIB_HEADER.length + data.length];
+            System.arraycopy(ZLIB_HEADER, 0, withHeader, 0, ZLIB_HEADER.length);
+            System.arraycopy(data, 0, withHeader, ZLIB_HEADER.length, data.length);
+            data = withHeader;
+        }
+        writeChunk("IDAT", data);
+    }
+
+    /**
+     * Writes the remaining bands and the end of the image. All rows should
+     * have been written.
+     */
+    void finish() throws IOException {
+        if (writtenRows != height) {
+            throw new IllegalStateException("Only " + writtenRows + " rows out of " + height + " have been written");
+        }
+        while (!bands.isEmpty()) {
+            writeBand();
+        }
+        int checksum = (int) adler.getValue();
+        writeChunk("IDAT", new byte[]{(byte) (checksum >>> 24), (byte) (checksum >>> 16), (byte) (checksum >>> 8), (byte) checksum});
+        writeChunk("IEND", new byte[0]);
+        output.flush();
+    }
+
+    void close() {
+        executor.shutdownNow();
+        bands.clear();
+        previousBand = null;
+    }
+
+    private void writeChunk(String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes("US-ASCII");
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        output.writeInt(data.length);
+        output.write(typeBytes);
+        output.write(data);
+        output.writeInt((int) crc.getValue());
+    }
+}
@@ -42,7 +42,10 @@
 package org.gephi.io.processor.plugin;
 
 import java.awt.Color;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import org.gephi.graph.api.AttributeUtils;
+import org.gephi.graph.api.Column;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.GraphModel;
@@ -66,8 +69,11 @@ public abstract class AbstractProcessor {
     protected Workspace workspace;
     protected ContainerUnloader[] containers;
     protected GraphModel graphModel;
+    //Graph columns of the container's column drafts, resolved once per container
+    private final Map<ColumnDraft, Column> columnMapping = new IdentityHashMap<>();
 
     protected void flushColumns(ContainerUnloader container) {
+        columnMapping.clear();
         TimeRepresentation timeRepresentation = container.getTimeRepresentation();
         Table nodeTable = graphModel.getNodeTable();
         for (ColumnDraft col : container.getNodeColumns()) {
@@ -82,6 +88,7 @@ public abstract class AbstractProcessor {
                 }
                 nodeTable.addColumn(col.getId(), col.getTitle(), typeClass, Origin.DATA, col.getDefaultValue(), !col.isDynamic());
             }
+            columnMapping.put(col, nodeTable.getColumn(col.getId()));
         }
         Table edgeTable = graphModel.getEdgeTable();
         for (ColumnDraft col : container.getEdgeColumns()) {
@@ -96,6 +103,7 @@ public abstract class AbstractProcessor {
                 }
                 edgeTable.addColumn(col.getId(), col.getTitle(), typeClass, Origin.DATA, col.getDefaultValue(), !col.isDynamic());
             }
+            columnMapping.put(col, edgeTable.getColumn(col.getId()));
         }
     }
 
@@ -180,8 +188,9 @@ public abstract class AbstractProcessor {
             }
             Object val = elementDraft.getValue(col.getId());
             if (val != null) {
+                Column column = getColumn(element, col);
                 TimeMap existingMap;
-                if (col.isDynamic() && (existingMap = (TimeMap) element.getAttribute(col.getId())) != null && !existingMap.isEmpty()) {
+                if (col.isDynamic() && (existingMap = (TimeMap) element.getAttribute(column)) != null && !existingMap.isEmpty()) {
                     TimeMap valMap = (TimeMap) val;
 
                     Object[] keys = existingMap.toKeysArray();
@@ -189,14 +198,23 @@ public abstract class AbstractProcessor {
                     for (int i = 0; i < keys.length; i++) {
                         valMap.put(keys[i], vals[i]);
                     }
-                    element.setAttribute(col.getId(), valMap);
+                    element.setAttribute(column, valMap);
                 } else {
-                    element.setAttribute(col.getId(), val);
+                    element.setAttribute(column, val);
                 }
             }
         }
     }
 
+    private Column getColumn(Element element, ColumnDraft col) {
+        Column column = columnMapping.get(col);
+        if (column == null) {
+            Table table = element instanceof Node ? graphModel.getNodeTable() : graphModel.getEdgeTable();
+            column = table.getColumn(col.getId());
+        }
+        return column;
+    }
+
     protected void flushToEdge(EdgeDraft edgeDraft, Edge edge) {
         if (edgeDraft.getColor() != null) {
             edge.setColor(edgeDraft.getColor());
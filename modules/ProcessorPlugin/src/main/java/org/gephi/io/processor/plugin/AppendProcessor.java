@@ -41,7 +41,11 @@
  */
 package org.gephi.io.processor.plugin;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import org.gephi.io.importer.api.ContainerUnloader;
+import org.gephi.io.processor.spi.IncrementalProcessor;
 import org.gephi.io.processor.spi.Processor;
 import org.gephi.project.api.ProjectController;
 import org.openide.util.Lookup;
@@ -56,22 +60,59 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Mathieu Bastian
  */
 @ServiceProvider(service = Processor.class, position = 20)
-public class AppendProcessor extends DefaultProcessor implements Processor {
+public class AppendProcessor extends DefaultProcessor implements Processor, IncrementalProcessor {
+
+    //Containers already pushed with processContainer()
+    private final Set<ContainerUnloader> processedContainers = Collections.newSetFromMap(new IdentityHashMap<ContainerUnloader, Boolean>());
 
     @Override
     public String getDisplayName() {
         return NbBundle.getMessage(AppendProcessor.class, "AppendProcessor.displayName");
     }
 
+    @Override
+    public void processContainer(ContainerUnloader container) {
+        if (graphModel == null) {
+            openWorkspace(container);
+        }
+        process(container, workspace);
+        processedContainers.add(container);
+    }
+
     @Override
     public void process() {
-        ProjectController pc = Lookup.getDefault().lookup(ProjectController.class);
-        if (containers.length > 1) {
-            throw new RuntimeException("This processor can only handle single containers");
+        try {
+            if (containers.length > 1 && processedContainers.isEmpty()) {
+                throw new RuntimeException("This processor can only handle single containers");
+            }
+
+            for (ContainerUnloader container : containers) {
+                if (!processedContainers.contains(container)) {
+                    //Workspace, already opened if edges have been streamed
+                    if (graphModel == null) {
+                        openWorkspace(container);
+                    }
+
+                    process(container, workspace);
+                }
+            }
+        } finally {
+            reset();
         }
-        ContainerUnloader container = containers[0];
+    }
+
+    @Override
+    public void reset() {
+        processedContainers.clear();
+        workspace = null;
+        graphModel = null;
+        containers = null;
+        progressTicket = null;
+    }
 
-        //Workspace
+    @Override
+    protected void openWorkspace(ContainerUnloader container) {
+        ProjectController pc = Lookup.getDefault().lookup(ProjectController.class);
         if (workspace == null) {
             workspace = pc.getCurrentWorkspace();
             if (workspace == null) {
@@ -84,13 +125,5 @@ public class AppendProcessor extends DefaultProcessor implements Processor {
         if (container.getSource() != null) {
             pc.setSource(workspace, container.getSource());
         }
-
-        process(container, workspace);
-
-        //Clean
-        workspace = null;
-        graphModel = null;
-        containers = null;
-        progressTicket = null;
     }
 }
@@ -41,24 +41,37 @@
  */
 package org.gephi.io.processor.plugin;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.gephi.graph.api.Column;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphController;
 import org.gephi.graph.api.GraphFactory;
+import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.TimeRepresentation;
 import org.gephi.graph.api.types.IntervalDoubleMap;
+import org.gephi.graph.api.types.IntervalSet;
 import org.gephi.graph.api.types.TimestampDoubleMap;
+import org.gephi.graph.api.types.TimestampSet;
 import org.gephi.io.importer.api.ColumnDraft;
 import org.gephi.io.importer.api.ContainerUnloader;
 import org.gephi.io.importer.api.EdgeDirection;
+import org.gephi.io.importer.api.EdgeDirectionDefault;
 import org.gephi.io.importer.api.EdgeDraft;
+import org.gephi.io.importer.api.EdgeWeightMergeStrategy;
 import org.gephi.io.importer.api.ElementIdType;
 import org.gephi.io.importer.api.NodeDraft;
 import org.gephi.io.processor.spi.Processor;
+import org.gephi.io.processor.spi.StreamingProcessor;
 import org.gephi.project.api.ProjectController;
 import org.gephi.project.api.Workspace;
 import org.gephi.utils.progress.Progress;
@@ -73,7 +86,16 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Mathieu Bastian
  */
 @ServiceProvider(service = Processor.class, position = 10)
-public class DefaultProcessor extends AbstractProcessor implements Processor {
+public class DefaultProcessor extends AbstractProcessor implements Processor, StreamingProcessor {
+
+    //Number of elements flushed and added to the graph together
+    private static final int BATCH_SIZE = 1 << 16;
+    //Streaming
+    private int streamedNodes;
+    private int streamedEdges;
+    private Map<Edge, Integer> parallelEdgesCount;
+    //Workspace removals and clears already applied, as edge, node and cleared node counts per container
+    private final Map<ContainerUnloader, int[]> appliedRemovals = new IdentityHashMap<>();
 
     @Override
     public String getDisplayName() {
@@ -87,7 +109,21 @@ public class DefaultProcessor extends AbstractProcessor implements Processor {
         }
         ContainerUnloader container = containers[0];
 
-        //Workspace
+        //Workspace, already opened if edges have been streamed
+        if (graphModel == null) {
+            openWorkspace(container);
+        }
+
+        process(container, workspace);
+
+        //Clean
+        workspace = null;
+        graphModel = null;
+        containers = null;
+        progressTicket = null;
+    }
+
+    protected void openWorkspace(ContainerUnloader container) {
         ProjectController pc = Lookup.getDefault().lookup(ProjectController.class);
         if (workspace == null) {
             workspace = pc.newWorkspace(pc.getCurrentProject());
@@ -98,14 +134,97 @@ public class DefaultProcessor extends AbstractProcessor implements Processor {
         if (container.getSource() != null) {
             pc.setSource(workspace, container.getSource());
         }
+    }
 
-        process(container, workspace);
+    @Override
+    public void processEdges(EdgeDraft[] edges, int count) {
+        if (containers.length > 1) {
+            throw new RuntimeException("This processor can only handle single containers");
+        }
+        ContainerUnloader container = containers[0];
 
-        //Clean
-        workspace = null;
-        graphModel = null;
-        containers = null;
-        progressTicket = null;
+        //Workspace is opened with the first batch
+        if (graphModel == null) {
+            openWorkspace(container);
+            GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
+            graphModel = graphController.getGraphModel(workspace);
+            graphModel.setTimeFormat(container.getTimeFormat());
+            graphModel.setTimeZone(container.getTimeZone());
+            streamedNodes = 0;
+            streamedEdges = 0;
+            parallelEdgesCount = new HashMap<>();
+        }
+
+        //Columns may have been added since the previous batch
+        flushColumns(container);
+
+        Graph graph = graphModel.getGraph();
+        GraphFactory factory = graphModel.factory();
+        ElementIdType elementIdType = container.getElementIdType();
+        ColumnDraft weightColumn = container.getEdgeColumn("weight");
+
+        //Removals pushed since the previous batch, before their replacing edges
+        removeWorkspaceElements(container, graph);
+        boolean dynamicWeight = weightColumn != null && weightColumn.isDynamic();
+
+        graph.writeLock();
+        try {
+            for (int i = 0; i < count; i++) {
+                EdgeDraft draftEdge = edges[i];
+                Node source = getStreamedNode(graph, factory, elementIdType, draftEdge.getSource());
+                Node target = getStreamedNode(graph, factory, elementIdType, draftEdge.getTarget());
+                int edgeType = graphModel.addEdgeType(draftEdge.getType());
+
+                Edge edge = graph.getEdge(source, target, edgeType);
+                if (edge == null) {
+                    Object id = toElementId(elementIdType, draftEdge.getId());
+                    edge = newEdge(container, factory, draftEdge, id, source, target, edgeType);
+                    flushToEdge(draftEdge, edge);
+                    graph.addEdge(edge);
+                    streamedEdges++;
+                } else {
+                    //Parallel edge the container couldn't merge without keeping all edges
+                    if (!dynamicWeight) {
+                        mergeEdgeWeight(container.getEdgesMergeStrategy(), edge, draftEdge.getWeight());
+                    }
+                    flushToEdge(draftEdge, edge);
+                }
+            }
+        } finally {
+            graph.writeUnlock();
+        }
+    }
+
+    private Node getStreamedNode(Graph graph, GraphFactory factory, ElementIdType elementIdType, NodeDraft draftNode) {
+        //Only the id is set now, the node is completed when the container is processed
+        Object id = toElementId(elementIdType, draftNode.getId());
+        Node node = graph.getNode(id);
+        if (node == null) {
+            node = factory.newNode(id);
+            graph.addNode(node);
+            streamedNodes++;
+        }
+        return node;
+    }
+
+    private void mergeEdgeWeight(EdgeWeightMergeStrategy mergeStrategy, Edge edge, double weight) {
+        switch (mergeStrategy) {
+            case AVG:
+                //Weights are summed and divided once all edges are streamed
+                Integer mergedCount = parallelEdgesCount.get(edge);
+                parallelEdgesCount.put(edge, mergedCount != null ? mergedCount + 1 : 2);
+                edge.setWeight(edge.getWeight() + weight);
+                break;
+            case MAX:
+                edge.setWeight(Math.max(edge.getWeight(), weight));
+                break;
+            case MIN:
+                edge.setWeight(Math.min(edge.getWeight(), weight));
+                break;
+            case SUM:
+                edge.setWeight(edge.getWeight() + weight);
+                break;
+        }
     }
 
     protected void processConfiguration(ContainerUnloader container, Workspace workspace) {
@@ -150,67 +269,113 @@ public class DefaultProcessor extends AbstractProcessor implements Processor {
         //Attributes - Creates columns for properties
         flushColumns(container);
 
+        //Workspace elements the container replaces or deletes
+        removeWorkspaceElements(container, graph);
+        appliedRemovals.remove(container);
+
         //Counters
-        int addedNodes = 0, addedEdges = 0;
+        int addedNodes = 0, addedEdges = 0, processed = 0;
 
-        //Create all nodes
         ElementIdType elementIdType = container.getElementIdType();
-        for (NodeDraft draftNode : container.getNodes()) {
-            String idString = draftNode.getId();
-            Object id = toElementId(elementIdType, idString);
-            Node node = graph.getNode(id);
-
-            boolean newNode = false;
-            if (node == null) {
-                node = factory.newNode(id);
-                addedNodes++;
-                newNode = true;
-            }
-            flushToNode(draftNode, node);
-
-            if (newNode) {
-                graph.addNode(node);
+        ParallelFlush parallelFlush = new ParallelFlush();
+        try {
+            //Container ids are unique, nodes are only looked up if the graph already has some
+            boolean lookupNodes = graph.getNodeCount() > 0;
+            Map<NodeDraft, Node> nodeMap = new IdentityHashMap<>(container.getNodeCount());
+            final List<NodeDraft> newNodeDrafts = new ArrayList<>(Math.min(BATCH_SIZE, container.getNodeCount()));
+            final List<Node> newNodes = new ArrayList<>(Math.min(BATCH_SIZE, container.getNodeCount()));
+
+            //Create all nodes, new nodes are flushed in parallel and added batch by batch
+            Iterator<NodeDraft> nodeItr = container.getNodes().iterator();
+            while (nodeItr.hasNext()) {
+                newNodeDrafts.clear();
+                newNodes.clear();
+                for (int batch = 0; batch < BATCH_SIZE && nodeItr.hasNext(); batch++) {
+                    NodeDraft draftNode = nodeItr.next();
+                    Object id = toElementId(elementIdType, draftNode.getId());
+                    Node node = lookupNodes ? graph.getNode(id) : null;
+                    if (node == null) {
+                        node = factory.newNode(id);
+                        newNodeDrafts.add(draftNode);
+                        newNodes.add(node);
+                    } else {
+                        flushToNode(draftNode, node);
+                    }
+                    nodeMap.put(draftNode, node);
+                    processed++;
+                }
+                parallelFlush.flush(newNodes.size(), new ParallelFlush.Range() {
+                    @Override
+                    public void flush(int start, int end) {
+                        for (int i = start; i < end; i++) {
+                            flushToNode(newNodeDrafts.get(i), newNodes.get(i));
+                        }
+                    }
+                });
+                graph.addAllNodes(newNodes);
+                addedNodes += newNodes.size();
+                Progress.progress(progressTicket, processed);
             }
 
-            Progress.progress(progressTicket);
-        }
-
-        //Create all edges and push to data structure
-        for (EdgeDraft draftEdge : container.getEdges()) {
-            String idString = draftEdge.getId();
-            Object id = toElementId(elementIdType, idString);
-            String sourceId = draftEdge.getSource().getId();
-            String targetId = draftEdge.getTarget().getId();
-            Node source = graph.getNode(toElementId(elementIdType, sourceId));
-            Node target = graph.getNode(toElementId(elementIdType, targetId));
-            Object type = draftEdge.getType();
-            int edgeType = graphModel.addEdgeType(type);
-
-            Edge edge = graph.getEdge(source, target, edgeType);
-            boolean newEdge = false;
-            if (edge == null) {
-                switch (container.getEdgeDefault()) {
-                    case DIRECTED:
-                        edge = factory.newEdge(id, source, target, edgeType, draftEdge.getWeight(), true);
-                        break;
-                    case UNDIRECTED:
-                        edge = factory.newEdge(id, source, target, edgeType, draftEdge.getWeight(), false);
-                        break;
-                    case MIXED:
-                        boolean directed = draftEdge.getDirection() == null || !draftEdge.getDirection().equals(EdgeDirection.UNDIRECTED);
-                        edge = factory.newEdge(id, source, target, edgeType, draftEdge.getWeight(), directed);
-                        break;
+            //Without existing edges or mixed directions, container edges are unique and are added batch by batch
+            boolean lookupEdges = graph.getEdgeCount() > 0 || container.getEdgeDefault() == EdgeDirectionDefault.MIXED;
+            final List<EdgeDraft> newEdgeDrafts = new ArrayList<>(Math.min(BATCH_SIZE, container.getEdgeCount()));
+            final List<Edge> newEdges = new ArrayList<>(Math.min(BATCH_SIZE, container.getEdgeCount()));
+
+            //Create all edges and push to data structure
+            Iterator<EdgeDraft> edgeItr = container.getEdges().iterator();
+            while (edgeItr.hasNext()) {
+                newEdgeDrafts.clear();
+                newEdges.clear();
+                for (int batch = 0; batch < BATCH_SIZE && edgeItr.hasNext(); batch++) {
+                    EdgeDraft draftEdge = edgeItr.next();
+                    Node source = getNode(graph, nodeMap, elementIdType, draftEdge.getSource());
+                    Node target = getNode(graph, nodeMap, elementIdType, draftEdge.getTarget());
+                    int edgeType = graphModel.addEdgeType(draftEdge.getType());
+
+                    Edge edge = lookupEdges ? graph.getEdge(source, target, edgeType) : null;
+                    if (edge != null) {
+                        flushToEdge(draftEdge, edge);
+                    } else {
+                        Object id = toElementId(elementIdType, draftEdge.getId());
+                        edge = newEdge(container, factory, draftEdge, id, source, target, edgeType);
+                        if (lookupEdges) {
+                            //Added right away so that later drafts of the same pair find it
+                            flushToEdge(draftEdge, edge);
+                            graph.addEdge(edge);
+                            addedEdges++;
+                        } else {
+                            newEdgeDrafts.add(draftEdge);
+                            newEdges.add(edge);
+                        }
+                    }
+                    processed++;
                 }
-                addedEdges++;
-                newEdge = true;
+                parallelFlush.flush(newEdges.size(), new ParallelFlush.Range() {
+                    @Override
+                    public void flush(int start, int end) {
+                        for (int i = start; i < end; i++) {
+                            flushToEdge(newEdgeDrafts.get(i), newEdges.get(i));
+                        }
+                    }
+                });
+                graph.addAllEdges(newEdges);
+                addedEdges += newEdges.size();
+                Progress.progress(progressTicket, processed);
             }
-            flushToEdge(draftEdge, edge);
+        } finally {
+            parallelFlush.shutdown();
+        }
 
-            if (newEdge) {
-                graph.addEdge(edge);
+        //Streamed edges and the nodes they created
+        if (parallelEdgesCount != null) {
+            for (Map.Entry<Edge, Integer> entry : parallelEdgesCount.entrySet()) {
+                Edge edge = entry.getKey();
+                edge.setWeight(edge.getWeight() / entry.getValue());
             }
-
-            Progress.progress(progressTicket);
+            addedNodes += streamedNodes;
+            addedEdges += streamedEdges;
+            parallelEdgesCount = null;
         }
 
         //Report
@@ -227,6 +392,90 @@ public class DefaultProcessor extends AbstractProcessor implements Processor {
         Progress.finish(progressTicket);
     }
 
+    private void removeWorkspaceElements(ContainerUnloader container, Graph graph) {
+        int[] applied = appliedRemovals.get(container);
+        if (applied == null) {
+            applied = new int[3];
+            appliedRemovals.put(container, applied);
+        }
+        ElementIdType elementIdType = container.getElementIdType();
+        List<String> removedEdges = container.getRemovedWorkspaceEdges();
+        for (int i = applied[0]; i < removedEdges.size(); i++) {
+            Edge edge = graph.getEdge(toElementId(elementIdType, removedEdges.get(i)));
+            if (edge != null) {
+                graph.removeEdge(edge);
+            }
+        }
+        applied[0] = removedEdges.size();
+        List<String> removedNodes = container.getRemovedWorkspaceNodes();
+        for (int i = applied[1]; i < removedNodes.size(); i++) {
+            Node node = graph.getNode(toElementId(elementIdType, removedNodes.get(i)));
+            if (node != null) {
+                graph.removeNode(node);
+            }
+        }
+        applied[1] = removedNodes.size();
+        List<String> clearedNodes = container.getClearedWorkspaceNodes();
+        if (applied[2] < clearedNodes.size()) {
+            graph.writeLock();
+            try {
+                for (int i = applied[2]; i < clearedNodes.size(); i++) {
+                    Node node = graph.getNode(toElementId(elementIdType, clearedNodes.get(i)));
+                    if (node != null) {
+                        clearNode(graph, node);
+                    }
+                }
+            } finally {
+                graph.writeUnlock();
+            }
+        }
+        applied[2] = clearedNodes.size();
+    }
+
+    private void clearNode(Graph graph, Node node) {
+        node.setLabel(null);
+        Object timeSet = node.getAttribute("timeset");
+        if (timeSet instanceof IntervalSet) {
+            for (Interval interval : ((IntervalSet) timeSet).toArray()) {
+                node.removeInterval(interval);
+            }
+        } else if (timeSet instanceof TimestampSet) {
+            for (Double timestamp : ((TimestampSet) timeSet).toArray()) {
+                node.removeTimestamp(timestamp);
+            }
+        }
+        for (Column column : graph.getModel().getNodeTable()) {
+            if (!column.isProperty()) {
+                node.removeAttribute(column);
+            }
+        }
+    }
+
+    private Node getNode(Graph graph, Map<NodeDraft, Node> nodeMap, ElementIdType elementIdType, NodeDraft draftNode) {
+        Node node = nodeMap.get(draftNode);
+        if (node == null) {
+            node = graph.getNode(toElementId(elementIdType, draftNode.getId()));
+        }
+        return node;
+    }
+
+    private Edge newEdge(ContainerUnloader container, GraphFactory factory, EdgeDraft draftEdge, Object id, Node source, Node target, int edgeType) {
+        Edge edge = null;
+        switch (container.getEdgeDefault()) {
+            case DIRECTED:
+                edge = factory.newEdge(id, source, target, edgeType, draftEdge.getWeight(), true);
+                break;
+            case UNDIRECTED:
+                edge = factory.newEdge(id, source, target, edgeType, draftEdge.getWeight(), false);
+                break;
+            case MIXED:
+                boolean directed = draftEdge.getDirection() == null || !draftEdge.getDirection().equals(EdgeDirection.UNDIRECTED);
+                edge = factory.newEdge(id, source, target, edgeType, draftEdge.getWeight(), directed);
+                break;
+        }
+        return edge;
+    }
+
     private Object toElementId(ElementIdType elementIdType, String idString) {
         Object id;
         switch (elementIdType) {
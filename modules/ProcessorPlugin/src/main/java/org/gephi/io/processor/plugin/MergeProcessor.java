@@ -41,7 +41,11 @@
  */
 package org.gephi.io.processor.plugin;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import org.gephi.io.importer.api.ContainerUnloader;
+import org.gephi.io.processor.spi.IncrementalProcessor;
 import org.gephi.io.processor.spi.Processor;
 import org.gephi.project.api.ProjectController;
 import org.openide.util.Lookup;
@@ -55,7 +59,10 @@ import org.openide.util.lookup.ServiceProvider;
  * @author Mathieu Bastian
  */
 @ServiceProvider(service = Processor.class, position = 40)
-public class MergeProcessor extends DefaultProcessor implements Processor {
+public class MergeProcessor extends DefaultProcessor implements Processor, IncrementalProcessor {
+
+    //Containers already pushed with processContainer()
+    private final Set<ContainerUnloader> processedContainers = Collections.newSetFromMap(new IdentityHashMap<ContainerUnloader, Boolean>());
 
     @Override
     public String getDisplayName() {
@@ -63,27 +70,51 @@ public class MergeProcessor extends DefaultProcessor implements Processor {
     }
 
     @Override
-    public void process() {
-        if (containers.length <= 1) {
-            throw new RuntimeException("This processor can only handle multiple containers");
+    public void processContainer(ContainerUnloader container) {
+        if (processedContainers.isEmpty()) {
+            openMergeWorkspace(container);
         }
+        process(container, workspace);
+        processedContainers.add(container);
+    }
 
-        ProjectController pc = Lookup.getDefault().lookup(ProjectController.class);
-        //Workspace
-        if (workspace == null) {
-            workspace = pc.newWorkspace(pc.getCurrentProject());
-            pc.openWorkspace(workspace);
-        }
-        processConfiguration(containers[0], workspace);
+    @Override
+    public void process() {
+        try {
+            if (containers.length <= 1 && processedContainers.isEmpty()) {
+                throw new RuntimeException("This processor can only handle multiple containers");
+            }
 
-        for (ContainerUnloader container : containers) {
-            process(container, workspace);
+            if (processedContainers.isEmpty()) {
+                openMergeWorkspace(containers[0]);
+            }
+
+            for (ContainerUnloader container : containers) {
+                if (!processedContainers.contains(container)) {
+                    process(container, workspace);
+                }
+            }
+        } finally {
+            reset();
         }
+    }
 
-        //Clean
+    @Override
+    public void reset() {
+        processedContainers.clear();
         workspace = null;
         graphModel = null;
         containers = null;
         progressTicket = null;
     }
+
+    private void openMergeWorkspace(ContainerUnloader container) {
+        ProjectController pc = Lookup.getDefault().lookup(ProjectController.class);
+        //Workspace
+        if (workspace == null) {
+            workspace = pc.newWorkspace(pc.getCurrentProject());
+            pc.openWorkspace(workspace);
+        }
+        processConfiguration(container, workspace);
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.io.processor.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Flushes a batch of drafts onto elements that are not yet in the graph, on
+ * several threads.
+ * <p>
+ * Elements outside the graph don't update any graph index when their
+ * properties are set, so contiguous chunks of a batch can be flushed
+ * independently. Small batches are flushed inline. The pool is created with
+ * the first large batch and kept until {@link #shutdown()}.
+ */
+final class ParallelFlush {
+
+    private static final int MIN_CHUNK_SIZE = 1 << 12;
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    private ExecutorService executor;
+
+    interface Range {
+
+        void flush(int start, int end);
+    }
+
+    void flush(int size, final Range range) {
+        int chunkCount = Math.min(threads, size / MIN_CHUNK_SIZE);
+        if (chunkCount <= 1) {
+            range.flush(0, size);
+            return;
+        }
+
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "Import processor flush");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int start = 0; start < size; start += chunkSize) {
+            final int chunkStart = start;
+            final int chunkEnd = Math.min(size, start + chunkSize);
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    range.flush(chunkStart, chunkEnd);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -56,6 +56,7 @@ import org.gephi.project.api.Workspace;
 import org.gephi.project.api.WorkspaceListener;
 import org.gephi.statistics.api.*;
 import org.gephi.statistics.spi.DynamicStatistics;
+import org.gephi.statistics.spi.LiveStatistics;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.statistics.spi.StatisticsBuilder;
 import org.gephi.utils.longtask.api.LongTaskExecutor;
@@ -106,6 +107,10 @@ public class StatisticsControllerImpl implements StatisticsController {
 
             @Override
             public void close(Workspace workspace) {
+                StatisticsModelImpl closedModel = workspace.getLookup().lookup(StatisticsModelImpl.class);
+                if (closedModel != null) {
+                    closedModel.disposeLiveStatistics();
+                }
             }
 
             @Override
@@ -159,8 +164,18 @@ public class StatisticsControllerImpl implements StatisticsController {
         } else {
             GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
             GraphModel graphModel = graphController.getGraphModel();
-            statistics.execute(graphModel);
-            model.addReport(statistics);
+            //Live statistics are refreshed holding the same lock
+            synchronized (statistics) {
+                statistics.execute(graphModel);
+                model.addReport(statistics);
+            }
+            if (statistics instanceof LiveStatistics) {
+                if (((LiveStatistics) statistics).isLive()) {
+                    model.addLiveStatistics((LiveStatistics) statistics);
+                } else {
+                    model.removeLiveStatistics(statistics.getClass());
+                }
+            }
         }
     }
 
@@ -48,15 +48,19 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.imageio.ImageIO;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import org.apache.commons.codec.binary.Base64;
 import org.gephi.statistics.api.StatisticsModel;
+import org.gephi.statistics.spi.LiveStatistics;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.statistics.spi.StatisticsBuilder;
 import org.gephi.statistics.spi.StatisticsUI;
@@ -71,15 +75,56 @@ import org.openide.util.Lookup;
  */
 public class StatisticsModelImpl implements StatisticsModel {
 
-    //Model  
+    //Model, reports are also added by the live statistics refresher
     private final Map<Class, String> reportMap;
+    private final Map<Class, LiveStatistics> liveStatisticsMap;
+    private LiveStatisticsRefresher liveRefresher;
 
     public StatisticsModelImpl() {
-        reportMap = new HashMap<>();
+        reportMap = new ConcurrentHashMap<>();
+        liveStatisticsMap = new HashMap<>();
     }
 
     public void addReport(Statistics statistics) {
-        reportMap.put(statistics.getClass(), statistics.getReport());
+        String report = statistics.getReport();
+        if (report != null) {
+            reportMap.put(statistics.getClass(), report);
+        } else {
+            reportMap.remove(statistics.getClass());
+        }
+    }
+
+    public synchronized void addLiveStatistics(LiveStatistics statistics) {
+        LiveStatistics previous = liveStatisticsMap.put(statistics.getClass(), statistics);
+        if (previous != null && previous != statistics) {
+            previous.dispose();
+        }
+        if (liveRefresher == null) {
+            liveRefresher = new LiveStatisticsRefresher(this);
+            liveRefresher.start();
+        }
+    }
+
+    public synchronized void removeLiveStatistics(Class<? extends Statistics> statisticsClass) {
+        LiveStatistics previous = liveStatisticsMap.remove(statisticsClass);
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    public synchronized List<LiveStatistics> getLiveStatistics() {
+        return new ArrayList<>(liveStatisticsMap.values());
+    }
+
+    public synchronized void disposeLiveStatistics() {
+        if (liveRefresher != null) {
+            liveRefresher.setRunning(false);
+            liveRefresher = null;
+        }
+        for (LiveStatistics statistics : liveStatisticsMap.values()) {
+            statistics.dispose();
+        }
+        liveStatisticsMap.clear();
     }
 
     @Override
@@ -0,0 +1,228 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+
+/**
+ * Writes statistics results held in primitive arrays into columns, as a
+ * single batch.
+ * <p>
+ * Results are added column by column while computing, typically under the
+ * graph read lock. Values are aligned with an element array:
+ * <code>values[i]</code> is written to <code>elements[i]</code> and
+ * <code>null</code> elements are skipped. The value conversion to the column
+ * type is chosen once per column instead of once per element.
+ * <p>
+ * {@link #write()} then writes the whole batch while holding the graph write
+ * lock, so readers see all results at once. As the graph read lock can't be
+ * upgraded, it should be released before calling {@link #write()}.
+ */
+public final class ColumnWriter {
+
+    private final Graph graph;
+    private final List<Element[]> elements = new ArrayList<>();
+    private final List<Column> columns = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * Creates a batch writing to the columns of <code>graph</code>.
+     *
+     * @param graph graph to lock while writing
+     */
+    public ColumnWriter(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Returns the nodes of an index map as an array aligned with the indices.
+     *
+     * @param indicies map from node to index, indices should be between
+     * <code>0</code> and <code>indicies.size() - 1</code>
+     * @return node array, where the node at position <code>i</code> has
+     * index <code>i</code>
+     */
+    public static Node[] toNodeArray(Map<Node, Integer> indicies) {
+        Node[] nodes = new Node[indicies.size()];
+        for (Map.Entry<Node, Integer> entry : indicies.entrySet()) {
+            nodes[entry.getValue()] = entry.getKey();
+        }
+        return nodes;
+    }
+
+    /**
+     * Adds <code>values</code> to the batch. The column type should be
+     * <code>Double</code>, <code>Float</code>, <code>Integer</code> or
+     * <code>Long</code>.
+     *
+     * @param elements elements, aligned with values
+     * @param column column to write
+     * @param values values to write
+     * @return this writer
+     * @throws IllegalArgumentException if the arrays don't have the same
+     * length or the column type isn't supported
+     */
+    public ColumnWriter add(Element[] elements, Column column, double[] values) {
+        return add(elements, column, (Object) values, values.length);
+    }
+
+    /**
+     * Adds <code>values</code> to the batch. The column type should be
+     * <code>Integer</code>, <code>Long</code>, <code>Double</code> or
+     * <code>Float</code>.
+     *
+     * @param elements elements, aligned with values
+     * @param column column to write
+     * @param values values to write
+     * @return this writer
+     * @throws IllegalArgumentException if the arrays don't have the same
+     * length or the column type isn't supported
+     */
+    public ColumnWriter add(Element[] elements, Column column, int[] values) {
+        return add(elements, column, (Object) values, values.length);
+    }
+
+    /**
+     * Writes all the values added so far while holding the graph write lock,
+     * and empties the batch. The calling thread shouldn't hold the graph read
+     * lock.
+     */
+    public void write() {
+        if (columns.isEmpty()) {
+            return;
+        }
+        graph.writeLock();
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                Object columnValues = values.get(i);
+                if (columnValues instanceof double[]) {
+                    write(elements.get(i), columns.get(i), (double[]) columnValues);
+                } else {
+                    write(elements.get(i), columns.get(i), (int[]) columnValues);
+                }
+            }
+        } finally {
+            graph.writeUnlock();
+        }
+        elements.clear();
+        columns.clear();
+        values.clear();
+    }
+
+    private ColumnWriter add(Element[] elements, Column column, Object values, int length) {
+        if (elements.length != length) {
+            throw new IllegalArgumentException("Elements and values should have the same length");
+        }
+        Class type = column.getTypeClass();
+        if (!type.equals(Double.class) && !type.equals(Float.class)
+                && !type.equals(Integer.class) && !type.equals(Long.class)) {
+            throw new IllegalArgumentException("Unsupported column type: " + type.getName());
+        }
+        this.elements.add(elements);
+        this.columns.add(column);
+        this.values.add(values);
+        return this;
+    }
+
+    private static void write(Element[] elements, Column column, double[] values) {
+        Class type = column.getTypeClass();
+        if (type.equals(Double.class)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, values[i]);
+                }
+            }
+        } else if (type.equals(Float.class)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, (float) values[i]);
+                }
+            }
+        } else if (type.equals(Integer.class)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, (int) values[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, (long) values[i]);
+                }
+            }
+        }
+    }
+
+    private static void write(Element[] elements, Column column, int[] values) {
+        Class type = column.getTypeClass();
+        if (type.equals(Integer.class)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, values[i]);
+                }
+            }
+        } else if (type.equals(Long.class)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, (long) values[i]);
+                }
+            }
+        } else if (type.equals(Double.class)) {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, (double) values[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != null) {
+                    elements[i].setAttribute(column, (float) values[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.spi;
+
+/**
+ * Statistics that can keep their results up-to-date while the graph changes.
+ * <p>
+ * When live mode is enabled, the statistics observes the graph it was
+ * executed on and only updates the results of the elements touched by the
+ * changes. The statistics controller periodically calls {@link #refresh()}
+ * and refreshes the report when results changed.
+ *
+ * @see Statistics
+ */
+public interface LiveStatistics extends Statistics {
+
+    /**
+     * Enables or disables live mode. Must be set before execution.
+     *
+     * @param live <code>true</code> to keep results up-to-date
+     */
+    public void setLive(boolean live);
+
+    /**
+     * Returns <code>true</code> if live mode is enabled.
+     *
+     * @return <code>true</code> if live mode is enabled
+     */
+    public boolean isLive();
+
+    /**
+     * Applies the graph changes that happened since the last execution or
+     * refresh. Results are only updated for the elements touched by these
+     * changes. The controller calls this method and executes the statistics
+     * holding the statistics monitor, so they never run concurrently.
+     *
+     * @return <code>true</code> if results have been updated,
+     * <code>false</code> otherwise
+     */
+    public boolean refresh();
+
+    /**
+     * Stops observing the graph. Results are no longer updated after this
+     * call.
+     */
+    public void dispose();
+}
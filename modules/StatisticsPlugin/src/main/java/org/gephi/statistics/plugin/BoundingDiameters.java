@@ -0,0 +1,661 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.plugin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
+import org.gephi.statistics.spi.Statistics;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.openide.util.Lookup;
+import org.openide.util.NbBundle;
+
+/**
+ * Computes the exact diameter and radius of the network without the all-pairs
+ * shortest paths of {@link GraphDistance}.
+ * <p>
+ * On undirected networks, each connected component starts with a double
+ * sweep from its highest degree node and then alternates BFS from the nodes
+ * with the largest eccentricity upper bound and the smallest eccentricity
+ * lower bound, pruning nodes whose bounds can't change the diameter or the
+ * radius anymore. Real-world networks typically need a handful of BFS.
+ * <p>
+ * On directed networks, strongly connected components are visited from the
+ * sinks of the condensation up. Inside a component, a forward and a backward
+ * BFS from a node bound the eccentricity of the other nodes of the
+ * component. A node alone in its component is bounded by the eccentricities
+ * of its out-neighbors, which are already known, and only needs a BFS when
+ * these bounds don't settle the diameter or the radius.
+ * <p>
+ * Diameter and radius follow the {@link GraphDistance} definition: the
+ * eccentricity of a node is its largest distance to a reachable node.
+ * <p>
+ * Ref: Frank W. Takes and Walter A. Kosters, Computing the Eccentricity
+ * Distribution of Large Graphs, in Algorithms 6(1):100-118, (2013)
+ */
+public class BoundingDiameters implements Statistics, LongTask {
+
+    public static final String ECCENTRICITY_LOWER = "eccentricitylowerbound";
+    public static final String ECCENTRICITY_UPPER = "eccentricityupperbound";
+    private boolean isDirected;
+    private boolean eccentricityBounds;
+    private boolean isCanceled;
+    private ProgressTicket progress;
+    private int diameter;
+    private int radius;
+    private int bfsCount;
+    //Adjacency
+    private int[] offsets;
+    private int[] neighbors;
+    private int[] inOffsets;
+    private int[] inNeighbors;
+    //BFS
+    private int[] dist;
+    private int[] queue;
+    private int queueSize;
+    //Bounds
+    private int[] eccLower;
+    private int[] eccUpper;
+
+    public BoundingDiameters() {
+        GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
+        if (graphController != null && graphController.getGraphModel() != null) {
+            isDirected = graphController.getGraphModel().isDirected();
+        }
+    }
+
+    @Override
+    public void execute(GraphModel graphModel) {
+        isDirected = isDirected && graphModel.isDirected();
+
+        Graph graph;
+        if (isDirected) {
+            graph = graphModel.getDirectedGraphVisible();
+        } else {
+            graph = graphModel.getUndirectedGraphVisible();
+        }
+        execute(graph);
+    }
+
+    public void execute(Graph graph) {
+        isCanceled = false;
+
+        ColumnWriter writer = new ColumnWriter(graph);
+        graph.readLock();
+        try {
+            HashMap<Node, Integer> indicies = createIndiciesMap(graph);
+
+            calculateDiameterAndRadius(graph, indicies, isDirected);
+
+            if (eccentricityBounds && !isCanceled) {
+                saveCalculatedValues(writer, graph, indicies);
+            }
+        } finally {
+            graph.readUnlock();
+        }
+        writer.write();
+    }
+
+    public HashMap<Node, Integer> createIndiciesMap(Graph graph) {
+        HashMap<Node, Integer> indicies = new HashMap<>();
+        int index = 0;
+        for (Node s : graph.getNodes()) {
+            indicies.put(s, index);
+            index++;
+        }
+        return indicies;
+    }
+
+    /**
+     * Computes the diameter and radius. Results are available with
+     * {@link #getDiameter()} and {@link #getRadius()}.
+     *
+     * @param graph the graph, should be locked by the caller
+     * @param indicies node indices
+     * @param directed <code>true</code> to follow out-edges only
+     */
+    public void calculateDiameterAndRadius(Graph graph, HashMap<Node, Integer> indicies, boolean directed) {
+        int n = indicies.size();
+        diameter = 0;
+        radius = n > 0 ? Integer.MAX_VALUE : 0;
+        bfsCount = 0;
+
+        buildAdjacency(graph, indicies, directed);
+
+        dist = new int[n];
+        queue = new int[n];
+        eccLower = new int[n];
+        eccUpper = new int[n];
+        for (int i = 0; i < n; i++) {
+            dist[i] = -1;
+        }
+
+        Progress.start(progress, n);
+
+        if (directed) {
+            boundDirected(n);
+        } else {
+            int[] component = new int[n];
+            boolean[] visited = new boolean[n];
+            int visitedCount = 0;
+            for (int s = 0; s < n && !isCanceled; s++) {
+                if (!visited[s]) {
+                    bfs(s);
+                    int size = queueSize;
+                    System.arraycopy(queue, 0, component, 0, size);
+                    resetDistances();
+                    for (int i = 0; i < size; i++) {
+                        visited[component[i]] = true;
+                    }
+                    boundComponent(component, size);
+                    visitedCount += size;
+                    Progress.progress(progress, visitedCount);
+                }
+            }
+        }
+
+        offsets = null;
+        neighbors = null;
+        inOffsets = null;
+        inNeighbors = null;
+        dist = null;
+        queue = null;
+    }
+
+    private void boundComponent(int[] nodes, int size) {
+        int[] candidates = new int[size];
+        int highestDegree = nodes[0];
+        for (int i = 0; i < size; i++) {
+            int w = nodes[i];
+            candidates[i] = w;
+            eccLower[w] = 0;
+            eccUpper[w] = Integer.MAX_VALUE;
+            if (degree(w) > degree(highestDegree)) {
+                highestDegree = w;
+            }
+        }
+        if (size == 1) {
+            eccUpper[highestDegree] = 0;
+            radius = Math.min(radius, 0);
+            return;
+        }
+
+        int candidatesCount = size;
+        int diameterLower = 0;
+        int radiusUpper = Integer.MAX_VALUE;
+        int next = highestDegree;
+        boolean firstSweep = true;
+        boolean pickUpper = true;
+
+        while (candidatesCount > 0 && !isCanceled) {
+            int v = next;
+            int ecc = bfs(v);
+            int farthest = queue[queueSize - 1];
+            diameterLower = Math.max(diameterLower, ecc);
+            radiusUpper = Math.min(radiusUpper, ecc);
+
+            //Update bounds and prune candidates
+            int kept = 0;
+            for (int i = 0; i < candidatesCount; i++) {
+                int w = candidates[i];
+                int d = dist[w];
+                eccLower[w] = Math.max(eccLower[w], Math.max(d, ecc - d));
+                eccUpper[w] = Math.min(eccUpper[w], ecc + d);
+                if (eccLower[w] == eccUpper[w]) {
+                    diameterLower = Math.max(diameterLower, eccLower[w]);
+                    radiusUpper = Math.min(radiusUpper, eccUpper[w]);
+                } else {
+                    candidates[kept++] = w;
+                }
+            }
+            candidatesCount = kept;
+            kept = 0;
+            for (int i = 0; i < candidatesCount; i++) {
+                int w = candidates[i];
+                if (eccUpper[w] > diameterLower || eccLower[w] < radiusUpper) {
+                    candidates[kept++] = w;
+                }
+            }
+            candidatesCount = kept;
+            resetDistances();
+
+            //Select next node, double sweep first
+            if (candidatesCount > 0) {
+                if (firstSweep && eccLower[farthest] != eccUpper[farthest]) {
+                    next = farthest;
+                } else {
+                    next = candidates[0];
+                    for (int i = 1; i < candidatesCount; i++) {
+                        int w = candidates[i];
+                        if (pickUpper) {
+                            if (eccUpper[w] > eccUpper[next] || (eccUpper[w] == eccUpper[next] && degree(w) > degree(next))) {
+                                next = w;
+                            }
+                        } else if (eccLower[w] < eccLower[next] || (eccLower[w] == eccLower[next] && degree(w) > degree(next))) {
+                            next = w;
+                        }
+                    }
+                    pickUpper = !pickUpper;
+                }
+                firstSweep = false;
+            }
+        }
+        diameter = Math.max(diameter, diameterLower);
+        radius = Math.min(radius, radiusUpper);
+    }
+
+    private void boundDirected(int n) {
+        buildInAdjacency(n);
+        for (int i = 0; i < n; i++) {
+            eccLower[i] = 0;
+            eccUpper[i] = Integer.MAX_VALUE;
+        }
+
+        int[] order = new int[n];
+        int[] starts = sortByStrongComponents(n, order);
+        int[] forwardDist = new int[n];
+        for (int c = 0; c < starts.length - 1 && !isCanceled; c++) {
+            int start = starts[c];
+            int size = starts[c + 1] - start;
+            if (size == 1) {
+                boundSingleton(order[start]);
+            } else {
+                boundStrongComponent(order, start, size, forwardDist);
+            }
+            Progress.progress(progress, starts[c + 1]);
+        }
+    }
+
+    private void boundSingleton(int v) {
+        //Out-neighbors are in components visited before
+        int outDegree = degree(v);
+        if (outDegree == 0) {
+            eccLower[v] = 0;
+            eccUpper[v] = 0;
+        } else if (outDegree == 1) {
+            int u = neighbors[offsets[v]];
+            eccLower[v] = Math.max(eccLower[v], eccLower[u] + 1);
+            eccUpper[v] = eccUpper[u] + 1;
+        } else {
+            int upper = 0;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                upper = Math.max(upper, eccUpper[neighbors[i]]);
+            }
+            eccLower[v] = Math.max(eccLower[v], 1);
+            eccUpper[v] = upper + 1;
+        }
+
+        if (eccLower[v] != eccUpper[v] && (eccUpper[v] > diameter || eccLower[v] < radius)) {
+            int ecc = bfs(v);
+            resetDistances();
+            eccLower[v] = ecc;
+            eccUpper[v] = ecc;
+        }
+        if (eccLower[v] == eccUpper[v]) {
+            diameter = Math.max(diameter, eccLower[v]);
+            radius = Math.min(radius, eccUpper[v]);
+        }
+    }
+
+    private void boundStrongComponent(int[] order, int start, int size, int[] forwardDist) {
+        int[] candidates = new int[size];
+        int next = order[start];
+        for (int i = 0; i < size; i++) {
+            int w = order[start + i];
+            candidates[i] = w;
+            if (degree(w) + inDegree(w) > degree(next) + inDegree(next)) {
+                next = w;
+            }
+        }
+
+        int candidatesCount = size;
+        boolean pickUpper = true;
+        while (candidatesCount > 0 && !isCanceled) {
+            int v = next;
+            int ecc = bfs(v);
+            for (int i = 0; i < candidatesCount; i++) {
+                forwardDist[candidates[i]] = dist[candidates[i]];
+            }
+            resetDistances();
+            diameter = Math.max(diameter, ecc);
+            radius = Math.min(radius, ecc);
+
+            //Nodes reaching v are at least as eccentric as their distance to v
+            bfs(v, inOffsets, inNeighbors);
+            for (int i = 0; i < queueSize; i++) {
+                int w = queue[i];
+                eccLower[w] = Math.max(eccLower[w], dist[w]);
+            }
+
+            //Nodes of the component reach the same nodes as v
+            int kept = 0;
+            for (int i = 0; i < candidatesCount; i++) {
+                int w = candidates[i];
+                eccLower[w] = Math.max(eccLower[w], ecc - forwardDist[w]);
+                eccUpper[w] = Math.min(eccUpper[w], dist[w] + ecc);
+                if (eccLower[w] == eccUpper[w]) {
+                    diameter = Math.max(diameter, eccLower[w]);
+                    radius = Math.min(radius, eccUpper[w]);
+                } else {
+                    candidates[kept++] = w;
+                }
+            }
+            candidatesCount = kept;
+            kept = 0;
+            for (int i = 0; i < candidatesCount; i++) {
+                int w = candidates[i];
+                if (eccUpper[w] > diameter || eccLower[w] < radius) {
+                    candidates[kept++] = w;
+                }
+            }
+            candidatesCount = kept;
+            resetDistances();
+
+            //Alternate between the largest upper and the smallest lower bound
+            if (candidatesCount > 0) {
+                next = candidates[0];
+                for (int i = 1; i < candidatesCount; i++) {
+                    int w = candidates[i];
+                    if (pickUpper) {
+                        if (eccUpper[w] > eccUpper[next]) {
+                            next = w;
+                        }
+                    } else if (eccLower[w] < eccLower[next]) {
+                        next = w;
+                    }
+                }
+                pickUpper = !pickUpper;
+            }
+        }
+    }
+
+    /**
+     * Groups nodes by strongly connected component in <code>order</code>.
+     * Components come in the order Tarjan's algorithm completes them, which
+     * puts every component after the components it has edges to.
+     *
+     * @return offsets of the components in <code>order</code>, followed by
+     * the node count
+     */
+    private int[] sortByStrongComponents(int n, int[] order) {
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] edgePos = new int[n];
+        int[] callStack = new int[n];
+        int[] stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] starts = new int[n + 1];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int stackSize = 0;
+        int orderSize = 0;
+        int componentCount = 0;
+        for (int s = 0; s < n; s++) {
+            if (index[s] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = s;
+            index[s] = low[s] = counter++;
+            edgePos[s] = offsets[s];
+            stack[stackSize++] = s;
+            onStack[s] = true;
+            while (depth >= 0) {
+                int v = callStack[depth];
+                if (edgePos[v] < offsets[v + 1]) {
+                    int u = neighbors[edgePos[v]++];
+                    if (index[u] < 0) {
+                        index[u] = low[u] = counter++;
+                        edgePos[u] = offsets[u];
+                        stack[stackSize++] = u;
+                        onStack[u] = true;
+                        callStack[++depth] = u;
+                    } else if (onStack[u]) {
+                        low[v] = Math.min(low[v], index[u]);
+                    }
+                } else {
+                    if (low[v] == index[v]) {
+                        starts[componentCount++] = orderSize;
+                        int w;
+                        do {
+                            w = stack[--stackSize];
+                            onStack[w] = false;
+                            order[orderSize++] = w;
+                        } while (w != v);
+                    }
+                    if (--depth >= 0) {
+                        int parent = callStack[depth];
+                        low[parent] = Math.min(low[parent], low[v]);
+                    }
+                }
+            }
+        }
+        starts[componentCount] = n;
+        return Arrays.copyOf(starts, componentCount + 1);
+    }
+
+    private int bfs(int source) {
+        return bfs(source, offsets, neighbors);
+    }
+
+    private int bfs(int source, int[] adjacencyOffsets, int[] adjacency) {
+        bfsCount++;
+        queueSize = 0;
+        queue[queueSize++] = source;
+        dist[source] = 0;
+        int ecc = 0;
+        for (int head = 0; head < queueSize; head++) {
+            int v = queue[head];
+            int d = dist[v] + 1;
+            for (int i = adjacencyOffsets[v]; i < adjacencyOffsets[v + 1]; i++) {
+                int u = adjacency[i];
+                if (dist[u] < 0) {
+                    dist[u] = d;
+                    ecc = d;
+                    queue[queueSize++] = u;
+                }
+            }
+        }
+        return ecc;
+    }
+
+    private void resetDistances() {
+        for (int i = 0; i < queueSize; i++) {
+            dist[queue[i]] = -1;
+        }
+    }
+
+    private int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    private int inDegree(int v) {
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    private void buildInAdjacency(int n) {
+        inOffsets = new int[n + 1];
+        for (int i = 0; i < offsets[n]; i++) {
+            inOffsets[neighbors[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        inNeighbors = new int[offsets[n]];
+        int[] pos = Arrays.copyOf(inOffsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                inNeighbors[pos[neighbors[i]]++] = v;
+            }
+        }
+    }
+
+    private void buildAdjacency(Graph graph, HashMap<Node, Integer> indicies, boolean directed) {
+        int n = indicies.size();
+        offsets = new int[n + 1];
+        Node[] nodes = new Node[n];
+        for (Node node : graph.getNodes()) {
+            int index = indicies.get(node);
+            nodes[index] = node;
+            for (Edge edge : getEdgeIter(graph, node, directed)) {
+                if (!edge.isSelfLoop()) {
+                    offsets[index + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        neighbors = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int pos = offsets[i];
+            for (Edge edge : getEdgeIter(graph, nodes[i], directed)) {
+                if (!edge.isSelfLoop()) {
+                    neighbors[pos++] = indicies.get(graph.getOpposite(nodes[i], edge));
+                }
+            }
+        }
+    }
+
+    private EdgeIterable getEdgeIter(Graph graph, Node v, boolean directed) {
+        if (directed) {
+            return ((DirectedGraph) graph).getOutEdges(v);
+        }
+        return graph.getEdges(v);
+    }
+
+    private void saveCalculatedValues(ColumnWriter writer, Graph graph, HashMap<Node, Integer> indicies) {
+        Table nodeTable = graph.getModel().getNodeTable();
+        Column lowerCol = nodeTable.getColumn(ECCENTRICITY_LOWER);
+        if (lowerCol == null) {
+            lowerCol = nodeTable.addColumn(ECCENTRICITY_LOWER, NbBundle.getMessage(BoundingDiameters.class, "BoundingDiameters.nodecolumn.EccentricityLower"), Integer.class, 0);
+        }
+        Column upperCol = nodeTable.getColumn(ECCENTRICITY_UPPER);
+        if (upperCol == null) {
+            upperCol = nodeTable.addColumn(ECCENTRICITY_UPPER, NbBundle.getMessage(BoundingDiameters.class, "BoundingDiameters.nodecolumn.EccentricityUpper"), Integer.class, 0);
+        }
+        Node[] nodes = ColumnWriter.toNodeArray(indicies);
+        writer.add(nodes, lowerCol, eccLower);
+        writer.add(nodes, upperCol, eccUpper);
+    }
+
+    /**
+     * @return the diameter of the network
+     */
+    public int getDiameter() {
+        return diameter;
+    }
+
+    /**
+     * @return the radius of the network
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return the number of BFS runs needed by the last execution
+     */
+    public int getBfsCount() {
+        return bfsCount;
+    }
+
+    public void setDirected(boolean isDirected) {
+        this.isDirected = isDirected;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    /**
+     * Sets whether the eccentricity lower and upper bounds of each node are
+     * written as node columns. Bounds are exact for the nodes whose
+     * eccentricity has been resolved.
+     *
+     * @param eccentricityBounds <code>true</code> to write bounds
+     */
+    public void setEccentricityBounds(boolean eccentricityBounds) {
+        this.eccentricityBounds = eccentricityBounds;
+    }
+
+    public boolean isEccentricityBounds() {
+        return eccentricityBounds;
+    }
+
+    @Override
+    public String getReport() {
+        return "<HTML> <BODY> <h1>Diameter Report </h1> "
+                + "<hr>"
+                + "<br>"
+                + "<h2> Parameters: </h2>"
+                + "Network Interpretation:  " + (isDirected ? "directed" : "undirected") + "<br />"
+                + "<br /> <h2> Results: </h2>"
+                + "Diameter: " + diameter + "<br />"
+                + "Radius: " + radius + "<br />"
+                + "Number of BFS: " + bfsCount + "<br />"
+                + "<br /><br />" + "<h2> Algorithm: </h2>"
+                + "Frank W. Takes and Walter A. Kosters, <i>Computing the Eccentricity Distribution of Large Graphs</i>, in Algorithms 6(1):100-118, (2013)<br />"
+                + "</BODY> </HTML>";
+    }
+
+    @Override
+    public boolean cancel() {
+        this.isCanceled = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progress = progressTicket;
+    }
+}
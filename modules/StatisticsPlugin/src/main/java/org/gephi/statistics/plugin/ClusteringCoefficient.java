@@ -56,6 +56,7 @@ import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
 import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -259,14 +260,14 @@ public class ClusteringCoefficient implements Statistics, LongTask {
 
         if (isDirected) {
             avgClusteringCoeff = bruteForce(graph);
-        } else {
-            initStartValues(graph);
-            resultValues = computeTriangles(graph, network, triangles, nodeClustering, isDirected);
-            totalTriangles = resultValues.get("triangles").intValue();
-            avgClusteringCoeff = resultValues.get("clusteringCoefficient");
-
+            return;
         }
 
+        initStartValues(graph);
+        resultValues = computeTriangles(graph, network, triangles, nodeClustering, isDirected);
+        totalTriangles = resultValues.get("triangles").intValue();
+        avgClusteringCoeff = resultValues.get("clusteringCoefficient");
+
         //Set results in columns
         Table nodeTable = graph.getModel().getNodeTable();
         Column clusteringCol = nodeTable.getColumn(CLUSTERING_COEFF);
@@ -274,22 +275,22 @@ public class ClusteringCoefficient implements Statistics, LongTask {
             clusteringCol = nodeTable.addColumn(CLUSTERING_COEFF, "Clustering Coefficient", Double.class, new Double(0));
         }
 
-        Column triCount = null;
-        if (!isDirected) {
-            triCount = nodeTable.getColumn("Triangles");
-            if (triCount == null) {
-                triCount = nodeTable.addColumn("Triangles", "Number of triangles", Integer.class, new Integer(0));
-            }
+        Column triCount = nodeTable.getColumn("Triangles");
+        if (triCount == null) {
+            triCount = nodeTable.addColumn("Triangles", "Number of triangles", Integer.class, new Integer(0));
         }
 
+        //Nodes with less than two neighbours keep the column default
+        Node[] nodes = new Node[N];
         for (int v = 0; v < N; v++) {
             if (network[v].length() > 1) {
-                network[v].node.setAttribute(clusteringCol, nodeClustering[v]);
-                if (!isDirected) {
-                    network[v].node.setAttribute(triCount, triangles[v]);
-                }
+                nodes[v] = network[v].node;
             }
         }
+        new ColumnWriter(graph)
+                .add(nodes, clusteringCol, nodeClustering)
+                .add(nodes, triCount, triangles)
+                .write();
     }
 
     public void triangles(Graph graph) {
@@ -580,10 +581,15 @@ public class ClusteringCoefficient implements Statistics, LongTask {
         Column clusteringColumn = initializeAttributeColunms(graph.getModel());
 
         float totalCC = 0;
+        double clusteringCoeff;
+        Node[] nodes;
+        double[] nodeCoefficients;
 
         graph.readLock();
         
         try {
+            nodes = new Node[graph.getNodeCount()];
+            nodeCoefficients = new double[nodes.length];
             Progress.start(progress, graph.getNodeCount());
             int node_count = 0;
             for (Node node : graph.getNodes()) {
@@ -591,7 +597,8 @@ public class ClusteringCoefficient implements Statistics, LongTask {
 
                 if (nodeClusteringCoefficient > -1) {
 
-                    saveCalculatedValue(node, clusteringColumn, nodeClusteringCoefficient);
+                    nodes[node_count] = node;
+                    nodeCoefficients[node_count] = nodeClusteringCoefficient;
 
                     totalCC += nodeClusteringCoefficient;
                 }
@@ -604,12 +611,15 @@ public class ClusteringCoefficient implements Statistics, LongTask {
                 Progress.progress(progress, node_count);
 
             }
-            double clusteringCoeff = totalCC / graph.getNodeCount();
-            
-            return clusteringCoeff;
+            clusteringCoeff = totalCC / graph.getNodeCount();
         } finally {
             graph.readUnlockAll();
         }
+
+        if (clusteringColumn != null) {
+            new ColumnWriter(graph).add(nodes, clusteringColumn, nodeCoefficients).write();
+        }
+        return clusteringCoeff;
     }
 
     private float increaseCCifNesessary(Graph graph, Node neighbor1, Node neighbor2, boolean directed, float nodeCC) {
@@ -672,15 +682,6 @@ public class ClusteringCoefficient implements Statistics, LongTask {
         return clusteringCol;
     }
 
-    private void saveCalculatedValue(Node node, Column clusteringColumn,
-            double nodeClusteringCoefficient) {
-
-        if (clusteringColumn == null) {
-            return;
-        }
-        node.setAttribute(clusteringColumn, nodeClusteringCoefficient);
-    }
-
     @Override
     public String getReport() {
         //distribution of values
@@ -57,6 +57,7 @@ import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.UndirectedGraph;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -98,19 +99,33 @@ public class ConnectedComponents implements Statistics, LongTask {
 
         UndirectedGraph undirectedGraph = graphModel.getUndirectedGraphVisible();
 
+        ColumnWriter writer = new ColumnWriter(undirectedGraph);
         undirectedGraph.readLock();
         try {
-            weaklyConnected(undirectedGraph);
+            weaklyConnected(undirectedGraph, writer);
             if (isDirected) {
                 DirectedGraph directedGraph = graphModel.getDirectedGraphVisible();
-                stronglyConnected(directedGraph, graphModel);
+                stronglyConnected(directedGraph, graphModel, writer);
             }
         } finally {
             undirectedGraph.readUnlock();
         }
+        writer.write();
     }
 
+    /**
+     * Computes weakly connected components and writes them in the
+     * {@link #WEAKLY} node column. The caller must not hold the read lock.
+     *
+     * @param graph the graph
+     */
     public void weaklyConnected(UndirectedGraph graph) {
+        ColumnWriter writer = new ColumnWriter(graph);
+        weaklyConnected(graph, writer);
+        writer.write();
+    }
+
+    private void weaklyConnected(UndirectedGraph graph, ColumnWriter writer) {
         isCanceled = false;
 
         Column componentCol = initializeWeeklyConnectedColumn(graph.getModel());
@@ -119,7 +134,7 @@ public class ConnectedComponents implements Statistics, LongTask {
 
         LinkedList<LinkedList<Node>> components = computeWeeklyConnectedComponents(graph, indicies);
 
-        saveComputedComponents(components, componentCol);
+        saveComputedComponents(writer, components, componentCol, indicies);
 
         fillComponentSizeList(components);
 
@@ -207,14 +222,16 @@ public class ConnectedComponents implements Statistics, LongTask {
         return indicies;
     }
 
-    private void saveComputedComponents(LinkedList<LinkedList<Node>> components, Column componentCol) {
+    private void saveComputedComponents(ColumnWriter writer, LinkedList<LinkedList<Node>> components, Column componentCol, HashMap<Node, Integer> indicies) {
+        int[] componentIds = new int[indicies.size()];
         int i = 0;
         for (LinkedList<Node> component : components) {
             for (Node s : component) {
-                s.setAttribute(componentCol, i);
+                componentIds[indicies.get(s)] = i;
             }
             i++;
         }
+        writer.add(ColumnWriter.toNodeArray(indicies), componentCol, componentIds);
     }
 
     void fillComponentSizeList(LinkedList<LinkedList<Node>> components) {
@@ -233,7 +250,20 @@ public class ConnectedComponents implements Statistics, LongTask {
         return componentCol;
     }
 
+    /**
+     * Computes strongly connected components and writes them in the
+     * {@link #STRONG} node column. The caller must not hold the read lock.
+     *
+     * @param graph the graph
+     * @param graphModel the graph model
+     */
     public void stronglyConnected(DirectedGraph graph, GraphModel graphModel) {
+        ColumnWriter writer = new ColumnWriter(graph);
+        stronglyConnected(graph, graphModel, writer);
+        writer.write();
+    }
+
+    private void stronglyConnected(DirectedGraph graph, GraphModel graphModel, ColumnWriter writer) {
         count = 1;
         stronglyCount = 0;
 
@@ -243,7 +273,7 @@ public class ConnectedComponents implements Statistics, LongTask {
 
         LinkedList<LinkedList<Node>> components = top_tarjans(graph, indicies);
 
-        saveComputedComponents(components, componentCol);
+        saveComputedComponents(writer, components, componentCol, indicies);
 
         stronglyCount = components.size();
     }
@@ -0,0 +1,288 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.plugin;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Map;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
+import org.gephi.statistics.spi.Statistics;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.openide.util.NbBundle;
+
+/**
+ * Computes the core number of every node, which is the largest <i>k</i> such
+ * that the node belongs to the <i>k</i>-core of the graph.
+ * <p>
+ * Uses the Batagelj and Zaversnik bucket algorithm, which runs in
+ * <code>O(m)</code>. Degrees are counted like {@link Graph#getDegree(Node)}.
+ */
+public class CoreNumber implements Statistics, LongTask {
+
+    public static final String CORE = "core";
+    private boolean isCanceled;
+    private ProgressTicket progress;
+    private int maxCore;
+    private Map<Integer, Integer> coreDist;
+
+    @Override
+    public void execute(GraphModel graphModel) {
+        Graph graph = graphModel.getGraphVisible();
+        execute(graph);
+    }
+
+    public void execute(Graph graph) {
+        ColumnWriter writer = new ColumnWriter(graph);
+        graph.readLock();
+        try {
+            computeCoreNumbers(graph, writer);
+        } finally {
+            graph.readUnlockAll();
+        }
+        writer.write();
+    }
+
+    /**
+     * Computes core numbers and writes them in the {@link #CORE} node column.
+     * Takes the write lock to store the values, so the caller must not hold
+     * the read lock.
+     *
+     * @param graph the graph
+     * @return the core number column
+     */
+    public Column computeCoreNumbers(Graph graph) {
+        ColumnWriter writer = new ColumnWriter(graph);
+        Column column = computeCoreNumbers(graph, writer);
+        writer.write();
+        return column;
+    }
+
+    private Column computeCoreNumbers(Graph graph, ColumnWriter writer) {
+        isCanceled = false;
+
+        Column column = initializeAttributeColumn(graph.getModel());
+
+        Map<Node, Integer> indicies = createIndiciesMap(graph);
+        int[] cores = calculateCoreNumbers(graph, indicies);
+        if (!isCanceled) {
+            saveCalculatedValues(writer, column, indicies, cores);
+        }
+        return column;
+    }
+
+    public Map<Node, Integer> createIndiciesMap(Graph graph) {
+        Map<Node, Integer> indicies = new HashMap<>();
+        int index = 0;
+        for (Node s : graph.getNodes()) {
+            indicies.put(s, index);
+            index++;
+        }
+        return indicies;
+    }
+
+    /**
+     * Returns the core number of every node, in the order of
+     * <code>indicies</code>.
+     *
+     * @param graph the graph, should be locked by the caller
+     * @param indicies node indices, as returned by
+     * {@link #createIndiciesMap(Graph)}
+     * @return core numbers, indexed like <code>indicies</code>
+     */
+    public int[] calculateCoreNumbers(Graph graph, Map<Node, Integer> indicies) {
+        int n = indicies.size();
+        Node[] nodes = new Node[n];
+        int[] deg = new int[n];
+        int maxDegree = 0;
+        for (Map.Entry<Node, Integer> entry : indicies.entrySet()) {
+            int i = entry.getValue();
+            nodes[i] = entry.getKey();
+            deg[i] = graph.getDegree(nodes[i]);
+            maxDegree = Math.max(maxDegree, deg[i]);
+        }
+
+        Progress.start(progress, n);
+
+        //Bucket sort nodes by degree
+        int[] bin = new int[maxDegree + 1];
+        for (int i = 0; i < n; i++) {
+            bin[deg[i]]++;
+        }
+        int start = 0;
+        for (int d = 0; d <= maxDegree; d++) {
+            int num = bin[d];
+            bin[d] = start;
+            start += num;
+        }
+        int[] pos = new int[n];
+        int[] vert = new int[n];
+        for (int i = 0; i < n; i++) {
+            pos[i] = bin[deg[i]];
+            vert[pos[i]] = i;
+            bin[deg[i]]++;
+        }
+        for (int d = maxDegree; d > 0; d--) {
+            bin[d] = bin[d - 1];
+        }
+        bin[0] = 0;
+
+        //Peel nodes in increasing degree order
+        for (int i = 0; i < n; i++) {
+            int v = vert[i];
+            for (Edge edge : graph.getEdges(nodes[v])) {
+                if (edge.isSelfLoop()) {
+                    continue;
+                }
+                int u = indicies.get(graph.getOpposite(nodes[v], edge));
+                if (deg[u] > deg[v]) {
+                    int du = deg[u];
+                    int pu = pos[u];
+                    int pw = bin[du];
+                    int w = vert[pw];
+                    if (u != w) {
+                        pos[u] = pw;
+                        vert[pu] = w;
+                        pos[w] = pu;
+                        vert[pw] = u;
+                    }
+                    bin[du]++;
+                    deg[u]--;
+                }
+            }
+            if (isCanceled) {
+                break;
+            }
+            Progress.progress(progress);
+        }
+        return deg;
+    }
+
+    private Column initializeAttributeColumn(GraphModel graphModel) {
+        Table nodeTable = graphModel.getNodeTable();
+        Column coreCol = nodeTable.getColumn(CORE);
+        if (coreCol == null) {
+            coreCol = nodeTable.addColumn(CORE, NbBundle.getMessage(CoreNumber.class, "CoreNumber.nodecolumn.Core"), Integer.class, 0);
+        }
+        return coreCol;
+    }
+
+    private void saveCalculatedValues(ColumnWriter writer, Column column, Map<Node, Integer> indicies, int[] cores) {
+        writer.add(ColumnWriter.toNodeArray(indicies), column, cores);
+
+        coreDist = new HashMap<>();
+        maxCore = 0;
+        for (int core : cores) {
+            maxCore = Math.max(maxCore, core);
+            Integer count = coreDist.get(core);
+            coreDist.put(core, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * Returns the largest core number, also known as the graph degeneracy.
+     *
+     * @return the largest core number
+     */
+    public int getMaxCore() {
+        return maxCore;
+    }
+
+    @Override
+    public String getReport() {
+        if (coreDist == null) {
+            return "";
+        }
+        XYSeries dSeries = ChartUtils.createXYSeries(coreDist, "Core Number Distribution");
+
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(dSeries);
+
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "Core Number Distribution",
+                "Value",
+                "Count",
+                dataset,
+                PlotOrientation.VERTICAL,
+                true,
+                false,
+                false);
+        chart.removeLegend();
+        ChartUtils.decorateChart(chart);
+        ChartUtils.scaleChart(chart, dSeries, false);
+        String imageFile = ChartUtils.renderChart(chart, "core-numbers.png");
+
+        NumberFormat f = new DecimalFormat("#0");
+
+        return "<HTML> <BODY> <h1>Core Number Report </h1> "
+                + "<hr>"
+                + "<br> <h2> Results: </h2>"
+                + "Max Core Number (Degeneracy): " + f.format(maxCore)
+                + "<br /><br />" + imageFile
+                + "<br /><br />" + "<h2> Algorithm: </h2>"
+                + "Vladimir Batagelj and Matjaz Zaversnik, <i>An O(m) Algorithm for Cores Decomposition of Networks</i>, 2003<br />"
+                + "</BODY></HTML>";
+    }
+
+    @Override
+    public boolean cancel() {
+        this.isCanceled = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progress = progressTicket;
+    }
+}
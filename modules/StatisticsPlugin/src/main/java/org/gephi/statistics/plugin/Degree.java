@@ -43,14 +43,22 @@ package org.gephi.statistics.plugin;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphDiff;
 import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.GraphObserver;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Table;
-import org.gephi.statistics.spi.Statistics;
+import org.gephi.statistics.api.ColumnWriter;
+import org.gephi.statistics.spi.LiveStatistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
 import org.gephi.utils.progress.ProgressTicket;
@@ -61,7 +69,7 @@ import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 import org.openide.util.NbBundle;
 
-public class Degree implements Statistics, LongTask {
+public class Degree implements LiveStatistics, LongTask {
 
     public static final String INDEGREE = "indegree";
     public static final String OUTDEGREE = "outdegree";
@@ -83,6 +91,12 @@ public class Degree implements Statistics, LongTask {
     private Map<Integer, Integer> inDegreeDist;
     private Map<Integer, Integer> outDegreeDist;
     private Map<Integer, Integer> degreeDist;
+    /**
+     * Live mode, results are updated incrementally on graph changes.
+     */
+    private boolean live;
+    private GraphObserver graphObserver;
+    private long degreeSum;
 
     /**
      *
@@ -109,15 +123,149 @@ public class Degree implements Statistics, LongTask {
         initializeDegreeDists();
         initializeAttributeColunms(graph.getModel());
 
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
 
         try {
-            avgDegree = calculateAverageDegree(graph, isDirected, true);
+            avgDegree = calculateAverageDegree(graph, isDirected, writer);
 
             graph.setAttribute(AVERAGE_DEGREE, avgDegree);
+
+            dispose();
+            if (live && !isCanceled) {
+                degreeSum = Math.round(avgDegree * (isDirected ? 2.0 : 1.0) * graph.getNodeCount());
+                graphObserver = graph.getModel().createGraphObserver(graph, true);
+                if (graphObserver.isNew()) {
+                    graphObserver.hasGraphChanged();
+                }
+            }
         } finally {
             graph.readUnlockAll();
         }
+        writer.write();
+    }
+
+    @Override
+    public void setLive(boolean live) {
+        this.live = live;
+    }
+
+    @Override
+    public boolean isLive() {
+        return live;
+    }
+
+    @Override
+    public boolean refresh() {
+        GraphObserver observer = graphObserver;
+        if (observer == null || observer.isDestroyed()) {
+            return false;
+        }
+        Graph graph = observer.getGraph();
+        ColumnWriter writer = new ColumnWriter(graph);
+        graph.readLock();
+        try {
+            if (!observer.hasGraphChanged()) {
+                return false;
+            }
+            GraphDiff diff = observer.getDiff();
+            DirectedGraph directedGraph = isDirected ? (DirectedGraph) graph : null;
+
+            Set<Node> removedNodes = new HashSet<>();
+            for (Node n : diff.getRemovedNodes()) {
+                removedNodes.add(n);
+                removeFromDegreeDists(n);
+            }
+
+            Set<Node> touchedNodes = new HashSet<>();
+            for (Edge e : diff.getAddedEdges()) {
+                touchedNodes.add(e.getSource());
+                touchedNodes.add(e.getTarget());
+            }
+            for (Edge e : diff.getRemovedEdges()) {
+                touchedNodes.add(e.getSource());
+                touchedNodes.add(e.getTarget());
+            }
+            touchedNodes.removeAll(removedNodes);
+
+            List<Node> updatedNodes = new ArrayList<>();
+            for (Node n : diff.getAddedNodes()) {
+                touchedNodes.remove(n);
+                updatedNodes.add(n);
+            }
+            for (Node n : touchedNodes) {
+                removeFromDegreeDists(n);
+                updatedNodes.add(n);
+            }
+            updateNodeDegrees(graph, directedGraph, updatedNodes.toArray(new Node[0]), writer);
+
+            int nodeCount = graph.getNodeCount();
+            avgDegree = nodeCount > 0 ? degreeSum / ((isDirected ? 2.0 : 1.0) * nodeCount) : 0.0;
+            graph.setAttribute(AVERAGE_DEGREE, avgDegree);
+        } finally {
+            graph.readUnlock();
+        }
+        writer.write();
+        return true;
+    }
+
+    @Override
+    public void dispose() {
+        if (graphObserver != null && !graphObserver.isDestroyed()) {
+            graphObserver.destroy();
+        }
+        graphObserver = null;
+    }
+
+    private void updateNodeDegrees(Graph graph, DirectedGraph directedGraph, Node[] nodes, ColumnWriter writer) {
+        int[] degrees = new int[nodes.length];
+        int[] inDegrees = new int[nodes.length];
+        int[] outDegrees = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            degrees[i] = calculateDegree(graph, nodes[i]);
+            if (isDirected) {
+                inDegrees[i] = calculateInDegree(directedGraph, nodes[i]);
+                outDegrees[i] = calculateOutDegree(directedGraph, nodes[i]);
+                updateDegreeDists(inDegrees[i], outDegrees[i], degrees[i]);
+            } else {
+                updateDegreeDists(degrees[i]);
+            }
+            degreeSum += degrees[i];
+        }
+
+        Table nodeTable = graph.getModel().getNodeTable();
+        writer.add(nodes, nodeTable.getColumn(DEGREE), degrees);
+        if (isDirected) {
+            writer.add(nodes, nodeTable.getColumn(INDEGREE), inDegrees);
+            writer.add(nodes, nodeTable.getColumn(OUTDEGREE), outDegrees);
+        }
+    }
+
+    private void removeFromDegreeDists(Node n) {
+        //Nodes without a degree value, e.g. cleared by the user, were not counted
+        Integer degree = (Integer) n.getAttribute(DEGREE);
+        decrementDegreeDist(degreeDist, degree);
+        if (isDirected) {
+            decrementDegreeDist(inDegreeDist, (Integer) n.getAttribute(INDEGREE));
+            decrementDegreeDist(outDegreeDist, (Integer) n.getAttribute(OUTDEGREE));
+        }
+        if (degree != null) {
+            degreeSum -= degree;
+        }
+    }
+
+    private void decrementDegreeDist(Map<Integer, Integer> dist, Integer degree) {
+        if (degree == null) {
+            return;
+        }
+        Integer count = dist.get(degree);
+        if (count != null) {
+            if (count > 1) {
+                dist.put(degree, count - 1);
+            } else {
+                dist.remove(degree);
+            }
+        }
     }
 
     protected int calculateInDegree(DirectedGraph directedGraph, Node n) {
@@ -133,6 +281,16 @@ public class Degree implements Statistics, LongTask {
     }
 
     protected double calculateAverageDegree(Graph graph, boolean isDirected, boolean updateAttributes) {
+        ColumnWriter writer = updateAttributes ? new ColumnWriter(graph) : null;
+        double averageDegree = calculateAverageDegree(graph, isDirected, writer);
+        if (writer != null) {
+            writer.write();
+        }
+        return averageDegree;
+    }
+
+    private double calculateAverageDegree(Graph graph, boolean isDirected, ColumnWriter writer) {
+        boolean updateAttributes = writer != null;
         double averageDegree = 0;
 
         DirectedGraph directedGraph = null;
@@ -143,6 +301,21 @@ public class Degree implements Statistics, LongTask {
 
         Progress.start(progress, graph.getNodeCount());
 
+        //Results are collected per node and written column by column at the end
+        Node[] nodes = null;
+        int[] degrees = null;
+        int[] inDegrees = null;
+        int[] outDegrees = null;
+        if (updateAttributes) {
+            nodes = new Node[graph.getNodeCount()];
+            degrees = new int[nodes.length];
+            if (isDirected) {
+                inDegrees = new int[nodes.length];
+                outDegrees = new int[nodes.length];
+            }
+        }
+
+        int i = 0;
         for (Node n : graph.getNodes()) {
             int inDegree = 0;
             int outDegree = 0;
@@ -154,16 +327,18 @@ public class Degree implements Statistics, LongTask {
             degree = calculateDegree(graph, n);
 
             if (updateAttributes) {
-                n.setAttribute(DEGREE, degree);
+                nodes[i] = n;
+                degrees[i] = degree;
                 if (isDirected) {
-                    n.setAttribute(INDEGREE, inDegree);
-                    n.setAttribute(OUTDEGREE, outDegree);
+                    inDegrees[i] = inDegree;
+                    outDegrees[i] = outDegree;
                     updateDegreeDists(inDegree, outDegree, degree);
                 } else {
                     updateDegreeDists(degree);
 
                 }
             }
+            i++;
 
             averageDegree += degree;
 
@@ -173,6 +348,15 @@ public class Degree implements Statistics, LongTask {
             Progress.progress(progress);
         }
 
+        if (updateAttributes) {
+            Table nodeTable = graph.getModel().getNodeTable();
+            writer.add(nodes, nodeTable.getColumn(DEGREE), degrees);
+            if (isDirected) {
+                writer.add(nodes, nodeTable.getColumn(INDEGREE), inDegrees);
+                writer.add(nodes, nodeTable.getColumn(OUTDEGREE), outDegrees);
+            }
+        }
+
         averageDegree /= (isDirected ? 2.0 : 1.0) * graph.getNodeCount();
 
         return averageDegree;
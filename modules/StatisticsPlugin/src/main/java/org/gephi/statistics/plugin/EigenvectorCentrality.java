@@ -52,6 +52,7 @@ import org.gephi.graph.api.GraphController;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -138,6 +139,7 @@ public class EigenvectorCentrality implements Statistics, LongTask {
         Column column = initializeAttributeColunms(graph.getModel());
 
         int N = graph.getNodeCount();
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
         
         try {
@@ -151,10 +153,11 @@ public class EigenvectorCentrality implements Statistics, LongTask {
 
             sumChange = calculateEigenvectorCentrality(graph, centralities, indicies, invIndicies, isDirected, numRuns);
 
-            saveCalculatedValues(graph, column, indicies, centralities);
+            saveCalculatedValues(writer, graph, column, indicies, centralities);
         } finally {
             graph.readUnlock();
         }
+        writer.write();
 
         Progress.finish(progress);
     }
@@ -168,16 +171,16 @@ public class EigenvectorCentrality implements Statistics, LongTask {
         return eigenCol;
     }
 
-    private void saveCalculatedValues(Graph graph, Column attributeColumn, HashMap<Integer, Node> indicies,
+    private void saveCalculatedValues(ColumnWriter writer, Graph graph, Column attributeColumn, HashMap<Integer, Node> indicies,
             double[] eigCenrtalities) {
 
         int N = graph.getNodeCount();
 
+        Node[] nodes = new Node[N];
         for (int i = 0; i < N; i++) {
-            Node s = indicies.get(i);
-
-            s.setAttribute(attributeColumn, eigCenrtalities[i]);
+            nodes[i] = indicies.get(i);
         }
+        writer.add(nodes, attributeColumn, eigCenrtalities);
     }
 
     public void fillIndiciesMaps(Graph graph, double[] eigCentralities, HashMap<Integer, Node> indicies, HashMap<Node, Integer> invIndicies) {
@@ -48,6 +48,7 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Stack;
 import org.gephi.graph.api.*;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.TempDirUtils;
 import org.gephi.utils.TempDirUtils.TempDir;
@@ -169,6 +170,7 @@ public class GraphDistance implements Statistics, LongTask {
 
         initializeAttributeColunms(graph.getModel());
 
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
         try {
             N = graph.getNodeCount();
@@ -184,10 +186,11 @@ public class GraphDistance implements Statistics, LongTask {
             harmonicCloseness = metrics.get(HARMONIC_CLOSENESS);
             betweenness = metrics.get(BETWEENNESS);
 
-            saveCalculatedValues(graph, indicies, eccentricity, betweenness, closeness, harmonicCloseness);
+            saveCalculatedValues(writer, graph, indicies, eccentricity, betweenness, closeness, harmonicCloseness);
         } finally {
             graph.readUnlock();
         }
+        writer.write();
 
     }
 
@@ -367,16 +370,14 @@ public class GraphDistance implements Statistics, LongTask {
         }
     }
 
-    private void saveCalculatedValues(Graph graph, HashMap<Node, Integer> indicies,
+    private void saveCalculatedValues(ColumnWriter writer, Graph graph, HashMap<Node, Integer> indicies,
             double[] nodeEccentricity, double[] nodeBetweenness, double[] nodeCloseness, double[] nodeHarmonicCloseness) {
-        for (Node s : graph.getNodes()) {
-            int s_index = indicies.get(s);
-
-            s.setAttribute(ECCENTRICITY, nodeEccentricity[s_index]);
-            s.setAttribute(CLOSENESS, nodeCloseness[s_index]);
-            s.setAttribute(HARMONIC_CLOSENESS, nodeHarmonicCloseness[s_index]);
-            s.setAttribute(BETWEENNESS, nodeBetweenness[s_index]);
-        }
+        Table nodeTable = graph.getModel().getNodeTable();
+        Node[] nodes = ColumnWriter.toNodeArray(indicies);
+        writer.add(nodes, nodeTable.getColumn(ECCENTRICITY), nodeEccentricity);
+        writer.add(nodes, nodeTable.getColumn(CLOSENESS), nodeCloseness);
+        writer.add(nodes, nodeTable.getColumn(HARMONIC_CLOSENESS), nodeHarmonicCloseness);
+        writer.add(nodes, nodeTable.getColumn(BETWEENNESS), nodeBetweenness);
     }
 
     public void setNormalized(boolean isNormalized) {
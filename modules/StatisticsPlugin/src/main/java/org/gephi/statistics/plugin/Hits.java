@@ -52,6 +52,7 @@ import org.gephi.graph.api.GraphController;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -113,6 +114,7 @@ public class Hits implements Statistics, LongTask {
 
         initializeAttributeColunms(graph.getModel());
 
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
         try {
             int N = graph.getNodeCount();
@@ -123,10 +125,11 @@ public class Hits implements Statistics, LongTask {
 
             calculateHits(graph, hubs, authority, indices, !useUndirected, epsilon);
 
-            saveCalculatedValues(indices, authority, hubs);
+            saveCalculatedValues(writer, graph, indices, authority, hubs);
         } finally {
             graph.readUnlockAll();
         }
+        writer.write();
     }
 
     public void calculateHits(Graph graph, double[] hubValues, double[] authorityValues, Map<Node, Integer> indices, boolean isDirected, double eps) {
@@ -243,13 +246,11 @@ public class Hits implements Statistics, LongTask {
         return true;
     }
 
-    private void saveCalculatedValues(Map<Node, Integer> indices, double[] nodeAuthority, double[] nodeHubs) {
-        for (Node n : indices.keySet()) {
-            int index = indices.get(n);
-
-            n.setAttribute(AUTHORITY, (float) nodeAuthority[index]);
-            n.setAttribute(HUB, (float) nodeHubs[index]);
-        }
+    private void saveCalculatedValues(ColumnWriter writer, Graph graph, Map<Node, Integer> indices, double[] nodeAuthority, double[] nodeHubs) {
+        Table nodeTable = graph.getModel().getNodeTable();
+        Node[] nodes = ColumnWriter.toNodeArray(indices);
+        writer.add(nodes, nodeTable.getColumn(AUTHORITY), nodeAuthority);
+        writer.add(nodes, nodeTable.getColumn(HUB), nodeHubs);
     }
 
     public HashMap<Node, Integer> createIndicesMap(Graph graph) {
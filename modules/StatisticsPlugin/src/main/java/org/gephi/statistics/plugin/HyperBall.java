@@ -0,0 +1,565 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.plugin;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphController;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
+import org.gephi.statistics.spi.Statistics;
+import org.gephi.utils.longtask.spi.LongTask;
+import org.gephi.utils.progress.Progress;
+import org.gephi.utils.progress.ProgressTicket;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.openide.util.Lookup;
+
+/**
+ * Approximates closeness and harmonic closeness centralities, the distance
+ * distribution and the effective diameter with HyperLogLog counters.
+ * <p>
+ * Each node holds a HyperLogLog counter estimating the size of its ball of
+ * radius <i>t</i>. At each iteration, a node's counter is unioned with the
+ * counters of its (out-)neighbors, in parallel over a primitive adjacency.
+ * Iterations stop when no counter changes. Counters use
+ * <code>2 * 2^log2m</code> bytes per node and the relative standard
+ * deviation of the estimates is about <code>1.04 / sqrt(2^log2m)</code>.
+ * <p>
+ * Results are written in the {@link GraphDistance} closeness columns, with the
+ * same definitions.
+ * <p>
+ * Ref: Paolo Boldi and Sebastiano Vigna, In-Core Computation of Geometric
+ * Centralities with HyperBall: A Hundred Billion Nodes and Beyond, in
+ * Proceedings of the 2013 IEEE ICDM Workshops, (2013)
+ */
+public class HyperBall implements Statistics, LongTask {
+
+    public static final int MIN_LOG2M = 4;
+    public static final int MAX_LOG2M = 16;
+    private static final double EFFECTIVE_DIAMETER_ALPHA = 0.9;
+    //Registers are stored in pages of 2^PAGE_BITS bytes, so offsets never overflow
+    private static final int PAGE_BITS = 24;
+    private boolean isDirected;
+    private boolean isCanceled;
+    private ProgressTicket progress;
+    private int log2m = 6;
+    private int threadCount;
+    //Results
+    private double[] closeness;
+    private double[] harmonicCloseness;
+    private List<Double> neighbourhoodFunction;
+    private double effectiveDiameter;
+    private double avgDist;
+    //Adjacency
+    private int[] offsets;
+    private int[] neighbors;
+    //Registers paging, nodes per page depend on the register count
+    private int pageShift;
+    private int pageMask;
+
+    public HyperBall() {
+        GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
+        if (graphController != null && graphController.getGraphModel() != null) {
+            isDirected = graphController.getGraphModel().isDirected();
+        }
+        threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void execute(GraphModel graphModel) {
+        //Directed distances only make sense if the graph is directed
+        isDirected = isDirected && graphModel.isDirected();
+
+        Graph graph;
+        if (isDirected) {
+            graph = graphModel.getDirectedGraphVisible();
+        } else {
+            graph = graphModel.getUndirectedGraphVisible();
+        }
+        execute(graph);
+    }
+
+    public void execute(Graph graph) {
+        isCanceled = false;
+
+        initializeAttributeColunms(graph.getModel());
+
+        ColumnWriter writer = new ColumnWriter(graph);
+        graph.readLock();
+        try {
+            HashMap<Node, Integer> indicies = createIndiciesMap(graph);
+
+            buildAdjacency(graph, indicies, isDirected);
+
+            calculateCentralities(indicies.size());
+
+            if (!isCanceled) {
+                saveCalculatedValues(writer, graph, indicies);
+            }
+        } finally {
+            offsets = null;
+            neighbors = null;
+            graph.readUnlock();
+        }
+        writer.write();
+    }
+
+    public HashMap<Node, Integer> createIndiciesMap(Graph graph) {
+        HashMap<Node, Integer> indicies = new HashMap<>();
+        int index = 0;
+        for (Node s : graph.getNodes()) {
+            indicies.put(s, index);
+            index++;
+        }
+        return indicies;
+    }
+
+    private void calculateCentralities(final int n) {
+        final int m = 1 << log2m;
+        pageShift = PAGE_BITS - log2m;
+        pageMask = (1 << pageShift) - 1;
+        closeness = new double[n];
+        harmonicCloseness = new double[n];
+        neighbourhoodFunction = new ArrayList<>();
+        effectiveDiameter = 0;
+        avgDist = 0;
+
+        final double[] initialEstimates = new double[n];
+        final double[] estimates = new double[n];
+        final double[] distanceSums = new double[n];
+        final double[] harmonicSums = new double[n];
+
+        //Each counter initially contains its own node
+        byte[][] current = allocateRegisters(n, m);
+        byte[][] next = allocateRegisters(n, m);
+        double total = 0;
+        for (int v = 0; v < n; v++) {
+            addNode(current, v, m);
+            initialEstimates[v] = estimate(current, v, m);
+            estimates[v] = initialEstimates[v];
+            total += estimates[v];
+        }
+        neighbourhoodFunction.add(total);
+
+        Progress.start(progress);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        try {
+            int taskCount = Math.min(n, 8 * threadCount);
+            for (int t = 1; !isCanceled; t++) {
+                List<Future<double[]>> futures = new ArrayList<>();
+                for (int task = 0; task < taskCount; task++) {
+                    int from = (int) ((long) n * task / taskCount);
+                    int to = (int) ((long) n * (task + 1) / taskCount);
+                    futures.add(pool.submit(new IterationTask(current, next, from, to, t, m, estimates, distanceSums, harmonicSums)));
+                }
+                total = 0;
+                boolean changed = false;
+                for (Future<double[]> future : futures) {
+                    try {
+                        double[] result = future.get();
+                        total += result[0];
+                        changed |= result[1] > 0;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Unable to compute " + getClass().getSimpleName() + ".", e);
+                    }
+                }
+                if (!changed) {
+                    break;
+                }
+                neighbourhoodFunction.add(total);
+
+                byte[][] swap = current;
+                current = next;
+                next = swap;
+
+                Progress.progress(progress, "Distance " + t);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int v = 0; v < n; v++) {
+            double reachable = estimates[v] - initialEstimates[v];
+            if (reachable > 0 && distanceSums[v] > 0) {
+                closeness[v] = reachable / distanceSums[v];
+                harmonicCloseness[v] = harmonicSums[v] / reachable;
+            }
+        }
+
+        calculateDistanceStatistics();
+    }
+
+    private void calculateDistanceStatistics() {
+        int size = neighbourhoodFunction.size();
+        double pairs = neighbourhoodFunction.get(size - 1);
+        double reachablePairs = pairs - neighbourhoodFunction.get(0);
+        double distanceSum = 0;
+        for (int t = 1; t < size; t++) {
+            distanceSum += t * (neighbourhoodFunction.get(t) - neighbourhoodFunction.get(t - 1));
+        }
+        avgDist = reachablePairs > 0 ? distanceSum / reachablePairs : 0;
+
+        double threshold = EFFECTIVE_DIAMETER_ALPHA * pairs;
+        for (int t = 0; t < size; t++) {
+            double value = neighbourhoodFunction.get(t);
+            if (value >= threshold) {
+                if (t == 0) {
+                    effectiveDiameter = 0;
+                } else {
+                    double previous = neighbourhoodFunction.get(t - 1);
+                    effectiveDiameter = (t - 1) + (threshold - previous) / (value - previous);
+                }
+                break;
+            }
+        }
+    }
+
+    private class IterationTask implements Callable<double[]> {
+
+        private final byte[][] current;
+        private final byte[][] next;
+        private final int from;
+        private final int to;
+        private final int t;
+        private final int m;
+        private final double[] estimates;
+        private final double[] distanceSums;
+        private final double[] harmonicSums;
+
+        public IterationTask(byte[][] current, byte[][] next, int from, int to, int t, int m, double[] estimates, double[] distanceSums, double[] harmonicSums) {
+            this.current = current;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+            this.t = t;
+            this.m = m;
+            this.estimates = estimates;
+            this.distanceSums = distanceSums;
+            this.harmonicSums = harmonicSums;
+        }
+
+        @Override
+        public double[] call() {
+            double total = 0;
+            boolean changed = false;
+            for (int v = from; v < to && !isCanceled; v++) {
+                byte[] nextPage = next[v >>> pageShift];
+                int nextOffset = (v & pageMask) << log2m;
+                System.arraycopy(current[v >>> pageShift], nextOffset, nextPage, nextOffset, m);
+
+                boolean nodeChanged = false;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = neighbors[i];
+                    byte[] page = current[u >>> pageShift];
+                    int offset = (u & pageMask) << log2m;
+                    for (int j = 0; j < m; j++) {
+                        if (page[offset + j] > nextPage[nextOffset + j]) {
+                            nextPage[nextOffset + j] = page[offset + j];
+                            nodeChanged = true;
+                        }
+                    }
+                }
+
+                if (nodeChanged) {
+                    changed = true;
+                    double estimate = estimate(next, v, m);
+                    double delta = estimate - estimates[v];
+                    if (delta > 0) {
+                        distanceSums[v] += t * delta;
+                        harmonicSums[v] += delta / t;
+                        estimates[v] = estimate;
+                    }
+                }
+                total += estimates[v];
+            }
+            return new double[]{total, changed ? 1 : 0};
+        }
+    }
+
+    private byte[][] allocateRegisters(int n, int m) {
+        int pages = (int) (((long) n + pageMask) >>> pageShift);
+        byte[][] registers = new byte[pages][];
+        for (int i = 0; i < pages; i++) {
+            int pageNodes = (int) Math.min(1L << pageShift, n - ((long) i << pageShift));
+            registers[i] = new byte[pageNodes * m];
+        }
+        return registers;
+    }
+
+    private void addNode(byte[][] registers, int v, int m) {
+        long hash = hash(v);
+        int j = (int) (hash >>> (64 - log2m));
+        long w = (hash << log2m) | (1L << (log2m - 1));
+        byte rho = (byte) (Long.numberOfLeadingZeros(w) + 1);
+        byte[] page = registers[v >>> pageShift];
+        int offset = (v & pageMask) << log2m;
+        if (rho > page[offset + j]) {
+            page[offset + j] = rho;
+        }
+    }
+
+    private double estimate(byte[][] registers, int v, int m) {
+        byte[] page = registers[v >>> pageShift];
+        int offset = (v & pageMask) << log2m;
+        double sum = 0;
+        int zeros = 0;
+        for (int j = 0; j < m; j++) {
+            byte r = page[offset + j];
+            sum += Math.scalb(1.0, -r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return estimate;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    private static long hash(long key) {
+        //MurmurHash3 64-bit finalizer
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private void buildAdjacency(Graph graph, HashMap<Node, Integer> indicies, boolean directed) {
+        int n = indicies.size();
+        offsets = new int[n + 1];
+        Node[] nodes = new Node[n];
+        for (Node node : graph.getNodes()) {
+            int index = indicies.get(node);
+            nodes[index] = node;
+            for (Edge edge : getEdgeIter(graph, node, directed)) {
+                if (!edge.isSelfLoop()) {
+                    offsets[index + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        neighbors = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int pos = offsets[i];
+            for (Edge edge : getEdgeIter(graph, nodes[i], directed)) {
+                if (!edge.isSelfLoop()) {
+                    neighbors[pos++] = indicies.get(graph.getOpposite(nodes[i], edge));
+                }
+            }
+        }
+    }
+
+    private EdgeIterable getEdgeIter(Graph graph, Node v, boolean directed) {
+        if (directed) {
+            return ((DirectedGraph) graph).getOutEdges(v);
+        }
+        return graph.getEdges(v);
+    }
+
+    private void initializeAttributeColunms(GraphModel graphModel) {
+        Table nodeTable = graphModel.getNodeTable();
+        if (!nodeTable.hasColumn(GraphDistance.CLOSENESS)) {
+            nodeTable.addColumn(GraphDistance.CLOSENESS, "Closeness Centrality", Double.class, new Double(0));
+        }
+        if (!nodeTable.hasColumn(GraphDistance.HARMONIC_CLOSENESS)) {
+            nodeTable.addColumn(GraphDistance.HARMONIC_CLOSENESS, "Harmonic Closeness Centrality", Double.class, new Double(0));
+        }
+    }
+
+    private void saveCalculatedValues(ColumnWriter writer, Graph graph, HashMap<Node, Integer> indicies) {
+        Table nodeTable = graph.getModel().getNodeTable();
+        Node[] nodes = ColumnWriter.toNodeArray(indicies);
+        writer.add(nodes, nodeTable.getColumn(GraphDistance.CLOSENESS), closeness);
+        writer.add(nodes, nodeTable.getColumn(GraphDistance.HARMONIC_CLOSENESS), harmonicCloseness);
+    }
+
+    /**
+     * Sets the base-2 logarithm of the number of registers per counter,
+     * between {@link #MIN_LOG2M} and {@link #MAX_LOG2M}. Each additional
+     * register doubles memory and reduces the error by about
+     * <code>sqrt(2)</code>.
+     *
+     * @param log2m the base-2 logarithm of the number of registers
+     */
+    public void setLog2m(int log2m) {
+        if (log2m < MIN_LOG2M || log2m > MAX_LOG2M) {
+            throw new IllegalArgumentException("log2m should be between " + MIN_LOG2M + " and " + MAX_LOG2M);
+        }
+        this.log2m = log2m;
+    }
+
+    public int getLog2m() {
+        return log2m;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setDirected(boolean isDirected) {
+        this.isDirected = isDirected;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    /**
+     * @return the approximate average shortest path length
+     */
+    public double getPathLength() {
+        return avgDist;
+    }
+
+    /**
+     * @return the approximate effective diameter, the interpolated distance
+     * within which 90% of the pairs of connected nodes are
+     */
+    public double getEffectiveDiameter() {
+        return effectiveDiameter;
+    }
+
+    /**
+     * Returns the approximate neighbourhood function, where the element at
+     * index <i>t</i> is the number of pairs of nodes at distance <i>t</i> or
+     * less, including pairs of identical nodes.
+     *
+     * @return the neighbourhood function
+     */
+    public List<Double> getNeighbourhoodFunction() {
+        return neighbourhoodFunction;
+    }
+
+    @Override
+    public String getReport() {
+        //Distance distribution
+        Map<Integer, Double> distanceDist = new HashMap<>();
+        for (int t = 1; t < neighbourhoodFunction.size(); t++) {
+            distanceDist.put(t, neighbourhoodFunction.get(t) - neighbourhoodFunction.get(t - 1));
+        }
+        XYSeries dSeries = ChartUtils.createXYSeries(distanceDist, "Distance Distribution");
+
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(dSeries);
+
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "Distance Distribution",
+                "Distance",
+                "Pairs",
+                dataset,
+                PlotOrientation.VERTICAL,
+                true,
+                false,
+                false);
+        chart.removeLegend();
+        ChartUtils.decorateChart(chart);
+        ChartUtils.scaleChart(chart, dSeries, false);
+        String imageFile = ChartUtils.renderChart(chart, "distance-distribution.png");
+
+        NumberFormat f = new DecimalFormat("#0.000");
+
+        return "<HTML> <BODY> <h1>HyperBall Report </h1> "
+                + "<hr>"
+                + "<br>"
+                + "<h2> Parameters: </h2>"
+                + "Network Interpretation:  " + (isDirected ? "directed" : "undirected") + "<br />"
+                + "Registers per counter: " + (1 << log2m) + "<br />"
+                + "<br /> <h2> Results: </h2>"
+                + "Effective Diameter: " + f.format(effectiveDiameter) + "<br />"
+                + "Average Path length: " + f.format(avgDist) + "<br />"
+                + "<br /><br />" + imageFile
+                + "<br /><br />" + "<h2> Algorithm: </h2>"
+                + "Paolo Boldi and Sebastiano Vigna, <i>In-Core Computation of Geometric Centralities with HyperBall: A Hundred Billion Nodes and Beyond</i>, in Proceedings of the 2013 IEEE ICDM Workshops, (2013)<br />"
+                + "</BODY> </HTML>";
+    }
+
+    @Override
+    public boolean cancel() {
+        this.isCanceled = true;
+        return true;
+    }
+
+    @Override
+    public void setProgressTicket(ProgressTicket progressTicket) {
+        this.progress = progressTicket;
+    }
+}
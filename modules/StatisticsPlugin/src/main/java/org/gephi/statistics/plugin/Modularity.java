@@ -50,6 +50,7 @@ import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Table;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -476,6 +477,7 @@ public class Modularity implements Statistics, LongTask {
     public void execute(Graph graph) {
         isCanceled = false;
 
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
         try {
             structure = new Modularity.CommunityStructure(graph);
@@ -490,10 +492,11 @@ public class Modularity implements Statistics, LongTask {
                 modularityResolution = 0;
             }
 
-            saveValues(comStructure, graph, structure);
+            saveValues(writer, comStructure, graph, structure);
         } finally {
             graph.readUnlock();
         }
+        writer.write();
     }
 
     protected HashMap<String, Double> computeModularity(Graph graph, CommunityStructure theStructure, int[] comStructure,
@@ -628,16 +631,13 @@ public class Modularity implements Statistics, LongTask {
         return res;
     }
 
-    private void saveValues(int[] struct, Graph graph, CommunityStructure theStructure) {
+    private void saveValues(ColumnWriter writer, int[] struct, Graph graph, CommunityStructure theStructure) {
         Table nodeTable = graph.getModel().getNodeTable();
         Column modCol = nodeTable.getColumn(MODULARITY_CLASS);
         if (modCol == null) {
             modCol = nodeTable.addColumn(MODULARITY_CLASS, "Modularity Class", Integer.class, 0);
         }
-        for (Node n : graph.getNodes()) {
-            int n_index = theStructure.map.get(n);
-            n.setAttribute(modCol, struct[n_index]);
-        }
+        writer.add(ColumnWriter.toNodeArray(theStructure.map), modCol, struct);
     }
 
     public double getModularity() {
@@ -53,6 +53,7 @@ import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.UndirectedGraph;
+import org.gephi.statistics.api.ColumnWriter;
 import org.gephi.statistics.spi.Statistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
@@ -133,16 +134,18 @@ public class PageRank implements Statistics, LongTask {
 
         Column column = initializeAttributeColunms(graph.getModel());
 
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
         try {
             HashMap<Node, Integer> indicies = createIndiciesMap(graph);
 
             pageranks = calculatePagerank(graph, indicies, isDirected, useEdgeWeight, epsilon, probability);
 
-            saveCalculatedValues(graph, column, indicies, pageranks);
+            saveCalculatedValues(writer, column, indicies, pageranks);
         } finally {
             graph.readUnlockAll();
         }
+        writer.write();
     }
 
     private Column initializeAttributeColunms(GraphModel graphModel) {
@@ -156,13 +159,9 @@ public class PageRank implements Statistics, LongTask {
         return pagerankCol;
     }
 
-    private void saveCalculatedValues(Graph graph, Column attributeColumn, HashMap<Node, Integer> indicies,
+    private void saveCalculatedValues(ColumnWriter writer, Column attributeColumn, HashMap<Node, Integer> indicies,
             double[] nodePagrank) {
-        for (Node s : graph.getNodes()) {
-            int s_index = indicies.get(s);
-
-            s.setAttribute(attributeColumn, nodePagrank[s_index]);
-        }
+        writer.add(ColumnWriter.toNodeArray(indicies), attributeColumn, nodePagrank);
     }
 
     private void setInitialValues(Graph graph, double[] pagerankValues, double[] weights, boolean directed, boolean useWeights) {
@@ -43,15 +43,24 @@ package org.gephi.statistics.plugin;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnObserver;
 import org.gephi.graph.api.DirectedGraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphDiff;
 import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.GraphObserver;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Table;
-import org.gephi.statistics.spi.Statistics;
+import org.gephi.statistics.api.ColumnWriter;
+import org.gephi.statistics.spi.LiveStatistics;
 import org.gephi.utils.longtask.spi.LongTask;
 import org.gephi.utils.progress.Progress;
 import org.gephi.utils.progress.ProgressTicket;
@@ -66,11 +75,12 @@ import org.openide.util.NbBundle;
  *
  * @author Sebastien Heymann
  */
-public class WeightedDegree implements Statistics, LongTask {
+public class WeightedDegree implements LiveStatistics, LongTask {
 
     public static final String WDEGREE = "weighted degree";
     public static final String WINDEGREE = "weighted indegree";
     public static final String WOUTDEGREE = "weighted outdegree";
+    private static final String EDGE_WEIGHT = "weight";
     private boolean isDirected; // only set inside this class
     private boolean isCanceled;
     private ProgressTicket progress;
@@ -78,6 +88,10 @@ public class WeightedDegree implements Statistics, LongTask {
     private Map<Double, Integer> degreeDist;
     private Map<Double, Integer> inDegreeDist;
     private Map<Double, Integer> outDegreeDist;
+    private boolean live;
+    private GraphObserver graphObserver;
+    private ColumnObserver weightObserver;
+    private double wdegreeSum;
 
     public double getAverageDegree() {
         return avgWDegree;
@@ -96,15 +110,129 @@ public class WeightedDegree implements Statistics, LongTask {
         initializeDegreeDists();
         initializeAttributeColunms(graph.getModel());
 
+        ColumnWriter writer = new ColumnWriter(graph);
         graph.readLock();
         try {
-            avgWDegree = calculateAverageWeightedDegree(graph, isDirected, true);
+            avgWDegree = calculateAverageWeightedDegree(graph, isDirected, writer);
+
+            dispose();
+            if (live && !isCanceled) {
+                wdegreeSum = avgWDegree * (isDirected ? 2.0 : 1.0) * graph.getNodeCount();
+                graphObserver = graph.getModel().createGraphObserver(graph, true);
+                if (graphObserver.isNew()) {
+                    graphObserver.hasGraphChanged();
+                }
+                Column weightColumn = graph.getModel().getEdgeTable().getColumn(EDGE_WEIGHT);
+                if (weightColumn != null) {
+                    weightObserver = weightColumn.createColumnObserver(false);
+                }
+            }
         } finally {
             graph.readUnlockAll();
         }
+        writer.write();
+    }
+
+    @Override
+    public void setLive(boolean live) {
+        this.live = live;
+    }
+
+    @Override
+    public boolean isLive() {
+        return live;
+    }
+
+    @Override
+    public boolean refresh() {
+        GraphObserver observer = graphObserver;
+        if (observer == null || observer.isDestroyed()) {
+            return false;
+        }
+        Graph graph = observer.getGraph();
+        ColumnWriter writer = new ColumnWriter(graph);
+        graph.readLock();
+        try {
+            boolean graphChanged = observer.hasGraphChanged();
+            boolean weightChanged = weightObserver != null && !weightObserver.isDestroyed() && weightObserver.hasColumnChanged();
+            if (!graphChanged && !weightChanged) {
+                return false;
+            }
+            DirectedGraph directedGraph = isDirected ? (DirectedGraph) graph : null;
+
+            Node[] updatedNodes;
+            if (weightChanged) {
+                //Weight changes are not part of the graph diff, recompute all nodes
+                if (graphChanged) {
+                    observer.getDiff();
+                }
+                initializeDegreeDists();
+                wdegreeSum = 0;
+                updatedNodes = graph.getNodes().toArray();
+            } else {
+                GraphDiff diff = observer.getDiff();
+
+                Set<Node> removedNodes = new HashSet<>();
+                for (Node n : diff.getRemovedNodes()) {
+                    removedNodes.add(n);
+                    removeFromDegreeDists(n);
+                }
+
+                Set<Node> touchedNodes = new HashSet<>();
+                for (Edge e : diff.getAddedEdges()) {
+                    touchedNodes.add(e.getSource());
+                    touchedNodes.add(e.getTarget());
+                }
+                for (Edge e : diff.getRemovedEdges()) {
+                    touchedNodes.add(e.getSource());
+                    touchedNodes.add(e.getTarget());
+                }
+                touchedNodes.removeAll(removedNodes);
+
+                List<Node> nodes = new ArrayList<>();
+                for (Node n : diff.getAddedNodes()) {
+                    touchedNodes.remove(n);
+                    nodes.add(n);
+                }
+                for (Node n : touchedNodes) {
+                    removeFromDegreeDists(n);
+                    nodes.add(n);
+                }
+                updatedNodes = nodes.toArray(new Node[0]);
+            }
+            updateNodeWeightedDegrees(graph, directedGraph, updatedNodes, writer);
+
+            int nodeCount = graph.getNodeCount();
+            avgWDegree = nodeCount > 0 ? wdegreeSum / ((isDirected ? 2.0 : 1.0) * nodeCount) : 0.0;
+        } finally {
+            graph.readUnlock();
+        }
+        writer.write();
+        return true;
+    }
+
+    @Override
+    public void dispose() {
+        if (graphObserver != null && !graphObserver.isDestroyed()) {
+            graphObserver.destroy();
+        }
+        graphObserver = null;
+        if (weightObserver != null && !weightObserver.isDestroyed()) {
+            weightObserver.destroy();
+        }
+        weightObserver = null;
     }
 
     public double calculateAverageWeightedDegree(Graph graph, boolean isDirected, boolean updateAttributes) {
+        ColumnWriter writer = updateAttributes ? new ColumnWriter(graph) : null;
+        double averageWeightedDegree = calculateAverageWeightedDegree(graph, isDirected, writer);
+        if (writer != null) {
+            writer.write();
+        }
+        return averageWeightedDegree;
+    }
+
+    private double calculateAverageWeightedDegree(Graph graph, boolean isDirected, ColumnWriter writer) {
         double averageWeightedDegree = 0;
 
         DirectedGraph directedGraph = null;
@@ -115,33 +243,23 @@ public class WeightedDegree implements Statistics, LongTask {
 
         Progress.start(progress, graph.getNodeCount());
 
+        //Results are collected per node and written column by column at the end
+        Node[] nodes = new Node[graph.getNodeCount()];
+        double[] wdegrees = new double[nodes.length];
+        double[] winDegrees = isDirected ? new double[nodes.length] : null;
+        double[] woutDegrees = isDirected ? new double[nodes.length] : null;
+        double[] inOut = new double[2];
+
+        int i = 0;
         for (Node n : graph.getNodes()) {
-            double totalWeight = 0;
+            double totalWeight = computeNodeWeightedDegree(graph, directedGraph, isDirected, n, inOut);
+            nodes[i] = n;
+            wdegrees[i] = totalWeight;
             if (isDirected) {
-                double totalInWeight = 0;
-                double totalOutWeight = 0;
-                for (Edge e : directedGraph.getEdges(n)) {
-                    if (e.getSource().equals(n)) {
-                        totalOutWeight += e.getWeight();
-                    }
-                    if (e.getTarget().equals(n)) {
-                        totalInWeight += e.getWeight();
-                    }
-                }
-                totalWeight = totalInWeight + totalOutWeight;
-
-                n.setAttribute(WINDEGREE, totalInWeight);
-                n.setAttribute(WOUTDEGREE, totalOutWeight);
-                n.setAttribute(WDEGREE, totalWeight);
-
-                updateDegreeDists(totalInWeight, totalOutWeight, totalWeight);
-            } else {
-                for (Edge e : graph.getEdges(n)) {
-                    totalWeight += (e.isSelfLoop() ? 2 : 1) * e.getWeight();
-                }
-                n.setAttribute(WDEGREE, totalWeight);
-                updateDegreeDists(totalWeight);
+                winDegrees[i] = inOut[0];
+                woutDegrees[i] = inOut[1];
             }
+            i++;
 
             averageWeightedDegree += totalWeight;
 
@@ -151,12 +269,95 @@ public class WeightedDegree implements Statistics, LongTask {
             Progress.progress(progress);
         }
 
+        if (writer != null) {
+            Table nodeTable = graph.getModel().getNodeTable();
+            if (isDirected) {
+                writer.add(nodes, nodeTable.getColumn(WINDEGREE), winDegrees);
+                writer.add(nodes, nodeTable.getColumn(WOUTDEGREE), woutDegrees);
+            }
+            writer.add(nodes, nodeTable.getColumn(WDEGREE), wdegrees);
+        }
+
         averageWeightedDegree /= (isDirected ? 2.0 : 1.0) * graph.getNodeCount();
 
         return averageWeightedDegree;
 
     }
 
+    private void updateNodeWeightedDegrees(Graph graph, DirectedGraph directedGraph, Node[] nodes, ColumnWriter writer) {
+        double[] wdegrees = new double[nodes.length];
+        double[] winDegrees = new double[nodes.length];
+        double[] woutDegrees = new double[nodes.length];
+        double[] inOut = new double[2];
+        for (int i = 0; i < nodes.length; i++) {
+            wdegrees[i] = computeNodeWeightedDegree(graph, directedGraph, isDirected, nodes[i], inOut);
+            winDegrees[i] = inOut[0];
+            woutDegrees[i] = inOut[1];
+            wdegreeSum += wdegrees[i];
+        }
+
+        Table nodeTable = graph.getModel().getNodeTable();
+        if (isDirected) {
+            writer.add(nodes, nodeTable.getColumn(WINDEGREE), winDegrees);
+            writer.add(nodes, nodeTable.getColumn(WOUTDEGREE), woutDegrees);
+        }
+        writer.add(nodes, nodeTable.getColumn(WDEGREE), wdegrees);
+    }
+
+    private double computeNodeWeightedDegree(Graph graph, DirectedGraph directedGraph, boolean isDirected, Node n, double[] inOut) {
+        double totalWeight = 0;
+        if (isDirected) {
+            double totalInWeight = 0;
+            double totalOutWeight = 0;
+            for (Edge e : directedGraph.getEdges(n)) {
+                if (e.getSource().equals(n)) {
+                    totalOutWeight += e.getWeight();
+                }
+                if (e.getTarget().equals(n)) {
+                    totalInWeight += e.getWeight();
+                }
+            }
+            totalWeight = totalInWeight + totalOutWeight;
+            inOut[0] = totalInWeight;
+            inOut[1] = totalOutWeight;
+
+            updateDegreeDists(totalInWeight, totalOutWeight, totalWeight);
+        } else {
+            for (Edge e : graph.getEdges(n)) {
+                totalWeight += (e.isSelfLoop() ? 2 : 1) * e.getWeight();
+            }
+            updateDegreeDists(totalWeight);
+        }
+        return totalWeight;
+    }
+
+    private void removeFromDegreeDists(Node n) {
+        //Nodes without a degree value, e.g. cleared by the user, were not counted
+        Double wdegree = (Double) n.getAttribute(WDEGREE);
+        decrementDegreeDist(degreeDist, wdegree);
+        if (isDirected) {
+            decrementDegreeDist(inDegreeDist, (Double) n.getAttribute(WINDEGREE));
+            decrementDegreeDist(outDegreeDist, (Double) n.getAttribute(WOUTDEGREE));
+        }
+        if (wdegree != null) {
+            wdegreeSum -= wdegree;
+        }
+    }
+
+    private void decrementDegreeDist(Map<Double, Integer> dist, Double wdegree) {
+        if (wdegree == null) {
+            return;
+        }
+        Integer count = dist.get(wdegree);
+        if (count != null) {
+            if (count > 1) {
+                dist.put(wdegree, count - 1);
+            } else {
+                dist.remove(wdegree);
+            }
+        }
+    }
+
     private void initializeDegreeDists() {
         degreeDist = new HashMap<>();
         inDegreeDist = new HashMap<>();
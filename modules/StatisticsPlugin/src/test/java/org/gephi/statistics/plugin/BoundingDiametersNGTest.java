@@ -0,0 +1,206 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.plugin;
+
+import java.util.Random;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.UndirectedGraph;
+import org.gephi.project.api.ProjectController;
+import org.gephi.project.impl.ProjectControllerImpl;
+import org.openide.util.Lookup;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class BoundingDiametersNGTest {
+
+    private ProjectController pc;
+
+    @BeforeClass
+    public void setUp() {
+        pc = Lookup.getDefault().lookup(ProjectControllerImpl.class);
+    }
+
+    @BeforeMethod
+    public void initialize() {
+        pc.newProject();
+    }
+
+    @AfterMethod
+    public void clean() {
+        pc.closeCurrentProject();
+    }
+
+    @Test
+    public void testPathGraphDiameter() {
+        GraphModel graphModel = GraphGenerator.generatePathUndirectedGraph(6);
+        Graph graph = graphModel.getGraph();
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(false);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), 5);
+        assertEquals(d.getRadius(), 3);
+    }
+
+    @Test
+    public void testCyclicGraphDiameter() {
+        GraphModel graphModel = GraphGenerator.generateCyclicUndirectedGraph(7);
+        Graph graph = graphModel.getGraph();
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(false);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), 3);
+        assertEquals(d.getRadius(), 3);
+    }
+
+    @Test
+    public void testStarGraphDiameter() {
+        GraphModel graphModel = GraphGenerator.generateStarUndirectedGraph(5);
+        Graph graph = graphModel.getGraph();
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(false);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), 2);
+        assertEquals(d.getRadius(), 1);
+        assertTrue(d.getBfsCount() < 6);
+    }
+
+    @Test
+    public void testDisconnectedGraphDiameter() {
+        GraphModel graphModel = GraphGenerator.generatePathUndirectedGraph(4);
+        UndirectedGraph graph = graphModel.getUndirectedGraph();
+        Node n4 = graphModel.factory().newNode("4");
+        Node n5 = graphModel.factory().newNode("5");
+        graph.addNode(n4);
+        graph.addNode(n5);
+        Edge edge = graphModel.factory().newEdge(n4, n5, false);
+        graph.addEdge(edge);
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(false);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), 3);
+        assertEquals(d.getRadius(), 1);
+    }
+
+    @Test
+    public void testDirectedPathGraphDiameter() {
+        GraphModel graphModel = GraphGenerator.generatePathDirectedGraph(4);
+        DirectedGraph graph = graphModel.getDirectedGraph();
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(true);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), 3);
+        assertEquals(d.getRadius(), 0);
+    }
+
+    @Test
+    public void testDirectedCycleDiameter() {
+        GraphModel graphModel = GraphGenerator.generateCyclicDirectedGraph(6);
+        DirectedGraph graph = graphModel.getDirectedGraph();
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(true);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), 5);
+        assertEquals(d.getRadius(), 5);
+    }
+
+    @Test
+    public void testDirectedRandomGraphMatchesGraphDistance() {
+        GraphModel graphModel = GraphGenerator.generateNullDirectedGraph(60);
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = graph.getNodes().toArray();
+        Random random = new Random(7);
+        for (int i = 0; i < 150; i++) {
+            Node source = nodes[random.nextInt(nodes.length)];
+            Node target = nodes[random.nextInt(nodes.length)];
+            if (source != target && graph.getEdge(source, target) == null) {
+                graph.addEdge(graphModel.factory().newEdge(source, target));
+            }
+        }
+
+        GraphDistance distance = new GraphDistance();
+        distance.setDirected(true);
+        distance.execute(graph);
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(true);
+        d.setEccentricityBounds(true);
+        d.execute(graph);
+        assertEquals(d.getDiameter(), (int) distance.getDiameter());
+        assertEquals(d.getRadius(), (int) distance.getRadius());
+        for (Node n : graph.getNodes()) {
+            int lower = (Integer) n.getAttribute(BoundingDiameters.ECCENTRICITY_LOWER);
+            int upper = (Integer) n.getAttribute(BoundingDiameters.ECCENTRICITY_UPPER);
+            double eccentricity = (Double) n.getAttribute(GraphDistance.ECCENTRICITY);
+            assertTrue(lower <= eccentricity && eccentricity <= upper);
+        }
+    }
+
+    @Test
+    public void testEccentricityBounds() {
+        GraphModel graphModel = GraphGenerator.generatePathUndirectedGraph(5);
+        Graph graph = graphModel.getGraph();
+
+        BoundingDiameters d = new BoundingDiameters();
+        d.setDirected(false);
+        d.setEccentricityBounds(true);
+        d.execute(graph);
+        for (Node n : graph.getNodes()) {
+            int lower = (Integer) n.getAttribute(BoundingDiameters.ECCENTRICITY_LOWER);
+            int upper = (Integer) n.getAttribute(BoundingDiameters.ECCENTRICITY_UPPER);
+            assertTrue(lower <= upper);
+        }
+        int middleLower = (Integer) graph.getNode("2").getAttribute(BoundingDiameters.ECCENTRICITY_LOWER);
+        assertTrue(middleLower <= 2);
+    }
+}
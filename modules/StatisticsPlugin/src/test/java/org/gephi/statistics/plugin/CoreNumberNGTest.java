@@ -0,0 +1,147 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.plugin;
+
+import java.util.Map;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.UndirectedGraph;
+import org.gephi.project.api.ProjectController;
+import org.gephi.project.impl.ProjectControllerImpl;
+import org.openide.util.Lookup;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CoreNumberNGTest {
+
+    private ProjectController pc;
+
+    @BeforeClass
+    public void setUp() {
+        pc = Lookup.getDefault().lookup(ProjectControllerImpl.class);
+    }
+
+    @BeforeMethod
+    public void initialize() {
+        pc.newProject();
+    }
+
+    @AfterMethod
+    public void clean() {
+        pc.closeCurrentProject();
+    }
+
+    @Test
+    public void testNullGraphCoreNumber() {
+        GraphModel graphModel = GraphGenerator.generateNullUndirectedGraph(5);
+        Graph graph = graphModel.getGraph();
+
+        CoreNumber c = new CoreNumber();
+        c.execute(graph);
+        assertEquals(graph.getNode("0").getAttribute(CoreNumber.CORE), 0);
+        assertEquals(c.getMaxCore(), 0);
+    }
+
+    @Test
+    public void testCompleteGraphCoreNumber() {
+        GraphModel graphModel = GraphGenerator.generateCompleteUndirectedGraph(5);
+        Graph graph = graphModel.getGraph();
+
+        CoreNumber c = new CoreNumber();
+        Map<Node, Integer> indicies = c.createIndiciesMap(graph);
+        int[] cores = c.calculateCoreNumbers(graph, indicies);
+        for (int core : cores) {
+            assertEquals(core, 4);
+        }
+    }
+
+    @Test
+    public void testStarGraphCoreNumber() {
+        GraphModel graphModel = GraphGenerator.generateStarUndirectedGraph(5);
+        Graph graph = graphModel.getGraph();
+
+        CoreNumber c = new CoreNumber();
+        c.execute(graph);
+        assertEquals(graph.getNode("0").getAttribute(CoreNumber.CORE), 1);
+        assertEquals(graph.getNode("3").getAttribute(CoreNumber.CORE), 1);
+        assertEquals(c.getMaxCore(), 1);
+    }
+
+    @Test
+    public void testCliqueWithTailCoreNumber() {
+        GraphModel graphModel = GraphGenerator.generateCompleteUndirectedGraph(4);
+        UndirectedGraph graph = graphModel.getUndirectedGraph();
+        Node n3 = graph.getNode("3");
+        Node n4 = graphModel.factory().newNode("4");
+        Node n5 = graphModel.factory().newNode("5");
+        graph.addNode(n4);
+        graph.addNode(n5);
+        Edge e34 = graphModel.factory().newEdge(n3, n4, false);
+        Edge e45 = graphModel.factory().newEdge(n4, n5, false);
+        graph.addEdge(e34);
+        graph.addEdge(e45);
+
+        CoreNumber c = new CoreNumber();
+        c.execute(graph);
+        assertEquals(graph.getNode("0").getAttribute(CoreNumber.CORE), 3);
+        assertEquals(n3.getAttribute(CoreNumber.CORE), 3);
+        assertEquals(n4.getAttribute(CoreNumber.CORE), 1);
+        assertEquals(n5.getAttribute(CoreNumber.CORE), 1);
+        assertEquals(c.getMaxCore(), 3);
+    }
+
+    @Test
+    public void testCyclicGraphCoreNumber() {
+        GraphModel graphModel = GraphGenerator.generateCyclicUndirectedGraph(6);
+        Graph graph = graphModel.getGraph();
+
+        CoreNumber c = new CoreNumber();
+        c.execute(graph);
+        for (Node n : graph.getNodes()) {
+            assertEquals(n.getAttribute(CoreNumber.CORE), 2);
+        }
+    }
+}
@@ -223,4 +223,36 @@ public class DegreeNGTest {
         assertEquals(outDegree1, 5);
         assertEquals(degree3, 1);
     }
+
+    @Test
+    public void testLiveDegree() {
+        GraphModel graphModel = GraphGenerator.generatePathUndirectedGraph(3);
+        Graph graph = graphModel.getGraph();
+        Node n0 = graph.getNode("0");
+        Node n2 = graph.getNode("2");
+
+        Degree d = new Degree();
+        d.setLive(true);
+        d.execute(graph);
+        assertEquals(n0.getAttribute(Degree.DEGREE), 1);
+
+        Edge edge = graphModel.factory().newEdge(n0, n2, false);
+        graph.addEdge(edge);
+        assertTrue(d.refresh());
+        assertEquals(n0.getAttribute(Degree.DEGREE), 2);
+        assertEquals(n2.getAttribute(Degree.DEGREE), 2);
+        assertEquals(d.getAverageDegree(), 2.0);
+
+        Node n3 = graphModel.factory().newNode("3");
+        graph.addNode(n3);
+        graph.addEdge(graphModel.factory().newEdge(n3, n0, false));
+        graph.removeNode(n2);
+        assertTrue(d.refresh());
+        assertEquals(n0.getAttribute(Degree.DEGREE), 2);
+        assertEquals(n3.getAttribute(Degree.DEGREE), 1);
+        assertEquals(d.getAverageDegree(), 4.0 / 3.0, 0.0001);
+        assertFalse(d.refresh());
+
+        d.dispose();
+    }
 }
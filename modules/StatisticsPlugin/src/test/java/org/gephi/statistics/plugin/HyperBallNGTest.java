@@ -0,0 +1,145 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.statistics.plugin;
+
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.project.api.ProjectController;
+import org.gephi.project.impl.ProjectControllerImpl;
+import org.openide.util.Lookup;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class HyperBallNGTest {
+
+    private ProjectController pc;
+
+    @BeforeClass
+    public void setUp() {
+        pc = Lookup.getDefault().lookup(ProjectControllerImpl.class);
+    }
+
+    @BeforeMethod
+    public void initialize() {
+        pc.newProject();
+    }
+
+    @AfterMethod
+    public void clean() {
+        pc.closeCurrentProject();
+    }
+
+    @Test
+    public void testPathGraphCloseness() {
+        GraphModel graphModel = GraphGenerator.generatePathUndirectedGraph(5);
+        Graph graph = graphModel.getGraph();
+
+        HyperBall h = new HyperBall();
+        h.setDirected(false);
+        h.setLog2m(10);
+        h.execute(graph);
+
+        Node middle = graph.getNode("2");
+        Node end = graph.getNode("0");
+        double middleCloseness = (Double) middle.getAttribute(GraphDistance.CLOSENESS);
+        double endCloseness = (Double) end.getAttribute(GraphDistance.CLOSENESS);
+        double middleHarmonic = (Double) middle.getAttribute(GraphDistance.HARMONIC_CLOSENESS);
+        assertEquals(middleCloseness, 4.0 / 6.0, 0.05);
+        assertEquals(endCloseness, 4.0 / 10.0, 0.05);
+        assertEquals(middleHarmonic, 3.0 / 4.0, 0.05);
+        assertEquals(h.getNeighbourhoodFunction().size(), 5);
+    }
+
+    @Test
+    public void testStarGraphEffectiveDiameter() {
+        GraphModel graphModel = GraphGenerator.generateStarUndirectedGraph(10);
+        Graph graph = graphModel.getGraph();
+
+        HyperBall h = new HyperBall();
+        h.setDirected(false);
+        h.setLog2m(10);
+        h.execute(graph);
+
+        assertTrue(h.getEffectiveDiameter() > 1.0);
+        assertTrue(h.getEffectiveDiameter() <= 2.0);
+        assertEquals(h.getPathLength(), 200.0 / 110.0, 0.1);
+    }
+
+    @Test
+    public void testMaxLog2mOverSeveralPages() {
+        //At the maximum register count, pages hold 256 nodes
+        GraphModel graphModel = GraphGenerator.generateStarUndirectedGraph(300);
+        Graph graph = graphModel.getGraph();
+
+        HyperBall h = new HyperBall();
+        h.setDirected(false);
+        h.setLog2m(HyperBall.MAX_LOG2M);
+        h.execute(graph);
+
+        assertEquals(h.getPathLength(), 180000.0 / 90300.0, 0.05);
+    }
+
+    @Test
+    public void testDirectedPathGraphCloseness() {
+        GraphModel graphModel = GraphGenerator.generatePathDirectedGraph(3);
+        Graph graph = graphModel.getDirectedGraph();
+
+        HyperBall h = new HyperBall();
+        h.setDirected(true);
+        h.setLog2m(10);
+        h.execute(graph);
+
+        double firstCloseness = (Double) graph.getNode("0").getAttribute(GraphDistance.CLOSENESS);
+        double lastCloseness = (Double) graph.getNode("2").getAttribute(GraphDistance.CLOSENESS);
+        assertEquals(firstCloseness, 2.0 / 3.0, 0.05);
+        assertEquals(lastCloseness, 0.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidLog2m() {
+        HyperBall h = new HyperBall();
+        h.setLog2m(2);
+    }
+}
@@ -230,4 +230,69 @@ public class WeightedDegreeNGTest {
         assertEquals(outDegree1, 5.0);
         assertEquals(degree3, 1.0);
     }
+
+    @Test
+    public void testLiveWeightedDegree() {
+        GraphModel graphModel = GraphGenerator.generatePathDirectedGraph(3);
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node n0 = graph.getNode("0");
+        Node n2 = graph.getNode("2");
+
+        WeightedDegree d = new WeightedDegree();
+        d.setLive(true);
+        d.execute(graph);
+        assertEquals(n0.getAttribute(WeightedDegree.WOUTDEGREE), 1.0);
+
+        Edge edge = graphModel.factory().newEdge(n0, n2, 0, 2.5, true);
+        graph.addEdge(edge);
+        assertTrue(d.refresh());
+        assertEquals(n0.getAttribute(WeightedDegree.WOUTDEGREE), 3.5);
+        assertEquals(n2.getAttribute(WeightedDegree.WINDEGREE), 3.5);
+        assertEquals(n2.getAttribute(WeightedDegree.WDEGREE), 3.5);
+
+        graph.removeEdge(edge);
+        assertTrue(d.refresh());
+        assertEquals(n0.getAttribute(WeightedDegree.WOUTDEGREE), 1.0);
+        assertEquals(n2.getAttribute(WeightedDegree.WDEGREE), 1.0);
+        assertEquals(d.getAverageDegree(), 2.0 / 3.0, 0.0001);
+
+        d.dispose();
+    }
+
+    @Test
+    public void testLiveWeightChange() {
+        GraphModel graphModel = GraphGenerator.generatePathDirectedGraph(3);
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node n0 = graph.getNode("0");
+        Node n1 = graph.getNode("1");
+
+        WeightedDegree d = new WeightedDegree();
+        d.setLive(true);
+        d.execute(graph);
+
+        graph.getEdge(n0, n1).setWeight(4.0);
+        assertTrue(d.refresh());
+        assertEquals(n0.getAttribute(WeightedDegree.WOUTDEGREE), 4.0);
+        assertEquals(n1.getAttribute(WeightedDegree.WDEGREE), 5.0);
+        assertEquals(d.getAverageDegree(), 5.0 / 3.0, 0.0001);
+
+        d.dispose();
+    }
+
+    @Test
+    public void testCalculateWithoutUpdatingAttributes() {
+        GraphModel graphModel = GraphGenerator.generatePathDirectedGraph(3);
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node n0 = graph.getNode("0");
+        Node n1 = graph.getNode("1");
+
+        WeightedDegree d = new WeightedDegree();
+        d.execute(graph);
+
+        graph.getEdge(n0, n1).setWeight(4.0);
+        double avg = d.calculateAverageWeightedDegree(graph, false, false);
+        assertEquals(avg, 10.0 / 3.0, 0.0001);
+        assertEquals(n0.getAttribute(WeightedDegree.WOUTDEGREE), 1.0);
+        assertEquals(n1.getAttribute(WeightedDegree.WDEGREE), 2.0);
+    }
 }
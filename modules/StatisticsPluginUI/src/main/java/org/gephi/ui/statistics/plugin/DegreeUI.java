@@ -56,21 +56,30 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = StatisticsUI.class)
 public class DegreeUI implements StatisticsUI {
 
+    private LiveStatisticsPanel panel;
     private Degree inOutDegree;
 
     @Override
     public JPanel getSettingsPanel() {
-        return null;
+        panel = new LiveStatisticsPanel(NbBundle.getMessage(getClass(), "InOutDegreeUI.name"));
+        return panel;
     }
 
     @Override
     public void setup(Statistics statistics) {
         this.inOutDegree = (Degree) statistics;
+        if (panel != null) {
+            panel.setLive(inOutDegree.isLive());
+        }
     }
 
     @Override
     public void unsetup() {
+        if (panel != null) {
+            inOutDegree.setLive(panel.isLive());
+        }
         inOutDegree = null;
+        panel = null;
     }
 
     @Override
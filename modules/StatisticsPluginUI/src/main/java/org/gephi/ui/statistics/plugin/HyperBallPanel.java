@@ -0,0 +1,158 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.ui.statistics.plugin;
+
+import javax.swing.SpinnerNumberModel;
+import org.gephi.graph.api.GraphController;
+import org.gephi.statistics.plugin.HyperBall;
+import org.openide.util.Lookup;
+
+/**
+ * Settings panel of the HyperBall statistics.
+ */
+public class HyperBallPanel extends javax.swing.JPanel {
+
+    public HyperBallPanel() {
+        initComponents();
+        log2mSpinner.setModel(new SpinnerNumberModel(HyperBall.MIN_LOG2M, HyperBall.MIN_LOG2M, HyperBall.MAX_LOG2M, 1));
+
+        //Disable directed if the graph is undirected
+        GraphController graphController = Lookup.getDefault().lookup(GraphController.class);
+        if (graphController.getGraphModel().isUndirected()) {
+            directedRadioButton.setEnabled(false);
+        }
+    }
+
+    public boolean isDirected() {
+        return directedRadioButton.isSelected();
+    }
+
+    public void setDirected(boolean directed) {
+        directedButtonGroup.setSelected(directed ? directedRadioButton.getModel() : undirectedRadioButton.getModel(), true);
+        if (!directed) {
+            directedRadioButton.setEnabled(false);
+        }
+    }
+
+    public int getLog2m() {
+        return (Integer) log2mSpinner.getValue();
+    }
+
+    public void setLog2m(int log2m) {
+        log2mSpinner.setValue(log2m);
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the
+     * form. WARNING: Do NOT modify this code. The content of this method is
+     * always regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        directedButtonGroup = new javax.swing.ButtonGroup();
+        header = new org.jdesktop.swingx.JXHeader();
+        directedRadioButton = new javax.swing.JRadioButton();
+        undirectedRadioButton = new javax.swing.JRadioButton();
+        log2mLabel = new javax.swing.JLabel();
+        log2mSpinner = new javax.swing.JSpinner();
+        log2mHintLabel = new javax.swing.JLabel();
+
+        header.setDescription(org.openide.util.NbBundle.getMessage(HyperBallPanel.class, "HyperBallPanel.header.description")); // NOI18N
+        header.setTitle(org.openide.util.NbBundle.getMessage(HyperBallPanel.class, "HyperBallPanel.header.title")); // NOI18N
+
+        directedButtonGroup.add(directedRadioButton);
+        directedRadioButton.setText(org.openide.util.NbBundle.getMessage(HyperBallPanel.class, "HyperBallPanel.directedRadioButton.text")); // NOI18N
+
+        directedButtonGroup.add(undirectedRadioButton);
+        undirectedRadioButton.setText(org.openide.util.NbBundle.getMessage(HyperBallPanel.class, "HyperBallPanel.undirectedRadioButton.text")); // NOI18N
+
+        log2mLabel.setText(org.openide.util.NbBundle.getMessage(HyperBallPanel.class, "HyperBallPanel.log2mLabel.text")); // NOI18N
+
+        log2mHintLabel.setForeground(new java.awt.Color(102, 102, 102));
+        log2mHintLabel.setText(org.openide.util.NbBundle.getMessage(HyperBallPanel.class, "HyperBallPanel.log2mHintLabel.text")); // NOI18N
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
+        this.setLayout(layout);
+        layout.setHorizontalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addComponent(header, javax.swing.GroupLayout.DEFAULT_SIZE, 565, Short.MAX_VALUE)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(directedRadioButton)
+                    .addComponent(undirectedRadioButton)
+                    .addGroup(layout.createSequentialGroup()
+                        .addComponent(log2mLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(log2mSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, 60, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addComponent(log2mHintLabel, javax.swing.GroupLayout.DEFAULT_SIZE, 545, Short.MAX_VALUE))
+                .addContainerGap())
+        );
+        layout.setVerticalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addComponent(header, javax.swing.GroupLayout.PREFERRED_SIZE, 80, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(18, 18, 18)
+                .addComponent(directedRadioButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(undirectedRadioButton)
+                .addGap(18, 18, 18)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(log2mLabel)
+                    .addComponent(log2mSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(log2mHintLabel)
+                .addContainerGap(66, Short.MAX_VALUE))
+        );
+    }// </editor-fold>//GEN-END:initComponents
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.ButtonGroup directedButtonGroup;
+    private javax.swing.JRadioButton directedRadioButton;
+    private org.jdesktop.swingx.JXHeader header;
+    private javax.swing.JLabel log2mHintLabel;
+    private javax.swing.JLabel log2mLabel;
+    private javax.swing.JSpinner log2mSpinner;
+    private javax.swing.JRadioButton undirectedRadioButton;
+    // End of variables declaration//GEN-END:variables
+}
@@ -56,21 +56,30 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = StatisticsUI.class)
 public class WeightedDegreeUI implements StatisticsUI {
 
+    private LiveStatisticsPanel panel;
     private WeightedDegree weightedDegree;
 
     @Override
     public JPanel getSettingsPanel() {
-        return null;
+        panel = new LiveStatisticsPanel(NbBundle.getMessage(getClass(), "WeightedDegreeUI.name"));
+        return panel;
     }
 
     @Override
     public void setup(Statistics statistics) {
         this.weightedDegree = (WeightedDegree) statistics;
+        if (panel != null) {
+            panel.setLive(weightedDegree.isLive());
+        }
     }
 
     @Override
     public void unsetup() {
+        if (panel != null) {
+            weightedDegree.setLive(panel.isLive());
+        }
         weightedDegree = null;
+        panel = null;
     }
 
     @Override
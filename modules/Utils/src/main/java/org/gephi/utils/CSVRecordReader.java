@@ -0,0 +1,191 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads CSV records with a {@link FieldTokenizer}. Fields are not trimmed,
+ * quotes are escaped by doubling them and quoted fields can span several
+ * lines. Empty lines are skipped.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class CSVRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final FieldTokenizer tokenizer;
+    private final Map<String, Integer> headerIndices = new HashMap<>();
+    private String[] headers = new String[0];
+
+    /**
+     * Creates a reader.
+     *
+     * @param reader character source
+     * @param separator field separator
+     */
+    public CSVRecordReader(Reader reader, char separator) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        tokenizer = new FieldTokenizer(String.valueOf(separator), "\"", true);
+        tokenizer.setTrimWhitespace(false);
+    }
+
+    /**
+     * Creates a reader for <code>file</code>.
+     *
+     * @param file file to read
+     * @param separator field separator
+     * @param charset file charset
+     * @throws FileNotFoundException if the file can't be opened
+     */
+    public CSVRecordReader(File file, char separator, Charset charset) throws FileNotFoundException {
+        this(new InputStreamReader(new FileInputStream(file), charset), separator);
+    }
+
+    /**
+     * Reads the first record as headers.
+     *
+     * @return true if headers were read, false at the end of the input
+     * @throws IOException if reading fails
+     */
+    public boolean readHeaders() throws IOException {
+        if (!readRecord()) {
+            return false;
+        }
+        headers = new String[tokenizer.getFieldCount()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = tokenizer.getString(i);
+            if (!headerIndices.containsKey(headers[i])) {
+                headerIndices.put(headers[i], i);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the headers read by {@link #readHeaders()}.
+     *
+     * @return headers, empty if not read
+     */
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * Reads the next record. A record continues on the next lines while a
+     * quoted field is open, and each line is scanned once.
+     *
+     * @return true if a record was read, false at the end of the input
+     * @throws IOException if reading fails
+     */
+    public boolean readRecord() throws IOException {
+        String line;
+        boolean open = false;
+        while ((line = reader.readLine()) != null) {
+            if (open) {
+                tokenizer.append(line);
+            } else if (line.isEmpty()) {
+                continue;
+            } else {
+                tokenizer.tokenize(line);
+            }
+            open = tokenizer.isQuoteOpen();
+            if (!open) {
+                return true;
+            }
+        }
+        //Unterminated quote at the end of the input
+        return open;
+    }
+
+    /**
+     * Returns the number of fields of the current record.
+     *
+     * @return number of fields
+     */
+    public int getColumnCount() {
+        return tokenizer.getFieldCount();
+    }
+
+    /**
+     * Returns the field at <code>index</code> in the current record, or an
+     * empty string if the record has fewer fields.
+     *
+     * @param index field index
+     * @return field value
+     */
+    public String get(int index) {
+        if (index < 0 || index >= tokenizer.getFieldCount()) {
+            return "";
+        }
+        return tokenizer.getString(index);
+    }
+
+    /**
+     * Returns the value of the column with the given header in the current
+     * record, or an empty string if there is no such column.
+     *
+     * @param header column header
+     * @return field value
+     */
+    public String get(String header) {
+        Integer index = headerIndices.get(header);
+        return index != null ? get(index) : "";
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException ex) {
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ Copyright 2008-2017 Gephi
+ Website : http://www.gephi.org
+
+ This file is part of Gephi.
+
+ DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+
+ Copyright 2017 Gephi Consortium. All rights reserved.
+
+ The contents of this file are subject to the terms of either the GNU
+ General Public License Version 3 only ("GPL") or the Common
+ Development and Distribution License("CDDL") (collectively, the
+ "License"). You may not use this file except in compliance with the
+ License. You can obtain a copy of the License at
+ http://gephi.org/about/legal/license-notice/
+ or /cddl-1.0.txt and /gpl-3.0.txt. See the License for the
+ specific language governing permissions and limitations under the
+ License.  When distributing the software, include this License Header
+ Notice in each file and include the License files at
+ /cddl-1.0.txt and /gpl-3.0.txt. If applicable, add the following below the
+ License Header, with the fields enclosed by brackets [] replaced by
+ your own identifying information:
+ "Portions Copyrighted [year] [name of copyright owner]"
+
+ If you wish your version of this file to be governed by only the CDDL
+ or only the GPL Version 3, indicate your decision by adding
+ "[Contributor] elects to include this software in this distribution
+ under the [CDDL or GPL Version 3] license." If you do not indicate a
+ single choice of license, a recipient has the option to distribute
+ your version of this file under either the CDDL, the GPL Version 3 or
+ to extend the choice of license to its licensees as provided above.
+ However, if you add GPL Version 3 code and therefore, elected the GPL
+ Version 3 license, then the option applies only if the new code is
+ made subject to such option by the copyright holder.
+
+ Contributor(s):
+
+ Portions Copyrighted 2017 Gephi Consortium.
+ */
+package org.gephi.utils;
+
+import java.util.Arrays;
+
+/**
+ * Quote-aware field scanner for delimited text lines, such as CSV.
+ * <p>
+ * The tokenizer works on a reusable <code>char[]</code> window and only
+ * records field boundaries, so tokenizing a line doesn't allocate. Strings are
+ * created only when asked for with {@link #getString(int)} and numbers can be
+ * parsed directly from the window.
+ * <p>
+ * A field which starts with a quote character ends at the same quote followed
+ * by a delimiter or the end of the line. Quotes inside a field are escaped
+ * either by a backslash or, with <code>doubledQuoteEscape</code>, by doubling
+ * them like in RFC 4180. If a line ends inside a quoted field,
+ * {@link #isQuoteOpen()} returns <code>true</code> and the caller may
+ * {@link #append(CharSequence) append} the next line, which only scans the
+ * new characters.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class FieldTokenizer {
+
+    private static final double[] DOUBLE_POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final float[] FLOAT_POW10 = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    //Settings
+    private final String delimiters;
+    private final String quotes;
+    private final boolean doubledQuoteEscape;
+    private boolean trimWhitespace = true;
+    //Window
+    private char[] chars = new char[256];
+    private int length;
+    //Fields
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private int fieldCount;
+    private boolean quoteOpen;
+    //Open quoted field, to resume scanning
+    private char openQuote;
+    private int openStart;
+    private boolean openEscapes;
+    //Number parsing
+    private long mantissa;
+    private int fractionDigits;
+    private boolean negative;
+
+    /**
+     * Creates a tokenizer.
+     *
+     * @param delimiters characters separating fields
+     * @param quotes characters which can quote a field, may be empty
+     * @param doubledQuoteEscape <code>true</code> if quotes are escaped by
+     * doubling them, <code>false</code> if they are escaped by a backslash
+     */
+    public FieldTokenizer(String delimiters, String quotes, boolean doubledQuoteEscape) {
+        if (delimiters == null || delimiters.isEmpty()) {
+            throw new IllegalArgumentException("At least one delimiter is required");
+        }
+        this.delimiters = delimiters;
+        this.quotes = quotes != null ? quotes : "";
+        this.doubledQuoteEscape = doubledQuoteEscape;
+    }
+
+    /**
+     * Sets whether whitespace around field content is trimmed. Default is
+     * <code>true</code>.
+     *
+     * @param trimWhitespace trim fields
+     */
+    public void setTrimWhitespace(boolean trimWhitespace) {
+        this.trimWhitespace = trimWhitespace;
+    }
+
+    /**
+     * Tokenizes <code>line</code>. The line is copied in the tokenizer window.
+     *
+     * @param line line to tokenize
+     * @return number of fields
+     */
+    public int tokenize(CharSequence line) {
+        int len = line.length();
+        ensureCapacity(len);
+        if (line instanceof String) {
+            ((String) line).getChars(0, len, chars, 0);
+        } else {
+            for (int i = 0; i < len; i++) {
+                chars[i] = line.charAt(i);
+            }
+        }
+        return scan(len);
+    }
+
+    /**
+     * Tokenizes a range of <code>buffer</code>. The range is copied in the
+     * tokenizer window.
+     *
+     * @param buffer characters
+     * @param offset start of the line
+     * @param len length of the line
+     * @return number of fields
+     */
+    public int tokenize(char[] buffer, int offset, int len) {
+        ensureCapacity(len);
+        System.arraycopy(buffer, offset, chars, 0, len);
+        return scan(len);
+    }
+
+    /**
+     * Appends <code>line</code> to the last tokenized line, after a line feed,
+     * and resumes tokenizing in the open quoted field. Characters tokenized
+     * before are not scanned again, so a record spanning many lines is
+     * tokenized in linear time.
+     *
+     * @param line next line
+     * @return number of fields of the whole record
+     * @throws IllegalStateException if no quoted field is open
+     */
+    public int append(CharSequence line) {
+        if (!quoteOpen) {
+            throw new IllegalStateException("No quoted field is open");
+        }
+        int len = line.length();
+        int offset = length + 1;
+        ensureCapacity(offset + len);
+        chars[length] = '\n';
+        if (line instanceof String) {
+            ((String) line).getChars(0, len, chars, offset);
+        } else {
+            for (int i = 0; i < len; i++) {
+                chars[offset + i] = line.charAt(i);
+            }
+        }
+        int resume = length;
+        length = offset + len;
+
+        //Drop the partial field, it's added again when the quote is scanned
+        fieldCount--;
+        quoteOpen = false;
+        int end = scanQuoted(openQuote, openStart, resume, openEscapes);
+        return scanFields(end == -1 ? -1 : nextField(end));
+    }
+
+    private int scan(int len) {
+        length = len;
+        fieldCount = 0;
+        quoteOpen = false;
+        return scanFields(0);
+    }
+
+    //Scans fields from i, the start of a field, or returns if i is -1
+    private int scanFields(int i) {
+        while (i != -1) {
+            if (i < length && isQuote(chars[i])) {
+                int end = scanQuoted(chars[i], i + 1, i + 1, false);
+                i = end == -1 ? -1 : nextField(end);
+            } else {
+                int j = i;
+                while (j < length && !isDelimiter(chars[j])) {
+                    j++;
+                }
+                addField(i, j, false);
+                i = nextField(j);
+            }
+        }
+        return fieldCount;
+    }
+
+    //Scans a quoted field with content from start, resuming at j. Returns the
+    //delimiter position after the field, or -1 if the line ends in the quote
+    private int scanQuoted(char quote, int start, int j, boolean hasEscapes) {
+        int len = length;
+        while (j < len) {
+            char c = chars[j];
+            if (c == quote) {
+                if (doubledQuoteEscape && j + 1 < len && chars[j + 1] == quote) {
+                    hasEscapes = true;
+                    j += 2;
+                    continue;
+                }
+                if (!doubledQuoteEscape && chars[j - 1] == '\\') {
+                    j++;
+                    continue;
+                }
+                if (doubledQuoteEscape || j + 1 == len || isDelimiter(chars[j + 1])) {
+                    addField(start, j, hasEscapes);
+
+                    //Skip anything between the closing quote and the delimiter
+                    int i = j + 1;
+                    while (i < len && !isDelimiter(chars[i])) {
+                        i++;
+                    }
+                    return i;
+                }
+            }
+            j++;
+        }
+
+        //Line ends inside the quote
+        quoteOpen = true;
+        openQuote = quote;
+        openStart = start;
+        openEscapes = hasEscapes;
+        addField(start, len, hasEscapes);
+        return -1;
+    }
+
+    //Skips the delimiter at i, returns the next field start or -1 at the end
+    private int nextField(int i) {
+        if (i >= length) {
+            return -1;
+        }
+        //A delimiter ending the line opens an empty field
+        i++;
+        if (i == length) {
+            addField(length, length, false);
+            return -1;
+        }
+        return i;
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (trimWhitespace) {
+            while (start < end && Character.isWhitespace(chars[start])) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(chars[end - 1])) {
+                end--;
+            }
+        }
+        if (fieldCount == starts.length) {
+            int capacity = fieldCount * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            escaped = Arrays.copyOf(escaped, capacity);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    private boolean isDelimiter(char c) {
+        return delimiters.indexOf(c) != -1;
+    }
+
+    private boolean isQuote(char c) {
+        return quotes.indexOf(c) != -1;
+    }
+
+    private void ensureCapacity(int len) {
+        if (chars.length < len) {
+            chars = Arrays.copyOf(chars, Math.max(len, chars.length * 2));
+        }
+    }
+
+    /**
+     * Returns the number of fields of the last tokenized line.
+     *
+     * @return number of fields
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns true if the last tokenized line ended inside a quoted field.
+     *
+     * @return true if a quote is open, false otherwise
+     */
+    public boolean isQuoteOpen() {
+        return quoteOpen;
+    }
+
+    /**
+     * Returns the field length, in characters.
+     *
+     * @param field field index
+     * @return field length
+     */
+    public int getLength(int field) {
+        checkField(field);
+        return ends[field] - starts[field];
+    }
+
+    /**
+     * Returns true if the field is empty.
+     *
+     * @param field field index
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty(int field) {
+        return getLength(field) == 0;
+    }
+
+    /**
+     * Returns true if the field content is <code>value</code>.
+     *
+     * @param field field index
+     * @param value value to compare with
+     * @param ignoreCase ignore case when comparing
+     * @return true if equal, false otherwise
+     */
+    public boolean contentEquals(int field, String value, boolean ignoreCase) {
+        checkField(field);
+        int start = starts[field];
+        int len = ends[field] - start;
+        if (len != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = chars[start + i];
+            char v = value.charAt(i);
+            if (c != v && !(ignoreCase && Character.toLowerCase(c) == Character.toLowerCase(v))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the field content as a string, with doubled quotes unescaped.
+     *
+     * @param field field index
+     * @return field content
+     */
+    public String getString(int field) {
+        checkField(field);
+        int start = starts[field];
+        int end = ends[field];
+        if (!escaped[field]) {
+            return new String(chars, start, end - start);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            builder.append(c);
+            if (isQuote(c) && i + 1 < end && chars[i + 1] == c) {
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Parses the field as an integer, without creating a string for plain
+     * decimal values.
+     *
+     * @param field field index
+     * @return parsed value
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public int parseInt(int field) {
+        checkField(field);
+        int start = starts[field];
+        int end = ends[field];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 10) {
+            return Integer.parseInt(getString(field));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(getString(field));
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return Integer.parseInt(getString(field));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as a double. Plain decimal values with few digits are
+     * parsed without creating a string, with the same result as
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param field field index
+     * @return parsed value
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double parseDouble(int field) {
+        checkField(field);
+        //Exact mantissa and power of ten, the division is correctly rounded
+        if (parseDecimal(field) && mantissa < (1L << 53) && fractionDigits < DOUBLE_POW10.length) {
+            double value = mantissa / DOUBLE_POW10[fractionDigits];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(getString(field));
+    }
+
+    /**
+     * Parses the field as a float. Plain decimal values with few digits are
+     * parsed without creating a string, with the same result as
+     * {@link Float#parseFloat(String)}.
+     *
+     * @param field field index
+     * @return parsed value
+     * @throws NumberFormatException if the field is not a number
+     */
+    public float parseFloat(int field) {
+        checkField(field);
+        if (parseDecimal(field) && mantissa < (1L << 24) && fractionDigits < FLOAT_POW10.length) {
+            float value = mantissa / FLOAT_POW10[fractionDigits];
+            return negative ? -value : value;
+        }
+        return Float.parseFloat(getString(field));
+    }
+
+    //Reads a plain decimal in mantissa and fractionDigits, false if not plain
+    private boolean parseDecimal(int field) {
+        int end = ends[field];
+        int i = starts[field];
+        negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        mantissa = 0;
+        fractionDigits = -1;
+        int digits = 0;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && fractionDigits == -1) {
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (++digits > 18) {
+                    return false;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits != -1) {
+                    fractionDigits++;
+                }
+            } else {
+                return false;
+            }
+        }
+        fractionDigits = Math.max(fractionDigits, 0);
+        //Let the JDK handle errors and negative zero
+        return digits > 0 && !(negative && mantissa == 0);
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of " + fieldCount);
+        }
+    }
+}